@@ -0,0 +1,91 @@
+package com.makers4.rendering.camera;
+
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import com.makers4.rendering.core.Box3D;
+import com.makers4.rendering.core.BoxBatch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/*******************************************************************************
+ ** Compares the scalar and SIMD projection kernels on batches of boxes.
+ **
+ ** Run with: mvn -Pvector,jmh test-compile exec:exec
+ *******************************************************************************/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "--add-modules", "jdk.incubator.vector" })
+public class ProjectionKernelBenchmark
+{
+   @Param({ "1000", "10000" })
+   private int boxCount;
+
+   private double[]         matrix;
+   private BoxBatch         boxes;
+   private double[]         outX;
+   private double[]         outY;
+   private double[]         outWidth;
+   private double[]         outHeight;
+   private ProjectionKernel scalar;
+   private ProjectionKernel best;
+
+
+
+   @Setup
+   public void setUp()
+   {
+      Random random = new Random(42);
+      boxes = new BoxBatch(boxCount);
+      for(int i = 0; i < boxCount; i++)
+      {
+         boxes.add(Box3D.of(random.nextDouble() * 240, random.nextDouble() * 96, random.nextDouble() * 24,
+            random.nextDouble() * 24, random.nextDouble() * 34.5, random.nextDouble() * 24));
+      }
+
+      matrix = OrthographicCamera.forView(ViewDirection.ISOMETRIC)
+         .withScale(8.0)
+         .withOffsetX(100)
+         .withOffsetY(50)
+         .getProjectionMatrix();
+
+      outX = new double[boxCount];
+      outY = new double[boxCount];
+      outWidth = new double[boxCount];
+      outHeight = new double[boxCount];
+
+      scalar = ProjectionKernels.scalar();
+      best = ProjectionKernels.get();
+   }
+
+
+
+   @Benchmark
+   public double[] scalarKernel()
+   {
+      scalar.projectBounds(matrix, boxes, outX, outY, outWidth, outHeight);
+      return outX;
+   }
+
+
+
+   @Benchmark
+   public double[] bestKernel()
+   {
+      best.projectBounds(matrix, boxes, outX, outY, outWidth, outHeight);
+      return outX;
+   }
+}
@@ -0,0 +1,87 @@
+package com.makers4.rendering.camera;
+
+
+import com.makers4.rendering.core.BoxBatch;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+
+
+/*******************************************************************************
+ ** SIMD projection kernel on the JDK Vector API (jdk.incubator.vector).
+ **
+ ** Only compiled in the "vector" build profile, and only usable when the JVM is
+ ** started with --add-modules jdk.incubator.vector; ProjectionKernels falls
+ ** back to ScalarProjectionKernel otherwise.  Results match the scalar kernel
+ ** exactly - plain mul/add is used rather than fma, since fma rounds
+ ** differently and is emulated (slowly) on hosts without FMA3.
+ *******************************************************************************/
+public class VectorProjectionKernel implements ProjectionKernel
+{
+   private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+
+
+   @Override
+   public void projectBounds(double[] matrix, BoxBatch boxes,
+                             double[] outX, double[] outY, double[] outWidth, double[] outHeight)
+   {
+      double m00 = matrix[0], m01 = matrix[1], m02 = matrix[2], m03 = matrix[3];
+      double m10 = matrix[4], m11 = matrix[5], m12 = matrix[6], m13 = matrix[7];
+
+      // Per-axis constants: negative parts shift the minimum corner, absolute parts give the extent
+      double n00 = Math.min(0, m00), n01 = Math.min(0, m01), n02 = Math.min(0, m02);
+      double n10 = Math.min(0, m10), n11 = Math.min(0, m11), n12 = Math.min(0, m12);
+      double a00 = Math.abs(m00), a01 = Math.abs(m01), a02 = Math.abs(m02);
+      double a10 = Math.abs(m10), a11 = Math.abs(m11), a12 = Math.abs(m12);
+
+      double[] xs = boxes.x();
+      double[] ys = boxes.y();
+      double[] zs = boxes.z();
+      double[] ws = boxes.width();
+      double[] hs = boxes.height();
+      double[] ds = boxes.depth();
+
+      int size  = boxes.size();
+      int bound = SPECIES.loopBound(size);
+      int i     = 0;
+      for(; i < bound; i += SPECIES.length())
+      {
+         DoubleVector x = DoubleVector.fromArray(SPECIES, xs, i);
+         DoubleVector y = DoubleVector.fromArray(SPECIES, ys, i);
+         DoubleVector z = DoubleVector.fromArray(SPECIES, zs, i);
+         DoubleVector w = DoubleVector.fromArray(SPECIES, ws, i);
+         DoubleVector h = DoubleVector.fromArray(SPECIES, hs, i);
+         DoubleVector d = DoubleVector.fromArray(SPECIES, ds, i);
+
+         x.mul(m00).add(y.mul(m01)).add(z.mul(m02)).add(m03)
+            .add(w.mul(n00)).add(h.mul(n01)).add(d.mul(n02))
+            .intoArray(outX, i);
+         x.mul(m10).add(y.mul(m11)).add(z.mul(m12)).add(m13)
+            .add(w.mul(n10)).add(h.mul(n11)).add(d.mul(n12))
+            .intoArray(outY, i);
+         w.mul(a00).add(h.mul(a01)).add(d.mul(a02)).intoArray(outWidth, i);
+         w.mul(a10).add(h.mul(a11)).add(d.mul(a12)).intoArray(outHeight, i);
+      }
+
+      // Remainder lanes
+      for(; i < size; i++)
+      {
+         double w = ws[i];
+         double h = hs[i];
+         double d = ds[i];
+
+         outX[i] = m00 * xs[i] + m01 * ys[i] + m02 * zs[i] + m03 + n00 * w + n01 * h + n02 * d;
+         outY[i] = m10 * xs[i] + m11 * ys[i] + m12 * zs[i] + m13 + n10 * w + n11 * h + n12 * d;
+         outWidth[i] = a00 * w + a01 * h + a02 * d;
+         outHeight[i] = a10 * w + a11 * h + a12 * d;
+      }
+   }
+
+
+
+   @Override
+   public String getName()
+   {
+      return "vector-" + SPECIES.vectorBitSize();
+   }
+}
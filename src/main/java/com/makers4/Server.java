@@ -2,6 +2,7 @@ package com.makers4;
 
 
 import java.util.List;
+import com.makers4.cache.LookupCaching;
 import com.makers4.metadata.Makers4MetaDataProvider;
 import com.makers4.startup.LiquibaseRunner;
 import com.kingsrook.qqq.middleware.javalin.QApplicationJavalinServer;
@@ -33,6 +34,11 @@ public class Server
          ///////////////////////////////////////////////////////////////////////////
          LiquibaseRunner.runMigrations();
 
+         //////////////////////////////////////////////////////////////////
+         // Read the lookup tables once, so forms never query them cold. //
+         //////////////////////////////////////////////////////////////////
+         LookupCaching.warm(Makers4MetaDataProvider.defineInstance(false));
+
          QApplicationJavalinServer jServer = new QApplicationJavalinServer(new Makers4MetaDataProvider())
             .withPort(DEFAULT_PORT)
             ///////////////////////////////////////////////////////////////////////
@@ -0,0 +1,231 @@
+package com.makers4.cache;
+
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/*******************************************************************************
+ ** Holds whole lookup tables (cabinet types, face types, door styles...) in
+ ** memory, so forms with a dozen lookup fields resolve their labels and
+ ** dropdowns without a query per field.
+ **
+ ** A table is read in full the first time it is asked for (or by loadAll at
+ ** startup) and served from memory until invalidate() is called for it, which
+ ** the lookup tables' post-save hooks do.  Loads run outside any lock; a load
+ ** that started before an invalidation is returned to its caller but not
+ ** kept, so an edit is never hidden by a slow read that raced it.
+ *******************************************************************************/
+public class LookupCache
+{
+   private final Loader                  loader;
+   private final Map<String, Snapshot>   snapshots = new ConcurrentHashMap<>();
+   private final Map<String, AtomicLong> versions  = new ConcurrentHashMap<>();
+   private final AtomicLong              loadCount = new AtomicLong();
+
+
+
+   /*******************************************************************************
+    ** Reads every row of a lookup table, in display order.
+    *******************************************************************************/
+   @FunctionalInterface
+   public interface Loader
+   {
+      List<LookupValue> load(String tableName) throws Exception;
+   }
+
+
+
+   /*******************************************************************************
+    ** Constructor.
+    *******************************************************************************/
+   public LookupCache(Loader loader)
+   {
+      this.loader = loader;
+   }
+
+
+
+   /*******************************************************************************
+    ** Load (or reload) the given tables now.
+    *******************************************************************************/
+   public void loadAll(Collection<String> tableNames)
+   {
+      for(String tableName : tableNames)
+      {
+         invalidate(tableName);
+         snapshot(tableName);
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** Every row of a table, in display order.
+    *******************************************************************************/
+   public List<LookupValue> getValues(String tableName)
+   {
+      return snapshot(tableName).values();
+   }
+
+
+
+   /*******************************************************************************
+    ** The row of a table with the given id, or null.
+    *******************************************************************************/
+   public LookupValue getValue(String tableName, long id)
+   {
+      return snapshot(tableName).byId().get(id);
+   }
+
+
+
+   /*******************************************************************************
+    ** The row of a table with the given code, or null.
+    *******************************************************************************/
+   public LookupValue getValueByCode(String tableName, String code)
+   {
+      return snapshot(tableName).byCode().get(code);
+   }
+
+
+
+   /*******************************************************************************
+    ** The rows of a table, in display order, whose id is the search term or
+    ** whose code or name contains it (ignoring case).  A blank term matches
+    ** every row.
+    *******************************************************************************/
+   public List<LookupValue> search(String tableName, String term)
+   {
+      List<LookupValue> values = getValues(tableName);
+      if(term == null || term.isBlank())
+      {
+         return values;
+      }
+
+      String            needle  = term.trim().toLowerCase(Locale.ROOT);
+      List<LookupValue> matches = new ArrayList<>();
+      for(LookupValue value : values)
+      {
+         if(String.valueOf(value.id()).equals(needle)
+            || contains(value.code(), needle)
+            || contains(value.name(), needle))
+         {
+            matches.add(value);
+         }
+      }
+      return matches;
+   }
+
+
+
+   /*******************************************************************************
+    ** Forget a table, so the next request reads it again.
+    *******************************************************************************/
+   public void invalidate(String tableName)
+   {
+      version(tableName).incrementAndGet();
+      snapshots.remove(tableName);
+   }
+
+
+
+   /*******************************************************************************
+    ** How many times a table has been read from the loader.
+    *******************************************************************************/
+   public long getLoadCount()
+   {
+      return loadCount.get();
+   }
+
+
+
+   /*******************************************************************************
+    ** The cached snapshot of a table, loading it if it is not cached.
+    *******************************************************************************/
+   private Snapshot snapshot(String tableName)
+   {
+      Snapshot snapshot = snapshots.get(tableName);
+      if(snapshot != null)
+      {
+         return snapshot;
+      }
+
+      AtomicLong version       = version(tableName);
+      long       loadedVersion = version.get();
+
+      List<LookupValue> values;
+      try
+      {
+         loadCount.incrementAndGet();
+         values = loader.load(tableName);
+      }
+      catch(Exception e)
+      {
+         throw new IllegalStateException("Could not load lookup table " + tableName, e);
+      }
+
+      Snapshot loaded = Snapshot.of(values);
+      snapshots.compute(tableName, (name, current) ->
+      {
+         if(current != null)
+         {
+            return current;
+         }
+         return version.get() == loadedVersion ? loaded : null;
+      });
+      return loaded;
+   }
+
+
+
+   /*******************************************************************************
+    ** The invalidation counter of a table.
+    *******************************************************************************/
+   private AtomicLong version(String tableName)
+   {
+      return versions.computeIfAbsent(tableName, name -> new AtomicLong());
+   }
+
+
+
+   /*******************************************************************************
+    ** Whether a (nullable) string contains a lower-case needle, ignoring case.
+    *******************************************************************************/
+   private static boolean contains(String haystack, String needle)
+   {
+      return haystack != null && haystack.toLowerCase(Locale.ROOT).contains(needle);
+   }
+
+
+
+   /*******************************************************************************
+    ** An immutable copy of one table, indexed by id and code.
+    *******************************************************************************/
+   private record Snapshot(List<LookupValue> values, Map<Long, LookupValue> byId, Map<String, LookupValue> byCode)
+   {
+      /*******************************************************************************
+       ** Index a table's rows.
+       *******************************************************************************/
+      static Snapshot of(List<LookupValue> values)
+      {
+         Map<Long, LookupValue>   byId   = new HashMap<>();
+         Map<String, LookupValue> byCode = new HashMap<>();
+         for(LookupValue value : values)
+         {
+            byId.put(value.id(), value);
+            if(value.code() != null)
+            {
+               byCode.put(value.code(), value);
+            }
+         }
+         return new Snapshot(List.copyOf(values), Map.copyOf(byId), Map.copyOf(byCode));
+      }
+   }
+}
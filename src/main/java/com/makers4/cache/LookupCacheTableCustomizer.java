@@ -0,0 +1,80 @@
+package com.makers4.cache;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import com.kingsrook.qqq.backend.core.actions.customizers.TableCustomizerInterface;
+import com.kingsrook.qqq.backend.core.exceptions.QException;
+import com.kingsrook.qqq.backend.core.model.actions.tables.delete.DeleteInput;
+import com.kingsrook.qqq.backend.core.model.actions.tables.insert.InsertInput;
+import com.kingsrook.qqq.backend.core.model.actions.tables.update.UpdateInput;
+import com.kingsrook.qqq.backend.core.model.data.QRecord;
+import com.makers4.model.lookup.Material;
+
+
+/*******************************************************************************
+ ** Post-insert, post-update and post-delete hook for the cached lookup
+ ** tables: drops the edited table from the LookupCache, so the next form
+ ** that needs it reads the admin's change.  On the material table it drops
+ ** just the edited materials from the MaterialCache.
+ *******************************************************************************/
+public class LookupCacheTableCustomizer implements TableCustomizerInterface
+{
+
+   /*******************************************************************************
+    ** Invalidate after an insert.
+    *******************************************************************************/
+   @Override
+   public List<QRecord> postInsert(InsertInput insertInput, List<QRecord> records) throws QException
+   {
+      invalidate(insertInput.getTableName(), records);
+      return records;
+   }
+
+
+
+   /*******************************************************************************
+    ** Invalidate after an update.
+    *******************************************************************************/
+   @Override
+   public List<QRecord> postUpdate(UpdateInput updateInput, List<QRecord> records, Optional<List<QRecord>> oldRecordList) throws QException
+   {
+      invalidate(updateInput.getTableName(), records);
+      return records;
+   }
+
+
+
+   /*******************************************************************************
+    ** Invalidate after a delete.
+    *******************************************************************************/
+   @Override
+   public List<QRecord> postDelete(DeleteInput deleteInput, List<QRecord> records) throws QException
+   {
+      invalidate(deleteInput.getTableName(), records);
+      return records;
+   }
+
+
+
+   /*******************************************************************************
+    ** Invalidate the edited records' cache entries.
+    *******************************************************************************/
+   private static void invalidate(String tableName, List<QRecord> records)
+   {
+      if(Material.TABLE_NAME.equals(tableName))
+      {
+         List<Long> ids = new ArrayList<>();
+         for(QRecord record : records)
+         {
+            ids.add(record.getValueLong("id"));
+         }
+         LookupCaching.getMaterialCache().invalidate(ids);
+      }
+      else
+      {
+         LookupCaching.getCache().invalidate(tableName);
+      }
+   }
+}
@@ -0,0 +1,159 @@
+package com.makers4.cache;
+
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import com.kingsrook.qqq.backend.core.actions.customizers.TableCustomizers;
+import com.kingsrook.qqq.backend.core.context.QContext;
+import com.kingsrook.qqq.backend.core.logging.QLogger;
+import com.kingsrook.qqq.backend.core.model.metadata.QInstance;
+import com.kingsrook.qqq.backend.core.model.metadata.code.QCodeReference;
+import com.kingsrook.qqq.backend.core.model.metadata.possiblevalues.QPossibleValueSource;
+import com.kingsrook.qqq.backend.core.model.metadata.possiblevalues.QPossibleValueSourceType;
+import com.kingsrook.qqq.backend.core.model.metadata.tables.QTableMetaData;
+import com.kingsrook.qqq.backend.core.model.session.QSystemUserSession;
+import com.makers4.model.lookup.CabinetType;
+import com.makers4.model.lookup.DoorPanelStyle;
+import com.makers4.model.lookup.DoorStyle;
+import com.makers4.model.lookup.DrawerFrontStyle;
+import com.makers4.model.lookup.DrawerSlideType;
+import com.makers4.model.lookup.EdgeProfile;
+import com.makers4.model.lookup.FaceType;
+import com.makers4.model.lookup.FinishedEndStyle;
+import com.makers4.model.lookup.Material;
+import com.makers4.model.lookup.MaterialType;
+import com.makers4.model.lookup.OpeningType;
+import com.makers4.model.lookup.PartType;
+import com.makers4.model.lookup.ToeKickStyle;
+import com.makers4.model.lookup.UnitSystem;
+import static com.kingsrook.qqq.backend.core.logging.LogUtils.logPair;
+
+
+/*******************************************************************************
+ ** Wires the seeded lookup tables to the in-memory LookupCache: their
+ ** possible-value sources are served from the cache, their post-save hooks
+ ** invalidate it, and the server warms it at startup.  Materials get a
+ ** MaterialCache of their own, invalidated by the same hook.
+ **
+ ** The caches are per JVM: with more than one server, an admin edit is seen
+ ** at once on the server that made it, and on the others after a restart
+ ** (lookups) or once the material time to live runs out.
+ *******************************************************************************/
+public final class LookupCaching
+{
+   private static final QLogger LOG = QLogger.getLogger(LookupCaching.class);
+
+   private static final LookupCache CACHE = new LookupCache(new LookupTableLoader());
+
+   // Materials are few, but their prices are edited by hand
+   private static final int      MATERIAL_CACHE_SIZE = 1000;
+   private static final Duration MATERIAL_CACHE_TTL  = Duration.ofMinutes(10);
+
+   private static final MaterialCache MATERIALS = new MaterialCache(new MaterialSpecLoader(), MATERIAL_CACHE_SIZE, MATERIAL_CACHE_TTL);
+
+   // Cached lookup tables and their providers.  Material is not one: it has
+   // its own cache, as processes read its thickness and prices, not a label
+   private static final Map<String, Class<? extends LookupPossibleValueProvider>> PROVIDERS = new LinkedHashMap<>();
+
+   static
+   {
+      PROVIDERS.put(UnitSystem.TABLE_NAME, UnitSystem.PossibleValueProvider.class);
+      PROVIDERS.put(MaterialType.TABLE_NAME, MaterialType.PossibleValueProvider.class);
+      PROVIDERS.put(CabinetType.TABLE_NAME, CabinetType.PossibleValueProvider.class);
+      PROVIDERS.put(FaceType.TABLE_NAME, FaceType.PossibleValueProvider.class);
+      PROVIDERS.put(OpeningType.TABLE_NAME, OpeningType.PossibleValueProvider.class);
+      PROVIDERS.put(DoorStyle.TABLE_NAME, DoorStyle.PossibleValueProvider.class);
+      PROVIDERS.put(DoorPanelStyle.TABLE_NAME, DoorPanelStyle.PossibleValueProvider.class);
+      PROVIDERS.put(DrawerFrontStyle.TABLE_NAME, DrawerFrontStyle.PossibleValueProvider.class);
+      PROVIDERS.put(DrawerSlideType.TABLE_NAME, DrawerSlideType.PossibleValueProvider.class);
+      PROVIDERS.put(EdgeProfile.TABLE_NAME, EdgeProfile.PossibleValueProvider.class);
+      PROVIDERS.put(FinishedEndStyle.TABLE_NAME, FinishedEndStyle.PossibleValueProvider.class);
+      PROVIDERS.put(ToeKickStyle.TABLE_NAME, ToeKickStyle.PossibleValueProvider.class);
+      PROVIDERS.put(PartType.TABLE_NAME, PartType.PossibleValueProvider.class);
+   }
+
+
+
+   /*******************************************************************************
+    ** Constructor - static methods only.
+    *******************************************************************************/
+   private LookupCaching()
+   {
+   }
+
+
+
+   /*******************************************************************************
+    ** The shared cache.
+    *******************************************************************************/
+   public static LookupCache getCache()
+   {
+      return CACHE;
+   }
+
+
+
+   /*******************************************************************************
+    ** The shared material cache.
+    *******************************************************************************/
+   public static MaterialCache getMaterialCache()
+   {
+      return MATERIALS;
+   }
+
+
+
+   /*******************************************************************************
+    ** Switch the lookup tables' possible-value sources (produced by their
+    ** entities as table sources) to the cache, and hook the tables' and the
+    ** material table's saves to invalidate their caches.
+    *******************************************************************************/
+   public static void configure(QInstance qInstance)
+   {
+      QCodeReference invalidateHook = new QCodeReference(LookupCacheTableCustomizer.class);
+
+      for(Map.Entry<String, Class<? extends LookupPossibleValueProvider>> entry : PROVIDERS.entrySet())
+      {
+         QPossibleValueSource possibleValueSource = qInstance.getPossibleValueSource(entry.getKey());
+         possibleValueSource.withType(QPossibleValueSourceType.CUSTOM)
+            .withTableName(null)
+            .withSearchFields(null)
+            .withOrderByFields(null)
+            .withCustomCodeReference(new QCodeReference(entry.getValue()));
+
+         QTableMetaData table = qInstance.getTable(entry.getKey());
+         table.withCustomizer(TableCustomizers.POST_INSERT_RECORD.getRole(), invalidateHook)
+            .withCustomizer(TableCustomizers.POST_UPDATE_RECORD.getRole(), invalidateHook)
+            .withCustomizer(TableCustomizers.POST_DELETE_RECORD.getRole(), invalidateHook);
+      }
+
+      qInstance.getTable(Material.TABLE_NAME)
+         .withCustomizer(TableCustomizers.POST_UPDATE_RECORD.getRole(), invalidateHook)
+         .withCustomizer(TableCustomizers.POST_DELETE_RECORD.getRole(), invalidateHook);
+   }
+
+
+
+   /*******************************************************************************
+    ** Load every cached table.  A failure is logged, not thrown: the tables
+    ** then load on first use instead.
+    *******************************************************************************/
+   public static void warm(QInstance qInstance)
+   {
+      try
+      {
+         QContext.init(qInstance, new QSystemUserSession());
+         CACHE.loadAll(PROVIDERS.keySet());
+         LOG.info("Loaded lookup cache", logPair("tables", PROVIDERS.size()));
+      }
+      catch(Exception e)
+      {
+         LOG.warn("Error warming lookup cache, tables will load on first use", e);
+      }
+      finally
+      {
+         QContext.clear();
+      }
+   }
+}
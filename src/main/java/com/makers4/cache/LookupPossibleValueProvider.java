@@ -0,0 +1,117 @@
+package com.makers4.cache;
+
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import com.kingsrook.qqq.backend.core.actions.values.QCustomPossibleValueProvider;
+import com.kingsrook.qqq.backend.core.exceptions.QException;
+import com.kingsrook.qqq.backend.core.model.actions.values.SearchPossibleValueSourceInput;
+import com.kingsrook.qqq.backend.core.model.metadata.possiblevalues.QPossibleValue;
+import com.kingsrook.qqq.backend.core.utils.ValueUtils;
+
+
+/*******************************************************************************
+ ** Possible-value source for a lookup table served from the LookupCache:
+ ** labels for record views and options for dropdowns, without a query.
+ **
+ ** qqq gives a custom provider no hint of which source it serves, so each
+ ** lookup entity has a subclass naming its table.
+ *******************************************************************************/
+public abstract class LookupPossibleValueProvider implements QCustomPossibleValueProvider<Long>
+{
+   private final String tableName;
+
+
+
+   /*******************************************************************************
+    ** Constructor.
+    *******************************************************************************/
+   protected LookupPossibleValueProvider(String tableName)
+   {
+      this.tableName = tableName;
+   }
+
+
+
+   /*******************************************************************************
+    ** The label of one id, for showing a record.
+    *******************************************************************************/
+   @Override
+   public QPossibleValue<Long> getPossibleValue(Serializable idValue)
+   {
+      Long id = ValueUtils.getValueAsLong(idValue);
+      if(id == null)
+      {
+         return null;
+      }
+
+      LookupValue value = LookupCaching.getCache().getValue(tableName, id);
+      return value == null ? null : possibleValue(value);
+   }
+
+
+
+   /*******************************************************************************
+    ** The options for a dropdown: the requested ids, or the active rows
+    ** matching the typed search term, a page at a time.  Requested ids are
+    ** returned even when inactive, so records that still reference a retired
+    ** value keep their label.
+    *******************************************************************************/
+   @Override
+   public List<QPossibleValue<Long>> search(SearchPossibleValueSourceInput input) throws QException
+   {
+      LookupCache       cache  = LookupCaching.getCache();
+      List<LookupValue> values = new ArrayList<>();
+      try
+      {
+         if(input.getIdList() != null)
+         {
+            for(Serializable idValue : input.getIdList())
+            {
+               Long        id    = ValueUtils.getValueAsLong(idValue);
+               LookupValue value = id == null ? null : cache.getValue(tableName, id);
+               if(value != null)
+               {
+                  values.add(value);
+               }
+            }
+         }
+         else
+         {
+            for(LookupValue value : cache.search(tableName, input.getSearchTerm()))
+            {
+               if(value.active())
+               {
+                  values.add(value);
+               }
+            }
+         }
+      }
+      catch(IllegalStateException e)
+      {
+         throw new QException("Error loading possible values for " + tableName, e);
+      }
+
+      int skip  = input.getSkip() == null ? 0 : Math.min(input.getSkip(), values.size());
+      int limit = input.getLimit() == null ? values.size() : input.getLimit();
+
+      List<QPossibleValue<Long>> possibleValues = new ArrayList<>();
+      for(LookupValue value : values.subList(skip, Math.min(values.size(), skip + limit)))
+      {
+         possibleValues.add(possibleValue(value));
+      }
+      return possibleValues;
+   }
+
+
+
+   /*******************************************************************************
+    ** A row as a possible value, labelled by name as the tables' record
+    ** labels are.
+    *******************************************************************************/
+   private static QPossibleValue<Long> possibleValue(LookupValue value)
+   {
+      return new QPossibleValue<>(value.id(), value.name());
+   }
+}
@@ -0,0 +1,47 @@
+package com.makers4.cache;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import com.kingsrook.qqq.backend.core.actions.tables.QueryAction;
+import com.kingsrook.qqq.backend.core.exceptions.QException;
+import com.kingsrook.qqq.backend.core.model.actions.tables.query.QFilterOrderBy;
+import com.kingsrook.qqq.backend.core.model.actions.tables.query.QQueryFilter;
+import com.kingsrook.qqq.backend.core.model.actions.tables.query.QueryInput;
+import com.kingsrook.qqq.backend.core.model.actions.tables.query.QueryOutput;
+import com.kingsrook.qqq.backend.core.model.data.QRecord;
+
+
+/*******************************************************************************
+ ** Reads a whole lookup table for the LookupCache, in the order its
+ ** dropdowns show it: by sortOrder, then id.
+ *******************************************************************************/
+public class LookupTableLoader implements LookupCache.Loader
+{
+
+   /*******************************************************************************
+    ** Query every row of the table.
+    *******************************************************************************/
+   @Override
+   public List<LookupValue> load(String tableName) throws QException
+   {
+      QueryInput queryInput = new QueryInput();
+      queryInput.setTableName(tableName);
+      queryInput.setFilter(new QQueryFilter()
+         .withOrderBy(new QFilterOrderBy("sortOrder"))
+         .withOrderBy(new QFilterOrderBy("id")));
+
+      QueryOutput queryOutput = new QueryAction().execute(queryInput);
+
+      List<LookupValue> values = new ArrayList<>();
+      for(QRecord record : queryOutput.getRecords())
+      {
+         values.add(new LookupValue(
+            record.getValueLong("id"),
+            record.getValueString("code"),
+            record.getValueString("name"),
+            !Boolean.FALSE.equals(record.getValueBoolean("isActive"))));
+      }
+      return values;
+   }
+}
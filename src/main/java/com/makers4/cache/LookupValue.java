@@ -0,0 +1,15 @@
+package com.makers4.cache;
+
+
+/*******************************************************************************
+ ** One row of a lookup table, as the cache keeps it: enough to show it in a
+ ** dropdown and find it by id or code.
+ **
+ ** @param id     the row's primary key
+ ** @param code   its unique code, e.g. BASE
+ ** @param name   its label, e.g. Base Cabinet
+ ** @param active false for rows retired from new use
+ *******************************************************************************/
+public record LookupValue(long id, String code, String name, boolean active)
+{
+}
@@ -0,0 +1,230 @@
+package com.makers4.cache;
+
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.LongSupplier;
+
+
+/*******************************************************************************
+ ** Read-through cache of materials by id, so scene building can look up a
+ ** panel thickness without a query per lookup.
+ **
+ ** Misses are read in one batch: getAll() with every material a cabinet
+ ** references costs a single query, after which each get() is a map lookup.
+ ** Entries expire after a time to live (materials are edited by hand, and the
+ ** post-save hook only reaches this JVM) and the least recently used are
+ ** dropped past a size bound.  Ids with no row are not remembered.
+ **
+ ** Loads run outside the lock; a load that started before an invalidation
+ ** is returned to its caller but not kept.
+ *******************************************************************************/
+public class MaterialCache
+{
+   private final Loader       loader;
+   private final long         timeToLiveNanos;
+   private final LongSupplier nanoClock;
+
+   private final Map<Long, Entry> entries;
+
+   private long generation;
+   private long hitCount;
+   private long missCount;
+   private long loadCount;
+
+
+
+   /*******************************************************************************
+    ** Reads the materials with the given ids; ids with no row are left out.
+    *******************************************************************************/
+   @FunctionalInterface
+   public interface Loader
+   {
+      Map<Long, MaterialSpec> load(Collection<Long> ids) throws Exception;
+   }
+
+
+
+   /*******************************************************************************
+    ** Constructor.
+    **
+    ** @param loader     reads materials on a miss
+    ** @param maxEntries most materials kept before the least recently used
+    **                   is dropped
+    ** @param timeToLive how long a material is served before it is read again
+    *******************************************************************************/
+   public MaterialCache(Loader loader, int maxEntries, Duration timeToLive)
+   {
+      this(loader, maxEntries, timeToLive, System::nanoTime);
+   }
+
+
+
+   /*******************************************************************************
+    ** Constructor with a clock, for tests.
+    *******************************************************************************/
+   MaterialCache(Loader loader, int maxEntries, Duration timeToLive, LongSupplier nanoClock)
+   {
+      this.loader = loader;
+      this.timeToLiveNanos = timeToLive.toNanos();
+      this.nanoClock = nanoClock;
+      this.entries = new LinkedHashMap<>(16, 0.75f, true)
+      {
+         @Override
+         protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest)
+         {
+            return size() > maxEntries;
+         }
+      };
+   }
+
+
+
+   /*******************************************************************************
+    ** The material with an id, read on a miss; null for a null id or an id
+    ** with no row.
+    *******************************************************************************/
+   public MaterialSpec get(Long id)
+   {
+      if(id == null)
+      {
+         return null;
+      }
+      return getAll(Set.of(id)).get(id);
+   }
+
+
+
+   /*******************************************************************************
+    ** The materials with the given ids (nulls and unknown ids left out), all
+    ** misses read in one batch.
+    *******************************************************************************/
+   public Map<Long, MaterialSpec> getAll(Collection<Long> ids)
+   {
+      Map<Long, MaterialSpec> found  = new HashMap<>();
+      Set<Long>               misses = new TreeSet<>();
+      long                    loadGeneration;
+
+      synchronized(this)
+      {
+         long now = nanoClock.getAsLong();
+         for(Long id : ids)
+         {
+            if(id == null || found.containsKey(id) || misses.contains(id))
+            {
+               continue;
+            }
+
+            Entry entry = entries.get(id);
+            if(entry != null && now - entry.loadedAtNanos() < timeToLiveNanos)
+            {
+               found.put(id, entry.material());
+               hitCount++;
+            }
+            else
+            {
+               misses.add(id);
+               missCount++;
+            }
+         }
+
+         if(misses.isEmpty())
+         {
+            return found;
+         }
+         loadGeneration = generation;
+         loadCount++;
+      }
+
+      Map<Long, MaterialSpec> loaded;
+      try
+      {
+         loaded = loader.load(misses);
+      }
+      catch(Exception e)
+      {
+         throw new IllegalStateException("Could not load materials " + misses, e);
+      }
+
+      synchronized(this)
+      {
+         long now = nanoClock.getAsLong();
+         for(Long id : misses)
+         {
+            MaterialSpec material = loaded.get(id);
+            if(material == null)
+            {
+               entries.remove(id);
+               continue;
+            }
+
+            found.put(id, material);
+            if(generation == loadGeneration)
+            {
+               entries.put(id, new Entry(material, now));
+            }
+         }
+      }
+      return found;
+   }
+
+
+
+   /*******************************************************************************
+    ** Forget some materials, so they are read again on next use.
+    *******************************************************************************/
+   public synchronized void invalidate(Collection<Long> ids)
+   {
+      generation++;
+      entries.keySet().removeAll(ids);
+   }
+
+
+
+   /*******************************************************************************
+    ** Forget every material.
+    *******************************************************************************/
+   public synchronized void invalidateAll()
+   {
+      generation++;
+      entries.clear();
+   }
+
+
+
+   public synchronized long getHitCount()
+   {
+      return hitCount;
+   }
+
+
+
+   public synchronized long getMissCount()
+   {
+      return missCount;
+   }
+
+
+
+   /*******************************************************************************
+    ** How many batches have been read from the loader.
+    *******************************************************************************/
+   public synchronized long getLoadCount()
+   {
+      return loadCount;
+   }
+
+
+
+   /*******************************************************************************
+    ** A cached material and when it was read.
+    *******************************************************************************/
+   private record Entry(MaterialSpec material, long loadedAtNanos)
+   {
+   }
+}
@@ -0,0 +1,22 @@
+package com.makers4.cache;
+
+
+import java.math.BigDecimal;
+
+
+/*******************************************************************************
+ ** What builders and costing read from a Material row: its thickness and its
+ ** prices, without the rest of the entity.
+ **
+ ** @param id               the material's primary key
+ ** @param code             its unique code, e.g. MPLY18
+ ** @param materialTypeId   sheet good, solid wood...
+ ** @param thicknessMm      actual thickness, or null if not recorded
+ ** @param nominalThickness trade thickness, e.g. 3/4" or 4/4
+ ** @param costPerSqFt      sheet price per square foot, or null
+ ** @param costPerBoardFoot lumber price per board foot, or null
+ *******************************************************************************/
+public record MaterialSpec(long id, String code, Long materialTypeId, Integer thicknessMm, String nominalThickness,
+                           BigDecimal costPerSqFt, BigDecimal costPerBoardFoot)
+{
+}
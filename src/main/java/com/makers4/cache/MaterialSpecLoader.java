@@ -0,0 +1,49 @@
+package com.makers4.cache;
+
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import com.kingsrook.qqq.backend.core.actions.tables.QueryAction;
+import com.kingsrook.qqq.backend.core.exceptions.QException;
+import com.kingsrook.qqq.backend.core.model.actions.tables.query.QCriteriaOperator;
+import com.kingsrook.qqq.backend.core.model.actions.tables.query.QFilterCriteria;
+import com.kingsrook.qqq.backend.core.model.actions.tables.query.QQueryFilter;
+import com.kingsrook.qqq.backend.core.model.actions.tables.query.QueryInput;
+import com.kingsrook.qqq.backend.core.model.data.QRecord;
+import com.makers4.model.lookup.Material;
+
+
+/*******************************************************************************
+ ** Reads materials for the MaterialCache: one id IN query per batch of misses.
+ *******************************************************************************/
+public class MaterialSpecLoader implements MaterialCache.Loader
+{
+
+   /*******************************************************************************
+    ** Query the materials with the given ids.
+    *******************************************************************************/
+   @Override
+   public Map<Long, MaterialSpec> load(Collection<Long> ids) throws QException
+   {
+      QueryInput queryInput = new QueryInput();
+      queryInput.setTableName(Material.TABLE_NAME);
+      queryInput.setFilter(new QQueryFilter(new QFilterCriteria("id", QCriteriaOperator.IN, new ArrayList<>(ids))));
+
+      Map<Long, MaterialSpec> materials = new HashMap<>();
+      for(QRecord record : new QueryAction().execute(queryInput).getRecords())
+      {
+         MaterialSpec material = new MaterialSpec(
+            record.getValueLong("id"),
+            record.getValueString("code"),
+            record.getValueLong("materialTypeId"),
+            record.getValueInteger("thicknessMm"),
+            record.getValueString("nominalThickness"),
+            record.getValueBigDecimal("costPerSqFt"),
+            record.getValueBigDecimal("costPerBoardFoot"));
+         materials.put(material.id(), material);
+      }
+      return materials;
+   }
+}
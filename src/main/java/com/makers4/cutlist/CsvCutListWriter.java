@@ -0,0 +1,173 @@
+package com.makers4.cutlist;
+
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+
+/*******************************************************************************
+ ** Streams a cut list as CSV (RFC 4180, UTF-8) for panel-saw and optimizer
+ ** software: a header line, then one line per piece with sizes in mm.
+ **
+ ** Import tools expect nothing but piece lines, so subtotal lines are off by
+ ** default; withSubtotals(true) adds a line after each sheet, material and
+ ** the whole list, with the piece count in the Quantity column.
+ *******************************************************************************/
+public class CsvCutListWriter extends GroupedCutListWriter
+{
+   private static final int BUFFER_SIZE = 8192;
+
+   static final String HEADER = "Material,Thickness,Sheet,Stock Length,Part,Length,Width,Quantity,Rotated,X,Y";
+
+   private final Writer writer;
+   private boolean      subtotals;
+
+
+
+   /*******************************************************************************
+    ** Constructor wrapping an output stream, which close() closes.
+    *******************************************************************************/
+   public CsvCutListWriter(OutputStream output) throws IOException
+   {
+      this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), BUFFER_SIZE);
+      writer.write(HEADER);
+      writer.write("\r\n");
+   }
+
+
+
+   /*******************************************************************************
+    ** Fluent setter for whether to write subtotal lines.
+    *******************************************************************************/
+   public CsvCutListWriter withSubtotals(boolean subtotals)
+   {
+      this.subtotals = subtotals;
+      return this;
+   }
+
+
+
+   /*******************************************************************************
+    ** Nothing to write: every line carries its material.
+    *******************************************************************************/
+   @Override
+   protected void startMaterial(CutListRow first)
+   {
+   }
+
+
+
+   /*******************************************************************************
+    ** Nothing to write: every line carries its sheet.
+    *******************************************************************************/
+   @Override
+   protected void startSheet(CutListRow first)
+   {
+   }
+
+
+
+   /*******************************************************************************
+    ** Write a piece line.
+    *******************************************************************************/
+   @Override
+   protected void writePart(CutListRow row) throws IOException
+   {
+      writeLine(row.materialCode(), row.thicknessMm(), row.sheetNumber(), row.boardLengthMm(), row.partName(),
+         row.lengthMm(), row.widthMm(), 1, row.rotated() ? "Y" : "N", row.positionX(), row.positionY());
+   }
+
+
+
+   /*******************************************************************************
+    ** Write a sheet subtotal line, if subtotals are on.
+    *******************************************************************************/
+   @Override
+   protected void writeSheetTotals(CutListRow first, CutListTotals totals) throws IOException
+   {
+      if(subtotals)
+      {
+         writeLine(first.materialCode(), first.thicknessMm(), first.sheetNumber(), first.boardLengthMm(), stockLabel(first) + " total",
+            null, null, totals.getPieces(), null, null, null);
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** Write a material subtotal line, if subtotals are on.
+    *******************************************************************************/
+   @Override
+   protected void writeMaterialTotals(CutListRow first, CutListTotals totals) throws IOException
+   {
+      if(subtotals)
+      {
+         writeLine(first.materialCode(), first.thicknessMm(), null, null, first.materialCode() + " total",
+            null, null, totals.getPieces(), null, null, null);
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** Write the grand total line, if subtotals are on.
+    *******************************************************************************/
+   @Override
+   protected void writeTotals(CutListTotals totals) throws IOException
+   {
+      if(subtotals)
+      {
+         writeLine(null, null, null, null, "Total", null, null, totals.getPieces(), null, null, null);
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** Flush and close the output.
+    *******************************************************************************/
+   @Override
+   protected void finish() throws IOException
+   {
+      writer.close();
+   }
+
+
+
+   /*******************************************************************************
+    ** Write one line of values (null as an empty field).
+    *******************************************************************************/
+   private void writeLine(Object... values) throws IOException
+   {
+      for(int i = 0; i < values.length; i++)
+      {
+         if(i > 0)
+         {
+            writer.write(',');
+         }
+         if(values[i] != null)
+         {
+            writer.write(escape(values[i].toString()));
+         }
+      }
+      writer.write("\r\n");
+   }
+
+
+
+   /*******************************************************************************
+    ** Quote a field that holds a comma, quote or line break.
+    *******************************************************************************/
+   static String escape(String value)
+   {
+      if(value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0)
+      {
+         return value;
+      }
+      return '"' + value.replace("\"", "\"\"") + '"';
+   }
+}
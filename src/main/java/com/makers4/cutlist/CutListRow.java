@@ -0,0 +1,21 @@
+package com.makers4.cutlist;
+
+
+/*******************************************************************************
+ ** One cut piece of an exported cut list: a CutListItem with the size and
+ ** name of its Part and the code and name of its Material.  Sizes are in mm.
+ ** Board length is set for solid-wood items cut from linear stock and null
+ ** for items nested on sheets.
+ *******************************************************************************/
+public record CutListRow(String materialCode, String materialName, Integer thicknessMm, int sheetNumber, Integer boardLengthMm,
+                         String partName, int lengthMm, int widthMm, boolean rotated, Integer positionX, Integer positionY)
+{
+
+   /*******************************************************************************
+    ** Whether the row is cut from a board rather than a sheet.
+    *******************************************************************************/
+   public boolean isBoard()
+   {
+      return boardLengthMm != null;
+   }
+}
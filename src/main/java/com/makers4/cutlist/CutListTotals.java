@@ -0,0 +1,93 @@
+package com.makers4.cutlist;
+
+
+/*******************************************************************************
+ ** Running totals of a group of cut list rows: the pieces, their area, the
+ ** length of those cut from boards, and how many sheets or boards they came
+ ** from.
+ *******************************************************************************/
+public class CutListTotals
+{
+   static final double MM2_PER_SQUARE_FOOT = 92903.04;
+
+   private int  pieces;
+   private long areaMm2;
+   private long boardLengthMm;
+   private int  stockCount;
+
+
+
+   /*******************************************************************************
+    ** Count a row.
+    *******************************************************************************/
+   void add(CutListRow row)
+   {
+      pieces++;
+      areaMm2 += (long) row.lengthMm() * row.widthMm();
+      if(row.isBoard())
+      {
+         boardLengthMm += row.lengthMm();
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** Count a sheet or board.
+    *******************************************************************************/
+   void addStock()
+   {
+      stockCount++;
+   }
+
+
+
+   /*******************************************************************************
+    ** Start over.
+    *******************************************************************************/
+   void clear()
+   {
+      pieces = 0;
+      areaMm2 = 0;
+      boardLengthMm = 0;
+      stockCount = 0;
+   }
+
+
+
+   public int getPieces()
+   {
+      return pieces;
+   }
+
+
+
+   public long getAreaMm2()
+   {
+      return areaMm2;
+   }
+
+
+
+   public long getBoardLengthMm()
+   {
+      return boardLengthMm;
+   }
+
+
+
+   public int getStockCount()
+   {
+      return stockCount;
+   }
+
+
+
+   /*******************************************************************************
+    ** Area of the pieces in square feet.
+    *******************************************************************************/
+   public double getSquareFeet()
+   {
+      return areaMm2 / MM2_PER_SQUARE_FOOT;
+   }
+}
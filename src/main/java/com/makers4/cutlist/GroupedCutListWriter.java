@@ -0,0 +1,175 @@
+package com.makers4.cutlist;
+
+
+import java.io.IOException;
+import java.util.Objects;
+
+
+/*******************************************************************************
+ ** Base for cut list writers that stream rows out grouped by material and
+ ** then by sheet (or board), with a subtotal after each sheet, each material
+ ** and the whole list.
+ **
+ ** Rows must arrive sorted so that each material's rows, and each sheet's
+ ** rows within it, are together; a group ends when the next row's material
+ ** or sheet differs.  Only the first row of the open groups and three sets
+ ** of running totals are kept, so memory does not grow with the number of
+ ** rows.  Closing the writer writes the last subtotals and the grand total.
+ *******************************************************************************/
+public abstract class GroupedCutListWriter implements AutoCloseable
+{
+   private final CutListTotals sheetTotals    = new CutListTotals();
+   private final CutListTotals materialTotals = new CutListTotals();
+   private final CutListTotals totals         = new CutListTotals();
+
+   // First row of the open material and sheet groups (null before any row)
+   private CutListRow materialRow;
+   private CutListRow sheetRow;
+   private boolean    closed;
+
+
+
+   /*******************************************************************************
+    ** Write a row, closing and opening groups around it as needed.
+    *******************************************************************************/
+   public void write(CutListRow row) throws IOException
+   {
+      if(closed)
+      {
+         throw new IllegalStateException("Cut list writer is closed");
+      }
+
+      boolean newMaterial = materialRow == null || !Objects.equals(materialRow.materialCode(), row.materialCode());
+      boolean newSheet    = newMaterial || sheetRow.sheetNumber() != row.sheetNumber();
+
+      if(newSheet && sheetRow != null)
+      {
+         writeSheetTotals(sheetRow, sheetTotals);
+         sheetTotals.clear();
+      }
+      if(newMaterial && materialRow != null)
+      {
+         writeMaterialTotals(materialRow, materialTotals);
+         materialTotals.clear();
+      }
+
+      if(newMaterial)
+      {
+         materialRow = row;
+         startMaterial(row);
+      }
+      if(newSheet)
+      {
+         sheetRow = row;
+         startSheet(row);
+         sheetTotals.addStock();
+         materialTotals.addStock();
+         totals.addStock();
+      }
+
+      writePart(row);
+      sheetTotals.add(row);
+      materialTotals.add(row);
+      totals.add(row);
+   }
+
+
+
+   /*******************************************************************************
+    ** Write the open groups' subtotals and the grand total, and finish the
+    ** output.
+    *******************************************************************************/
+   @Override
+   public void close() throws IOException
+   {
+      if(closed)
+      {
+         return;
+      }
+      closed = true;
+
+      try
+      {
+         if(sheetRow != null)
+         {
+            writeSheetTotals(sheetRow, sheetTotals);
+            writeMaterialTotals(materialRow, materialTotals);
+         }
+         writeTotals(totals);
+      }
+      finally
+      {
+         finish();
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** Totals of every row written so far.
+    *******************************************************************************/
+   public CutListTotals getTotals()
+   {
+      return totals;
+   }
+
+
+
+   /*******************************************************************************
+    ** Start a material group, given its first row.
+    *******************************************************************************/
+   protected abstract void startMaterial(CutListRow first) throws IOException;
+
+
+
+   /*******************************************************************************
+    ** Start a sheet or board group, given its first row.
+    *******************************************************************************/
+   protected abstract void startSheet(CutListRow first) throws IOException;
+
+
+
+   /*******************************************************************************
+    ** Write one piece.
+    *******************************************************************************/
+   protected abstract void writePart(CutListRow row) throws IOException;
+
+
+
+   /*******************************************************************************
+    ** Write the subtotal of a sheet or board, given its first row.
+    *******************************************************************************/
+   protected abstract void writeSheetTotals(CutListRow first, CutListTotals totals) throws IOException;
+
+
+
+   /*******************************************************************************
+    ** Write the subtotal of a material, given its first row.
+    *******************************************************************************/
+   protected abstract void writeMaterialTotals(CutListRow first, CutListTotals totals) throws IOException;
+
+
+
+   /*******************************************************************************
+    ** Write the grand total.
+    *******************************************************************************/
+   protected abstract void writeTotals(CutListTotals totals) throws IOException;
+
+
+
+   /*******************************************************************************
+    ** Flush and close the output; called once, even if writing the totals
+    ** failed.
+    *******************************************************************************/
+   protected abstract void finish() throws IOException;
+
+
+
+   /*******************************************************************************
+    ** Label of a row's sheet or board, e.g. "Sheet 3" or "Board 12".
+    *******************************************************************************/
+   protected static String stockLabel(CutListRow row)
+   {
+      return (row.isBoard() ? "Board " : "Sheet ") + row.sheetNumber();
+   }
+}
@@ -0,0 +1,400 @@
+package com.makers4.cutlist;
+
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import com.makers4.rendering.export.PdfFonts;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdfwriter.compress.CompressParameters;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+
+
+/*******************************************************************************
+ ** Streams a cut list as a paginated PDF table: a heading per material and
+ ** per sheet or board, a line per piece, and subtotal lines, with the column
+ ** headings and the open material repeated at the top of every page.
+ **
+ ** The document keeps its page content in a scratch file (as PdfExporter
+ ** does with a memory cap): each page's content stream is closed before the
+ ** next page starts, so the heap holds only a small dictionary per page no
+ ** matter how many rows there are.  Page numbers ("Page 3 of 40") are
+ ** stamped on every page when the writer is closed.
+ *******************************************************************************/
+public class PdfCutListWriter extends GroupedCutListWriter
+{
+   private static final PDRectangle PAGE_SIZE   = PDRectangle.LETTER;
+   private static final float       MARGIN      = 36;
+   private static final float       ROW_HEIGHT  = 12;
+   private static final float       FONT_SIZE   = 8;
+   private static final float       TITLE_SIZE  = 12;
+   private static final float       INDENT      = 12;
+   private static final float       FOOTER_SIZE = 7;
+
+   // Piece columns: heading, x position, and whether the column is right-aligned
+   private static final String[]  COLUMN_HEADINGS = {"Part", "Length", "Width", "Thick", "X", "Y", "Rotated"};
+   private static final float[]   COLUMN_X        = {MARGIN + INDENT, 330, 385, 430, 480, 530, 542};
+   private static final boolean[] COLUMN_RIGHT    = {false, true, true, true, true, true, false};
+   private static final float     PART_WIDTH      = 220;
+
+   private final OutputStream output;
+   private final PDDocument   document;
+   private final PdfFonts     fonts;
+   private final String       title;
+
+   private PDPageContentStream content;
+   private float               y;
+   private CutListRow          materialRow;
+
+
+
+   /*******************************************************************************
+    ** Constructor.
+    **
+    ** @param output           where the PDF goes when the writer is closed
+    **                         (and then closed)
+    ** @param title            heading printed at the top of every page
+    ** @param scratchDirectory directory for the page content scratch file,
+    **                         or null for the system temp directory
+    *******************************************************************************/
+   public PdfCutListWriter(OutputStream output, String title, File scratchDirectory)
+   {
+      MemoryUsageSetting memoryUsage = MemoryUsageSetting.setupTempFileOnly();
+      if(scratchDirectory != null)
+      {
+         memoryUsage.setTempDir(scratchDirectory);
+      }
+
+      this.output = output;
+      this.document = new PDDocument(memoryUsage.streamCache);
+      this.fonts = PdfFonts.create();
+      this.title = title;
+   }
+
+
+
+   /*******************************************************************************
+    ** Write the material heading.
+    *******************************************************************************/
+   @Override
+   protected void startMaterial(CutListRow first) throws IOException
+   {
+      ensureSpace(3);
+      y -= ROW_HEIGHT / 2;
+      writeText(fonts.bold(), FONT_SIZE + 1, MARGIN, materialHeading(first));
+      nextLine();
+      materialRow = first;
+   }
+
+
+
+   /*******************************************************************************
+    ** Write the sheet or board heading.
+    *******************************************************************************/
+   @Override
+   protected void startSheet(CutListRow first) throws IOException
+   {
+      ensureSpace(2);
+      String heading = stockLabel(first);
+      if(first.isBoard())
+      {
+         heading += " (" + first.boardLengthMm() + " mm)";
+      }
+      writeText(fonts.bold(), FONT_SIZE, MARGIN, heading);
+      nextLine();
+   }
+
+
+
+   /*******************************************************************************
+    ** Write a piece line.
+    *******************************************************************************/
+   @Override
+   protected void writePart(CutListRow row) throws IOException
+   {
+      ensureSpace(1);
+      String[] values = {
+         truncate(fonts.regular(), safe(fonts.regular(), row.partName()), PART_WIDTH),
+         String.valueOf(row.lengthMm()),
+         String.valueOf(row.widthMm()),
+         row.thicknessMm() != null ? String.valueOf(row.thicknessMm()) : "",
+         row.positionX() != null ? String.valueOf(row.positionX()) : "",
+         row.positionY() != null ? String.valueOf(row.positionY()) : "",
+         row.rotated() ? "Yes" : ""
+      };
+      writeColumns(fonts.regular(), values);
+      nextLine();
+   }
+
+
+
+   /*******************************************************************************
+    ** Write a sheet or board subtotal line.
+    *******************************************************************************/
+   @Override
+   protected void writeSheetTotals(CutListRow first, CutListTotals totals) throws IOException
+   {
+      ensureSpace(1);
+      writeText(fonts.regular(), FONT_SIZE, MARGIN + INDENT, stockLabel(first) + ": " + describe(totals));
+      nextLine();
+   }
+
+
+
+   /*******************************************************************************
+    ** Write a material subtotal line.
+    *******************************************************************************/
+   @Override
+   protected void writeMaterialTotals(CutListRow first, CutListTotals totals) throws IOException
+   {
+      ensureSpace(1);
+      String stock = totals.getStockCount() + (first.isBoard() ? " boards, " : " sheets, ");
+      writeText(fonts.bold(), FONT_SIZE, MARGIN, safe(fonts.bold(), first.materialCode()) + " total: " + stock + describe(totals));
+      nextLine();
+      materialRow = null;
+   }
+
+
+
+   /*******************************************************************************
+    ** Write the grand total line.
+    *******************************************************************************/
+   @Override
+   protected void writeTotals(CutListTotals totals) throws IOException
+   {
+      ensureSpace(2);
+      y -= ROW_HEIGHT / 2;
+      writeText(fonts.bold(), FONT_SIZE + 1, MARGIN, "Total: " + totals.getStockCount() + " sheets and boards, " + describe(totals));
+      nextLine();
+   }
+
+
+
+   /*******************************************************************************
+    ** Close the last page, number the pages, and save and close the document.
+    *******************************************************************************/
+   @Override
+   protected void finish() throws IOException
+   {
+      try(document; output)
+      {
+         if(content != null)
+         {
+            content.close();
+            content = null;
+         }
+
+         int pageCount = document.getNumberOfPages();
+         for(int i = 0; i < pageCount; i++)
+         {
+            PDPage page = document.getPage(i);
+            try(PDPageContentStream footer = new PDPageContentStream(document, page, PDPageContentStream.AppendMode.APPEND, true, true))
+            {
+               String text  = "Page " + (i + 1) + " of " + pageCount;
+               float  width = textWidth(fonts.regular(), FOOTER_SIZE, text);
+               footer.beginText();
+               footer.setFont(fonts.regular(), FOOTER_SIZE);
+               footer.newLineAtOffset(PAGE_SIZE.getWidth() - MARGIN - width, MARGIN / 2);
+               footer.showText(text);
+               footer.endText();
+            }
+         }
+
+         // Object-stream compression would pull every page into memory pools before writing
+         document.save(output, CompressParameters.NO_COMPRESSION);
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** Start a new page if fewer than the given number of lines fit on this one.
+    *******************************************************************************/
+   private void ensureSpace(int lines) throws IOException
+   {
+      if(content == null || y - lines * ROW_HEIGHT < MARGIN)
+      {
+         startPage();
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** Close the current page and start the next, with the title, column
+    ** headings and, mid-material, the material heading again.
+    *******************************************************************************/
+   private void startPage() throws IOException
+   {
+      if(content != null)
+      {
+         content.close();
+      }
+
+      PDPage page = new PDPage(PAGE_SIZE);
+      document.addPage(page);
+      content = new PDPageContentStream(document, page);
+      y = PAGE_SIZE.getHeight() - MARGIN - TITLE_SIZE;
+
+      writeText(fonts.bold(), TITLE_SIZE, MARGIN, safe(fonts.bold(), title));
+      y -= TITLE_SIZE;
+
+      writeColumns(fonts.bold(), COLUMN_HEADINGS);
+      content.setLineWidth(0.5f);
+      content.moveTo(MARGIN, y - 3);
+      content.lineTo(PAGE_SIZE.getWidth() - MARGIN, y - 3);
+      content.stroke();
+      nextLine();
+
+      if(materialRow != null)
+      {
+         writeText(fonts.bold(), FONT_SIZE + 1, MARGIN, materialHeading(materialRow) + " (continued)");
+         nextLine();
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** Write the piece columns on the current line.
+    *******************************************************************************/
+   private void writeColumns(PDFont font, String[] values) throws IOException
+   {
+      for(int i = 0; i < values.length; i++)
+      {
+         float x = COLUMN_RIGHT[i] ? COLUMN_X[i] - textWidth(font, FONT_SIZE, values[i]) : COLUMN_X[i];
+         writeText(font, FONT_SIZE, x, values[i]);
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** Write text on the current line.
+    *******************************************************************************/
+   private void writeText(PDFont font, float size, float x, String text) throws IOException
+   {
+      if(text.isEmpty())
+      {
+         return;
+      }
+      content.beginText();
+      content.setFont(font, size);
+      content.newLineAtOffset(x, y);
+      content.showText(text);
+      content.endText();
+   }
+
+
+
+   /*******************************************************************************
+    ** Move down a line.
+    *******************************************************************************/
+   private void nextLine()
+   {
+      y -= ROW_HEIGHT;
+   }
+
+
+
+   /*******************************************************************************
+    ** Heading for a material: its code and name.
+    *******************************************************************************/
+   private String materialHeading(CutListRow row)
+   {
+      String heading = row.materialCode() != null ? row.materialCode() : "No material";
+      if(row.materialName() != null)
+      {
+         heading += " - " + row.materialName();
+      }
+      return safe(fonts.bold(), heading);
+   }
+
+
+
+   /*******************************************************************************
+    ** Describe a group's totals, e.g. "14 parts, 27.31 sq ft".
+    *******************************************************************************/
+   private static String describe(CutListTotals totals)
+   {
+      String text = totals.getPieces() + (totals.getPieces() == 1 ? " part, " : " parts, ")
+         + String.format("%.2f sq ft", totals.getSquareFeet());
+      if(totals.getBoardLengthMm() > 0)
+      {
+         text += ", " + totals.getBoardLengthMm() + " mm of board";
+      }
+      return text;
+   }
+
+
+
+   /*******************************************************************************
+    ** Width of text in points.
+    *******************************************************************************/
+   private static float textWidth(PDFont font, float size, String text) throws IOException
+   {
+      return font.getStringWidth(text) / 1000 * size;
+   }
+
+
+
+   /*******************************************************************************
+    ** Shorten text with an ellipsis to fit a width at the body font size.
+    *******************************************************************************/
+   private static String truncate(PDFont font, String text, float width) throws IOException
+   {
+      if(textWidth(font, FONT_SIZE, text) <= width)
+      {
+         return text;
+      }
+
+      String shortened = text;
+      while(!shortened.isEmpty() && textWidth(font, FONT_SIZE, shortened + "...") > width)
+      {
+         shortened = shortened.substring(0, shortened.length() - 1);
+      }
+      return shortened + "...";
+   }
+
+
+
+   /*******************************************************************************
+    ** Text with any character the font cannot encode replaced by '?' (the
+    ** standard fonts only cover WinAnsi), and null as empty.
+    *******************************************************************************/
+   static String safe(PDFont font, String text)
+   {
+      if(text == null)
+      {
+         return "";
+      }
+
+      try
+      {
+         font.encode(text);
+         return text;
+      }
+      catch(IllegalArgumentException | IOException e)
+      {
+         StringBuilder builder = new StringBuilder(text.length());
+         text.codePoints().forEach(codePoint ->
+         {
+            String character = new String(Character.toChars(codePoint));
+            try
+            {
+               font.encode(character);
+               builder.append(character);
+            }
+            catch(IllegalArgumentException | IOException unencodable)
+            {
+               builder.append('?');
+            }
+         });
+         return builder.toString();
+      }
+   }
+}
@@ -12,6 +12,7 @@ import com.makers4.model.CutList;
 import com.makers4.model.CutListItem;
 import com.makers4.model.Part;
 import com.makers4.model.Project;
+import com.makers4.model.ProjectSummary;
 import com.makers4.model.RenderArtifact;
 import com.makers4.model.RenderJob;
 import com.makers4.model.User;
@@ -29,6 +30,7 @@ import com.makers4.model.lookup.OpeningType;
 import com.makers4.model.lookup.PartType;
 import com.makers4.model.lookup.ToeKickStyle;
 import com.makers4.model.lookup.UnitSystem;
+import com.makers4.processes.summary.RebuildProjectSummariesProcess;
 import java.util.List;
 
 
@@ -139,7 +141,13 @@ public class Makers4AppMetaDataProducer implements MetaDataProducerInterface<QAp
                .withName("users")
                .withLabel("Users")
                .withIcon(new QIcon().withName("people"))
-               .withTables(List.of(User.TABLE_NAME))
+               .withTables(List.of(User.TABLE_NAME)),
+            new QAppSection()
+               .withName("summaries")
+               .withLabel("Summaries")
+               .withIcon(new QIcon().withName(ProjectSummary.ICON_NAME))
+               .withTables(List.of(ProjectSummary.TABLE_NAME))
+               .withProcesses(List.of(RebuildProjectSummariesProcess.PROCESS_NAME))
          ));
    }
 }
@@ -18,6 +18,7 @@ import com.kingsrook.qqq.backend.module.rdbms.jdbc.ConnectionManager;
 import com.kingsrook.qqq.backend.module.rdbms.jdbc.QueryManager;
 import com.kingsrook.qqq.backend.module.rdbms.model.metadata.RDBMSBackendMetaData;
 import com.kingsrook.qqq.backend.module.rdbms.model.metadata.RDBMSTableBackendDetails;
+import com.makers4.cache.LookupCaching;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
@@ -56,6 +57,9 @@ public class Makers4MetaDataProvider extends AbstractQQQApplication
       MetaDataProducerHelper.processAllMetaDataProducersInPackage(qInstance, "com.makers4.processes");
       MetaDataProducerHelper.processAllMetaDataProducersInPackage(qInstance, "com.makers4.metadata");
 
+      // Serve lookup-table possible values from memory
+      LookupCaching.configure(qInstance);
+
       // Ensure backend names inferred for tables
       qInstance.getTables().values().forEach(Makers4MetaDataProvider::setTableBackendNamesForRdbms);
 
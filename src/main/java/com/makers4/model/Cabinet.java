@@ -1,10 +1,12 @@
 package com.makers4.model;
 
 
+import com.kingsrook.qqq.backend.core.actions.customizers.TableCustomizers;
 import com.kingsrook.qqq.backend.core.exceptions.QException;
 import com.kingsrook.qqq.backend.core.model.data.QField;
 import com.kingsrook.qqq.backend.core.model.data.QRecordEntity;
 import com.kingsrook.qqq.backend.core.model.metadata.QInstance;
+import com.kingsrook.qqq.backend.core.model.metadata.code.QCodeReference;
 import com.kingsrook.qqq.backend.core.model.metadata.fields.DynamicDefaultValueBehavior;
 import com.kingsrook.qqq.backend.core.model.metadata.fields.ValueTooLongBehavior;
 import com.kingsrook.qqq.backend.core.model.metadata.layout.QIcon;
@@ -30,6 +32,7 @@ import com.makers4.model.lookup.FaceType;
 import com.makers4.model.lookup.FinishedEndStyle;
 import com.makers4.model.lookup.Material;
 import com.makers4.model.lookup.ToeKickStyle;
+import com.makers4.processes.summary.ProjectSummaryTableCustomizer;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -340,6 +343,10 @@ public class Cabinet extends QRecordEntity
    @QField(backendName = "drawer_slide_type_id", possibleValueSourceName = DrawerSlideType.TABLE_NAME, label = "Drawer Slide Type")
    private Long drawerSlideTypeId;
 
+   @Column(name = "parts_input_hash", length = 64)
+   @QField(isEditable = false, maxLength = 64, backendName = "parts_input_hash", label = "Parts Input Hash")
+   private String partsInputHash;
+
    @Column(name = "createdate", nullable = false, updatable = false)
    @QField(dynamicDefaultValueBehavior = DynamicDefaultValueBehavior.CREATE_DATE, backendName = "createdate")
    private Instant createDate;
@@ -1648,6 +1655,28 @@ public class Cabinet extends QRecordEntity
 
 
 
+   public String getPartsInputHash()
+   {
+      return partsInputHash;
+   }
+
+
+
+   public Cabinet withPartsInputHash(String partsInputHash)
+   {
+      this.partsInputHash = partsInputHash;
+      return this;
+   }
+
+
+
+   public void setPartsInputHash(String partsInputHash)
+   {
+      this.partsInputHash = partsInputHash;
+   }
+
+
+
    public Instant getCreateDate()
    {
       return createDate;
@@ -1735,8 +1764,17 @@ public class Cabinet extends QRecordEntity
             .withJoinPath(List.of(partsJoinName))
             .withJoinTable(Part.TABLE_NAME));
 
+         table.addSection(new QFieldSection("partGeneration", "Part Generation", new QIcon("construction"), Tier.T3, List.of("partsInputHash")));
          table.addSection(new QFieldSection("dates", "Dates", new QIcon("event"), Tier.T3, List.of("createDate", "modifyDate")));
 
+         ///////////////////////////////////////////////////////
+         // Keep the project's summary row up to date on save //
+         ///////////////////////////////////////////////////////
+         QCodeReference summaryHook = new QCodeReference(ProjectSummaryTableCustomizer.class);
+         table.withCustomizer(TableCustomizers.POST_INSERT_RECORD.getRole(), summaryHook)
+            .withCustomizer(TableCustomizers.POST_UPDATE_RECORD.getRole(), summaryHook)
+            .withCustomizer(TableCustomizers.POST_DELETE_RECORD.getRole(), summaryHook);
+
          return table;
       }
    }
@@ -1,10 +1,12 @@
 package com.makers4.model;
 
 
+import com.kingsrook.qqq.backend.core.actions.customizers.TableCustomizers;
 import com.kingsrook.qqq.backend.core.exceptions.QException;
 import com.kingsrook.qqq.backend.core.model.data.QField;
 import com.kingsrook.qqq.backend.core.model.data.QRecordEntity;
 import com.kingsrook.qqq.backend.core.model.metadata.QInstance;
+import com.kingsrook.qqq.backend.core.model.metadata.code.QCodeReference;
 import com.kingsrook.qqq.backend.core.model.metadata.fields.DynamicDefaultValueBehavior;
 import com.kingsrook.qqq.backend.core.model.metadata.layout.QIcon;
 import com.kingsrook.qqq.backend.core.model.metadata.producers.MetaDataCustomizerInterface;
@@ -25,6 +27,7 @@ import com.makers4.model.lookup.DrawerFrontStyle;
 import com.makers4.model.lookup.EdgeProfile;
 import com.makers4.model.lookup.Material;
 import com.makers4.model.lookup.OpeningType;
+import com.makers4.processes.summary.ProjectSummaryTableCustomizer;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -696,6 +699,14 @@ public class CabinetOpening extends QRecordEntity
 
          table.addSection(new QFieldSection("dates", "Dates", new QIcon("event"), Tier.T3, List.of("createDate", "modifyDate")));
 
+         ///////////////////////////////////////////////////////
+         // Keep the project's summary row up to date on save //
+         ///////////////////////////////////////////////////////
+         QCodeReference summaryHook = new QCodeReference(ProjectSummaryTableCustomizer.class);
+         table.withCustomizer(TableCustomizers.POST_INSERT_RECORD.getRole(), summaryHook)
+            .withCustomizer(TableCustomizers.POST_UPDATE_RECORD.getRole(), summaryHook)
+            .withCustomizer(TableCustomizers.POST_DELETE_RECORD.getRole(), summaryHook);
+
          return table;
       }
    }
@@ -57,9 +57,9 @@ public class CutListItem extends QRecordEntity
    @QField(isRequired = true, backendName = "part_id", possibleValueSourceName = Part.TABLE_NAME, label = "Part")
    private Long partId;
 
-   ////////////////////////////////////////
-   // Future nesting optimization fields //
-   ////////////////////////////////////////
+   ////////////////////////////////////////////////////////////
+   // Nesting layout, written by the GenerateCutList process //
+   ////////////////////////////////////////////////////////////
    @Column(name = "sheet_number")
    @QField(backendName = "sheet_number", label = "Sheet Number")
    private Integer sheetNumber;
@@ -72,6 +72,14 @@ public class CutListItem extends QRecordEntity
    @QField(backendName = "position_y", label = "Position Y")
    private Integer positionY;
 
+   @Column(name = "rotated", nullable = false)
+   @QField(backendName = "rotated", defaultValue = "false", label = "Rotated")
+   private Boolean rotated;
+
+   @Column(name = "board_length_mm")
+   @QField(backendName = "board_length_mm", label = "Board Length (mm)")
+   private Integer boardLengthMm;
+
    @Column(name = "createdate", nullable = false, updatable = false)
    @QField(dynamicDefaultValueBehavior = DynamicDefaultValueBehavior.CREATE_DATE, backendName = "createdate")
    private Instant createDate;
@@ -258,6 +266,50 @@ public class CutListItem extends QRecordEntity
 
 
 
+   public Boolean getRotated()
+   {
+      return rotated;
+   }
+
+
+
+   public CutListItem withRotated(Boolean rotated)
+   {
+      this.rotated = rotated;
+      return this;
+   }
+
+
+
+   public void setRotated(Boolean rotated)
+   {
+      this.rotated = rotated;
+   }
+
+
+
+   public Integer getBoardLengthMm()
+   {
+      return boardLengthMm;
+   }
+
+
+
+   public CutListItem withBoardLengthMm(Integer boardLengthMm)
+   {
+      this.boardLengthMm = boardLengthMm;
+      return this;
+   }
+
+
+
+   public void setBoardLengthMm(Integer boardLengthMm)
+   {
+      this.boardLengthMm = boardLengthMm;
+   }
+
+
+
    public Instant getCreateDate()
    {
       return createDate;
@@ -315,7 +367,7 @@ public class CutListItem extends QRecordEntity
             .withBackendName(Makers4MetaDataProvider.RDBMS_BACKEND_NAME);
 
          table.addSection(new QFieldSection("identity", "Identity", new QIcon(ICON_NAME), Tier.T1, List.of("id", "cutListId", "partId")));
-         table.addSection(new QFieldSection("nesting", "Nesting", new QIcon("grid_on"), Tier.T2, List.of("sheetNumber", "positionX", "positionY")));
+         table.addSection(new QFieldSection("nesting", "Nesting", new QIcon("grid_on"), Tier.T2, List.of("sheetNumber", "positionX", "positionY", "rotated", "boardLengthMm")));
          table.addSection(new QFieldSection("dates", "Dates", new QIcon("event"), Tier.T3, List.of("createDate", "modifyDate")));
 
          return table;
@@ -1,10 +1,12 @@
 package com.makers4.model;
 
 
+import com.kingsrook.qqq.backend.core.actions.customizers.TableCustomizers;
 import com.kingsrook.qqq.backend.core.exceptions.QException;
 import com.kingsrook.qqq.backend.core.model.data.QField;
 import com.kingsrook.qqq.backend.core.model.data.QRecordEntity;
 import com.kingsrook.qqq.backend.core.model.metadata.QInstance;
+import com.kingsrook.qqq.backend.core.model.metadata.code.QCodeReference;
 import com.kingsrook.qqq.backend.core.model.metadata.fields.DynamicDefaultValueBehavior;
 import com.kingsrook.qqq.backend.core.model.metadata.fields.ValueTooLongBehavior;
 import com.kingsrook.qqq.backend.core.model.metadata.layout.QIcon;
@@ -17,6 +19,7 @@ import com.kingsrook.qqq.backend.core.model.metadata.tables.UniqueKey;
 import com.makers4.metadata.Makers4MetaDataProvider;
 import com.makers4.model.lookup.Material;
 import com.makers4.model.lookup.PartType;
+import com.makers4.processes.summary.ProjectSummaryTableCustomizer;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -530,6 +533,14 @@ public class Part extends QRecordEntity
          table.addSection(new QFieldSection("notes", "Notes", new QIcon("notes"), Tier.T2, List.of("notes", "edgeBandingNotes")));
          table.addSection(new QFieldSection("dates", "Dates", new QIcon("event"), Tier.T3, List.of("createDate", "modifyDate")));
 
+         ///////////////////////////////////////////////////////
+         // Keep the project's summary row up to date on save //
+         ///////////////////////////////////////////////////////
+         QCodeReference summaryHook = new QCodeReference(ProjectSummaryTableCustomizer.class);
+         table.withCustomizer(TableCustomizers.POST_INSERT_RECORD.getRole(), summaryHook)
+            .withCustomizer(TableCustomizers.POST_UPDATE_RECORD.getRole(), summaryHook)
+            .withCustomizer(TableCustomizers.POST_DELETE_RECORD.getRole(), summaryHook);
+
          return table;
       }
    }
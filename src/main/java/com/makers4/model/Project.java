@@ -41,6 +41,12 @@ import java.util.List;
    tableMetaDataCustomizer = Project.TableMetaDataCustomizer.class,
    producePossibleValueSource = true,
    childTables = {
+      @ChildTable(
+         joinFieldName = "projectId",
+         childTableEntityClass = ProjectSummary.class,
+         childJoin = @ChildJoin(enabled = true),
+         childRecordListWidget = @ChildRecordListWidget(enabled = true, label = "Summary", maxRows = 1)
+      ),
       @ChildTable(
          joinFieldName = "projectId",
          childTableEntityClass = Cabinet.class,
@@ -689,6 +695,12 @@ public class Project extends QRecordEntity
          table.addSection(new QFieldSection("boxMaterials", "Box Material Defaults", new QIcon("inventory_2"), Tier.T2, List.of("defaultBoxMaterialId", "defaultBackMaterialId", "defaultDrawerBoxMaterialId")));
          table.addSection(new QFieldSection("faceMaterials", "Face/Door Material Defaults", new QIcon("door_front"), Tier.T2, List.of("defaultFaceFrameMaterialId", "defaultDoorFrameMaterialId", "defaultDoorPanelMaterialId", "defaultDrawerFrontMaterialId")));
 
+         /////////////////////
+         // Summary Section //
+         /////////////////////
+         String summaryJoinName = QJoinMetaData.makeInferredJoinName(Project.TABLE_NAME, ProjectSummary.TABLE_NAME);
+         table.addSection(new QFieldSection("summary", new QIcon().withName(ProjectSummary.ICON_NAME), Tier.T2).withLabel("Summary").withWidgetName(summaryJoinName));
+
          /////////////////////////////
          // Child Cabinets Section //
          /////////////////////////////
@@ -0,0 +1,405 @@
+package com.makers4.model;
+
+
+import com.kingsrook.qqq.backend.core.exceptions.QException;
+import com.kingsrook.qqq.backend.core.model.data.QField;
+import com.kingsrook.qqq.backend.core.model.data.QRecordEntity;
+import com.kingsrook.qqq.backend.core.model.metadata.QInstance;
+import com.kingsrook.qqq.backend.core.model.metadata.fields.DynamicDefaultValueBehavior;
+import com.kingsrook.qqq.backend.core.model.metadata.layout.QIcon;
+import com.kingsrook.qqq.backend.core.model.metadata.producers.MetaDataCustomizerInterface;
+import com.kingsrook.qqq.backend.core.model.metadata.producers.annotations.QMetaDataProducingEntity;
+import com.kingsrook.qqq.backend.core.model.metadata.tables.QFieldSection;
+import com.kingsrook.qqq.backend.core.model.metadata.tables.QTableMetaData;
+import com.kingsrook.qqq.backend.core.model.metadata.tables.Tier;
+import com.kingsrook.qqq.backend.core.model.metadata.tables.UniqueKey;
+import com.makers4.metadata.Makers4MetaDataProvider;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+
+@Entity
+@Table(name = ProjectSummary.TABLE_NAME)
+@QMetaDataProducingEntity(
+   produceTableMetaData = true,
+   tableMetaDataCustomizer = ProjectSummary.TableMetaDataCustomizer.class
+)
+public class ProjectSummary extends QRecordEntity
+{
+   public static final String TABLE_NAME  = "project_summary";
+   public static final String TABLE_LABEL = "Project Summaries";
+   public static final String ICON_NAME   = "summarize";
+
+   @Id
+   @GeneratedValue(strategy = GenerationType.IDENTITY)
+   @Column(name = "id", nullable = false)
+   @QField(isEditable = false, isPrimaryKey = true)
+   private Long id;
+
+   @ManyToOne
+   @JoinColumn(name = "project_id", insertable = false, updatable = false)
+   private Project project;
+
+   @Column(name = "project_id", nullable = false, unique = true)
+   @QField(isRequired = true, isEditable = false, backendName = "project_id", possibleValueSourceName = Project.TABLE_NAME, label = "Project")
+   private Long projectId;
+
+   @Column(name = "cabinet_count", nullable = false)
+   @QField(isEditable = false, backendName = "cabinet_count", defaultValue = "0", label = "Cabinets")
+   private Integer cabinetCount;
+
+   @Column(name = "opening_count", nullable = false)
+   @QField(isEditable = false, backendName = "opening_count", defaultValue = "0", label = "Openings")
+   private Integer openingCount;
+
+   @Column(name = "part_count", nullable = false)
+   @QField(isEditable = false, backendName = "part_count", defaultValue = "0", label = "Parts")
+   private Integer partCount;
+
+   @Column(name = "sheet_count", nullable = false)
+   @QField(isEditable = false, backendName = "sheet_count", defaultValue = "0", label = "Sheets")
+   private Integer sheetCount;
+
+   @Column(name = "sheet_area_sqft", nullable = false, precision = 12, scale = 2)
+   @QField(isEditable = false, backendName = "sheet_area_sqft", defaultValue = "0", label = "Sheet Area (sq ft)")
+   private BigDecimal sheetAreaSqFt;
+
+   @Column(name = "board_feet", nullable = false, precision = 12, scale = 2)
+   @QField(isEditable = false, backendName = "board_feet", defaultValue = "0", label = "Board Feet")
+   private BigDecimal boardFeet;
+
+   @Column(name = "estimated_cost", nullable = false, precision = 12, scale = 2)
+   @QField(isEditable = false, backendName = "estimated_cost", defaultValue = "0", label = "Estimated Cost")
+   private BigDecimal estimatedCost;
+
+   @Column(name = "refreshed_at", nullable = false)
+   @QField(isRequired = true, isEditable = false, backendName = "refreshed_at", label = "Refreshed At")
+   private Instant refreshedAt;
+
+   @Column(name = "createdate", nullable = false, updatable = false)
+   @QField(dynamicDefaultValueBehavior = DynamicDefaultValueBehavior.CREATE_DATE, backendName = "createdate")
+   private Instant createDate;
+
+   @Column(name = "modifydate", nullable = false)
+   @QField(dynamicDefaultValueBehavior = DynamicDefaultValueBehavior.MODIFY_DATE, backendName = "modifydate")
+   private Instant modifyDate;
+
+
+
+   public Long getId()
+   {
+      return id;
+   }
+
+
+
+   public ProjectSummary withId(Long id)
+   {
+      this.id = id;
+      return this;
+   }
+
+
+
+   public void setId(Long id)
+   {
+      this.id = id;
+   }
+
+
+
+   public Project getProject()
+   {
+      return project;
+   }
+
+
+
+   public ProjectSummary withProject(Project project)
+   {
+      this.project = project;
+      return this;
+   }
+
+
+
+   public void setProject(Project project)
+   {
+      this.project = project;
+   }
+
+
+
+   public Long getProjectId()
+   {
+      return projectId;
+   }
+
+
+
+   public ProjectSummary withProjectId(Long projectId)
+   {
+      this.projectId = projectId;
+      return this;
+   }
+
+
+
+   public void setProjectId(Long projectId)
+   {
+      this.projectId = projectId;
+   }
+
+
+
+   public Integer getCabinetCount()
+   {
+      return cabinetCount;
+   }
+
+
+
+   public ProjectSummary withCabinetCount(Integer cabinetCount)
+   {
+      this.cabinetCount = cabinetCount;
+      return this;
+   }
+
+
+
+   public void setCabinetCount(Integer cabinetCount)
+   {
+      this.cabinetCount = cabinetCount;
+   }
+
+
+
+   public Integer getOpeningCount()
+   {
+      return openingCount;
+   }
+
+
+
+   public ProjectSummary withOpeningCount(Integer openingCount)
+   {
+      this.openingCount = openingCount;
+      return this;
+   }
+
+
+
+   public void setOpeningCount(Integer openingCount)
+   {
+      this.openingCount = openingCount;
+   }
+
+
+
+   public Integer getPartCount()
+   {
+      return partCount;
+   }
+
+
+
+   public ProjectSummary withPartCount(Integer partCount)
+   {
+      this.partCount = partCount;
+      return this;
+   }
+
+
+
+   public void setPartCount(Integer partCount)
+   {
+      this.partCount = partCount;
+   }
+
+
+
+   public Integer getSheetCount()
+   {
+      return sheetCount;
+   }
+
+
+
+   public ProjectSummary withSheetCount(Integer sheetCount)
+   {
+      this.sheetCount = sheetCount;
+      return this;
+   }
+
+
+
+   public void setSheetCount(Integer sheetCount)
+   {
+      this.sheetCount = sheetCount;
+   }
+
+
+
+   public BigDecimal getSheetAreaSqFt()
+   {
+      return sheetAreaSqFt;
+   }
+
+
+
+   public ProjectSummary withSheetAreaSqFt(BigDecimal sheetAreaSqFt)
+   {
+      this.sheetAreaSqFt = sheetAreaSqFt;
+      return this;
+   }
+
+
+
+   public void setSheetAreaSqFt(BigDecimal sheetAreaSqFt)
+   {
+      this.sheetAreaSqFt = sheetAreaSqFt;
+   }
+
+
+
+   public BigDecimal getBoardFeet()
+   {
+      return boardFeet;
+   }
+
+
+
+   public ProjectSummary withBoardFeet(BigDecimal boardFeet)
+   {
+      this.boardFeet = boardFeet;
+      return this;
+   }
+
+
+
+   public void setBoardFeet(BigDecimal boardFeet)
+   {
+      this.boardFeet = boardFeet;
+   }
+
+
+
+   public BigDecimal getEstimatedCost()
+   {
+      return estimatedCost;
+   }
+
+
+
+   public ProjectSummary withEstimatedCost(BigDecimal estimatedCost)
+   {
+      this.estimatedCost = estimatedCost;
+      return this;
+   }
+
+
+
+   public void setEstimatedCost(BigDecimal estimatedCost)
+   {
+      this.estimatedCost = estimatedCost;
+   }
+
+
+
+   public Instant getRefreshedAt()
+   {
+      return refreshedAt;
+   }
+
+
+
+   public ProjectSummary withRefreshedAt(Instant refreshedAt)
+   {
+      this.refreshedAt = refreshedAt;
+      return this;
+   }
+
+
+
+   public void setRefreshedAt(Instant refreshedAt)
+   {
+      this.refreshedAt = refreshedAt;
+   }
+
+
+
+   public Instant getCreateDate()
+   {
+      return createDate;
+   }
+
+
+
+   public ProjectSummary withCreateDate(Instant createDate)
+   {
+      this.createDate = createDate;
+      return this;
+   }
+
+
+
+   public void setCreateDate(Instant createDate)
+   {
+      this.createDate = createDate;
+   }
+
+
+
+   public Instant getModifyDate()
+   {
+      return modifyDate;
+   }
+
+
+
+   public ProjectSummary withModifyDate(Instant modifyDate)
+   {
+      this.modifyDate = modifyDate;
+      return this;
+   }
+
+
+
+   public void setModifyDate(Instant modifyDate)
+   {
+      this.modifyDate = modifyDate;
+   }
+
+
+
+   public static class TableMetaDataCustomizer implements MetaDataCustomizerInterface<QTableMetaData>
+   {
+      @Override
+      public QTableMetaData customizeMetaData(QInstance qInstance, QTableMetaData table) throws QException
+      {
+         table.withUniqueKey(new UniqueKey("id"))
+            .withUniqueKey(new UniqueKey("projectId"))
+            .withIcon(new QIcon().withName(ICON_NAME))
+            .withLabel(TABLE_LABEL)
+            .withRecordLabelFormat("%s")
+            .withRecordLabelFields(List.of("projectId"))
+            .withBackendName(Makers4MetaDataProvider.RDBMS_BACKEND_NAME);
+
+         table.addSection(new QFieldSection("identity", "Identity", new QIcon(ICON_NAME), Tier.T1, List.of("id", "projectId", "refreshedAt")));
+         table.addSection(new QFieldSection("counts", "Counts", new QIcon("tag"), Tier.T2, List.of("cabinetCount", "openingCount", "partCount", "sheetCount")));
+         table.addSection(new QFieldSection("materials", "Materials", new QIcon("inventory_2"), Tier.T2, List.of("sheetAreaSqFt", "boardFeet", "estimatedCost")));
+         table.addSection(new QFieldSection("dates", "Dates", new QIcon("event"), Tier.T3, List.of("createDate", "modifyDate")));
+
+         return table;
+      }
+   }
+}
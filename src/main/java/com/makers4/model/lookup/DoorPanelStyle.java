@@ -19,6 +19,7 @@ import com.kingsrook.qqq.backend.core.model.metadata.tables.QFieldSection;
 import com.kingsrook.qqq.backend.core.model.metadata.tables.QTableMetaData;
 import com.kingsrook.qqq.backend.core.model.metadata.tables.Tier;
 import com.kingsrook.qqq.backend.core.model.metadata.tables.UniqueKey;
+import com.makers4.cache.LookupPossibleValueProvider;
 import com.makers4.model.Cabinet;
 import com.makers4.metadata.Makers4MetaDataProvider;
 import jakarta.persistence.Column;
@@ -264,6 +265,16 @@ public class DoorPanelStyle extends QRecordEntity
 
 
 
+   public static class PossibleValueProvider extends LookupPossibleValueProvider
+   {
+      public PossibleValueProvider()
+      {
+         super(TABLE_NAME);
+      }
+   }
+
+
+
    public static class TableMetaDataCustomizer implements MetaDataCustomizerInterface<QTableMetaData>
    {
       @Override
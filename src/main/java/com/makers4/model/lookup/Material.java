@@ -75,6 +75,10 @@ public class Material extends QRecordEntity
    @QField(backendName = "cost_per_sqft", label = "Cost per Sq Ft")
    private BigDecimal costPerSqFt;
 
+   @Column(name = "cost_per_board_foot", precision = 10, scale = 2)
+   @QField(backendName = "cost_per_board_foot", label = "Cost per Board Foot")
+   private BigDecimal costPerBoardFoot;
+
    @Column(name = "sort_order", nullable = false)
    @QField(isRequired = true, backendName = "sort_order", defaultValue = "0")
    private Integer sortOrder;
@@ -291,6 +295,28 @@ public class Material extends QRecordEntity
 
 
 
+   public BigDecimal getCostPerBoardFoot()
+   {
+      return costPerBoardFoot;
+   }
+
+
+
+   public Material withCostPerBoardFoot(BigDecimal costPerBoardFoot)
+   {
+      this.costPerBoardFoot = costPerBoardFoot;
+      return this;
+   }
+
+
+
+   public void setCostPerBoardFoot(BigDecimal costPerBoardFoot)
+   {
+      this.costPerBoardFoot = costPerBoardFoot;
+   }
+
+
+
    public Integer getSortOrder()
    {
       return sortOrder;
@@ -393,7 +419,7 @@ public class Material extends QRecordEntity
             .withBackendName(Makers4MetaDataProvider.RDBMS_BACKEND_NAME);
 
          table.addSection(new QFieldSection("identity", "Identity", new QIcon(ICON_NAME), Tier.T1, List.of("id", "code", "name", "materialTypeId")));
-         table.addSection(new QFieldSection("details", "Details", new QIcon("description"), Tier.T2, List.of("species", "thicknessMm", "nominalThickness", "costPerSqFt")));
+         table.addSection(new QFieldSection("details", "Details", new QIcon("description"), Tier.T2, List.of("species", "thicknessMm", "nominalThickness", "costPerSqFt", "costPerBoardFoot")));
          table.addSection(new QFieldSection("settings", "Settings", new QIcon("settings"), Tier.T2, List.of("sortOrder", "isActive")));
          table.addSection(new QFieldSection("dates", "Dates", new QIcon("event"), Tier.T3, List.of("createDate", "modifyDate")));
 
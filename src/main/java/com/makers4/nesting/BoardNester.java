@@ -0,0 +1,274 @@
+package com.makers4.nesting;
+
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+
+/*******************************************************************************
+ ** One-dimensional cutting-stock nester: assigns pieces of one profile (same
+ ** material and width) to standard-length boards so that the total length of
+ ** stock bought is as small as it can find.
+ **
+ ** A first-fit-decreasing pass gives the starting solution: pieces are taken
+ ** longest first and each goes on the first open board it fits, a new board
+ ** being opened when none has room.  A depth-first branch-and-bound search
+ ** then tries every other assignment, in the same order, pruning any branch
+ ** whose lower bound cannot beat the best so far, until it has proved the
+ ** best optimal or visited the node limit.  Every board is bought at the
+ ** shortest standard length that holds its pieces, kerfs and end trim.
+ *******************************************************************************/
+public class BoardNester
+{
+
+   /*******************************************************************************
+    ** Nest pieces onto boards.  Pieces longer than the longest board are
+    ** returned as unplaced rather than failing the rest.
+    *******************************************************************************/
+   public BoardNestingResult nest(List<NestingPiece> pieces, BoardSettings settings)
+   {
+      Search search = new Search(pieces, settings);
+      return search.run();
+   }
+
+
+
+   /*******************************************************************************
+    ** State of one nesting run.  Board loads include the kerfs between their
+    ** pieces but not the end trim.
+    *******************************************************************************/
+   private static class Search
+   {
+      private final BoardSettings      settings;
+      private final List<NestingPiece> sorted;
+      private final List<NestingPiece> unplaced = new ArrayList<>();
+      private final int[]              lengths;
+      private final long[]             remainingAfter;
+      private final int                capacity;
+
+      // Current branch
+      private final int[] assignment;
+      private final int[] loads;
+      private int         boardCount;
+
+      // Best complete assignment
+      private int[] bestAssignment;
+      private long  bestCost = Long.MAX_VALUE;
+      private int   bestBoardCount;
+
+      private long    nodes;
+      private boolean exhausted;
+
+
+
+      /*******************************************************************************
+       ** Constructor.
+       *******************************************************************************/
+      Search(List<NestingPiece> pieces, BoardSettings settings)
+      {
+         this.settings = settings;
+
+         List<Integer> boardLengths = settings.getBoardLengthsMm();
+         this.capacity = boardLengths.get(boardLengths.size() - 1) - 2 * settings.getEndTrimMm();
+
+         this.sorted = new ArrayList<>();
+         for(NestingPiece piece : pieces)
+         {
+            if(piece.length() > capacity)
+            {
+               unplaced.add(piece);
+            }
+            else
+            {
+               sorted.add(piece);
+            }
+         }
+         sorted.sort(Comparator.comparingInt(NestingPiece::length).reversed());
+
+         int count = sorted.size();
+         this.lengths = new int[count];
+         this.remainingAfter = new long[count + 1];
+         for(int i = count - 1; i >= 0; i--)
+         {
+            lengths[i] = sorted.get(i).length();
+            remainingAfter[i] = remainingAfter[i + 1] + lengths[i];
+         }
+
+         this.assignment = new int[count];
+         this.loads = new int[count];
+      }
+
+
+
+      /*******************************************************************************
+       ** Find the starting solution, improve it, and build the result.
+       *******************************************************************************/
+      BoardNestingResult run()
+      {
+         firstFitDecreasing();
+         branch(0, 0);
+         return toResult();
+      }
+
+
+
+      /*******************************************************************************
+       ** Seed the best solution with first-fit decreasing.
+       *******************************************************************************/
+      private void firstFitDecreasing()
+      {
+         int[] ffdLoads = new int[lengths.length];
+         int   boards   = 0;
+         bestAssignment = new int[lengths.length];
+         for(int i = 0; i < lengths.length; i++)
+         {
+            int board = 0;
+            while(board < boards && ffdLoads[board] + settings.getKerfMm() + lengths[i] > capacity)
+            {
+               board++;
+            }
+
+            ffdLoads[board] = board == boards ? lengths[i] : ffdLoads[board] + settings.getKerfMm() + lengths[i];
+            boards = Math.max(boards, board + 1);
+            bestAssignment[i] = board;
+         }
+
+         bestBoardCount = boards;
+         bestCost = 0;
+         for(int board = 0; board < boards; board++)
+         {
+            bestCost += boardCost(ffdLoads[board]);
+         }
+      }
+
+
+
+      /*******************************************************************************
+       ** Depth-first search over where piece i goes: each open board it fits
+       ** (skipping boards loaded the same as one already tried), then a new
+       ** board.  cost is the stock cost of the boards open so far.
+       *******************************************************************************/
+      private void branch(int i, long cost)
+      {
+         if(nodes >= settings.getMaxNodes())
+         {
+            exhausted = true;
+            return;
+         }
+         nodes++;
+
+         if(i == lengths.length)
+         {
+            if(cost < bestCost || (cost == bestCost && boardCount < bestBoardCount))
+            {
+               bestCost = cost;
+               bestBoardCount = boardCount;
+               bestAssignment = assignment.clone();
+            }
+            return;
+         }
+
+         if(lowerBound(i, cost) >= bestCost)
+         {
+            return;
+         }
+
+         int          kerf  = settings.getKerfMm();
+         Set<Integer> tried = new HashSet<>();
+         for(int board = 0; board < boardCount; board++)
+         {
+            int load    = loads[board];
+            int newLoad = load + kerf + lengths[i];
+            if(newLoad > capacity || !tried.add(load))
+            {
+               continue;
+            }
+
+            loads[board] = newLoad;
+            assignment[i] = board;
+            branch(i + 1, cost - boardCost(load) + boardCost(newLoad));
+            loads[board] = load;
+         }
+
+         loads[boardCount] = lengths[i];
+         assignment[i] = boardCount;
+         boardCount++;
+         branch(i + 1, cost + boardCost(lengths[i]));
+         boardCount--;
+      }
+
+
+
+      /*******************************************************************************
+       ** Lower bound on the final cost with pieces from i on still to place:
+       ** the boards bought so far, plus whatever of those pieces cannot fit in
+       ** the boards' unused length (which costs at least its own length,
+       ** whether on a new board or by moving a board up to a longer size).
+       *******************************************************************************/
+      private long lowerBound(int i, long cost)
+      {
+         long slack = 0;
+         for(int board = 0; board < boardCount; board++)
+         {
+            slack += boardCost(loads[board]) - 2L * settings.getEndTrimMm() - loads[board];
+         }
+         return cost + Math.max(0, remainingAfter[i] - slack);
+      }
+
+
+
+      /*******************************************************************************
+       ** Length of the shortest standard board that holds a load.
+       *******************************************************************************/
+      private int boardCost(int load)
+      {
+         for(int length : settings.getBoardLengthsMm())
+         {
+            if(load + 2 * settings.getEndTrimMm() <= length)
+            {
+               return length;
+            }
+         }
+         throw new IllegalStateException("Load " + load + " exceeds the longest board");
+      }
+
+
+
+      /*******************************************************************************
+       ** Lay the best assignment out: pieces go along each board from the
+       ** trimmed end, a kerf apart, in length order.
+       *******************************************************************************/
+      private BoardNestingResult toResult()
+      {
+         List<List<NestingPiece>> boards = new ArrayList<>();
+         for(int board = 0; board < bestBoardCount; board++)
+         {
+            boards.add(new ArrayList<>());
+         }
+         for(int i = 0; i < lengths.length; i++)
+         {
+            boards.get(bestAssignment[i]).add(sorted.get(i));
+         }
+
+         List<BoardPlacement> placements   = new ArrayList<>();
+         List<Integer>        boardLengths = new ArrayList<>();
+         for(int board = 0; board < boards.size(); board++)
+         {
+            int offset = settings.getEndTrimMm();
+            int load   = -settings.getKerfMm();
+            for(NestingPiece piece : boards.get(board))
+            {
+               placements.add(new BoardPlacement(piece, board, offset));
+               offset += piece.length() + settings.getKerfMm();
+               load += piece.length() + settings.getKerfMm();
+            }
+            boardLengths.add(boardCost(load));
+         }
+
+         return new BoardNestingResult(placements, boardLengths, unplaced, nodes, !exhausted);
+      }
+   }
+}
@@ -0,0 +1,44 @@
+package com.makers4.nesting;
+
+
+import java.util.List;
+
+
+/*******************************************************************************
+ ** The best board assignment a linear nesting search found.
+ **
+ ** @param placements    one per placed piece, grouped by board
+ ** @param boardLengths  length of each board used (mm), by board index
+ ** @param unplaced      pieces longer than the longest board
+ ** @param exploredNodes branch-and-bound nodes visited
+ ** @param optimal       whether the search finished rather than hitting its
+ **                      node limit, so no shorter total stock exists
+ *******************************************************************************/
+public record BoardNestingResult(List<BoardPlacement> placements, List<Integer> boardLengths, List<NestingPiece> unplaced, long exploredNodes, boolean optimal)
+{
+
+   /*******************************************************************************
+    ** Total length of stock used (mm).
+    *******************************************************************************/
+   public long totalLengthMm()
+   {
+      return boardLengths.stream().mapToLong(Integer::longValue).sum();
+   }
+
+
+
+   /*******************************************************************************
+    ** Fraction of the used boards' length that ends up in parts (0 to 1).
+    *******************************************************************************/
+   public double utilization()
+   {
+      long total = totalLengthMm();
+      if(total == 0)
+      {
+         return 0;
+      }
+
+      long partLength = placements.stream().mapToLong(placement -> placement.piece().length()).sum();
+      return (double) partLength / total;
+   }
+}
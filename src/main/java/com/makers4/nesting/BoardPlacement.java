@@ -0,0 +1,10 @@
+package com.makers4.nesting;
+
+
+/*******************************************************************************
+ ** Where a piece is cut from linear stock: its board (0-based) and the
+ ** distance from the board's end to the start of the piece.
+ *******************************************************************************/
+public record BoardPlacement(NestingPiece piece, int boardIndex, int offset)
+{
+}
@@ -0,0 +1,91 @@
+package com.makers4.nesting;
+
+
+import java.util.Arrays;
+import java.util.List;
+
+
+/*******************************************************************************
+ ** Stock board and search settings for linear (1D) nesting of solid-wood
+ ** parts.  Uses builder pattern for easy configuration.  All sizes are
+ ** millimeters.
+ *******************************************************************************/
+public class BoardSettings
+{
+   // Standard board lengths stocked: 8', 10' and 12'
+   private List<Integer> boardLengthsMm = List.of(2440, 3050, 3660);
+
+   // Saw blade kerf between neighbouring parts, and checked end trimmed off each end
+   private int kerfMm    = 3;
+   private int endTrimMm = 0;
+
+   // Branch-and-bound search nodes explored per group before keeping the best found
+   private int maxNodes = 200_000;
+
+
+
+   public BoardSettings withBoardLengthsMm(Integer... boardLengthsMm)
+   {
+      if(boardLengthsMm.length == 0 || Arrays.stream(boardLengthsMm).anyMatch(length -> length == null || length <= 0))
+      {
+         throw new IllegalArgumentException("Board lengths must be positive: " + Arrays.toString(boardLengthsMm));
+      }
+      this.boardLengthsMm = Arrays.stream(boardLengthsMm).sorted().distinct().toList();
+      return this;
+   }
+
+
+
+   public BoardSettings withKerfMm(int kerfMm)
+   {
+      this.kerfMm = Math.max(0, kerfMm);
+      return this;
+   }
+
+
+
+   public BoardSettings withEndTrimMm(int endTrimMm)
+   {
+      this.endTrimMm = Math.max(0, endTrimMm);
+      return this;
+   }
+
+
+
+   public BoardSettings withMaxNodes(int maxNodes)
+   {
+      this.maxNodes = Math.max(0, maxNodes);
+      return this;
+   }
+
+
+
+   /*******************************************************************************
+    ** Standard board lengths, shortest first.
+    *******************************************************************************/
+   public List<Integer> getBoardLengthsMm()
+   {
+      return boardLengthsMm;
+   }
+
+
+
+   public int getKerfMm()
+   {
+      return kerfMm;
+   }
+
+
+
+   public int getEndTrimMm()
+   {
+      return endTrimMm;
+   }
+
+
+
+   public int getMaxNodes()
+   {
+      return maxNodes;
+   }
+}
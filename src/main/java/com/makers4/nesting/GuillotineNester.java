@@ -0,0 +1,742 @@
+package com.makers4.nesting;
+
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/*******************************************************************************
+ ** Two-dimensional guillotine nester: places pieces on as few stock sheets as
+ ** it can find, with every cut running edge to edge as on a panel saw.
+ **
+ ** Each layout is built by a greedy packer that takes the pieces in a given
+ ** order and puts each into the free rectangle it fits best, splitting the
+ ** remainder into two smaller rectangles with a kerf between the piece and
+ ** each offcut.  Grain-bound pieces keep their length along the sheet length;
+ ** others may be rotated.
+ **
+ ** The search runs on a fork/join pool in two phases.  First, every
+ ** combination of a few sort orders and packing rules is packed in parallel,
+ ** along with the winning order of an earlier run on similar pieces when
+ ** NestingCache supplies one.
+ ** Then each worker perturbs the best of those (swapping and moving pieces in
+ ** the order) and keeps any layout that is no worse.  It stops at the time
+ ** budget, the iteration cap, or as soon as a layout reaches the area lower
+ ** bound; the best layout found so far is returned.  Layouts are ranked by
+ ** sheet count, then by how empty the emptiest sheet is (a consolidated
+ ** layout leaves a bigger reusable offcut).
+ *******************************************************************************/
+public class GuillotineNester
+{
+
+   /*******************************************************************************
+    ** Rule for choosing a free rectangle and for splitting what is left of it.
+    *******************************************************************************/
+   enum Heuristic
+   {
+      BEST_AREA_SHORTER_SPLIT(true, false),
+      BEST_AREA_LONGER_SPLIT(true, true),
+      BEST_SHORT_SIDE_SHORTER_SPLIT(false, false),
+      BEST_SHORT_SIDE_LONGER_SPLIT(false, true);
+
+      private final boolean bestAreaFit;
+      private final boolean splitLongerLeftover;
+
+
+
+      /*******************************************************************************
+       ** Constructor.
+       *******************************************************************************/
+      Heuristic(boolean bestAreaFit, boolean splitLongerLeftover)
+      {
+         this.bestAreaFit = bestAreaFit;
+         this.splitLongerLeftover = splitLongerLeftover;
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** Nest pieces onto sheets.  Pieces too large for a sheet in every allowed
+    ** orientation are returned as unplaced rather than failing the rest.
+    *******************************************************************************/
+   public NestingResult nest(List<NestingPiece> pieces, NestingSettings settings)
+   {
+      return nest(pieces, settings, null).result();
+   }
+
+
+
+   /*******************************************************************************
+    ** Nest pieces onto sheets, also trying the packing order of an earlier
+    ** similar run (if any) first, and return the result with the order that
+    ** produced it.
+    *******************************************************************************/
+   Outcome nest(List<NestingPiece> pieces, NestingSettings settings, Seed seed)
+   {
+      if(pieces.isEmpty())
+      {
+         return new Outcome(new NestingResult(List.of(), List.of(), 0, 0), new Seed(List.of(), Heuristic.values()[0]));
+      }
+
+      Search       search = new Search(pieces, settings, seed);
+      ForkJoinPool pool   = new ForkJoinPool(settings.getParallelism());
+      try
+      {
+         return search.run(pool);
+      }
+      finally
+      {
+         pool.shutdownNow();
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** The packing order and rule of a finished layout, by piece rather than by
+    ** index, so it can start the search for a similar set of pieces.
+    *******************************************************************************/
+   record Seed(List<NestingPiece> order, Heuristic heuristic)
+   {
+   }
+
+
+
+   /*******************************************************************************
+    ** A nesting result and the seed that reproduces it.
+    *******************************************************************************/
+   record Outcome(NestingResult result, Seed seed)
+   {
+   }
+
+
+
+   /*******************************************************************************
+    ** An order to pack the pieces in, and the rule to pack them by.
+    *******************************************************************************/
+   record Candidate(int[] order, Heuristic heuristic)
+   {
+   }
+
+
+
+   /*******************************************************************************
+    ** A packed layout: per piece (by input index) its sheet (-1 if unplaced),
+    ** position and rotation.
+    *******************************************************************************/
+   static final class Layout
+   {
+      final Candidate candidate;
+      final int[]     sheet;
+      final int[]     x;
+      final int[]     y;
+      final boolean[] rotated;
+
+      int  sheetCount;
+      long emptiestSheetArea;
+
+
+
+      /*******************************************************************************
+       ** Constructor.
+       *******************************************************************************/
+      Layout(Candidate candidate, int size)
+      {
+         this.candidate = candidate;
+         this.sheet = new int[size];
+         this.x = new int[size];
+         this.y = new int[size];
+         this.rotated = new boolean[size];
+      }
+
+
+
+      /*******************************************************************************
+       ** Whether this layout ranks strictly better than another.
+       *******************************************************************************/
+      boolean isBetterThan(Layout other)
+      {
+         if(sheetCount != other.sheetCount)
+         {
+            return sheetCount < other.sheetCount;
+         }
+         return emptiestSheetArea < other.emptiestSheetArea;
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** State of one nest() call, shared read-only by its fork/join tasks.
+    *******************************************************************************/
+   static final class Search
+   {
+      private final List<NestingPiece> pieces;
+      private final NestingSettings    settings;
+      private final Seed               seed;
+      private final int[]              lengths;
+      private final int[]              widths;
+      private final boolean[]          rotatable;
+      private final int                lowerBound;
+      private final long               deadlineNanos;
+      private final AtomicLong         evaluated = new AtomicLong();
+
+
+
+      /*******************************************************************************
+       ** Constructor.
+       *******************************************************************************/
+      Search(List<NestingPiece> pieces, NestingSettings settings, Seed seed)
+      {
+         this.pieces = pieces;
+         this.settings = settings;
+         this.seed = seed;
+         this.deadlineNanos = System.nanoTime() + settings.getTimeBudget().toNanos();
+
+         int n = pieces.size();
+         lengths = new int[n];
+         widths = new int[n];
+         rotatable = new boolean[n];
+
+         long placeableArea = 0;
+         for(int i = 0; i < n; i++)
+         {
+            NestingPiece piece = pieces.get(i);
+            lengths[i] = piece.length();
+            widths[i] = piece.width();
+            rotatable[i] = piece.rotatable();
+            if(fitsEmptySheet(i))
+            {
+               placeableArea += piece.area();
+            }
+         }
+
+         long sheetArea = (long) settings.getUsableLengthMm() * settings.getUsableWidthMm();
+         lowerBound = sheetArea > 0 ? (int) ((placeableArea + sheetArea - 1) / sheetArea) : 0;
+      }
+
+
+
+      /*******************************************************************************
+       ** Run both search phases and convert the best layout.
+       *******************************************************************************/
+      Outcome run(ForkJoinPool pool)
+      {
+         List<Candidate> starts = initialCandidates();
+         Layout          best   = pool.invoke(new EvaluateTask(starts, 0, starts.size()));
+
+         if(!searchFinished(best))
+         {
+            List<ImproveTask> workers = new ArrayList<>();
+            for(int worker = 0; worker < settings.getParallelism(); worker++)
+            {
+               workers.add(new ImproveTask(best, worker));
+            }
+            best = pool.invoke(new ImproveAllTask(workers));
+         }
+
+         return new Outcome(toResult(best), toSeed(best));
+      }
+
+
+
+      /*******************************************************************************
+       ** Sort orders commonly good for guillotine packing, each with every rule,
+       ** after the seed's order if there is one (first, so it wins ties).
+       *******************************************************************************/
+      List<Candidate> initialCandidates()
+      {
+         List<Candidate> candidates = new ArrayList<>();
+         if(seed != null)
+         {
+            candidates.add(new Candidate(seedOrder(), seed.heuristic()));
+         }
+
+         List<Comparator<Integer>> sorts = List.of(
+            Comparator.comparingLong((Integer i) -> (long) lengths[i] * widths[i]).reversed(),
+            Comparator.comparingInt((Integer i) -> Math.max(lengths[i], widths[i])).reversed(),
+            Comparator.comparingInt((Integer i) -> lengths[i]).reversed(),
+            Comparator.comparingInt((Integer i) -> widths[i]).reversed(),
+            Comparator.comparingInt((Integer i) -> lengths[i] + widths[i]).reversed());
+
+         for(Comparator<Integer> sort : sorts)
+         {
+            Integer[] boxed = new Integer[lengths.length];
+            for(int i = 0; i < boxed.length; i++)
+            {
+               boxed[i] = i;
+            }
+            Arrays.sort(boxed, sort.thenComparingInt(i -> i));
+            int[] order = Arrays.stream(boxed).mapToInt(Integer::intValue).toArray();
+
+            for(Heuristic heuristic : Heuristic.values())
+            {
+               candidates.add(new Candidate(order, heuristic));
+            }
+         }
+         return candidates;
+      }
+
+
+
+      /*******************************************************************************
+       ** The seed's order mapped onto these pieces: each seed piece takes an
+       ** unused piece of the same size and grain, keeping its place, and pieces
+       ** the seed does not have are merged in by decreasing area.
+       *******************************************************************************/
+      int[] seedOrder()
+      {
+         Map<NestingPiece, Deque<Integer>> bySize = new HashMap<>();
+         for(int i = 0; i < lengths.length; i++)
+         {
+            bySize.computeIfAbsent(pieces.get(i).withPartId(0), size -> new ArrayDeque<>()).add(i);
+         }
+
+         List<Integer> matched = new ArrayList<>();
+         for(NestingPiece piece : seed.order())
+         {
+            Deque<Integer> indexes = bySize.get(piece.withPartId(0));
+            if(indexes != null && !indexes.isEmpty())
+            {
+               matched.add(indexes.poll());
+            }
+         }
+
+         List<Integer> added = new ArrayList<>();
+         bySize.values().forEach(added::addAll);
+         added.sort(Comparator.comparingLong((Integer i) -> (long) lengths[i] * widths[i]).reversed().thenComparingInt(i -> i));
+
+         int[] order = new int[lengths.length];
+         int   next  = 0;
+         int   a     = 0;
+         for(int m : matched)
+         {
+            while(a < added.size() && (long) lengths[added.get(a)] * widths[added.get(a)] > (long) lengths[m] * widths[m])
+            {
+               order[next++] = added.get(a++);
+            }
+            order[next++] = m;
+         }
+         while(a < added.size())
+         {
+            order[next++] = added.get(a++);
+         }
+         return order;
+      }
+
+
+
+      /*******************************************************************************
+       ** The seed that reproduces a layout.
+       *******************************************************************************/
+      private Seed toSeed(Layout layout)
+      {
+         List<NestingPiece> order = new ArrayList<>();
+         for(int i : layout.candidate.order())
+         {
+            order.add(pieces.get(i));
+         }
+         return new Seed(order, layout.candidate.heuristic());
+      }
+
+
+
+      /*******************************************************************************
+       ** Whether the search can stop: at the lower bound or out of time.
+       *******************************************************************************/
+      boolean searchFinished(Layout best)
+      {
+         return best.sheetCount <= lowerBound || System.nanoTime() >= deadlineNanos;
+      }
+
+
+
+      /*******************************************************************************
+       ** Greedily pack the pieces in the candidate's order.
+       *******************************************************************************/
+      Layout pack(Candidate candidate)
+      {
+         int    kerf   = settings.getKerfMm();
+         int    trim   = settings.getEdgeTrimMm();
+         int[]  order  = candidate.order();
+         Layout layout = new Layout(candidate, order.length);
+
+         // Free rectangles per sheet as {x, y, width along length, height across}
+         List<List<int[]>> freeRects = new ArrayList<>();
+         List<long[]>      usedArea  = new ArrayList<>();
+
+         for(int piece : order)
+         {
+            int[] fit = findBestFit(freeRects, piece, candidate.heuristic());
+            if(fit == null)
+            {
+               if(!fitsEmptySheet(piece))
+               {
+                  layout.sheet[piece] = -1;
+                  continue;
+               }
+
+               List<int[]> sheetRects = new ArrayList<>();
+               sheetRects.add(new int[] {trim, trim, settings.getUsableLengthMm(), settings.getUsableWidthMm()});
+               freeRects.add(sheetRects);
+               usedArea.add(new long[1]);
+               fit = findBestFit(List.of(sheetRects), piece, candidate.heuristic());
+               fit[0] = freeRects.size() - 1;
+            }
+
+            int         sheetIndex = fit[0];
+            List<int[]> rects      = freeRects.get(sheetIndex);
+            int[]       rect       = rects.get(fit[1]);
+            boolean     rotate     = fit[2] == 1;
+            int         placedL    = rotate ? widths[piece] : lengths[piece];
+            int         placedW    = rotate ? lengths[piece] : widths[piece];
+
+            layout.sheet[piece] = sheetIndex;
+            layout.x[piece] = rect[0];
+            layout.y[piece] = rect[1];
+            layout.rotated[piece] = rotate;
+            usedArea.get(sheetIndex)[0] += (long) placedL * placedW;
+
+            // Remove the rectangle (swap with last) and add the two offcuts
+            rects.set(fit[1], rects.get(rects.size() - 1));
+            rects.remove(rects.size() - 1);
+            split(rects, rect, placedL, placedW, kerf, candidate.heuristic());
+         }
+
+         layout.sheetCount = freeRects.size();
+         layout.emptiestSheetArea = usedArea.stream().mapToLong(area -> area[0]).min().orElse(0);
+         evaluated.incrementAndGet();
+         return layout;
+      }
+
+
+
+      /*******************************************************************************
+       ** Find the best free rectangle for a piece across all open sheets.
+       **
+       ** @return {sheet, rectangle index, 1 if rotated}, or null if none fits
+       *******************************************************************************/
+      private int[] findBestFit(List<List<int[]>> freeRects, int piece, Heuristic heuristic)
+      {
+         int[] best          = null;
+         long  bestPrimary   = Long.MAX_VALUE;
+         long  bestSecondary = Long.MAX_VALUE;
+
+         for(int sheetIndex = 0; sheetIndex < freeRects.size(); sheetIndex++)
+         {
+            List<int[]> rects = freeRects.get(sheetIndex);
+            for(int r = 0; r < rects.size(); r++)
+            {
+               int[] rect = rects.get(r);
+               for(int rotation = 0; rotation < 2; rotation++)
+               {
+                  if(rotation == 1 && (!rotatable[piece] || lengths[piece] == widths[piece]))
+                  {
+                     break;
+                  }
+
+                  int placedL = rotation == 1 ? widths[piece] : lengths[piece];
+                  int placedW = rotation == 1 ? lengths[piece] : widths[piece];
+                  if(placedL > rect[2] || placedW > rect[3])
+                  {
+                     continue;
+                  }
+
+                  long leftoverL = rect[2] - placedL;
+                  long leftoverW = rect[3] - placedW;
+                  long primary   = heuristic.bestAreaFit ? (long) rect[2] * rect[3] - (long) placedL * placedW : Math.min(leftoverL, leftoverW);
+                  long secondary = heuristic.bestAreaFit ? Math.min(leftoverL, leftoverW) : Math.max(leftoverL, leftoverW);
+                  if(primary < bestPrimary || (primary == bestPrimary && secondary < bestSecondary))
+                  {
+                     best = new int[] {sheetIndex, r, rotation};
+                     bestPrimary = primary;
+                     bestSecondary = secondary;
+                  }
+               }
+            }
+         }
+         return best;
+      }
+
+
+
+      /*******************************************************************************
+       ** Guillotine-split what is left of a rectangle after placing a piece in
+       ** its corner.  The first cut runs the full rectangle, the second only
+       ** along the piece, each one kerf wide; the remainder becomes an offcut
+       ** beside the piece and an offcut below it.
+       *******************************************************************************/
+      private void split(List<int[]> rects, int[] rect, int placedL, int placedW, int kerf, Heuristic heuristic)
+      {
+         int usedL     = Math.min(placedL + kerf, rect[2]);
+         int usedW     = Math.min(placedW + kerf, rect[3]);
+         int leftoverL = rect[2] - usedL;
+         int leftoverW = rect[3] - usedW;
+
+         // Shorter-leftover rule: the full-span offcut goes to the side with more left over
+         boolean fullLengthBelow = (leftoverL < leftoverW) != heuristic.splitLongerLeftover;
+         // The kerf strips are sawdust, so the shorter offcut stops at the piece's edge
+         if(fullLengthBelow)
+         {
+            addRect(rects, rect[0] + usedL, rect[1], leftoverL, placedW);
+            addRect(rects, rect[0], rect[1] + usedW, rect[2], leftoverW);
+         }
+         else
+         {
+            addRect(rects, rect[0] + usedL, rect[1], leftoverL, rect[3]);
+            addRect(rects, rect[0], rect[1] + usedW, placedL, leftoverW);
+         }
+      }
+
+
+
+      /*******************************************************************************
+       ** Add a free rectangle if it has any area.
+       *******************************************************************************/
+      private void addRect(List<int[]> rects, int x, int y, int length, int width)
+      {
+         if(length > 0 && width > 0)
+         {
+            rects.add(new int[] {x, y, length, width});
+         }
+      }
+
+
+
+      /*******************************************************************************
+       ** Whether a piece fits on an empty sheet in some allowed orientation.
+       *******************************************************************************/
+      private boolean fitsEmptySheet(int piece)
+      {
+         int sheetL = settings.getUsableLengthMm();
+         int sheetW = settings.getUsableWidthMm();
+         return (lengths[piece] <= sheetL && widths[piece] <= sheetW)
+            || (rotatable[piece] && widths[piece] <= sheetL && lengths[piece] <= sheetW);
+      }
+
+
+
+      /*******************************************************************************
+       ** Convert a layout to placements in input order.
+       *******************************************************************************/
+      private NestingResult toResult(Layout layout)
+      {
+         List<SheetPlacement> placements = new ArrayList<>();
+         List<NestingPiece>   unplaced   = new ArrayList<>();
+         for(int i = 0; i < pieces.size(); i++)
+         {
+            if(layout.sheet[i] < 0)
+            {
+               unplaced.add(pieces.get(i));
+            }
+            else
+            {
+               placements.add(new SheetPlacement(pieces.get(i), layout.sheet[i], layout.x[i], layout.y[i], layout.rotated[i]));
+            }
+         }
+         return new NestingResult(placements, unplaced, layout.sheetCount, evaluated.get());
+      }
+
+
+
+      /*******************************************************************************
+       ** Phase one: pack a range of candidates, splitting the range in half
+       ** until it is small, and keep the best.
+       *******************************************************************************/
+      final class EvaluateTask extends RecursiveTask<Layout>
+      {
+         private final List<Candidate> candidates;
+         private final int             from;
+         private final int             to;
+
+
+
+         /*******************************************************************************
+          ** Constructor.
+          *******************************************************************************/
+         EvaluateTask(List<Candidate> candidates, int from, int to)
+         {
+            this.candidates = candidates;
+            this.from = from;
+            this.to = to;
+         }
+
+
+
+         /*******************************************************************************
+          ** Pack or fork.
+          *******************************************************************************/
+         @Override
+         protected Layout compute()
+         {
+            if(to - from <= 2)
+            {
+               Layout best = null;
+               for(int i = from; i < to; i++)
+               {
+                  Layout layout = pack(candidates.get(i));
+                  if(best == null || layout.isBetterThan(best))
+                  {
+                     best = layout;
+                  }
+               }
+               return best;
+            }
+
+            int          middle = (from + to) >>> 1;
+            EvaluateTask left   = new EvaluateTask(candidates, from, middle);
+            left.fork();
+            Layout right = new EvaluateTask(candidates, middle, to).compute();
+            Layout first = left.join();
+
+            // Ties go to the earlier candidate so results do not depend on scheduling
+            return right.isBetterThan(first) ? right : first;
+         }
+      }
+
+
+
+      /*******************************************************************************
+       ** Phase two, one worker: randomized local search over the packing order
+       ** from the best phase-one layout.
+       *******************************************************************************/
+      final class ImproveTask extends RecursiveTask<Layout>
+      {
+         private final Layout start;
+         private final int    worker;
+
+
+
+         /*******************************************************************************
+          ** Constructor.
+          *******************************************************************************/
+         ImproveTask(Layout start, int worker)
+         {
+            this.start = start;
+            this.worker = worker;
+         }
+
+
+
+         /*******************************************************************************
+          ** Perturb, repack, and keep any layout that is no worse.
+          *******************************************************************************/
+         @Override
+         protected Layout compute()
+         {
+            Random random  = new Random(31L * worker + lengths.length);
+            Layout current = start;
+            Layout best    = start;
+
+            for(int iteration = 0; iteration < settings.getMaxIterationsPerWorker() && !searchFinished(best); iteration++)
+            {
+               Layout layout = pack(perturb(current.candidate, random));
+               if(!current.isBetterThan(layout))
+               {
+                  current = layout;
+                  if(layout.isBetterThan(best))
+                  {
+                     best = layout;
+                  }
+               }
+            }
+            return best;
+         }
+
+
+
+         /*******************************************************************************
+          ** Swap two pieces or move one to a new position in the order, and
+          ** occasionally switch packing rule.
+          *******************************************************************************/
+         private Candidate perturb(Candidate candidate, Random random)
+         {
+            int[] order = candidate.order().clone();
+            int   n     = order.length;
+            if(n > 1)
+            {
+               int from = random.nextInt(n);
+               int to   = random.nextInt(n);
+               if(random.nextBoolean())
+               {
+                  int swap = order[from];
+                  order[from] = order[to];
+                  order[to] = swap;
+               }
+               else
+               {
+                  int moved = order[from];
+                  if(from < to)
+                  {
+                     System.arraycopy(order, from + 1, order, from, to - from);
+                  }
+                  else
+                  {
+                     System.arraycopy(order, to, order, to + 1, from - to);
+                  }
+                  order[to] = moved;
+               }
+            }
+
+            Heuristic heuristic = candidate.heuristic();
+            if(random.nextInt(10) == 0)
+            {
+               heuristic = Heuristic.values()[random.nextInt(Heuristic.values().length)];
+            }
+            return new Candidate(order, heuristic);
+         }
+      }
+
+
+
+      /*******************************************************************************
+       ** Phase two: run every worker and keep the best (lowest worker on ties).
+       *******************************************************************************/
+      final class ImproveAllTask extends RecursiveTask<Layout>
+      {
+         private final List<ImproveTask> workers;
+
+
+
+         /*******************************************************************************
+          ** Constructor.
+          *******************************************************************************/
+         ImproveAllTask(List<ImproveTask> workers)
+         {
+            this.workers = workers;
+         }
+
+
+
+         /*******************************************************************************
+          ** Fork all workers and join them.
+          *******************************************************************************/
+         @Override
+         protected Layout compute()
+         {
+            Layout best = null;
+            for(ImproveTask worker : ForkJoinTask.invokeAll(workers))
+            {
+               Layout layout = worker.join();
+               if(best == null || layout.isBetterThan(best))
+               {
+                  best = layout;
+               }
+            }
+            return best;
+         }
+      }
+   }
+}
@@ -0,0 +1,220 @@
+package com.makers4.nesting;
+
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/*******************************************************************************
+ ** Remembers sheet nesting results so that cutting the same pieces from the
+ ** same stock again costs nothing.
+ **
+ ** A result is keyed by the material, the sheet, kerf, trim and search depth
+ ** settings, and the sorted multiset of piece sizes (length, width, grain),
+ ** so part ids and input order do not matter.  A hit returns the cached
+ ** layout with the current pieces put back in place by size.  On a miss the
+ ** search is seeded with the winning order of the last run for the same
+ ** material and settings, which after a small edit is usually close to the
+ ** new best.  Both maps are least-recently-used and bounded; the cache is
+ ** safe to share between threads, and the search itself runs outside its
+ ** lock.
+ *******************************************************************************/
+public class NestingCache
+{
+   private final Map<String, NestingResult>         results;
+   private final Map<String, GuillotineNester.Seed> seeds;
+   private final GuillotineNester                   nester = new GuillotineNester();
+
+   private long hitCount;
+   private long missCount;
+
+
+
+   /*******************************************************************************
+    ** Constructor.
+    **
+    ** @param maxEntries most results (and seeds) kept before the least
+    **                   recently used is dropped
+    *******************************************************************************/
+   public NestingCache(int maxEntries)
+   {
+      this.results = leastRecentlyUsed(maxEntries);
+      this.seeds = leastRecentlyUsed(maxEntries);
+   }
+
+
+
+   /*******************************************************************************
+    ** Nest pieces of a material onto sheets, from the cache if these pieces
+    ** were nested with these settings before.  A cached result reports no
+    ** evaluated layouts.
+    *******************************************************************************/
+   public NestingResult nest(long materialId, List<NestingPiece> pieces, NestingSettings settings)
+   {
+      String stockKey  = stockKey(materialId, settings);
+      String resultKey = resultKey(stockKey, pieces);
+
+      NestingResult         cached;
+      GuillotineNester.Seed seed;
+      synchronized(this)
+      {
+         cached = results.get(resultKey);
+         seed = seeds.get(stockKey);
+         if(cached != null)
+         {
+            hitCount++;
+         }
+         else
+         {
+            missCount++;
+         }
+      }
+
+      if(cached != null)
+      {
+         return withPieces(cached, pieces);
+      }
+
+      GuillotineNester.Outcome outcome = nester.nest(pieces, settings, seed);
+      synchronized(this)
+      {
+         results.put(resultKey, outcome.result());
+         seeds.put(stockKey, outcome.seed());
+      }
+      return outcome.result();
+   }
+
+
+
+   /*******************************************************************************
+    ** Forget every result and seed.
+    *******************************************************************************/
+   public synchronized void clear()
+   {
+      results.clear();
+      seeds.clear();
+   }
+
+
+
+   public synchronized long getHitCount()
+   {
+      return hitCount;
+   }
+
+
+
+   public synchronized long getMissCount()
+   {
+      return missCount;
+   }
+
+
+
+   /*******************************************************************************
+    ** Key for everything but the pieces: the material, the stock sheet and
+    ** the search depth.  The time budget and thread count are left out: they
+    ** depend on the machine and on how many materials share a run, and a
+    ** layout found with either is just as valid.
+    *******************************************************************************/
+   static String stockKey(long materialId, NestingSettings settings)
+   {
+      return materialId + "|" + settings.getSheetLengthMm() + "x" + settings.getSheetWidthMm()
+         + "|" + settings.getKerfMm() + "|" + settings.getEdgeTrimMm() + "|" + settings.getMaxIterationsPerWorker();
+   }
+
+
+
+   /*******************************************************************************
+    ** Key for a stock key and the sorted multiset of piece sizes, hashed with
+    ** SHA-256 so a big job does not keep a long string in memory.
+    *******************************************************************************/
+   static String resultKey(String stockKey, List<NestingPiece> pieces)
+   {
+      List<NestingPiece> sorted = new ArrayList<>(pieces);
+      sorted.sort(Comparator.comparingInt(NestingPiece::length)
+         .thenComparingInt(NestingPiece::width)
+         .thenComparing(NestingPiece::rotatable));
+
+      StringBuilder key = new StringBuilder(stockKey.length() + 12 * sorted.size()).append(stockKey);
+      for(NestingPiece piece : sorted)
+      {
+         key.append('|').append(piece.length()).append('x').append(piece.width()).append(piece.rotatable() ? 'r' : 'g');
+      }
+
+      try
+      {
+         byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.toString().getBytes(StandardCharsets.UTF_8));
+         return HexFormat.of().formatHex(digest);
+      }
+      catch(NoSuchAlgorithmException e)
+      {
+         throw new IllegalStateException("SHA-256 is not available", e);
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** A cached result with each placed or unplaced piece swapped for a current
+    ** piece of the same size and grain, placements in current input order.
+    *******************************************************************************/
+   private static NestingResult withPieces(NestingResult cached, List<NestingPiece> pieces)
+   {
+      Map<NestingPiece, Deque<Integer>> bySize = new HashMap<>();
+      for(int i = 0; i < pieces.size(); i++)
+      {
+         bySize.computeIfAbsent(pieces.get(i).withPartId(0), size -> new ArrayDeque<>()).add(i);
+      }
+
+      SheetPlacement[] placed = new SheetPlacement[pieces.size()];
+      for(SheetPlacement placement : cached.placements())
+      {
+         int i = bySize.get(placement.piece().withPartId(0)).poll();
+         placed[i] = new SheetPlacement(pieces.get(i), placement.sheetIndex(), placement.x(), placement.y(), placement.rotated());
+      }
+
+      List<SheetPlacement> placements = new ArrayList<>();
+      List<NestingPiece>   unplaced   = new ArrayList<>();
+      for(int i = 0; i < pieces.size(); i++)
+      {
+         if(placed[i] != null)
+         {
+            placements.add(placed[i]);
+         }
+         else
+         {
+            unplaced.add(pieces.get(i));
+         }
+      }
+
+      return new NestingResult(placements, unplaced, cached.sheetCount(), 0);
+   }
+
+
+
+   /*******************************************************************************
+    ** An access-ordered map that drops its eldest entry past a size.
+    *******************************************************************************/
+   private static <V> Map<String, V> leastRecentlyUsed(int maxEntries)
+   {
+      return new LinkedHashMap<>(16, 0.75f, true)
+      {
+         @Override
+         protected boolean removeEldestEntry(Map.Entry<String, V> eldest)
+         {
+            return size() > maxEntries;
+         }
+      };
+   }
+}
@@ -0,0 +1,34 @@
+package com.makers4.nesting;
+
+
+/*******************************************************************************
+ ** One physical piece to cut from sheet stock.  A part with quantity 3 is three
+ ** pieces sharing a partId.
+ **
+ ** @param partId    the part this piece is cut for
+ ** @param length    size along the grain (mm)
+ ** @param width     size across the grain (mm)
+ ** @param rotatable whether the piece may be turned 90 degrees (stock without
+ **                  a visible grain direction)
+ *******************************************************************************/
+public record NestingPiece(long partId, int length, int width, boolean rotatable)
+{
+
+   /*******************************************************************************
+    ** Area in square millimeters.
+    *******************************************************************************/
+   public long area()
+   {
+      return (long) length * width;
+   }
+
+
+
+   /*******************************************************************************
+    ** The same size and grain for another part.
+    *******************************************************************************/
+   public NestingPiece withPartId(long partId)
+   {
+      return new NestingPiece(partId, length, width, rotatable);
+   }
+}
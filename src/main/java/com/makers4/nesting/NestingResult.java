@@ -0,0 +1,31 @@
+package com.makers4.nesting;
+
+
+import java.util.List;
+
+
+/*******************************************************************************
+ ** The best layout a nesting search found.
+ **
+ ** @param placements       one per placed piece, in input order
+ ** @param unplaced         pieces larger than a sheet in every allowed orientation
+ ** @param sheetCount       sheets used
+ ** @param evaluatedLayouts how many complete layouts the search packed
+ *******************************************************************************/
+public record NestingResult(List<SheetPlacement> placements, List<NestingPiece> unplaced, int sheetCount, long evaluatedLayouts)
+{
+
+   /*******************************************************************************
+    ** Fraction of the used sheets' area covered by parts (0 to 1).
+    *******************************************************************************/
+   public double utilization(NestingSettings settings)
+   {
+      if(sheetCount == 0)
+      {
+         return 0;
+      }
+
+      long partArea = placements.stream().mapToLong(placement -> placement.piece().area()).sum();
+      return (double) partArea / ((long) settings.getSheetLengthMm() * settings.getSheetWidthMm() * sheetCount);
+   }
+}
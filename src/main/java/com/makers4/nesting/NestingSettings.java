@@ -0,0 +1,148 @@
+package com.makers4.nesting;
+
+
+import java.time.Duration;
+
+
+/*******************************************************************************
+ ** Stock sheet and search settings for sheet nesting.
+ ** Uses builder pattern for easy configuration.  All sizes are millimeters;
+ ** the sheet length runs along the face grain.
+ *******************************************************************************/
+public class NestingSettings
+{
+   // Stock sheet: 8' x 4' (2440 x 1220 mm), grain along the length
+   private int sheetLengthMm = 2440;
+   private int sheetWidthMm  = 1220;
+
+   // Saw blade kerf between neighbouring parts, and rough edge trimmed off every side
+   private int kerfMm     = 3;
+   private int edgeTrimMm = 0;
+
+   // Search: wall-clock budget, worker threads and an iteration cap per worker
+   private Duration timeBudget             = Duration.ofSeconds(2);
+   private int      parallelism            = Runtime.getRuntime().availableProcessors();
+   private int      maxIterationsPerWorker = 20_000;
+
+
+
+   public NestingSettings withSheetSize(int lengthMm, int widthMm)
+   {
+      if(lengthMm <= 0 || widthMm <= 0)
+      {
+         throw new IllegalArgumentException("Sheet size must be positive: " + lengthMm + " x " + widthMm);
+      }
+      this.sheetLengthMm = lengthMm;
+      this.sheetWidthMm = widthMm;
+      return this;
+   }
+
+
+
+   public NestingSettings withKerfMm(int kerfMm)
+   {
+      this.kerfMm = Math.max(0, kerfMm);
+      return this;
+   }
+
+
+
+   public NestingSettings withEdgeTrimMm(int edgeTrimMm)
+   {
+      this.edgeTrimMm = Math.max(0, edgeTrimMm);
+      return this;
+   }
+
+
+
+   public NestingSettings withTimeBudget(Duration timeBudget)
+   {
+      this.timeBudget = timeBudget;
+      return this;
+   }
+
+
+
+   public NestingSettings withParallelism(int parallelism)
+   {
+      this.parallelism = Math.max(1, parallelism);
+      return this;
+   }
+
+
+
+   public NestingSettings withMaxIterationsPerWorker(int maxIterationsPerWorker)
+   {
+      this.maxIterationsPerWorker = Math.max(0, maxIterationsPerWorker);
+      return this;
+   }
+
+
+
+   public int getSheetLengthMm()
+   {
+      return sheetLengthMm;
+   }
+
+
+
+   public int getSheetWidthMm()
+   {
+      return sheetWidthMm;
+   }
+
+
+
+   public int getKerfMm()
+   {
+      return kerfMm;
+   }
+
+
+
+   public int getEdgeTrimMm()
+   {
+      return edgeTrimMm;
+   }
+
+
+
+   public Duration getTimeBudget()
+   {
+      return timeBudget;
+   }
+
+
+
+   public int getParallelism()
+   {
+      return parallelism;
+   }
+
+
+
+   public int getMaxIterationsPerWorker()
+   {
+      return maxIterationsPerWorker;
+   }
+
+
+
+   /*******************************************************************************
+    ** Usable length of a sheet after edge trim.
+    *******************************************************************************/
+   public int getUsableLengthMm()
+   {
+      return sheetLengthMm - 2 * edgeTrimMm;
+   }
+
+
+
+   /*******************************************************************************
+    ** Usable width of a sheet after edge trim.
+    *******************************************************************************/
+   public int getUsableWidthMm()
+   {
+      return sheetWidthMm - 2 * edgeTrimMm;
+   }
+}
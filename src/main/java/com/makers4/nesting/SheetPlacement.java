@@ -0,0 +1,29 @@
+package com.makers4.nesting;
+
+
+/*******************************************************************************
+ ** Where a piece is cut: its sheet (0-based) and the corner of the piece nearest
+ ** the sheet origin, with x along the sheet length (grain) and y across it.
+ ** A rotated piece lies with its length across the sheet.
+ *******************************************************************************/
+public record SheetPlacement(NestingPiece piece, int sheetIndex, int x, int y, boolean rotated)
+{
+
+   /*******************************************************************************
+    ** Extent along the sheet length.
+    *******************************************************************************/
+   public int placedLength()
+   {
+      return rotated ? piece.width() : piece.length();
+   }
+
+
+
+   /*******************************************************************************
+    ** Extent across the sheet width.
+    *******************************************************************************/
+   public int placedWidth()
+   {
+      return rotated ? piece.length() : piece.width();
+   }
+}
@@ -0,0 +1,78 @@
+package com.makers4.processes;
+
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import com.kingsrook.qqq.backend.core.actions.tables.QueryAction;
+import com.kingsrook.qqq.backend.core.exceptions.QException;
+import com.kingsrook.qqq.backend.core.model.actions.tables.query.QCriteriaOperator;
+import com.kingsrook.qqq.backend.core.model.actions.tables.query.QFilterCriteria;
+import com.kingsrook.qqq.backend.core.model.actions.tables.query.QQueryFilter;
+import com.kingsrook.qqq.backend.core.model.actions.tables.query.QueryInput;
+import com.kingsrook.qqq.backend.core.model.data.QRecord;
+import com.kingsrook.qqq.backend.core.model.data.QRecordEntity;
+
+
+/*******************************************************************************
+ ** Query helpers shared by the processes: read a table as entities, and read
+ ** a grouped or aggregated value as a Long.
+ *******************************************************************************/
+public final class EntityQueries
+{
+   /*******************************************************************************
+    ** Constructor - static methods only.
+    *******************************************************************************/
+   private EntityQueries()
+   {
+   }
+
+
+
+   /*******************************************************************************
+    ** Query a table (optionally where field IN values) as entities.
+    *******************************************************************************/
+   public static <T extends QRecordEntity> List<T> query(Class<T> entityClass, String tableName,
+                                                         String field, Collection<?> values) throws QException
+   {
+      QQueryFilter filter = field != null ? new QQueryFilter(new QFilterCriteria(field, QCriteriaOperator.IN, values)) : null;
+      return query(entityClass, tableName, filter);
+   }
+
+
+
+   /*******************************************************************************
+    ** Query a table (optionally filtered) as entities.
+    *******************************************************************************/
+   public static <T extends QRecordEntity> List<T> query(Class<T> entityClass, String tableName, QQueryFilter filter) throws QException
+   {
+      QueryInput queryInput = new QueryInput();
+      queryInput.setTableName(tableName);
+      if(filter != null)
+      {
+         queryInput.setFilter(filter);
+      }
+
+      List<T> entities = new ArrayList<>();
+      for(QRecord record : new QueryAction().execute(queryInput).getRecords())
+      {
+         entities.add(QRecordEntity.fromQRecord(entityClass, record));
+      }
+      return entities;
+   }
+
+
+
+   /*******************************************************************************
+    ** A grouped or aggregated value as a Long (null stays null).
+    *******************************************************************************/
+   public static Long toLong(Serializable value)
+   {
+      if(value == null)
+      {
+         return null;
+      }
+      return value instanceof Number number ? number.longValue() : Long.parseLong(value.toString());
+   }
+}
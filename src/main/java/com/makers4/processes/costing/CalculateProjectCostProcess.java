@@ -0,0 +1,155 @@
+package com.makers4.processes.costing;
+
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import com.kingsrook.qqq.backend.core.actions.processes.BackendStep;
+import com.kingsrook.qqq.backend.core.exceptions.QException;
+import com.kingsrook.qqq.backend.core.logging.QLogger;
+import com.kingsrook.qqq.backend.core.model.actions.processes.RunBackendStepInput;
+import com.kingsrook.qqq.backend.core.model.actions.processes.RunBackendStepOutput;
+import com.kingsrook.qqq.backend.core.model.metadata.MetaDataProducerInterface;
+import com.kingsrook.qqq.backend.core.model.metadata.QInstance;
+import com.kingsrook.qqq.backend.core.model.metadata.code.QCodeReference;
+import com.kingsrook.qqq.backend.core.model.metadata.fields.QFieldMetaData;
+import com.kingsrook.qqq.backend.core.model.metadata.fields.QFieldType;
+import com.kingsrook.qqq.backend.core.model.metadata.layout.QIcon;
+import com.kingsrook.qqq.backend.core.model.metadata.processes.QBackendStepMetaData;
+import com.kingsrook.qqq.backend.core.model.metadata.processes.QFrontendStepMetaData;
+import com.kingsrook.qqq.backend.core.model.metadata.processes.QProcessMetaData;
+import com.makers4.model.Cabinet;
+import com.makers4.model.Project;
+import com.makers4.model.lookup.Material;
+import static com.kingsrook.qqq.backend.core.logging.LogUtils.logPair;
+import static com.makers4.processes.EntityQueries.query;
+
+
+/*******************************************************************************
+ ** Process to price the materials of a project's parts.
+ **
+ ** Parts are never loaded one by one: CostingLoader sums part quantities
+ ** grouped by cabinet, material and size in a single aggregate query, and
+ ** MaterialCostCalculator turns those rows into board feet, square feet,
+ ** sheets and cost per material, per cabinet and for the project.
+ *******************************************************************************/
+public class CalculateProjectCostProcess implements BackendStep, MetaDataProducerInterface<QProcessMetaData>
+{
+   public static final String PROCESS_NAME = "calculateProjectCost";
+   public static final String STEP_NAME    = "calculate";
+   public static final String RESULT_STEP  = "result";
+
+   private static final QLogger LOG = QLogger.getLogger(CalculateProjectCostProcess.class);
+
+
+
+   /*******************************************************************************
+    ** Produce the process metadata.
+    *******************************************************************************/
+   @Override
+   public QProcessMetaData produce(QInstance qInstance) throws QException
+   {
+      return new QProcessMetaData()
+         .withName(PROCESS_NAME)
+         .withLabel("Calculate Material Cost")
+         .withIcon(new QIcon().withName("payments"))
+         .withTableName(Project.TABLE_NAME)
+         .withIsHidden(false)
+         .withStepList(List.of(
+            new QBackendStepMetaData()
+               .withName(STEP_NAME)
+               .withCode(new QCodeReference(getClass())),
+            new QFrontendStepMetaData()
+               .withName(RESULT_STEP)
+               .withLabel("Material Cost")
+               .withFormField(new QFieldMetaData("message", QFieldType.STRING).withLabel("Result"))
+               .withFormField(new QFieldMetaData("totalCost", QFieldType.DECIMAL).withLabel("Total Cost"))
+               .withFormField(new QFieldMetaData("byMaterial", QFieldType.TEXT).withLabel("By Material"))
+               .withFormField(new QFieldMetaData("byCabinet", QFieldType.TEXT).withLabel("By Cabinet"))
+         ));
+   }
+
+
+
+   /*******************************************************************************
+    ** Execute the calculate process.
+    *******************************************************************************/
+   @Override
+   public void run(RunBackendStepInput input, RunBackendStepOutput output) throws QException
+   {
+      Long projectId = null;
+
+      // Try to get project ID from various sources
+      if(input.getValue("projectId") != null)
+      {
+         projectId = Long.parseLong(input.getValue("projectId").toString());
+      }
+      else if(input.getValue("id") != null)
+      {
+         projectId = Long.parseLong(input.getValue("id").toString());
+      }
+      else if(input.getValue("recordIds") != null)
+      {
+         // Record IDs can come as a String or List depending on context
+         Object recordIds = input.getValue("recordIds");
+         if(recordIds instanceof String)
+         {
+            projectId = Long.parseLong((String) recordIds);
+         }
+         else if(recordIds instanceof List)
+         {
+            @SuppressWarnings("unchecked")
+            List<Object> idList = (List<Object>) recordIds;
+            if(!idList.isEmpty())
+            {
+               projectId = Long.parseLong(idList.get(0).toString());
+            }
+         }
+      }
+      else if(input.getRecords() != null && !input.getRecords().isEmpty())
+      {
+         projectId = input.getRecords().get(0).getValueLong("id");
+      }
+
+      if(projectId == null)
+      {
+         LOG.warn("Project ID not found in input. Available values: " + input.getValues());
+         throw new QException("Project ID is required");
+      }
+
+      LOG.info("Starting cost calculation", logPair("projectId", projectId));
+
+      CostingLoader       loader    = new CostingLoader();
+      List<Cabinet>       cabinets  = query(Cabinet.class, Cabinet.TABLE_NAME, "projectId", List.of(projectId));
+      Map<Long, Material> materials = loader.loadMaterials();
+      List<PartGroup>     groups    = loader.loadPartGroups(cabinets.stream().map(Cabinet::getId).toList());
+      CostSummary         summary   = loader.createCalculator(materials).calculate(groups);
+
+      List<String> materialLines = new ArrayList<>();
+      for(MaterialCost cost : summary.byMaterial())
+      {
+         String quantity = cost.solid()
+            ? String.format("%.2f bd ft", cost.boardFeet())
+            : String.format("%.2f sq ft (%d sheets)", cost.squareFeet(), cost.sheets());
+         materialLines.add(materials.get(cost.materialId()).getCode() + ": " + quantity + ", $" + cost.cost()
+            + (cost.priced() ? "" : " (no price)"));
+      }
+
+      List<String> cabinetLines = new ArrayList<>();
+      for(Cabinet cabinet : cabinets)
+      {
+         BigDecimal cost = summary.byCabinet().getOrDefault(cabinet.getId(), BigDecimal.ZERO.setScale(2));
+         cabinetLines.add(cabinet.getName() + ": $" + cost);
+      }
+
+      output.addValue("message", "Material cost $" + summary.total() + " for " + cabinets.size() + " cabinets");
+      output.addValue("totalCost", summary.total());
+      output.addValue("byMaterial", String.join("\n", materialLines));
+      output.addValue("byCabinet", String.join("\n", cabinetLines));
+
+      LOG.info("Cost calculation completed", logPair("projectId", projectId),
+         logPair("cabinets", cabinets.size()), logPair("partGroups", groups.size()),
+         logPair("materials", summary.byMaterial().size()), logPair("total", summary.total()));
+   }
+}
@@ -0,0 +1,18 @@
+package com.makers4.processes.costing;
+
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+
+/*******************************************************************************
+ ** Material cost of a project, by material, by cabinet and in total.
+ **
+ ** @param byMaterial one entry per material used, in material id order
+ ** @param byCabinet  cost per cabinet id, in cabinet id order
+ ** @param total      project total, to the cent
+ *******************************************************************************/
+public record CostSummary(List<MaterialCost> byMaterial, Map<Long, BigDecimal> byCabinet, BigDecimal total)
+{
+}
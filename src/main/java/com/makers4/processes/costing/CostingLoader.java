@@ -0,0 +1,115 @@
+package com.makers4.processes.costing;
+
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import com.kingsrook.qqq.backend.core.actions.tables.AggregateAction;
+import com.kingsrook.qqq.backend.core.exceptions.QException;
+import com.kingsrook.qqq.backend.core.model.actions.tables.aggregate.Aggregate;
+import com.kingsrook.qqq.backend.core.model.actions.tables.aggregate.AggregateInput;
+import com.kingsrook.qqq.backend.core.model.actions.tables.aggregate.AggregateOperator;
+import com.kingsrook.qqq.backend.core.model.actions.tables.aggregate.AggregateResult;
+import com.kingsrook.qqq.backend.core.model.actions.tables.aggregate.GroupBy;
+import com.kingsrook.qqq.backend.core.model.actions.tables.query.QCriteriaOperator;
+import com.kingsrook.qqq.backend.core.model.actions.tables.query.QFilterCriteria;
+import com.kingsrook.qqq.backend.core.model.actions.tables.query.QQueryFilter;
+import com.kingsrook.qqq.backend.core.model.metadata.fields.QFieldType;
+import com.makers4.model.Part;
+import com.makers4.model.lookup.Material;
+import com.makers4.model.lookup.MaterialType;
+import com.makers4.nesting.NestingSettings;
+import static com.makers4.processes.EntityQueries.query;
+import static com.makers4.processes.EntityQueries.toLong;
+
+
+/*******************************************************************************
+ ** Loads what MaterialCostCalculator needs: grouped part rows, materials and
+ ** the solid-wood material type.  Shared by the cost process and the project
+ ** summary refresh.
+ *******************************************************************************/
+public class CostingLoader
+{
+   // Material type code of lumber bought by the board foot
+   static final String SOLID_WOOD_TYPE_CODE = "SOLID_WOOD";
+
+
+
+   /*******************************************************************************
+    ** Sum part quantities by cabinet, material and size in one aggregate query.
+    *******************************************************************************/
+   public List<PartGroup> loadPartGroups(Collection<Long> cabinetIds) throws QException
+   {
+      List<PartGroup> groups = new ArrayList<>();
+      if(cabinetIds.isEmpty())
+      {
+         return groups;
+      }
+
+      Aggregate quantity    = new Aggregate("quantity", AggregateOperator.SUM);
+      GroupBy   cabinetId   = new GroupBy(QFieldType.LONG, "cabinetId");
+      GroupBy   materialId  = new GroupBy(QFieldType.LONG, "materialId");
+      GroupBy   lengthMm    = new GroupBy(QFieldType.INTEGER, "lengthMm");
+      GroupBy   widthMm     = new GroupBy(QFieldType.INTEGER, "widthMm");
+      GroupBy   thicknessMm = new GroupBy(QFieldType.INTEGER, "thicknessMm");
+
+      AggregateInput aggregateInput = new AggregateInput();
+      aggregateInput.setTableName(Part.TABLE_NAME);
+      aggregateInput.setFilter(new QQueryFilter(new QFilterCriteria("cabinetId", QCriteriaOperator.IN, cabinetIds)));
+      aggregateInput.withAggregate(quantity)
+         .withGroupBy(cabinetId)
+         .withGroupBy(materialId)
+         .withGroupBy(lengthMm)
+         .withGroupBy(widthMm)
+         .withGroupBy(thicknessMm);
+
+      for(AggregateResult result : new AggregateAction().execute(aggregateInput).getResults())
+      {
+         Long material  = toLong(result.getGroupByValue(materialId));
+         Long length    = toLong(result.getGroupByValue(lengthMm));
+         Long width     = toLong(result.getGroupByValue(widthMm));
+         Long thickness = toLong(result.getGroupByValue(thicknessMm));
+         Long count     = toLong(result.getAggregateValue(quantity));
+         if(material == null || length == null || width == null || count == null)
+         {
+            continue;
+         }
+
+         groups.add(new PartGroup(toLong(result.getGroupByValue(cabinetId)), material, length.intValue(), width.intValue(),
+            thickness != null ? thickness.intValue() : null, count));
+      }
+      return groups;
+   }
+
+
+
+   /*******************************************************************************
+    ** Load all materials, keyed by ID.
+    *******************************************************************************/
+   public Map<Long, Material> loadMaterials() throws QException
+   {
+      Map<Long, Material> materials = new HashMap<>();
+      for(Material material : query(Material.class, Material.TABLE_NAME, null, null))
+      {
+         materials.put(material.getId(), material);
+      }
+      return materials;
+   }
+
+
+
+   /*******************************************************************************
+    ** A calculator over the given materials, with the solid-wood type looked
+    ** up by code and the default stock sheet.
+    *******************************************************************************/
+   public MaterialCostCalculator createCalculator(Map<Long, Material> materials) throws QException
+   {
+      List<MaterialType> materialTypes = query(MaterialType.class, MaterialType.TABLE_NAME, "code", List.of(SOLID_WOOD_TYPE_CODE));
+      Long               solidWoodId   = materialTypes.isEmpty() ? null : materialTypes.get(0).getId();
+
+      NestingSettings sheet = new NestingSettings();
+      return new MaterialCostCalculator(materials, solidWoodId, (long) sheet.getSheetLengthMm() * sheet.getSheetWidthMm());
+   }
+}
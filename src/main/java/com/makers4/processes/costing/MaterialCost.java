@@ -0,0 +1,22 @@
+package com.makers4.processes.costing;
+
+
+import java.math.BigDecimal;
+
+
+/*******************************************************************************
+ ** What a project uses of one material.
+ **
+ ** @param materialId the material
+ ** @param solid      whether it is solid lumber, bought by the board foot
+ ** @param squareFeet face area of the parts
+ ** @param boardFeet  volume of the parts in board feet (solid lumber only)
+ ** @param sheets     sheets needed by area alone, a lower bound (sheet goods
+ **                   only; the cut list gives the nested count)
+ ** @param cost       parts' cost, to the cent
+ ** @param priced     false when the material has no price for its unit, so
+ **                   its cost counts as zero
+ *******************************************************************************/
+public record MaterialCost(Long materialId, boolean solid, double squareFeet, double boardFeet, int sheets, BigDecimal cost, boolean priced)
+{
+}
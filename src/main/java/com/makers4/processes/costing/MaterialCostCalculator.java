@@ -0,0 +1,172 @@
+package com.makers4.processes.costing;
+
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import com.makers4.model.lookup.Material;
+
+
+/*******************************************************************************
+ ** Prices the parts of a project from grouped part rows.
+ **
+ ** Solid lumber is measured in board feet (length x width x thickness / 144
+ ** cubic inches) and priced per board foot, falling back to the square-foot
+ ** price when a board-foot price is missing.  Sheet goods are measured in
+ ** square feet and priced per square foot, with the sheet count their area
+ ** needs.  Quantities are the parts' net sizes: saw kerf and offcuts are in
+ ** the cut list, not here.
+ **
+ ** Each PartGroup row already sums the quantity of identical parts, so the
+ ** work is proportional to the number of distinct part sizes, not parts.
+ ** Costs are summed exactly and rounded to the cent only in the result.
+ *******************************************************************************/
+public class MaterialCostCalculator
+{
+   static final BigDecimal MM2_PER_SQUARE_FOOT = new BigDecimal("92903.04");
+   static final BigDecimal MM3_PER_BOARD_FOOT  = new BigDecimal("2359737.216");
+
+   private static final int SCALE = 12;
+
+   private final Map<Long, Material> materials;
+   private final Long                solidWoodTypeId;
+   private final long                sheetAreaMm2;
+
+
+
+   /*******************************************************************************
+    ** Constructor.
+    **
+    ** @param materials       all materials, keyed by ID
+    ** @param solidWoodTypeId material type of lumber bought by the board foot
+    ** @param sheetAreaMm2    area of one stock sheet
+    *******************************************************************************/
+   public MaterialCostCalculator(Map<Long, Material> materials, Long solidWoodTypeId, long sheetAreaMm2)
+   {
+      this.materials = materials;
+      this.solidWoodTypeId = solidWoodTypeId;
+      this.sheetAreaMm2 = sheetAreaMm2;
+   }
+
+
+
+   /*******************************************************************************
+    ** Total the groups by material, by cabinet and for the project.  Groups
+    ** of unknown materials are skipped.
+    *******************************************************************************/
+   public CostSummary calculate(List<PartGroup> groups)
+   {
+      Map<Long, Totals>     totalsByMaterial = new TreeMap<>();
+      Map<Long, BigDecimal> costByCabinet    = new TreeMap<>();
+
+      for(PartGroup group : groups)
+      {
+         Material material = materials.get(group.materialId());
+         if(material == null)
+         {
+            continue;
+         }
+
+         int        thicknessMm = group.thicknessMm() != null ? group.thicknessMm() : valueOrZero(material.getThicknessMm());
+         BigDecimal areaMm2     = BigDecimal.valueOf((long) group.lengthMm() * group.widthMm() * group.quantity());
+         BigDecimal volumeMm3   = areaMm2.multiply(BigDecimal.valueOf(thicknessMm));
+
+         Totals totals = totalsByMaterial.computeIfAbsent(material.getId(), id -> new Totals(isSolid(material)));
+         totals.areaMm2 = totals.areaMm2.add(areaMm2);
+         totals.volumeMm3 = totals.volumeMm3.add(volumeMm3);
+
+         BigDecimal cost = BigDecimal.ZERO;
+         if(totals.solid && material.getCostPerBoardFoot() != null)
+         {
+            cost = volumeMm3.multiply(material.getCostPerBoardFoot()).divide(MM3_PER_BOARD_FOOT, SCALE, RoundingMode.HALF_UP);
+         }
+         else if(material.getCostPerSqFt() != null)
+         {
+            cost = areaMm2.multiply(material.getCostPerSqFt()).divide(MM2_PER_SQUARE_FOOT, SCALE, RoundingMode.HALF_UP);
+         }
+         else
+         {
+            totals.priced = false;
+         }
+
+         totals.cost = totals.cost.add(cost);
+         costByCabinet.merge(group.cabinetId(), cost, BigDecimal::add);
+      }
+
+      List<MaterialCost> byMaterial = new ArrayList<>();
+      BigDecimal         total      = BigDecimal.ZERO;
+      for(Map.Entry<Long, Totals> entry : totalsByMaterial.entrySet())
+      {
+         Totals totals     = entry.getValue();
+         double squareFeet = totals.areaMm2.divide(MM2_PER_SQUARE_FOOT, SCALE, RoundingMode.HALF_UP).doubleValue();
+         double boardFeet  = totals.solid ? totals.volumeMm3.divide(MM3_PER_BOARD_FOOT, SCALE, RoundingMode.HALF_UP).doubleValue() : 0;
+         int    sheets     = totals.solid || sheetAreaMm2 <= 0 ? 0 : totals.areaMm2.divide(BigDecimal.valueOf(sheetAreaMm2), 0, RoundingMode.CEILING).intValue();
+
+         byMaterial.add(new MaterialCost(entry.getKey(), totals.solid, squareFeet, boardFeet, sheets, toCents(totals.cost), totals.priced));
+         total = total.add(totals.cost);
+      }
+
+      Map<Long, BigDecimal> byCabinet = new TreeMap<>();
+      costByCabinet.forEach((cabinetId, cost) -> byCabinet.put(cabinetId, toCents(cost)));
+
+      return new CostSummary(byMaterial, byCabinet, toCents(total));
+   }
+
+
+
+   /*******************************************************************************
+    ** Whether a material is lumber bought by the board foot.
+    *******************************************************************************/
+   private boolean isSolid(Material material)
+   {
+      return solidWoodTypeId != null && solidWoodTypeId.equals(material.getMaterialTypeId());
+   }
+
+
+
+   /*******************************************************************************
+    ** Round money to the cent.
+    *******************************************************************************/
+   private static BigDecimal toCents(BigDecimal amount)
+   {
+      return amount.setScale(2, RoundingMode.HALF_UP);
+   }
+
+
+
+   /*******************************************************************************
+    ** An Integer, or 0 when null.
+    *******************************************************************************/
+   private static int valueOrZero(Integer value)
+   {
+      return value != null ? value : 0;
+   }
+
+
+
+   /*******************************************************************************
+    ** Running totals for one material.
+    *******************************************************************************/
+   private static class Totals
+   {
+      private final boolean solid;
+
+      private BigDecimal areaMm2   = BigDecimal.ZERO;
+      private BigDecimal volumeMm3 = BigDecimal.ZERO;
+      private BigDecimal cost      = BigDecimal.ZERO;
+      private boolean    priced    = true;
+
+
+
+      /*******************************************************************************
+       ** Constructor.
+       *******************************************************************************/
+      Totals(boolean solid)
+      {
+         this.solid = solid;
+      }
+   }
+}
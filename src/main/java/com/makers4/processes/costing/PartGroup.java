@@ -0,0 +1,17 @@
+package com.makers4.processes.costing;
+
+
+/*******************************************************************************
+ ** One row of the grouped part aggregate: how many parts of a cabinet share a
+ ** material and size.
+ **
+ ** @param cabinetId   the cabinet the parts belong to
+ ** @param materialId  the parts' material
+ ** @param lengthMm    part length
+ ** @param widthMm     part width
+ ** @param thicknessMm part thickness (null to use the material's)
+ ** @param quantity    sum of the parts' quantities
+ *******************************************************************************/
+public record PartGroup(Long cabinetId, Long materialId, int lengthMm, int widthMm, Integer thicknessMm, long quantity)
+{
+}
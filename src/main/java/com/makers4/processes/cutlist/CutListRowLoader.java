@@ -0,0 +1,242 @@
+package com.makers4.processes.cutlist;
+
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import com.kingsrook.qqq.backend.core.actions.tables.AggregateAction;
+import com.kingsrook.qqq.backend.core.actions.tables.GetAction;
+import com.kingsrook.qqq.backend.core.exceptions.QException;
+import com.kingsrook.qqq.backend.core.model.actions.tables.aggregate.Aggregate;
+import com.kingsrook.qqq.backend.core.model.actions.tables.aggregate.AggregateInput;
+import com.kingsrook.qqq.backend.core.model.actions.tables.aggregate.AggregateOperator;
+import com.kingsrook.qqq.backend.core.model.actions.tables.aggregate.AggregateResult;
+import com.kingsrook.qqq.backend.core.model.actions.tables.aggregate.GroupBy;
+import com.kingsrook.qqq.backend.core.model.actions.tables.get.GetInput;
+import com.kingsrook.qqq.backend.core.model.actions.tables.get.GetOutput;
+import com.kingsrook.qqq.backend.core.model.actions.tables.query.QCriteriaOperator;
+import com.kingsrook.qqq.backend.core.model.actions.tables.query.QFilterCriteria;
+import com.kingsrook.qqq.backend.core.model.actions.tables.query.QFilterOrderBy;
+import com.kingsrook.qqq.backend.core.model.actions.tables.query.QQueryFilter;
+import com.kingsrook.qqq.backend.core.model.data.QRecordEntity;
+import com.kingsrook.qqq.backend.core.model.metadata.fields.QFieldType;
+import com.makers4.cutlist.CutListRow;
+import com.makers4.model.CutList;
+import com.makers4.model.CutListItem;
+import com.makers4.model.Part;
+import com.makers4.model.lookup.Material;
+import static com.makers4.processes.EntityQueries.query;
+import static com.makers4.processes.EntityQueries.toLong;
+
+
+/*******************************************************************************
+ ** Reads a cut list's items, joined to their parts and materials, as
+ ** CutListRows in sheet and position order - a page at a time, so callers
+ ** that stream the rows out never hold the whole list.
+ **
+ ** One aggregate query counts the items on each sheet; consecutive sheets
+ ** are then read a page of up to PAGE_SIZE items at a time, with one IN
+ ** query for that page's parts.  Materials are a small lookup table and are
+ ** loaded once.  GenerateCutList numbers sheets and boards material by
+ ** material, so sheet order is also material order.
+ *******************************************************************************/
+public class CutListRowLoader
+{
+   // Most items read per query (a page may run over for one crowded sheet)
+   static final int PAGE_SIZE = 1000;
+
+   private final Long cutListId;
+
+   private Map<Long, Material> materials;
+
+
+
+   /*******************************************************************************
+    ** One page of items: sheets first to last, both null for the items
+    ** without a sheet number.
+    *******************************************************************************/
+   public record SheetRange(Integer first, Integer last)
+   {
+   }
+
+
+
+   /*******************************************************************************
+    ** Constructor.
+    *******************************************************************************/
+   public CutListRowLoader(Long cutListId)
+   {
+      this.cutListId = cutListId;
+   }
+
+
+
+   /*******************************************************************************
+    ** Load the cut list itself.
+    *******************************************************************************/
+   public CutList loadCutList() throws QException
+   {
+      GetInput getInput = new GetInput();
+      getInput.setTableName(CutList.TABLE_NAME);
+      getInput.setPrimaryKey(cutListId);
+
+      GetOutput getOutput = new GetAction().execute(getInput);
+
+      if(getOutput.getRecord() == null)
+      {
+         throw new QException("Cut list not found: " + cutListId);
+      }
+
+      return QRecordEntity.fromQRecord(CutList.class, getOutput.getRecord());
+   }
+
+
+
+   /*******************************************************************************
+    ** Count items by sheet and pack consecutive sheets into ranges of at most
+    ** PAGE_SIZE items (a single sheet over the limit gets a range of its own).
+    ** Items without a sheet number come last, in a range of their own.
+    *******************************************************************************/
+   public List<SheetRange> planPages() throws QException
+   {
+      Aggregate count       = new Aggregate("id", AggregateOperator.COUNT);
+      GroupBy   sheetNumber = new GroupBy(QFieldType.INTEGER, "sheetNumber");
+
+      AggregateInput aggregateInput = new AggregateInput();
+      aggregateInput.setTableName(CutListItem.TABLE_NAME);
+      aggregateInput.setFilter(new QQueryFilter(new QFilterCriteria("cutListId", QCriteriaOperator.EQUALS, cutListId)));
+      aggregateInput.withAggregate(count).withGroupBy(sheetNumber);
+
+      TreeMap<Integer, Long> countBySheet = new TreeMap<>();
+      long                   unnumbered   = 0;
+      for(AggregateResult result : new AggregateAction().execute(aggregateInput).getResults())
+      {
+         Long sheet = toLong(result.getGroupByValue(sheetNumber));
+         Long items = toLong(result.getAggregateValue(count));
+         if(items == null)
+         {
+            continue;
+         }
+
+         if(sheet == null)
+         {
+            unnumbered += items;
+         }
+         else
+         {
+            countBySheet.put(sheet.intValue(), items);
+         }
+      }
+
+      List<SheetRange> pages = new ArrayList<>();
+      Integer          first = null;
+      Integer          last  = null;
+      long             items = 0;
+      for(Map.Entry<Integer, Long> entry : countBySheet.entrySet())
+      {
+         if(first != null && items + entry.getValue() > PAGE_SIZE)
+         {
+            pages.add(new SheetRange(first, last));
+            first = null;
+            items = 0;
+         }
+         if(first == null)
+         {
+            first = entry.getKey();
+         }
+         last = entry.getKey();
+         items += entry.getValue();
+      }
+      if(first != null)
+      {
+         pages.add(new SheetRange(first, last));
+      }
+      if(unnumbered > 0)
+      {
+         pages.add(new SheetRange(null, null));
+      }
+      return pages;
+   }
+
+
+
+   /*******************************************************************************
+    ** Read one page of items, in sheet and position order, as rows.
+    *******************************************************************************/
+   public List<CutListRow> loadRows(SheetRange page) throws QException
+   {
+      if(materials == null)
+      {
+         materials = loadMaterials();
+      }
+
+      QQueryFilter filter = new QQueryFilter(new QFilterCriteria("cutListId", QCriteriaOperator.EQUALS, cutListId));
+      if(page.first() == null)
+      {
+         filter.withCriteria(new QFilterCriteria("sheetNumber", QCriteriaOperator.IS_BLANK));
+      }
+      else
+      {
+         filter.withCriteria(new QFilterCriteria("sheetNumber", QCriteriaOperator.BETWEEN, page.first(), page.last()));
+      }
+      filter.withOrderBy(new QFilterOrderBy("sheetNumber"))
+         .withOrderBy(new QFilterOrderBy("positionY"))
+         .withOrderBy(new QFilterOrderBy("positionX"))
+         .withOrderBy(new QFilterOrderBy("id"));
+
+      List<CutListItem> items   = query(CutListItem.class, CutListItem.TABLE_NAME, filter);
+      List<Long>        partIds = items.stream().map(CutListItem::getPartId).distinct().toList();
+
+      Map<Long, Part> parts = new HashMap<>();
+      if(!partIds.isEmpty())
+      {
+         for(Part part : query(Part.class, Part.TABLE_NAME, new QQueryFilter(new QFilterCriteria("id", QCriteriaOperator.IN, partIds))))
+         {
+            parts.put(part.getId(), part);
+         }
+      }
+
+      List<CutListRow> rows = new ArrayList<>(items.size());
+      for(CutListItem item : items)
+      {
+         Part part = parts.get(item.getPartId());
+         if(part == null)
+         {
+            continue;
+         }
+
+         Material material  = materials.get(part.getMaterialId());
+         Integer  thickness = part.getThicknessMm() != null ? part.getThicknessMm() : material != null ? material.getThicknessMm() : null;
+         rows.add(new CutListRow(
+            material != null ? material.getCode() : null,
+            material != null ? material.getName() : null,
+            thickness,
+            item.getSheetNumber() != null ? item.getSheetNumber() : 0,
+            item.getBoardLengthMm(),
+            part.getName(),
+            part.getLengthMm() != null ? part.getLengthMm() : 0,
+            part.getWidthMm() != null ? part.getWidthMm() : 0,
+            Boolean.TRUE.equals(item.getRotated()),
+            item.getPositionX(),
+            item.getPositionY()));
+      }
+      return rows;
+   }
+
+
+
+   /*******************************************************************************
+    ** Load all materials, keyed by ID.
+    *******************************************************************************/
+   private Map<Long, Material> loadMaterials() throws QException
+   {
+      Map<Long, Material> materials = new HashMap<>();
+      for(Material material : query(Material.class, Material.TABLE_NAME, null))
+      {
+         materials.put(material.getId(), material);
+      }
+      return materials;
+   }
+}
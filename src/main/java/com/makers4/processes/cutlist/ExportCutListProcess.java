@@ -0,0 +1,184 @@
+package com.makers4.processes.cutlist;
+
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import com.kingsrook.qqq.backend.core.actions.processes.BackendStep;
+import com.kingsrook.qqq.backend.core.exceptions.QException;
+import com.kingsrook.qqq.backend.core.logging.QLogger;
+import com.kingsrook.qqq.backend.core.model.actions.processes.RunBackendStepInput;
+import com.kingsrook.qqq.backend.core.model.actions.processes.RunBackendStepOutput;
+import com.kingsrook.qqq.backend.core.model.metadata.MetaDataProducerInterface;
+import com.kingsrook.qqq.backend.core.model.metadata.QInstance;
+import com.kingsrook.qqq.backend.core.model.metadata.code.QCodeReference;
+import com.kingsrook.qqq.backend.core.model.metadata.fields.QFieldMetaData;
+import com.kingsrook.qqq.backend.core.model.metadata.fields.QFieldType;
+import com.kingsrook.qqq.backend.core.model.metadata.layout.QIcon;
+import com.kingsrook.qqq.backend.core.model.metadata.processes.QBackendStepMetaData;
+import com.kingsrook.qqq.backend.core.model.metadata.processes.QFrontendStepMetaData;
+import com.kingsrook.qqq.backend.core.model.metadata.processes.QProcessMetaData;
+import com.makers4.cutlist.CsvCutListWriter;
+import com.makers4.cutlist.CutListRow;
+import com.makers4.cutlist.PdfCutListWriter;
+import com.makers4.model.CutList;
+import static com.kingsrook.qqq.backend.core.logging.LogUtils.logPair;
+
+
+/*******************************************************************************
+ ** Process to export a cut list as a PDF table and a CSV for panel-saw
+ ** software, written to the download directory.
+ **
+ ** Items are never all loaded at once: CutListRowLoader reads them a page
+ ** of sheets at a time, and each row goes straight to both writers, which
+ ** group by material and sheet as the rows pass.
+ *******************************************************************************/
+public class ExportCutListProcess implements BackendStep, MetaDataProducerInterface<QProcessMetaData>
+{
+   public static final String PROCESS_NAME = "exportCutList";
+   public static final String STEP_NAME    = "export";
+   public static final String RESULT_STEP  = "result";
+
+   private static final QLogger LOG = QLogger.getLogger(ExportCutListProcess.class);
+
+
+
+   /*******************************************************************************
+    ** Produce the process metadata.
+    *******************************************************************************/
+   @Override
+   public QProcessMetaData produce(QInstance qInstance) throws QException
+   {
+      return new QProcessMetaData()
+         .withName(PROCESS_NAME)
+         .withLabel("Export Cut List")
+         .withIcon(new QIcon().withName("file_download"))
+         .withTableName(CutList.TABLE_NAME)
+         .withIsHidden(false)
+         .withStepList(List.of(
+            new QBackendStepMetaData()
+               .withName(STEP_NAME)
+               .withCode(new QCodeReference(getClass())),
+            new QFrontendStepMetaData()
+               .withName(RESULT_STEP)
+               .withLabel("Cut List Exported")
+               .withFormField(new QFieldMetaData("message", QFieldType.STRING).withLabel("Result"))
+               .withFormField(new QFieldMetaData("pdfPath", QFieldType.STRING).withLabel("PDF Path"))
+               .withFormField(new QFieldMetaData("csvPath", QFieldType.STRING).withLabel("CSV Path"))
+               .withFormField(new QFieldMetaData("rowCount", QFieldType.INTEGER).withLabel("Rows"))
+         ));
+   }
+
+
+
+   /*******************************************************************************
+    ** Execute the export process.
+    *******************************************************************************/
+   @Override
+   public void run(RunBackendStepInput input, RunBackendStepOutput output) throws QException
+   {
+      Long cutListId = null;
+
+      // Try to get cut list ID from various sources
+      if(input.getValue("cutListId") != null)
+      {
+         cutListId = Long.parseLong(input.getValue("cutListId").toString());
+      }
+      else if(input.getValue("id") != null)
+      {
+         cutListId = Long.parseLong(input.getValue("id").toString());
+      }
+      else if(input.getValue("recordIds") != null)
+      {
+         // Record IDs can come as a String or List depending on context
+         Object recordIds = input.getValue("recordIds");
+         if(recordIds instanceof String)
+         {
+            cutListId = Long.parseLong((String) recordIds);
+         }
+         else if(recordIds instanceof List)
+         {
+            @SuppressWarnings("unchecked")
+            List<Object> idList = (List<Object>) recordIds;
+            if(!idList.isEmpty())
+            {
+               cutListId = Long.parseLong(idList.get(0).toString());
+            }
+         }
+      }
+      else if(input.getRecords() != null && !input.getRecords().isEmpty())
+      {
+         cutListId = input.getRecords().get(0).getValueLong("id");
+      }
+
+      if(cutListId == null)
+      {
+         LOG.warn("Cut list ID not found in input. Available values: " + input.getValues());
+         throw new QException("Cut list ID is required");
+      }
+
+      LOG.info("Starting cut list export", logPair("cutListId", cutListId));
+
+      CutListRowLoader                  loader  = new CutListRowLoader(cutListId);
+      CutList                           cutList = loader.loadCutList();
+      List<CutListRowLoader.SheetRange> pages   = loader.planPages();
+
+      File downloadDir = new File(System.getProperty("java.io.tmpdir"), "makers4-downloads");
+      if(!downloadDir.exists())
+      {
+         downloadDir.mkdirs();
+      }
+
+      // Cut list id plus a unique suffix, so same-named cut lists and concurrent exports never collide
+      String prefix   = cutList.getName().replaceAll("[^A-Za-z0-9._-]+", "_") + "-" + cutListId + "-";
+      File   pdfFile  = createExportFile(downloadDir, prefix, ".pdf");
+      File   csvFile  = createExportFile(downloadDir, prefix, ".csv");
+      int    rowCount = 0;
+
+      try(PdfCutListWriter pdf = new PdfCutListWriter(new BufferedOutputStream(new FileOutputStream(pdfFile)), cutList.getName(), downloadDir);
+          CsvCutListWriter csv = new CsvCutListWriter(new FileOutputStream(csvFile)))
+      {
+         for(CutListRowLoader.SheetRange page : pages)
+         {
+            for(CutListRow row : loader.loadRows(page))
+            {
+               pdf.write(row);
+               csv.write(row);
+               rowCount++;
+            }
+         }
+      }
+      catch(IOException e)
+      {
+         throw new QException("Error writing cut list export: " + e.getMessage(), e);
+      }
+
+      output.addValue("message", "Exported " + rowCount + " cut list rows to " + pdfFile.getName() + " and " + csvFile.getName());
+      output.addValue("pdfPath", pdfFile.getAbsolutePath());
+      output.addValue("csvPath", csvFile.getAbsolutePath());
+      output.addValue("rowCount", rowCount);
+
+      LOG.info("Cut list export completed", logPair("cutListId", cutListId), logPair("rows", rowCount),
+         logPair("pages", pages.size()), logPair("pdfBytes", pdfFile.length()), logPair("csvBytes", csvFile.length()));
+   }
+
+
+
+   /*******************************************************************************
+    ** Create a new, uniquely named export file in the download directory.
+    *******************************************************************************/
+   private static File createExportFile(File downloadDir, String prefix, String suffix) throws QException
+   {
+      try
+      {
+         return Files.createTempFile(downloadDir.toPath(), prefix, suffix).toFile();
+      }
+      catch(IOException e)
+      {
+         throw new QException("Error creating cut list export file: " + e.getMessage(), e);
+      }
+   }
+}
@@ -0,0 +1,427 @@
+package com.makers4.processes.cutlist;
+
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import com.kingsrook.qqq.backend.core.actions.processes.BackendStep;
+import com.kingsrook.qqq.backend.core.actions.tables.DeleteAction;
+import com.kingsrook.qqq.backend.core.actions.tables.GetAction;
+import com.kingsrook.qqq.backend.core.actions.tables.InsertAction;
+import com.kingsrook.qqq.backend.core.actions.tables.QueryAction;
+import com.kingsrook.qqq.backend.core.actions.tables.UpdateAction;
+import com.kingsrook.qqq.backend.core.exceptions.QException;
+import com.kingsrook.qqq.backend.core.logging.QLogger;
+import com.kingsrook.qqq.backend.core.model.actions.processes.RunBackendStepInput;
+import com.kingsrook.qqq.backend.core.model.actions.processes.RunBackendStepOutput;
+import com.kingsrook.qqq.backend.core.model.actions.tables.delete.DeleteInput;
+import com.kingsrook.qqq.backend.core.model.actions.tables.get.GetInput;
+import com.kingsrook.qqq.backend.core.model.actions.tables.get.GetOutput;
+import com.kingsrook.qqq.backend.core.model.actions.tables.insert.InsertInput;
+import com.kingsrook.qqq.backend.core.model.actions.tables.insert.InsertOutput;
+import com.kingsrook.qqq.backend.core.model.actions.tables.query.QCriteriaOperator;
+import com.kingsrook.qqq.backend.core.model.actions.tables.query.QFilterCriteria;
+import com.kingsrook.qqq.backend.core.model.actions.tables.query.QQueryFilter;
+import com.kingsrook.qqq.backend.core.model.actions.tables.query.QueryInput;
+import com.kingsrook.qqq.backend.core.model.actions.tables.update.UpdateInput;
+import com.kingsrook.qqq.backend.core.model.data.QRecord;
+import com.kingsrook.qqq.backend.core.model.data.QRecordEntity;
+import com.kingsrook.qqq.backend.core.model.metadata.MetaDataProducerInterface;
+import com.kingsrook.qqq.backend.core.model.metadata.QInstance;
+import com.kingsrook.qqq.backend.core.model.metadata.code.QCodeReference;
+import com.kingsrook.qqq.backend.core.model.metadata.fields.QFieldMetaData;
+import com.kingsrook.qqq.backend.core.model.metadata.fields.QFieldType;
+import com.kingsrook.qqq.backend.core.model.metadata.layout.QIcon;
+import com.kingsrook.qqq.backend.core.model.metadata.processes.QBackendStepMetaData;
+import com.kingsrook.qqq.backend.core.model.metadata.processes.QFrontendStepMetaData;
+import com.kingsrook.qqq.backend.core.model.metadata.processes.QProcessMetaData;
+import com.makers4.model.Cabinet;
+import com.makers4.model.CutList;
+import com.makers4.model.CutListItem;
+import com.makers4.model.Part;
+import com.makers4.model.Project;
+import com.makers4.model.lookup.Material;
+import com.makers4.model.lookup.MaterialType;
+import com.makers4.nesting.BoardNester;
+import com.makers4.nesting.BoardNestingResult;
+import com.makers4.nesting.BoardPlacement;
+import com.makers4.nesting.BoardSettings;
+import com.makers4.nesting.NestingCache;
+import com.makers4.nesting.NestingPiece;
+import com.makers4.nesting.NestingResult;
+import com.makers4.nesting.NestingSettings;
+import com.makers4.nesting.SheetPlacement;
+import static com.kingsrook.qqq.backend.core.logging.LogUtils.logPair;
+import static com.makers4.processes.EntityQueries.query;
+
+
+/*******************************************************************************
+ ** Process to build a project's cut list by nesting its parts onto stock.
+ **
+ ** Sheet-good parts are grouped by material and each group is nested onto
+ ** standard sheets by GuillotineNester, sharing one time budget between the
+ ** groups.  Layouts are cached, so a material whose parts have not changed
+ ** since the last run is not nested again.  Parts in stock with a species
+ ** keep their length along the sheet grain; the rest may be turned.
+ ** Solid-wood parts (face frame members, door rails and stiles) are grouped
+ ** by material and width and assigned to standard-length boards by
+ ** BoardNester.  A part with quantity n becomes n cut list items.  Sheets,
+ ** then boards, are numbered from 1 across the whole cut list.  The
+ ** project-level cut list is reused and its items replaced.
+ *******************************************************************************/
+public class GenerateCutListProcess implements BackendStep, MetaDataProducerInterface<QProcessMetaData>
+{
+   public static final String PROCESS_NAME = "generateCutList";
+   public static final String STEP_NAME    = "generate";
+   public static final String RESULT_STEP  = "result";
+
+   // Material type code of stock milled from boards rather than sheets
+   static final String SOLID_WOOD_TYPE_CODE = "SOLID_WOOD";
+
+   // Items per insert round trip
+   static final int BATCH_SIZE = 500;
+
+   // Sheet layouts by material and pieces, shared by every run
+   private static final NestingCache NESTING_CACHE = new NestingCache(256);
+
+   private static final QLogger LOG = QLogger.getLogger(GenerateCutListProcess.class);
+
+
+
+   /*******************************************************************************
+    ** Produce the process metadata.
+    *******************************************************************************/
+   @Override
+   public QProcessMetaData produce(QInstance qInstance) throws QException
+   {
+      return new QProcessMetaData()
+         .withName(PROCESS_NAME)
+         .withLabel("Generate Cut List")
+         .withIcon(new QIcon().withName("grid_on"))
+         .withTableName(Project.TABLE_NAME)
+         .withIsHidden(false)
+         .withStepList(List.of(
+            new QBackendStepMetaData()
+               .withName(STEP_NAME)
+               .withCode(new QCodeReference(getClass())),
+            new QFrontendStepMetaData()
+               .withName(RESULT_STEP)
+               .withLabel("Cut List Generated")
+               .withFormField(new QFieldMetaData("message", QFieldType.STRING).withLabel("Result"))
+               .withFormField(new QFieldMetaData("cutListId", QFieldType.INTEGER).withLabel("Cut List"))
+               .withFormField(new QFieldMetaData("sheetCount", QFieldType.INTEGER).withLabel("Sheets"))
+               .withFormField(new QFieldMetaData("boardCount", QFieldType.INTEGER).withLabel("Boards"))
+               .withFormField(new QFieldMetaData("itemCount", QFieldType.INTEGER).withLabel("Items"))
+               .withFormField(new QFieldMetaData("summary", QFieldType.TEXT).withLabel("Stock by Material"))
+         ));
+   }
+
+
+
+   /*******************************************************************************
+    ** Execute the generate process.
+    *******************************************************************************/
+   @Override
+   public void run(RunBackendStepInput input, RunBackendStepOutput output) throws QException
+   {
+      Long projectId = null;
+
+      // Try to get project ID from various sources
+      if(input.getValue("projectId") != null)
+      {
+         projectId = Long.parseLong(input.getValue("projectId").toString());
+      }
+      else if(input.getValue("id") != null)
+      {
+         projectId = Long.parseLong(input.getValue("id").toString());
+      }
+      else if(input.getValue("recordIds") != null)
+      {
+         // Record IDs can come as a String or List depending on context
+         Object recordIds = input.getValue("recordIds");
+         if(recordIds instanceof String)
+         {
+            projectId = Long.parseLong((String) recordIds);
+         }
+         else if(recordIds instanceof List)
+         {
+            @SuppressWarnings("unchecked")
+            List<Object> idList = (List<Object>) recordIds;
+            if(!idList.isEmpty())
+            {
+               projectId = Long.parseLong(idList.get(0).toString());
+            }
+         }
+      }
+      else if(input.getRecords() != null && !input.getRecords().isEmpty())
+      {
+         projectId = input.getRecords().get(0).getValueLong("id");
+      }
+
+      if(projectId == null)
+      {
+         LOG.warn("Project ID not found in input. Available values: " + input.getValues());
+         throw new QException("Project ID is required");
+      }
+
+      LOG.info("Starting cut list generation", logPair("projectId", projectId));
+
+      Project             project         = loadProject(projectId);
+      List<Cabinet>       cabinets        = query(Cabinet.class, Cabinet.TABLE_NAME, "projectId", List.of(projectId));
+      List<Long>          cabinetIds      = cabinets.stream().map(Cabinet::getId).toList();
+      List<Part>          parts           = cabinetIds.isEmpty() ? List.of() : query(Part.class, Part.TABLE_NAME, "cabinetId", cabinetIds);
+      Map<Long, Material> materials       = loadMaterials();
+      Long                solidWoodTypeId = loadMaterialTypeId(SOLID_WOOD_TYPE_CODE);
+
+      ////////////////////////////////////////////////////////////////////////
+      // One piece per physical part: sheet goods grouped by material, solid //
+      // wood by material and width (boards are ripped to width first)      //
+      ////////////////////////////////////////////////////////////////////////
+      Map<Long, List<NestingPiece>>         piecesByMaterial = new TreeMap<>();
+      Map<BoardProfile, List<NestingPiece>> piecesByProfile  = new TreeMap<>(BoardProfile.ORDER);
+      for(Part part : parts)
+      {
+         Material material = materials.get(part.getMaterialId());
+         if(material == null || part.getLengthMm() == null || part.getWidthMm() == null)
+         {
+            continue;
+         }
+
+         boolean            solid     = material.getMaterialTypeId().equals(solidWoodTypeId);
+         boolean            rotatable = !solid && material.getSpecies() == null;
+         int                quantity  = part.getQuantity() == null ? 1 : part.getQuantity();
+         List<NestingPiece> group     = solid
+            ? piecesByProfile.computeIfAbsent(new BoardProfile(material.getId(), part.getWidthMm()), profile -> new ArrayList<>())
+            : piecesByMaterial.computeIfAbsent(material.getId(), id -> new ArrayList<>());
+         for(int i = 0; i < quantity; i++)
+         {
+            group.add(new NestingPiece(part.getId(), part.getLengthMm(), part.getWidthMm(), rotatable));
+         }
+      }
+
+      NestingSettings defaults      = new NestingSettings();
+      Duration        budget        = piecesByMaterial.isEmpty() ? defaults.getTimeBudget() : defaults.getTimeBudget().dividedBy(piecesByMaterial.size());
+      NestingSettings settings      = defaults.withTimeBudget(budget);
+      BoardSettings   boardSettings = new BoardSettings();
+
+      Long              cutListId   = saveCutList(project);
+      List<CutListItem> items       = new ArrayList<>();
+      List<String>      summary     = new ArrayList<>();
+      int               stockNumber = 0;
+      int               sheetCount  = 0;
+      int               boardCount  = 0;
+      int               unplaced    = 0;
+      for(Map.Entry<Long, List<NestingPiece>> entry : piecesByMaterial.entrySet())
+      {
+         Material      material = materials.get(entry.getKey());
+         NestingResult result   = NESTING_CACHE.nest(entry.getKey(), entry.getValue(), settings);
+
+         for(SheetPlacement placement : result.placements())
+         {
+            items.add(new CutListItem()
+               .withCutListId(cutListId)
+               .withPartId(placement.piece().partId())
+               .withSheetNumber(stockNumber + placement.sheetIndex() + 1)
+               .withPositionX(placement.x())
+               .withPositionY(placement.y())
+               .withRotated(placement.rotated()));
+         }
+
+         String line = material.getCode() + ": " + result.sheetCount() + " sheets, "
+            + Math.round(result.utilization(settings) * 100) + "% used";
+         if(!result.unplaced().isEmpty())
+         {
+            line += ", " + result.unplaced().size() + " parts larger than a sheet";
+         }
+         summary.add(line);
+
+         stockNumber += result.sheetCount();
+         sheetCount += result.sheetCount();
+         unplaced += result.unplaced().size();
+      }
+
+      //////////////////////////////////////////////////////////
+      // Boards are numbered on from the last sheet, with the //
+      // item's position along the board in position X        //
+      //////////////////////////////////////////////////////////
+      for(Map.Entry<BoardProfile, List<NestingPiece>> entry : piecesByProfile.entrySet())
+      {
+         Material           material = materials.get(entry.getKey().materialId());
+         BoardNestingResult result   = new BoardNester().nest(entry.getValue(), boardSettings);
+
+         for(BoardPlacement placement : result.placements())
+         {
+            items.add(new CutListItem()
+               .withCutListId(cutListId)
+               .withPartId(placement.piece().partId())
+               .withSheetNumber(stockNumber + placement.boardIndex() + 1)
+               .withPositionX(placement.offset())
+               .withRotated(false)
+               .withBoardLengthMm(result.boardLengths().get(placement.boardIndex())));
+         }
+
+         String line = material.getCode() + " x " + entry.getKey().widthMm() + " mm: " + result.boardLengths().size() + " boards, "
+            + result.totalLengthMm() + " mm, " + Math.round(result.utilization() * 100) + "% used";
+         if(!result.unplaced().isEmpty())
+         {
+            line += ", " + result.unplaced().size() + " parts longer than a board";
+         }
+         summary.add(line);
+
+         stockNumber += result.boardLengths().size();
+         boardCount += result.boardLengths().size();
+         unplaced += result.unplaced().size();
+      }
+
+      insertItems(items);
+
+      String message = "Nested " + items.size() + " parts onto " + sheetCount + " sheets and " + boardCount + " boards";
+      if(unplaced > 0)
+      {
+         message += "; " + unplaced + " parts are larger than any stock and were left off";
+      }
+
+      output.addValue("message", message);
+      output.addValue("cutListId", cutListId);
+      output.addValue("sheetCount", sheetCount);
+      output.addValue("boardCount", boardCount);
+      output.addValue("itemCount", items.size());
+      output.addValue("summary", String.join("\n", summary));
+
+      LOG.info("Cut list generation completed", logPair("projectId", projectId), logPair("cutListId", cutListId),
+         logPair("sheetMaterials", piecesByMaterial.size()), logPair("boardProfiles", piecesByProfile.size()),
+         logPair("sheets", sheetCount), logPair("boards", boardCount),
+         logPair("items", items.size()), logPair("unplaced", unplaced));
+   }
+
+
+
+   /*******************************************************************************
+    ** Load a project by ID.
+    *******************************************************************************/
+   private Project loadProject(Long projectId) throws QException
+   {
+      GetInput getInput = new GetInput();
+      getInput.setTableName(Project.TABLE_NAME);
+      getInput.setPrimaryKey(projectId);
+
+      GetOutput getOutput = new GetAction().execute(getInput);
+
+      if(getOutput.getRecord() == null)
+      {
+         throw new QException("Project not found: " + projectId);
+      }
+
+      return QRecordEntity.fromQRecord(Project.class, getOutput.getRecord());
+   }
+
+
+
+   /*******************************************************************************
+    ** Load all materials, keyed by ID.
+    *******************************************************************************/
+   private Map<Long, Material> loadMaterials() throws QException
+   {
+      Map<Long, Material> materials = new HashMap<>();
+      for(Material material : query(Material.class, Material.TABLE_NAME, null, null))
+      {
+         materials.put(material.getId(), material);
+      }
+      return materials;
+   }
+
+
+
+   /*******************************************************************************
+    ** Look up a material type's ID by code (null if there is none).
+    *******************************************************************************/
+   private Long loadMaterialTypeId(String code) throws QException
+   {
+      List<MaterialType> materialTypes = query(MaterialType.class, MaterialType.TABLE_NAME, "code", List.of(code));
+      return materialTypes.isEmpty() ? null : materialTypes.get(0).getId();
+   }
+
+
+
+   /*******************************************************************************
+    ** Find the project-level cut list and clear its items, or create one, and
+    ** return its ID.
+    *******************************************************************************/
+   private Long saveCutList(Project project) throws QException
+   {
+      QueryInput queryInput = new QueryInput();
+      queryInput.setTableName(CutList.TABLE_NAME);
+      queryInput.setFilter(new QQueryFilter(
+         new QFilterCriteria("projectId", QCriteriaOperator.EQUALS, project.getId()),
+         new QFilterCriteria("cabinetId", QCriteriaOperator.IS_BLANK)));
+      List<QRecord> existing = new QueryAction().execute(queryInput).getRecords();
+
+      if(!existing.isEmpty())
+      {
+         Long cutListId = existing.get(0).getValueLong("id");
+
+         DeleteInput deleteInput = new DeleteInput();
+         deleteInput.setTableName(CutListItem.TABLE_NAME);
+         deleteInput.setQueryFilter(new QQueryFilter(new QFilterCriteria("cutListId", QCriteriaOperator.EQUALS, cutListId)));
+         new DeleteAction().execute(deleteInput);
+
+         UpdateInput updateInput = new UpdateInput();
+         updateInput.setTableName(CutList.TABLE_NAME);
+         updateInput.setRecords(List.of(new QRecord()
+            .withValue("id", cutListId)
+            .withValue("generatedAt", Instant.now())));
+         new UpdateAction().execute(updateInput);
+
+         return cutListId;
+      }
+
+      InsertInput insertInput = new InsertInput();
+      insertInput.setTableName(CutList.TABLE_NAME);
+      insertInput.setRecords(List.of(new CutList()
+         .withProjectId(project.getId())
+         .withName(project.getName() + " Cut List")
+         .withGeneratedAt(Instant.now())
+         .toQRecord()));
+
+      InsertOutput insertOutput = new InsertAction().execute(insertInput);
+      return insertOutput.getRecords().get(0).getValueLong("id");
+   }
+
+
+
+   /*******************************************************************************
+    ** Insert cut list items in batches, one round trip per batch.
+    *******************************************************************************/
+   private void insertItems(List<CutListItem> items) throws QException
+   {
+      for(int start = 0; start < items.size(); start += BATCH_SIZE)
+      {
+         List<QRecord> batch = new ArrayList<>();
+         for(CutListItem item : items.subList(start, Math.min(start + BATCH_SIZE, items.size())))
+         {
+            batch.add(item.toQRecord());
+         }
+
+         InsertInput insertInput = new InsertInput();
+         insertInput.setTableName(CutListItem.TABLE_NAME);
+         insertInput.setRecords(batch);
+
+         new InsertAction().execute(insertInput);
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** Solid stock of one material ripped to one width.
+    *******************************************************************************/
+   private record BoardProfile(long materialId, int widthMm)
+   {
+      static final Comparator<BoardProfile> ORDER = Comparator.comparingLong(BoardProfile::materialId).thenComparingInt(BoardProfile::widthMm);
+   }
+}
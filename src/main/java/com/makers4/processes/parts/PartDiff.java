@@ -0,0 +1,132 @@
+package com.makers4.processes.parts;
+
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import com.makers4.model.Part;
+
+
+/*******************************************************************************
+ ** The minimal set of changes that turns a cabinet's saved parts into a newly
+ ** generated set.
+ **
+ ** Parts are matched on (opening, part type, name), which generation keeps
+ ** stable across edits.  A matched part whose generated values differ becomes
+ ** an update that keeps its id; only parts that no longer exist are deleted
+ ** and only new ones inserted.  Parts that match exactly produce no change at
+ ** all.
+ **
+ ** An update that changes what nesting reads (size, material or quantity)
+ ** also lists the part in layoutChanges: cut list items placing the old part
+ ** no longer fit it.  Cut list items of parts with cosmetic updates (edge
+ ** banding notes) stay valid.
+ **
+ ** @param inserts       generated parts with no saved match
+ ** @param updates       generated parts carrying their saved match's id
+ ** @param layoutChanges ids of updated parts whose nesting inputs changed
+ ** @param deletes       saved parts with no generated match
+ ** @param unchanged     count of saved parts that match exactly
+ *******************************************************************************/
+public record PartDiff(List<Part> inserts, List<Part> updates, List<Long> layoutChanges, List<Part> deletes,
+                       int unchanged)
+{
+
+   /*******************************************************************************
+    ** Compare saved parts against generated ones.  Updates are the generated
+    ** parts with the matching saved part's id; deletes are saved parts.
+    *******************************************************************************/
+   public static PartDiff compute(List<Part> existing, List<Part> generated)
+   {
+      // Saved parts by key; a queue per key so repeated keys pair off in order
+      Map<String, Deque<Part>> existingByKey = new LinkedHashMap<>();
+      for(Part part : existing)
+      {
+         existingByKey.computeIfAbsent(key(part), k -> new ArrayDeque<>()).add(part);
+      }
+
+      List<Part> inserts       = new ArrayList<>();
+      List<Part> updates       = new ArrayList<>();
+      List<Long> layoutChanges = new ArrayList<>();
+      int        unchanged     = 0;
+      for(Part part : generated)
+      {
+         Deque<Part> candidates = existingByKey.get(key(part));
+         Part        match      = candidates != null ? candidates.poll() : null;
+         if(match == null)
+         {
+            inserts.add(part);
+         }
+         else if(sameGeneratedValues(match, part))
+         {
+            unchanged++;
+         }
+         else
+         {
+            updates.add(part.withId(match.getId()));
+            if(!sameLayoutValues(match, part))
+            {
+               layoutChanges.add(match.getId());
+            }
+         }
+      }
+
+      List<Part> deletes = new ArrayList<>();
+      for(Deque<Part> leftovers : existingByKey.values())
+      {
+         deletes.addAll(leftovers);
+      }
+
+      return new PartDiff(inserts, updates, layoutChanges, deletes, unchanged);
+   }
+
+
+
+   /*******************************************************************************
+    ** Whether applying this diff would change nothing.
+    *******************************************************************************/
+   public boolean isEmpty()
+   {
+      return inserts.isEmpty() && updates.isEmpty() && deletes.isEmpty();
+   }
+
+
+
+   /*******************************************************************************
+    ** Identity of a part within its cabinet.
+    *******************************************************************************/
+   private static String key(Part part)
+   {
+      return part.getCabinetOpeningId() + "|" + part.getPartTypeId() + "|" + part.getName();
+   }
+
+
+
+   /*******************************************************************************
+    ** Compare the fields generation sets.  Fields it never sets (such as notes)
+    ** belong to the user and are not compared or overwritten.
+    *******************************************************************************/
+   private static boolean sameGeneratedValues(Part saved, Part generated)
+   {
+      return sameLayoutValues(saved, generated)
+         && Objects.equals(saved.getEdgeBandingNotes(), generated.getEdgeBandingNotes());
+   }
+
+
+
+   /*******************************************************************************
+    ** Compare the fields nesting lays sheets out from.
+    *******************************************************************************/
+   private static boolean sameLayoutValues(Part saved, Part generated)
+   {
+      return Objects.equals(saved.getLengthMm(), generated.getLengthMm())
+         && Objects.equals(saved.getWidthMm(), generated.getWidthMm())
+         && Objects.equals(saved.getThicknessMm(), generated.getThicknessMm())
+         && Objects.equals(saved.getMaterialId(), generated.getMaterialId())
+         && Objects.equals(saved.getQuantity(), generated.getQuantity());
+   }
+}
@@ -0,0 +1,910 @@
+package com.makers4.processes.parts;
+
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import com.makers4.model.Cabinet;
+import com.makers4.model.CabinetOpening;
+import com.makers4.model.Part;
+import com.makers4.model.Project;
+import com.makers4.model.lookup.Material;
+
+
+/*******************************************************************************
+ ** Derives the cut parts (carcass, toe kick, face frame, doors and drawers) of a
+ ** cabinet from its dimensions, construction options and openings.
+ **
+ ** Materials are inherited opening -> cabinet -> project default; a part whose
+ ** material cannot be resolved is a validation error rather than a guess.  The
+ ** generator holds only lookup maps that are never modified, so one instance
+ ** can generate many cabinets concurrently.
+ **
+ ** inputHash() fingerprints everything generate() reads for a cabinet, so a
+ ** caller can skip cabinets whose parts are already up to date.
+ *******************************************************************************/
+public class PartGenerator
+{
+   // Bump whenever the construction rules change, so every cabinet's input hash changes with them
+   static final int RULES_VERSION = 1;
+
+   // CabinetType codes
+   private static final String CABINET_TYPE_WALL        = "WALL";
+   private static final String CABINET_TYPE_TALL        = "TALL";
+   private static final String CABINET_TYPE_CORNER_WALL = "CORNER_WALL";
+
+   // FaceType codes
+   private static final String FACE_TYPE_FACE_FRAME = "FACE_FRAME";
+   private static final String FACE_TYPE_FRAMELESS  = "FRAMELESS";
+   private static final String FACE_TYPE_INSET      = "INSET";
+
+   // OpeningType codes
+   private static final String OPENING_TYPE_DOOR        = "DOOR";
+   private static final String OPENING_TYPE_DRAWER      = "DRAWER";
+   private static final String OPENING_TYPE_DOOR_DRAWER = "DOOR_DRAWER";
+   private static final String OPENING_TYPE_DOUBLE_DOOR = "DOUBLE_DOOR";
+   private static final String OPENING_TYPE_SHELF       = "SHELF";
+   private static final String OPENING_TYPE_OPEN        = "OPEN";
+   private static final String OPENING_TYPE_FALSE_FRONT = "FALSE_FRONT";
+
+   // DoorStyle codes
+   private static final String DOOR_STYLE_SLAB        = "SLAB";
+   private static final String DOOR_STYLE_GLASS_FRAME = "GLASS_FRAME";
+
+   // Construction defaults (mm), used when the cabinet does not specify them
+   static final int DEFAULT_TOE_KICK_HEIGHT_MM     = 114;   // 4-1/2"
+   static final int DEFAULT_FACE_FRAME_MEMBER_MM   = 38;    // 1-1/2" rails and stiles
+   static final int DEFAULT_DOOR_MEMBER_MM         = 57;    // 2-1/4" rails and stiles
+   static final int DEFAULT_DOOR_GROOVE_DEPTH_MM   = 10;
+   static final int DEFAULT_DOOR_PANEL_GAP_MM      = 2;
+   static final int NAILER_WIDTH_MM                = 76;    // 3"
+   static final int SHELF_SIDE_CLEARANCE_MM        = 3;
+   static final int SHELF_DEPTH_SETBACK_MM         = 13;
+   static final int FACE_FRAME_OVERLAY_MM          = 13;    // 1/2" overlay each edge
+   static final int INSET_REVEAL_MM                = 2;
+   static final int FRAMELESS_REVEAL_MM            = 3;
+   static final int DOOR_PAIR_GAP_MM               = 3;
+   static final int DOOR_DRAWER_HEIGHT_MM          = 152;   // 6" drawer over the door
+   static final int DRAWER_SLIDE_CLEARANCE_MM      = 13;    // per side
+   static final int DRAWER_BOX_HEIGHT_CLEARANCE_MM = 25;
+   static final int DRAWER_BOX_DEPTH_CLEARANCE_MM  = 25;
+   static final int DRAWER_BOTTOM_GROOVE_MM        = 6;
+
+   private static final String FRONT_EDGE = "Front edge";
+   private static final String ALL_EDGES  = "All edges";
+
+   private static final Comparator<CabinetOpening> TOP_TO_BOTTOM =
+      Comparator.comparing(CabinetOpening::getSequenceNumber, Comparator.nullsLast(Comparator.naturalOrder()));
+
+   private final Project             project;
+   private final Map<Long, Material> materials;
+   private final Map<String, Long>   partTypeIds;
+   private final TypeCodes           typeCodes;
+   private final String              typeSignature;
+
+
+
+   /*******************************************************************************
+    ** Constructor.
+    **
+    ** @param project     supplies the default materials
+    ** @param materials   materials by id (for thicknesses)
+    ** @param partTypeIds part type ids by code
+    ** @param typeCodes   cabinet, face, opening and door style codes by id
+    *******************************************************************************/
+   public PartGenerator(Project project, Map<Long, Material> materials, Map<String, Long> partTypeIds, TypeCodes typeCodes)
+   {
+      this.project = project;
+      this.materials = materials;
+      this.partTypeIds = partTypeIds;
+      this.typeCodes = typeCodes;
+      this.typeSignature = new TreeMap<>(partTypeIds) + "|" + new TreeMap<>(typeCodes.cabinetTypes())
+         + "|" + new TreeMap<>(typeCodes.faceTypes()) + "|" + new TreeMap<>(typeCodes.openingTypes())
+         + "|" + new TreeMap<>(typeCodes.doorStyles());
+   }
+
+
+
+   /*******************************************************************************
+    ** Validate a cabinet and derive its parts.  When any error is found the
+    ** returned parts list is empty, so an invalid cabinet never replaces a good
+    ** set of saved parts with a partial one.
+    *******************************************************************************/
+   public GeneratedParts generate(Cabinet cabinet, List<CabinetOpening> openings)
+   {
+      Generation generation = new Generation(cabinet, openings);
+      generation.run();
+
+      if(!generation.errors.isEmpty())
+      {
+         return new GeneratedParts(cabinet, List.of(), List.copyOf(generation.errors));
+      }
+      return new GeneratedParts(cabinet, List.copyOf(generation.parts), List.of());
+   }
+
+
+
+   /*******************************************************************************
+    ** SHA-256 (hex) of every input generate() would read for this cabinet: its
+    ** construction fields, its openings, the project defaults, the thickness of
+    ** each material involved, the type ids and codes and the rules version.  Equal
+    ** hashes mean generate() would return the same parts.
+    *******************************************************************************/
+   public String inputHash(Cabinet cabinet, List<CabinetOpening> openings)
+   {
+      StringBuilder inputs      = new StringBuilder(1024);
+      Set<Long>     materialIds = new TreeSet<>();
+
+      appendInputs(inputs, RULES_VERSION, typeSignature, cabinet.getId(),
+         cabinet.getWidthMm(), cabinet.getHeightMm(), cabinet.getDepthMm(),
+         cabinet.getCabinetTypeId(), cabinet.getFaceTypeId(), cabinet.getToeKickHeightMm(),
+         cabinet.getLeftEndFinished(), cabinet.getRightEndFinished(), cabinet.getBackFinished(),
+         cabinet.getFaceFrameRailWidthMm(), cabinet.getFaceFrameStileWidthMm(), cabinet.getDoorStyleId(),
+         cabinet.getDoorRailWidthMm(), cabinet.getDoorStileWidthMm(), cabinet.getDoorGrooveDepthMm(), cabinet.getDoorPanelGapMm());
+      appendMaterials(inputs, materialIds, cabinet.getBoxMaterialId(), cabinet.getBackMaterialId(),
+         cabinet.getShelfMaterialId(), cabinet.getToeKickMaterialId(), cabinet.getFinishedEndMaterialId(),
+         cabinet.getFaceFrameMaterialId(), cabinet.getDoorFrameMaterialId(), cabinet.getDoorPanelMaterialId(),
+         cabinet.getDrawerFrontMaterialId(), cabinet.getDrawerBoxMaterialId(), cabinet.getDrawerBoxBottomMaterialId());
+      appendMaterials(inputs, materialIds, project.getDefaultBoxMaterialId(), project.getDefaultBackMaterialId(),
+         project.getDefaultFaceFrameMaterialId(), project.getDefaultDoorFrameMaterialId(), project.getDefaultDoorPanelMaterialId(),
+         project.getDefaultDrawerFrontMaterialId(), project.getDefaultDrawerBoxMaterialId());
+
+      List<CabinetOpening> sorted = new ArrayList<>(openings != null ? openings : Collections.emptyList());
+      sorted.sort(TOP_TO_BOTTOM.thenComparing(CabinetOpening::getId, Comparator.nullsLast(Comparator.naturalOrder())));
+      for(CabinetOpening opening : sorted)
+      {
+         appendInputs(inputs, "opening", opening.getId(), opening.getSequenceNumber(),
+            opening.getOpeningTypeId(), opening.getHeightMm(), opening.getDoorStyleId());
+         appendMaterials(inputs, materialIds, opening.getDoorFrameMaterialId(), opening.getDoorPanelMaterialId(),
+            opening.getDrawerFrontMaterialId());
+      }
+
+      // A changed thickness changes the parts even though no id did
+      for(Long materialId : materialIds)
+      {
+         Material material = materials.get(materialId);
+         appendInputs(inputs, "material", materialId, material != null ? material.getThicknessMm() : null);
+      }
+
+      try
+      {
+         byte[] digest = MessageDigest.getInstance("SHA-256").digest(inputs.toString().getBytes(StandardCharsets.UTF_8));
+         return HexFormat.of().formatHex(digest);
+      }
+      catch(NoSuchAlgorithmException e)
+      {
+         throw new IllegalStateException("SHA-256 is not available", e);
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** Append values, each terminated by '|' so adjacent values cannot run
+    ** together (null prints as "null", distinct from any number).
+    *******************************************************************************/
+   private static void appendInputs(StringBuilder inputs, Object... values)
+   {
+      for(Object value : values)
+      {
+         inputs.append(value).append('|');
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** Append material ids and collect them for the thickness section.
+    *******************************************************************************/
+   private static void appendMaterials(StringBuilder inputs, Set<Long> materialIds, Long... ids)
+   {
+      for(Long id : ids)
+      {
+         inputs.append(id).append('|');
+         if(id != null)
+         {
+            materialIds.add(id);
+         }
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** The codes of the lookup rows the construction rules branch on, keyed by
+    ** id, so the rules never depend on the ids the seed data happened to get.
+    *******************************************************************************/
+   public record TypeCodes(Map<Long, String> cabinetTypes, Map<Long, String> faceTypes,
+                           Map<Long, String> openingTypes, Map<Long, String> doorStyles)
+   {
+   }
+
+
+
+   /*******************************************************************************
+    ** The parts (or validation errors) derived for one cabinet.
+    *******************************************************************************/
+   public record GeneratedParts(Cabinet cabinet, List<Part> parts, List<String> errors)
+   {
+      /*******************************************************************************
+       ** Whether the cabinet passed validation.
+       *******************************************************************************/
+      public boolean isValid()
+      {
+         return errors.isEmpty();
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** Per-cabinet working state; keeps the generator itself stateless.
+    *******************************************************************************/
+   private class Generation
+   {
+      private final Cabinet              cabinet;
+      private final List<CabinetOpening> openings;
+      private final List<Part>           parts  = new ArrayList<>();
+      private final List<String>         errors = new ArrayList<>();
+
+      private int  width;
+      private int  height;
+      private int  depth;
+      private int  boxHeight;
+      private int  boxThickness;
+      private int  backThickness;
+      private String faceType;
+
+
+
+      /*******************************************************************************
+       ** Constructor - openings are taken top to bottom by sequence number.
+       *******************************************************************************/
+      Generation(Cabinet cabinet, List<CabinetOpening> openings)
+      {
+         this.cabinet = cabinet;
+         this.openings = new ArrayList<>(openings != null ? openings : Collections.emptyList());
+         this.openings.sort(TOP_TO_BOTTOM);
+      }
+
+
+
+      /*******************************************************************************
+       ** Validate, then generate each group of parts.
+       *******************************************************************************/
+      void run()
+      {
+         if(!validateDimensions())
+         {
+            return;
+         }
+
+         Long boxMaterialId  = require("box", cabinet.getBoxMaterialId(), project.getDefaultBoxMaterialId());
+         Long backMaterialId = require("back", cabinet.getBackMaterialId(), project.getDefaultBackMaterialId());
+         if(boxMaterialId == null || backMaterialId == null)
+         {
+            return;
+         }
+         boxThickness = thickness(boxMaterialId);
+         backThickness = thickness(backMaterialId);
+
+         if(boxThickness * 2 >= width || backThickness >= depth)
+         {
+            error("is too small for its " + boxThickness + " mm box and " + backThickness + " mm back");
+            return;
+         }
+
+         validateOpeningsFit();
+         if(!errors.isEmpty())
+         {
+            return;
+         }
+
+         addCarcass(boxMaterialId, backMaterialId);
+         addToeKick(boxMaterialId);
+         addFinishedEnds(boxMaterialId);
+         if(hasFaceFrame())
+         {
+            addFaceFrame();
+         }
+
+         for(CabinetOpening opening : openings)
+         {
+            addOpening(opening);
+         }
+      }
+
+
+
+      /*******************************************************************************
+       ** Check the overall dimensions and derive the box height.
+       *******************************************************************************/
+      private boolean validateDimensions()
+      {
+         width = valueOrZero(cabinet.getWidthMm());
+         height = valueOrZero(cabinet.getHeightMm());
+         depth = valueOrZero(cabinet.getDepthMm());
+         faceType = cabinet.getFaceTypeId() != null ? codeOf(typeCodes.faceTypes(), cabinet.getFaceTypeId()) : FACE_TYPE_FACE_FRAME;
+
+         if(width <= 0 || height <= 0 || depth <= 0)
+         {
+            error("must have a positive width, height and depth (got " + width + " x " + height + " x " + depth + " mm)");
+            return false;
+         }
+
+         boxHeight = height - toeKickHeight();
+         if(boxHeight <= 0)
+         {
+            error("toe kick height " + toeKickHeight() + " mm leaves no room for the box");
+            return false;
+         }
+         return true;
+      }
+
+
+
+      /*******************************************************************************
+       ** Openings are stacked top to bottom and, on a face frame, separated by
+       ** the top, mid and bottom rails; together they must fit the box height.
+       *******************************************************************************/
+      private void validateOpeningsFit()
+      {
+         int used = 0;
+         for(CabinetOpening opening : openings)
+         {
+            int openingHeight = valueOrZero(opening.getHeightMm());
+            if(openingHeight <= 0)
+            {
+               error("opening " + opening.getSequenceNumber() + " must have a positive height");
+            }
+            used += openingHeight;
+         }
+
+         if(hasFaceFrame() && !openings.isEmpty())
+         {
+            used += faceFrameRailWidth() * (openings.size() + 1);
+         }
+
+         if(used > boxHeight)
+         {
+            error("openings need " + used + " mm but the box is only " + boxHeight + " mm high");
+         }
+      }
+
+
+
+      /*******************************************************************************
+       ** Sides, bottom, top or nailers, back and adjustable shelves.
+       *******************************************************************************/
+      private void addCarcass(Long boxMaterialId, Long backMaterialId)
+      {
+         int interiorWidth = width - 2 * boxThickness;
+         int boxDepth      = depth - backThickness;
+
+         addPart("LEFT_SIDE", "Left Side", boxHeight, boxDepth, boxMaterialId, 1, null, FRONT_EDGE);
+         addPart("RIGHT_SIDE", "Right Side", boxHeight, boxDepth, boxMaterialId, 1, null, FRONT_EDGE);
+         addPart("BOTTOM", "Bottom", interiorWidth, boxDepth, boxMaterialId, 1, null, FRONT_EDGE);
+
+         // Wall and tall cabinets get a full top; base cabinets get front and back nailers under the countertop
+         if(isWall() || isTall())
+         {
+            addPart("TOP", "Top", interiorWidth, boxDepth, boxMaterialId, 1, null, FRONT_EDGE);
+         }
+         else
+         {
+            addPart("NAILER", "Top Nailer", interiorWidth, NAILER_WIDTH_MM, boxMaterialId, 2, null, null);
+         }
+
+         // The back fits between the sides, standing on the bottom (and under the top)
+         int backHeight = boxHeight - (isWall() || isTall() ? 2 : 1) * boxThickness;
+         addPart("BACK", "Back", backHeight, interiorWidth, backMaterialId, 1, null, null);
+
+         // Adjustable shelves sit behind doors or open space; an all-drawer cabinet has none
+         if(openings.isEmpty() || openings.stream().anyMatch(o -> hasShelfSpace(o)))
+         {
+            int shelves = isTall() ? 4 : isWall() ? 2 : 1;
+            Long shelfMaterialId = inherit(cabinet.getShelfMaterialId(), boxMaterialId);
+            addPart("SHELF", "Adjustable Shelf", interiorWidth - 2 * SHELF_SIDE_CLEARANCE_MM,
+               boxDepth - SHELF_DEPTH_SETBACK_MM, shelfMaterialId, shelves, null, FRONT_EDGE);
+         }
+      }
+
+
+
+      /*******************************************************************************
+       ** Toe kick front board for floor-standing cabinets.
+       *******************************************************************************/
+      private void addToeKick(Long boxMaterialId)
+      {
+         int toeKickHeight = toeKickHeight();
+         if(toeKickHeight > 0)
+         {
+            addPart("TOE_KICK_FRONT", "Toe Kick", width, toeKickHeight,
+               inherit(cabinet.getToeKickMaterialId(), boxMaterialId), 1, null, null);
+         }
+      }
+
+
+
+      /*******************************************************************************
+       ** Finished end panels applied over exposed sides and back.
+       *******************************************************************************/
+      private void addFinishedEnds(Long boxMaterialId)
+      {
+         Long materialId = inherit(cabinet.getFinishedEndMaterialId(), boxMaterialId);
+         if(Boolean.TRUE.equals(cabinet.getLeftEndFinished()))
+         {
+            addPart("FINISHED_END_LEFT", "Finished End Left", height, depth, materialId, 1, null, FRONT_EDGE);
+         }
+         if(Boolean.TRUE.equals(cabinet.getRightEndFinished()))
+         {
+            addPart("FINISHED_END_RIGHT", "Finished End Right", height, depth, materialId, 1, null, FRONT_EDGE);
+         }
+         if(Boolean.TRUE.equals(cabinet.getBackFinished()))
+         {
+            addPart("FINISHED_END_BACK", "Finished Back", height, width, materialId, 1, null, null);
+         }
+      }
+
+
+
+      /*******************************************************************************
+       ** Stiles run the full box height; rails fit between them, one above,
+       ** one below and one between each pair of openings.
+       *******************************************************************************/
+      private void addFaceFrame()
+      {
+         Long materialId = require("face frame", cabinet.getFaceFrameMaterialId(), project.getDefaultFaceFrameMaterialId());
+         if(materialId == null)
+         {
+            return;
+         }
+
+         int stileWidth = faceFrameStileWidth();
+         int railWidth  = faceFrameRailWidth();
+         int railLength = width - 2 * stileWidth;
+
+         addPart("LEFT_STILE", "Left Stile", boxHeight, stileWidth, materialId, 1, null, null);
+         addPart("RIGHT_STILE", "Right Stile", boxHeight, stileWidth, materialId, 1, null, null);
+         addPart("TOP_RAIL", "Top Rail", railLength, railWidth, materialId, 1, null, null);
+         addPart("BOTTOM_RAIL", "Bottom Rail", railLength, railWidth, materialId, 1, null, null);
+
+         int midRails = Math.max(0, openings.size() - 1);
+         for(CabinetOpening opening : openings)
+         {
+            if(OPENING_TYPE_DOOR_DRAWER.equals(openingType(opening)))
+            {
+               midRails++;
+            }
+         }
+         if(midRails > 0)
+         {
+            addPart("MID_RAIL", "Mid Rail", railLength, railWidth, materialId, midRails, null, null);
+         }
+      }
+
+
+
+      /*******************************************************************************
+       ** Fronts (and drawer boxes) for one opening.
+       *******************************************************************************/
+      private void addOpening(CabinetOpening opening)
+      {
+         String openingType   = openingType(opening);
+         int    openingHeight = valueOrZero(opening.getHeightMm());
+         String label         = "Opening " + opening.getSequenceNumber() + " ";
+
+         if(OPENING_TYPE_DOOR.equals(openingType))
+         {
+            addDoor(opening, label + "Door", frontWidth(openingWidth()), frontHeight(openingHeight), 1);
+         }
+         else if(OPENING_TYPE_DOUBLE_DOOR.equals(openingType))
+         {
+            int pairWidth = frontWidth(openingWidth());
+            addDoor(opening, label + "Door", (pairWidth - DOOR_PAIR_GAP_MM) / 2, frontHeight(openingHeight), 2);
+         }
+         else if(OPENING_TYPE_DRAWER.equals(openingType))
+         {
+            addDrawer(opening, label + "Drawer", openingHeight, true);
+         }
+         else if(OPENING_TYPE_FALSE_FRONT.equals(openingType))
+         {
+            addDrawer(opening, label + "False Front", openingHeight, false);
+         }
+         else if(OPENING_TYPE_DOOR_DRAWER.equals(openingType))
+         {
+            // A fixed-height drawer above the door, split by a mid rail on face frame cabinets
+            int separator  = hasFaceFrame() ? faceFrameRailWidth() : 0;
+            int doorHeight = openingHeight - DOOR_DRAWER_HEIGHT_MM - separator;
+            if(doorHeight <= 0)
+            {
+               error("opening " + opening.getSequenceNumber() + " is too short for a drawer over a door");
+               return;
+            }
+            addDrawer(opening, label + "Drawer", DOOR_DRAWER_HEIGHT_MM, true);
+            addDoor(opening, label + "Door", frontWidth(openingWidth()), frontHeight(doorHeight), 1);
+         }
+
+         // SHELF and OPEN openings have no fronts; the carcass shelves cover them
+      }
+
+
+
+      /*******************************************************************************
+       ** A slab door, or the stiles, rails and panel of a frame-and-panel door.
+       *******************************************************************************/
+      private void addDoor(CabinetOpening opening, String name, int doorWidth, int doorHeight, int quantity)
+      {
+         Long   doorStyleId = firstNonNull(opening.getDoorStyleId(), cabinet.getDoorStyleId());
+         String doorStyle   = doorStyleId != null ? codeOf(typeCodes.doorStyles(), doorStyleId) : DOOR_STYLE_SLAB;
+         Long   openingId   = opening.getId();
+
+         if(DOOR_STYLE_SLAB.equals(doorStyle))
+         {
+            Long materialId = require(name + " panel", opening.getDoorPanelMaterialId(),
+               cabinet.getDoorPanelMaterialId(), project.getDefaultDoorPanelMaterialId());
+            addPart("DOOR_SLAB", name, doorHeight, doorWidth, materialId, quantity, openingId, ALL_EDGES);
+            return;
+         }
+
+         Long frameMaterialId = require(name + " frame", opening.getDoorFrameMaterialId(),
+            cabinet.getDoorFrameMaterialId(), project.getDefaultDoorFrameMaterialId());
+
+         int stileWidth  = valueOrDefault(cabinet.getDoorStileWidthMm(), DEFAULT_DOOR_MEMBER_MM);
+         int railWidth   = valueOrDefault(cabinet.getDoorRailWidthMm(), DEFAULT_DOOR_MEMBER_MM);
+         int grooveDepth = valueOrDefault(cabinet.getDoorGrooveDepthMm(), DEFAULT_DOOR_GROOVE_DEPTH_MM);
+         int panelGap    = valueOrDefault(cabinet.getDoorPanelGapMm(), DEFAULT_DOOR_PANEL_GAP_MM);
+
+         // Rails run between the stiles with stub tenons into the stile grooves
+         int railLength = doorWidth - 2 * stileWidth + 2 * grooveDepth;
+
+         addPart("DOOR_LEFT_STILE", name + " Left Stile", doorHeight, stileWidth, frameMaterialId, quantity, openingId, null);
+         addPart("DOOR_RIGHT_STILE", name + " Right Stile", doorHeight, stileWidth, frameMaterialId, quantity, openingId, null);
+         addPart("DOOR_TOP_RAIL", name + " Top Rail", railLength, railWidth, frameMaterialId, quantity, openingId, null);
+         addPart("DOOR_BOTTOM_RAIL", name + " Bottom Rail", railLength, railWidth, frameMaterialId, quantity, openingId, null);
+
+         // Glass frame doors take a glass insert instead of a cut panel
+         if(!DOOR_STYLE_GLASS_FRAME.equals(doorStyle))
+         {
+            Long panelMaterialId = require(name + " panel", opening.getDoorPanelMaterialId(),
+               cabinet.getDoorPanelMaterialId(), project.getDefaultDoorPanelMaterialId());
+            addPart("DOOR_PANEL", name + " Panel", doorHeight - 2 * railWidth + 2 * grooveDepth - panelGap,
+               railLength - panelGap, panelMaterialId, quantity, openingId, null);
+         }
+      }
+
+
+
+      /*******************************************************************************
+       ** A drawer front and, unless it is a false front, the five parts of the
+       ** drawer box behind it.
+       *******************************************************************************/
+      private void addDrawer(CabinetOpening opening, String name, int openingHeight, boolean withBox)
+      {
+         Long openingId       = opening.getId();
+         Long frontMaterialId = require(name + " front", opening.getDrawerFrontMaterialId(),
+            cabinet.getDrawerFrontMaterialId(), project.getDefaultDrawerFrontMaterialId());
+         addPart("DRAWER_FRONT", name + " Front", frontWidth(openingWidth()), frontHeight(openingHeight),
+            frontMaterialId, 1, openingId, ALL_EDGES);
+
+         if(!withBox)
+         {
+            return;
+         }
+
+         Long boxMaterialId = require(name + " box", cabinet.getDrawerBoxMaterialId(), project.getDefaultDrawerBoxMaterialId());
+         if(boxMaterialId == null)
+         {
+            return;
+         }
+         Long bottomMaterialId = inherit(cabinet.getDrawerBoxBottomMaterialId(), boxMaterialId);
+
+         int sideThickness = thickness(boxMaterialId);
+         int boxWidth      = openingWidth() - 2 * DRAWER_SLIDE_CLEARANCE_MM;
+         int boxHeight     = openingHeight - DRAWER_BOX_HEIGHT_CLEARANCE_MM;
+         int boxDepth      = depth - backThickness - DRAWER_BOX_DEPTH_CLEARANCE_MM;
+         int innerWidth    = boxWidth - 2 * sideThickness;
+
+         addPart("DRAWER_BOX_LEFT", name + " Box Left", boxDepth, boxHeight, boxMaterialId, 1, openingId, null);
+         addPart("DRAWER_BOX_RIGHT", name + " Box Right", boxDepth, boxHeight, boxMaterialId, 1, openingId, null);
+         addPart("DRAWER_BOX_FRONT", name + " Box Front", innerWidth, boxHeight, boxMaterialId, 1, openingId, null);
+         addPart("DRAWER_BOX_BACK", name + " Box Back", innerWidth, boxHeight, boxMaterialId, 1, openingId, null);
+         addPart("DRAWER_BOX_BOTTOM", name + " Box Bottom", boxDepth - 2 * sideThickness + 2 * DRAWER_BOTTOM_GROOVE_MM,
+            innerWidth + 2 * DRAWER_BOTTOM_GROOVE_MM, bottomMaterialId, 1, openingId, null);
+      }
+
+
+
+      /*******************************************************************************
+       ** Add one part, recording an error instead when the type is unknown or
+       ** a dimension works out non-positive.  A null material has already been
+       ** reported by require().
+       *******************************************************************************/
+      private void addPart(String typeCode, String name, int length, int partWidth, Long materialId,
+                           int quantity, Long openingId, String edgeBandingNotes)
+      {
+         if(materialId == null)
+         {
+            return;
+         }
+
+         Long partTypeId = partTypeIds.get(typeCode);
+         if(partTypeId == null)
+         {
+            error("needs part type " + typeCode + ", which is not defined");
+            return;
+         }
+
+         if(length <= 0 || partWidth <= 0)
+         {
+            error("part " + name + " works out to " + length + " x " + partWidth + " mm");
+            return;
+         }
+
+         parts.add(new Part()
+            .withCabinetId(cabinet.getId())
+            .withCabinetOpeningId(openingId)
+            .withPartTypeId(partTypeId)
+            .withName(name)
+            .withLengthMm(length)
+            .withWidthMm(partWidth)
+            .withThicknessMm(thickness(materialId))
+            .withMaterialId(materialId)
+            .withQuantity(quantity)
+            .withEdgeBandingNotes(edgeBandingNotes));
+      }
+
+
+
+      /*******************************************************************************
+       ** Resolve a required material through the inheritance chain, recording an
+       ** error when nothing in the chain is set or the material is unknown.
+       *******************************************************************************/
+      private Long require(String role, Long... candidates)
+      {
+         Long materialId = firstNonNull(candidates);
+         if(materialId == null)
+         {
+            error("has no " + role + " material (set one on the cabinet or a project default)");
+         }
+         else if(materials.get(materialId) == null || materials.get(materialId).getThicknessMm() == null)
+         {
+            error("uses unknown " + role + " material " + materialId);
+            return null;
+         }
+         return materialId;
+      }
+
+
+
+      /*******************************************************************************
+       ** Optional material with an already-resolved fallback.
+       *******************************************************************************/
+      private Long inherit(Long materialId, Long fallbackMaterialId)
+      {
+         if(materialId != null && materials.get(materialId) != null && materials.get(materialId).getThicknessMm() != null)
+         {
+            return materialId;
+         }
+         return fallbackMaterialId;
+      }
+
+
+
+      /*******************************************************************************
+       ** Thickness of a resolved material.
+       *******************************************************************************/
+      private int thickness(Long materialId)
+      {
+         return materials.get(materialId).getThicknessMm();
+      }
+
+
+
+      /*******************************************************************************
+       ** Clear width of an opening: between the stiles on a face frame cabinet,
+       ** between the sides on a frameless one.
+       *******************************************************************************/
+      private int openingWidth()
+      {
+         return hasFaceFrame() ? width - 2 * faceFrameStileWidth() : width - 2 * boxThickness;
+      }
+
+
+
+      /*******************************************************************************
+       ** Width of a door or drawer front for an opening of the given clear width.
+       *******************************************************************************/
+      private int frontWidth(int clearWidth)
+      {
+         if(FACE_TYPE_FRAMELESS.equals(faceType))
+         {
+            return width - FRAMELESS_REVEAL_MM;
+         }
+         if(FACE_TYPE_INSET.equals(faceType))
+         {
+            return clearWidth - 2 * INSET_REVEAL_MM;
+         }
+         return clearWidth + 2 * FACE_FRAME_OVERLAY_MM;
+      }
+
+
+
+      /*******************************************************************************
+       ** Height of a door or drawer front for an opening of the given height.
+       *******************************************************************************/
+      private int frontHeight(int openingHeight)
+      {
+         if(FACE_TYPE_FRAMELESS.equals(faceType))
+         {
+            return openingHeight - FRAMELESS_REVEAL_MM;
+         }
+         if(FACE_TYPE_INSET.equals(faceType))
+         {
+            return openingHeight - 2 * INSET_REVEAL_MM;
+         }
+         return openingHeight + 2 * FACE_FRAME_OVERLAY_MM;
+      }
+
+
+
+      /*******************************************************************************
+       ** Wall cabinets hang without a toe kick; others use the cabinet's value
+       ** or the standard 4-1/2".
+       *******************************************************************************/
+      private int toeKickHeight()
+      {
+         return isWall() ? 0 : valueOrDefault(cabinet.getToeKickHeightMm(), DEFAULT_TOE_KICK_HEIGHT_MM);
+      }
+
+
+
+      /*******************************************************************************
+       ** Face frame rail width (cabinet value or default).
+       *******************************************************************************/
+      private int faceFrameRailWidth()
+      {
+         return valueOrDefault(cabinet.getFaceFrameRailWidthMm(), DEFAULT_FACE_FRAME_MEMBER_MM);
+      }
+
+
+
+      /*******************************************************************************
+       ** Face frame stile width (cabinet value or default).
+       *******************************************************************************/
+      private int faceFrameStileWidth()
+      {
+         return valueOrDefault(cabinet.getFaceFrameStileWidthMm(), DEFAULT_FACE_FRAME_MEMBER_MM);
+      }
+
+
+
+      /*******************************************************************************
+       ** Face frame and inset cabinets are built with a face frame.
+       *******************************************************************************/
+      private boolean hasFaceFrame()
+      {
+         return !FACE_TYPE_FRAMELESS.equals(faceType);
+      }
+
+
+
+      /*******************************************************************************
+       ** Wall or corner wall cabinet.
+       *******************************************************************************/
+      private boolean isWall()
+      {
+         String cabinetType = codeOf(typeCodes.cabinetTypes(), cabinet.getCabinetTypeId());
+         return CABINET_TYPE_WALL.equals(cabinetType) || CABINET_TYPE_CORNER_WALL.equals(cabinetType);
+      }
+
+
+
+      /*******************************************************************************
+       ** Tall cabinet.
+       *******************************************************************************/
+      private boolean isTall()
+      {
+         return CABINET_TYPE_TALL.equals(codeOf(typeCodes.cabinetTypes(), cabinet.getCabinetTypeId()));
+      }
+
+
+
+      /*******************************************************************************
+       ** Record a validation error against this cabinet.
+       *******************************************************************************/
+      private void error(String message)
+      {
+         String name = cabinet.getName() != null ? cabinet.getName() : "#" + cabinet.getId();
+         errors.add("Cabinet " + name + " " + message);
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** Whether an opening leaves room behind it for shelves (anything but a
+    ** drawer or false front).
+    *******************************************************************************/
+   private boolean hasShelfSpace(CabinetOpening opening)
+   {
+      if(opening.getOpeningTypeId() == null)
+      {
+         return true;
+      }
+
+      String openingType = openingType(opening);
+      return OPENING_TYPE_DOOR.equals(openingType)
+         || OPENING_TYPE_DOUBLE_DOOR.equals(openingType)
+         || OPENING_TYPE_DOOR_DRAWER.equals(openingType)
+         || OPENING_TYPE_SHELF.equals(openingType)
+         || OPENING_TYPE_OPEN.equals(openingType);
+   }
+
+
+
+   /*******************************************************************************
+    ** Code of an opening's type (null when it has none or it is unknown).
+    *******************************************************************************/
+   private String openingType(CabinetOpening opening)
+   {
+      return codeOf(typeCodes.openingTypes(), opening.getOpeningTypeId());
+   }
+
+
+
+   /*******************************************************************************
+    ** Code for a lookup id (null for a null or unknown id).
+    *******************************************************************************/
+   private static String codeOf(Map<Long, String> codes, Long id)
+   {
+      return id != null ? codes.get(id) : null;
+   }
+
+
+
+   /*******************************************************************************
+    ** First non-null value.
+    *******************************************************************************/
+   @SafeVarargs
+   private static <T> T firstNonNull(T... values)
+   {
+      for(T value : values)
+      {
+         if(value != null)
+         {
+            return value;
+         }
+      }
+      return null;
+   }
+
+
+
+   /*******************************************************************************
+    ** Integer value or zero.
+    *******************************************************************************/
+   private static int valueOrZero(Integer value)
+   {
+      return value != null ? value : 0;
+   }
+
+
+
+   /*******************************************************************************
+    ** Integer value, or the default when null or not positive.
+    *******************************************************************************/
+   private static int valueOrDefault(Integer value, int defaultValue)
+   {
+      return value != null && value > 0 ? value : defaultValue;
+   }
+}
@@ -0,0 +1,578 @@
+package com.makers4.processes.parts;
+
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import com.kingsrook.qqq.backend.core.actions.QBackendTransaction;
+import com.kingsrook.qqq.backend.core.actions.processes.BackendStep;
+import com.kingsrook.qqq.backend.core.actions.tables.DeleteAction;
+import com.kingsrook.qqq.backend.core.actions.tables.GetAction;
+import com.kingsrook.qqq.backend.core.actions.tables.InsertAction;
+import com.kingsrook.qqq.backend.core.actions.tables.UpdateAction;
+import com.kingsrook.qqq.backend.core.exceptions.QException;
+import com.kingsrook.qqq.backend.core.logging.QLogger;
+import com.kingsrook.qqq.backend.core.model.actions.processes.RunBackendStepInput;
+import com.kingsrook.qqq.backend.core.model.actions.processes.RunBackendStepOutput;
+import com.kingsrook.qqq.backend.core.model.actions.tables.delete.DeleteInput;
+import com.kingsrook.qqq.backend.core.model.actions.tables.get.GetInput;
+import com.kingsrook.qqq.backend.core.model.actions.tables.get.GetOutput;
+import com.kingsrook.qqq.backend.core.model.actions.tables.insert.InsertInput;
+import com.kingsrook.qqq.backend.core.model.actions.tables.query.QCriteriaOperator;
+import com.kingsrook.qqq.backend.core.model.actions.tables.query.QFilterCriteria;
+import com.kingsrook.qqq.backend.core.model.actions.tables.query.QQueryFilter;
+import com.kingsrook.qqq.backend.core.model.actions.tables.update.UpdateInput;
+import com.kingsrook.qqq.backend.core.model.data.QRecord;
+import com.kingsrook.qqq.backend.core.model.data.QRecordEntity;
+import com.kingsrook.qqq.backend.core.model.metadata.MetaDataProducerInterface;
+import com.kingsrook.qqq.backend.core.model.metadata.QInstance;
+import com.kingsrook.qqq.backend.core.model.metadata.code.QCodeReference;
+import com.kingsrook.qqq.backend.core.model.metadata.fields.QFieldMetaData;
+import com.kingsrook.qqq.backend.core.model.metadata.fields.QFieldType;
+import com.kingsrook.qqq.backend.core.model.metadata.layout.QIcon;
+import com.kingsrook.qqq.backend.core.model.metadata.processes.QBackendStepMetaData;
+import com.kingsrook.qqq.backend.core.model.metadata.processes.QFrontendStepMetaData;
+import com.kingsrook.qqq.backend.core.model.metadata.processes.QProcessMetaData;
+import com.makers4.model.Cabinet;
+import com.makers4.model.CabinetOpening;
+import com.makers4.model.CutListItem;
+import com.makers4.model.Part;
+import com.makers4.model.Project;
+import com.makers4.model.lookup.CabinetType;
+import com.makers4.model.lookup.DoorStyle;
+import com.makers4.model.lookup.FaceType;
+import com.makers4.model.lookup.Material;
+import com.makers4.model.lookup.OpeningType;
+import com.makers4.model.lookup.PartType;
+import com.makers4.processes.summary.ProjectSummaryTableCustomizer;
+import static com.kingsrook.qqq.backend.core.logging.LogUtils.logPair;
+import static com.makers4.processes.EntityQueries.query;
+
+
+/*******************************************************************************
+ ** Process to validate the cabinets in a project and regenerate their parts.
+ **
+ ** Inputs are loaded with one query per table (cabinets, their openings,
+ ** materials, part types).  Each cabinet's input hash is compared with the one
+ ** stored when its parts were last generated, and only changed cabinets are
+ ** rederived, in parallel, by PartGenerator (regenerateAll=true skips the
+ ** comparison).  Their saved parts are diffed against the new ones and only
+ ** the differences are written in one transaction: batched inserts and
+ ** updates, one delete per table.  Unchanged parts keep their ids and cut list
+ ** items; deleted parts, and updated parts whose size, material or quantity
+ ** changed, lose their cut list items.  Cabinets that fail validation keep
+ ** their existing parts and are listed in the result.
+ *******************************************************************************/
+public class ValidateAndGeneratePartsProcess implements BackendStep, MetaDataProducerInterface<QProcessMetaData>
+{
+   public static final String PROCESS_NAME = "validateAndGenerateParts";
+   public static final String STEP_NAME    = "generate";
+   public static final String RESULT_STEP  = "result";
+
+   // Parts per insert or update round trip
+   static final int BATCH_SIZE = 500;
+
+   private static final QLogger LOG = QLogger.getLogger(ValidateAndGeneratePartsProcess.class);
+
+
+
+   /*******************************************************************************
+    ** Produce the process metadata.
+    *******************************************************************************/
+   @Override
+   public QProcessMetaData produce(QInstance qInstance) throws QException
+   {
+      return new QProcessMetaData()
+         .withName(PROCESS_NAME)
+         .withLabel("Validate and Generate Parts")
+         .withIcon(new QIcon().withName("construction"))
+         .withTableName(Project.TABLE_NAME)
+         .withIsHidden(false)
+         .withStepList(List.of(
+            new QBackendStepMetaData()
+               .withName(STEP_NAME)
+               .withCode(new QCodeReference(getClass())),
+            new QFrontendStepMetaData()
+               .withName(RESULT_STEP)
+               .withLabel("Parts Generated")
+               .withFormField(new QFieldMetaData("message", QFieldType.STRING).withLabel("Result"))
+               .withFormField(new QFieldMetaData("insertedCount", QFieldType.INTEGER).withLabel("Parts Inserted"))
+               .withFormField(new QFieldMetaData("updatedCount", QFieldType.INTEGER).withLabel("Parts Updated"))
+               .withFormField(new QFieldMetaData("deletedCount", QFieldType.INTEGER).withLabel("Parts Deleted"))
+               .withFormField(new QFieldMetaData("errors", QFieldType.TEXT).withLabel("Validation Errors"))
+         ));
+   }
+
+
+
+   /*******************************************************************************
+    ** Execute the generate process.
+    *******************************************************************************/
+   @Override
+   public void run(RunBackendStepInput input, RunBackendStepOutput output) throws QException
+   {
+      Long projectId = null;
+
+      // Try to get project ID from various sources
+      if(input.getValue("projectId") != null)
+      {
+         projectId = Long.parseLong(input.getValue("projectId").toString());
+      }
+      else if(input.getValue("id") != null)
+      {
+         projectId = Long.parseLong(input.getValue("id").toString());
+      }
+      else if(input.getValue("recordIds") != null)
+      {
+         // Record IDs can come as a String or List depending on context
+         Object recordIds = input.getValue("recordIds");
+         if(recordIds instanceof String)
+         {
+            projectId = Long.parseLong((String) recordIds);
+         }
+         else if(recordIds instanceof List)
+         {
+            @SuppressWarnings("unchecked")
+            List<Object> idList = (List<Object>) recordIds;
+            if(!idList.isEmpty())
+            {
+               projectId = Long.parseLong(idList.get(0).toString());
+            }
+         }
+      }
+      else if(input.getRecords() != null && !input.getRecords().isEmpty())
+      {
+         projectId = input.getRecords().get(0).getValueLong("id");
+      }
+
+      if(projectId == null)
+      {
+         LOG.warn("Project ID not found in input. Available values: " + input.getValues());
+         throw new QException("Project ID is required");
+      }
+
+      boolean regenerateAll = Boolean.TRUE.equals(input.getValueBoolean("regenerateAll"));
+
+      LOG.info("Starting part generation", logPair("projectId", projectId), logPair("regenerateAll", regenerateAll));
+
+      Project                         project   = loadProject(projectId);
+      List<Cabinet>                   cabinets  = query(Cabinet.class, Cabinet.TABLE_NAME, "projectId", List.of(projectId));
+      Map<Long, List<CabinetOpening>> openings  = loadOpenings(cabinets);
+      PartGenerator                   generator = new PartGenerator(project, loadMaterials(), loadPartTypeIds(), loadTypeCodes());
+
+      // Only cabinets whose inputs changed since their parts were generated are rederived
+      Map<Long, String> inputHashes     = new HashMap<>();
+      List<Cabinet>     changedCabinets = new ArrayList<>();
+      for(Cabinet cabinet : cabinets)
+      {
+         String inputHash = generator.inputHash(cabinet, openings.getOrDefault(cabinet.getId(), List.of()));
+         if(regenerateAll || !inputHash.equals(cabinet.getPartsInputHash()))
+         {
+            inputHashes.put(cabinet.getId(), inputHash);
+            changedCabinets.add(cabinet);
+         }
+      }
+
+      List<PartGenerator.GeneratedParts> results = generateAll(generator, changedCabinets, openings);
+
+      List<PartGenerator.GeneratedParts> validResults = new ArrayList<>();
+      List<String>                       errors       = new ArrayList<>();
+      for(PartGenerator.GeneratedParts result : results)
+      {
+         if(result.isValid())
+         {
+            validResults.add(result);
+         }
+         else
+         {
+            errors.addAll(result.errors());
+         }
+      }
+
+      // Diff each regenerated cabinet against its saved parts
+      List<Long>            validCabinetIds = validResults.stream().map(result -> result.cabinet().getId()).toList();
+      Map<Long, List<Part>> savedParts      = loadParts(validCabinetIds);
+      List<Part>            inserts         = new ArrayList<>();
+      List<Part>            updates         = new ArrayList<>();
+      List<Part>            deletes         = new ArrayList<>();
+      List<Long>            stalePartIds    = new ArrayList<>();
+      for(PartGenerator.GeneratedParts result : validResults)
+      {
+         PartDiff diff = PartDiff.compute(savedParts.getOrDefault(result.cabinet().getId(), List.of()), result.parts());
+         inserts.addAll(diff.inserts());
+         updates.addAll(diff.updates());
+         deletes.addAll(diff.deletes());
+         stalePartIds.addAll(diff.layoutChanges());
+         diff.deletes().forEach(part -> stalePartIds.add(part.getId()));
+      }
+
+      // The summary hooks would refresh the project per batch; refresh it once when the writes are done
+      try(ProjectSummaryTableCustomizer.Deferral deferral = ProjectSummaryTableCustomizer.deferRefreshes())
+      {
+         applyChanges(stalePartIds, deletes, updates, inserts, validCabinetIds, inputHashes);
+      }
+
+      String message = "Regenerated " + validCabinetIds.size() + " of " + cabinets.size() + " cabinets ("
+         + (cabinets.size() - changedCabinets.size()) + " unchanged): "
+         + inserts.size() + " parts inserted, " + updates.size() + " updated, " + deletes.size() + " deleted";
+      if(!errors.isEmpty())
+      {
+         message += "; " + (changedCabinets.size() - validCabinetIds.size()) + " cabinets failed validation and kept their existing parts";
+      }
+
+      output.addValue("message", message);
+      output.addValue("insertedCount", inserts.size());
+      output.addValue("updatedCount", updates.size());
+      output.addValue("deletedCount", deletes.size());
+      output.addValue("errors", String.join("\n", errors));
+
+      LOG.info("Part generation completed", logPair("projectId", projectId),
+         logPair("cabinets", cabinets.size()), logPair("regenerated", validCabinetIds.size()),
+         logPair("inserted", inserts.size()), logPair("updated", updates.size()), logPair("deleted", deletes.size()),
+         logPair("errors", errors.size()));
+   }
+
+
+
+   /*******************************************************************************
+    ** Derive parts for every cabinet concurrently.  The generator does no I/O,
+    ** so the work is pure CPU and results come back in cabinet order.
+    *******************************************************************************/
+   private List<PartGenerator.GeneratedParts> generateAll(PartGenerator generator, List<Cabinet> cabinets,
+                                                          Map<Long, List<CabinetOpening>> openings) throws QException
+   {
+      List<Callable<PartGenerator.GeneratedParts>> tasks = new ArrayList<>();
+      for(Cabinet cabinet : cabinets)
+      {
+         List<CabinetOpening> cabinetOpenings = openings.getOrDefault(cabinet.getId(), List.of());
+         tasks.add(() -> generator.generate(cabinet, cabinetOpenings));
+      }
+
+      int             threads  = Math.max(1, Math.min(tasks.size(), Runtime.getRuntime().availableProcessors()));
+      ExecutorService executor = Executors.newFixedThreadPool(threads);
+      try
+      {
+         List<PartGenerator.GeneratedParts> results = new ArrayList<>();
+         for(Future<PartGenerator.GeneratedParts> future : executor.invokeAll(tasks))
+         {
+            results.add(future.get());
+         }
+         return results;
+      }
+      catch(Exception e)
+      {
+         throw new QException("Failed to generate parts: " + e.getMessage(), e);
+      }
+      finally
+      {
+         executor.shutdownNow();
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** Load a project by ID.
+    *******************************************************************************/
+   private Project loadProject(Long projectId) throws QException
+   {
+      GetInput getInput = new GetInput();
+      getInput.setTableName(Project.TABLE_NAME);
+      getInput.setPrimaryKey(projectId);
+
+      GetOutput getOutput = new GetAction().execute(getInput);
+
+      if(getOutput.getRecord() == null)
+      {
+         throw new QException("Project not found: " + projectId);
+      }
+
+      return QRecordEntity.fromQRecord(Project.class, getOutput.getRecord());
+   }
+
+
+
+   /*******************************************************************************
+    ** Load the openings of all the cabinets in one query, grouped by cabinet.
+    *******************************************************************************/
+   private Map<Long, List<CabinetOpening>> loadOpenings(List<Cabinet> cabinets) throws QException
+   {
+      Map<Long, List<CabinetOpening>> openingsByCabinet = new HashMap<>();
+      if(cabinets.isEmpty())
+      {
+         return openingsByCabinet;
+      }
+
+      List<Long> cabinetIds = cabinets.stream().map(Cabinet::getId).toList();
+      for(CabinetOpening opening : query(CabinetOpening.class, CabinetOpening.TABLE_NAME, "cabinetId", cabinetIds))
+      {
+         openingsByCabinet.computeIfAbsent(opening.getCabinetId(), id -> new ArrayList<>()).add(opening);
+      }
+      return openingsByCabinet;
+   }
+
+
+
+   /*******************************************************************************
+    ** Load all materials, keyed by ID.
+    *******************************************************************************/
+   private Map<Long, Material> loadMaterials() throws QException
+   {
+      Map<Long, Material> materials = new HashMap<>();
+      for(Material material : query(Material.class, Material.TABLE_NAME, null, null))
+      {
+         materials.put(material.getId(), material);
+      }
+      return materials;
+   }
+
+
+
+   /*******************************************************************************
+    ** Load all part type IDs, keyed by code.
+    *******************************************************************************/
+   private Map<String, Long> loadPartTypeIds() throws QException
+   {
+      Map<String, Long> partTypeIds = new LinkedHashMap<>();
+      for(PartType partType : query(PartType.class, PartType.TABLE_NAME, null, null))
+      {
+         partTypeIds.put(partType.getCode(), partType.getId());
+      }
+      return partTypeIds;
+   }
+
+
+
+   /*******************************************************************************
+    ** Load the cabinet type, face type, opening type and door style codes,
+    ** keyed by ID.
+    *******************************************************************************/
+   private PartGenerator.TypeCodes loadTypeCodes() throws QException
+   {
+      Map<Long, String> cabinetTypes = new HashMap<>();
+      for(CabinetType cabinetType : query(CabinetType.class, CabinetType.TABLE_NAME, null, null))
+      {
+         cabinetTypes.put(cabinetType.getId(), cabinetType.getCode());
+      }
+
+      Map<Long, String> faceTypes = new HashMap<>();
+      for(FaceType faceType : query(FaceType.class, FaceType.TABLE_NAME, null, null))
+      {
+         faceTypes.put(faceType.getId(), faceType.getCode());
+      }
+
+      Map<Long, String> openingTypes = new HashMap<>();
+      for(OpeningType openingType : query(OpeningType.class, OpeningType.TABLE_NAME, null, null))
+      {
+         openingTypes.put(openingType.getId(), openingType.getCode());
+      }
+
+      Map<Long, String> doorStyles = new HashMap<>();
+      for(DoorStyle doorStyle : query(DoorStyle.class, DoorStyle.TABLE_NAME, null, null))
+      {
+         doorStyles.put(doorStyle.getId(), doorStyle.getCode());
+      }
+
+      return new PartGenerator.TypeCodes(cabinetTypes, faceTypes, openingTypes, doorStyles);
+   }
+
+
+
+   /*******************************************************************************
+    ** Load the saved parts of the given cabinets in one query, grouped by
+    ** cabinet.
+    *******************************************************************************/
+   private Map<Long, List<Part>> loadParts(List<Long> cabinetIds) throws QException
+   {
+      Map<Long, List<Part>> partsByCabinet = new HashMap<>();
+      if(cabinetIds.isEmpty())
+      {
+         return partsByCabinet;
+      }
+
+      for(Part part : query(Part.class, Part.TABLE_NAME, "cabinetId", cabinetIds))
+      {
+         partsByCabinet.computeIfAbsent(part.getCabinetId(), id -> new ArrayList<>()).add(part);
+      }
+      return partsByCabinet;
+   }
+
+
+
+   /*******************************************************************************
+    ** Write a diff and the new input hashes in one transaction, so a failure
+    ** part-way leaves the saved parts, their cut list items and the hashes
+    ** that claim the cabinets are up to date as they were.
+    *******************************************************************************/
+   private void applyChanges(List<Long> stalePartIds, List<Part> deletes, List<Part> updates, List<Part> inserts,
+                             List<Long> cabinetIds, Map<Long, String> inputHashes) throws QException
+   {
+      DeleteInput transactionInput = new DeleteInput();
+      transactionInput.setTableName(Part.TABLE_NAME);
+
+      QBackendTransaction transaction = QBackendTransaction.openFor(transactionInput);
+      try
+      {
+         deleteCutListItems(stalePartIds, transaction);
+         deleteParts(deletes, transaction);
+         updateParts(updates, transaction);
+         insertParts(inserts, transaction);
+         saveInputHashes(cabinetIds, inputHashes, transaction);
+         transaction.commit();
+      }
+      catch(QException | RuntimeException e)
+      {
+         transaction.rollback();
+         throw e;
+      }
+      finally
+      {
+         transaction.close();
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** Delete the cut list items that place the given parts, in one delete.
+    *******************************************************************************/
+   private void deleteCutListItems(List<Long> partIds, QBackendTransaction transaction) throws QException
+   {
+      if(partIds.isEmpty())
+      {
+         return;
+      }
+
+      DeleteInput deleteInput = new DeleteInput();
+      deleteInput.setTableName(CutListItem.TABLE_NAME);
+      deleteInput.setQueryFilter(new QQueryFilter(new QFilterCriteria("partId", QCriteriaOperator.IN, partIds)));
+      deleteInput.setTransaction(transaction);
+      new DeleteAction().execute(deleteInput);
+   }
+
+
+
+   /*******************************************************************************
+    ** Delete parts in one delete (their cut list items are already gone).
+    *******************************************************************************/
+   private void deleteParts(List<Part> parts, QBackendTransaction transaction) throws QException
+   {
+      if(parts.isEmpty())
+      {
+         return;
+      }
+
+      DeleteInput deleteInput = new DeleteInput();
+      deleteInput.setTableName(Part.TABLE_NAME);
+      deleteInput.setPrimaryKeys(new ArrayList<>(parts.stream().map(Part::getId).toList()));
+      deleteInput.setTransaction(transaction);
+      new DeleteAction().execute(deleteInput);
+   }
+
+
+
+   /*******************************************************************************
+    ** Update the generated fields of parts in place, in batches.  Only those
+    ** fields are sent, so user-entered notes are kept.
+    *******************************************************************************/
+   private void updateParts(List<Part> parts, QBackendTransaction transaction) throws QException
+   {
+      List<QRecord> records = new ArrayList<>();
+      for(Part part : parts)
+      {
+         records.add(new QRecord()
+            .withValue("id", part.getId())
+            .withValue("lengthMm", part.getLengthMm())
+            .withValue("widthMm", part.getWidthMm())
+            .withValue("thicknessMm", part.getThicknessMm())
+            .withValue("materialId", part.getMaterialId())
+            .withValue("quantity", part.getQuantity())
+            .withValue("edgeBandingNotes", part.getEdgeBandingNotes()));
+      }
+
+      for(List<QRecord> batch : batches(records))
+      {
+         UpdateInput updateInput = new UpdateInput();
+         updateInput.setTableName(Part.TABLE_NAME);
+         updateInput.setRecords(batch);
+         updateInput.setTransaction(transaction);
+
+         new UpdateAction().execute(updateInput);
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** Insert new parts in batches, one round trip per batch.
+    *******************************************************************************/
+   private void insertParts(List<Part> parts, QBackendTransaction transaction) throws QException
+   {
+      List<QRecord> records = new ArrayList<>();
+      for(Part part : parts)
+      {
+         records.add(part.toQRecord());
+      }
+
+      for(List<QRecord> batch : batches(records))
+      {
+         InsertInput insertInput = new InsertInput();
+         insertInput.setTableName(Part.TABLE_NAME);
+         insertInput.setRecords(batch);
+         insertInput.setTransaction(transaction);
+
+         new InsertAction().execute(insertInput);
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** Record the input hash each regenerated cabinet's parts now reflect, in
+    ** one update.
+    *******************************************************************************/
+   private void saveInputHashes(List<Long> cabinetIds, Map<Long, String> inputHashes,
+                                QBackendTransaction transaction) throws QException
+   {
+      if(cabinetIds.isEmpty())
+      {
+         return;
+      }
+
+      List<QRecord> records = new ArrayList<>();
+      for(Long cabinetId : cabinetIds)
+      {
+         records.add(new QRecord()
+            .withValue("id", cabinetId)
+            .withValue("partsInputHash", inputHashes.get(cabinetId)));
+      }
+
+      UpdateInput updateInput = new UpdateInput();
+      updateInput.setTableName(Cabinet.TABLE_NAME);
+      updateInput.setRecords(records);
+      updateInput.setTransaction(transaction);
+
+      new UpdateAction().execute(updateInput);
+   }
+
+
+
+   /*******************************************************************************
+    ** Split records into batches of BATCH_SIZE.
+    *******************************************************************************/
+   private List<List<QRecord>> batches(List<QRecord> records)
+   {
+      List<List<QRecord>> batches = new ArrayList<>();
+      for(int start = 0; start < records.size(); start += BATCH_SIZE)
+      {
+         batches.add(new ArrayList<>(records.subList(start, Math.min(start + BATCH_SIZE, records.size()))));
+      }
+      return batches;
+   }
+}
@@ -1,23 +1,19 @@
 package com.makers4.processes.rendering;
 
 
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayOutputStream;
-import java.time.Instant;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import com.kingsrook.qqq.backend.core.actions.processes.BackendStep;
-import com.kingsrook.qqq.backend.core.actions.tables.GetAction;
-import com.kingsrook.qqq.backend.core.actions.tables.InsertAction;
-import com.kingsrook.qqq.backend.core.actions.tables.UpdateAction;
 import com.kingsrook.qqq.backend.core.exceptions.QException;
 import com.kingsrook.qqq.backend.core.logging.QLogger;
 import com.kingsrook.qqq.backend.core.model.actions.processes.RunBackendStepInput;
 import com.kingsrook.qqq.backend.core.model.actions.processes.RunBackendStepOutput;
-import com.kingsrook.qqq.backend.core.model.actions.tables.get.GetInput;
-import com.kingsrook.qqq.backend.core.model.actions.tables.get.GetOutput;
-import com.kingsrook.qqq.backend.core.model.actions.tables.insert.InsertInput;
-import com.kingsrook.qqq.backend.core.model.actions.tables.insert.InsertOutput;
-import com.kingsrook.qqq.backend.core.model.actions.tables.update.UpdateInput;
-import com.kingsrook.qqq.backend.core.model.data.QRecord;
 import com.kingsrook.qqq.backend.core.model.metadata.MetaDataProducerInterface;
 import com.kingsrook.qqq.backend.core.model.metadata.QInstance;
 import com.kingsrook.qqq.backend.core.model.metadata.code.QCodeReference;
@@ -28,11 +24,11 @@ import com.kingsrook.qqq.backend.core.model.metadata.processes.QBackendStepMetaD
 import com.kingsrook.qqq.backend.core.model.metadata.processes.QFrontendStepMetaData;
 import com.kingsrook.qqq.backend.core.model.metadata.processes.QProcessMetaData;
 import com.makers4.model.Cabinet;
-import com.makers4.model.RenderArtifact;
-import com.makers4.model.RenderJob;
 import com.makers4.rendering.RenderSettings;
 import com.makers4.rendering.builders.CabinetSceneBuilder;
+import com.makers4.rendering.builders.RenderingContext;
 import com.makers4.rendering.camera.ViewDirection;
+import com.makers4.rendering.export.MultiExporter;
 import com.makers4.rendering.export.PdfExporter;
 import com.makers4.rendering.export.SvgExporter;
 import com.makers4.rendering.scene.SceneNode;
@@ -49,6 +45,9 @@ public class RenderCabinetProcess implements BackendStep, MetaDataProducerInterf
    public static final String STEP_NAME    = "render";
    public static final String RESULT_STEP  = "result";
 
+   // Heap budget for PDF page content; the rest is spooled to scratch files
+   private static final long PDF_MAX_MAIN_MEMORY_BYTES = 8L * 1024 * 1024;
+
    private static final QLogger LOG = QLogger.getLogger(RenderCabinetProcess.class);
 
 
@@ -127,47 +126,55 @@ public class RenderCabinetProcess implements BackendStep, MetaDataProducerInterf
 
       LOG.info("Starting cabinet render", logPair("cabinetId", cabinetId));
 
-      // Load the cabinet record
-      QRecord cabinetRecord = loadCabinetRecord(cabinetId);
-      String cabinetName = cabinetRecord.getValueString("name");
-      Long projectId = cabinetRecord.getValueLong("projectId");
+      // Load the cabinet with its project, box/back materials and type code
+      RenderingContext context = new RenderingContextLoader().loadCabinet(cabinetId);
+      Cabinet cabinet = context.getCabinet(cabinetId);
+      String cabinetName = cabinet.getName();
+      Long projectId = cabinet.getProjectId();
 
       // Create the RenderJob
-      Long renderJobId = createRenderJob(projectId, cabinetId);
+      RenderJobRecorder renderJob = RenderJobRecorder.create(projectId, cabinetId, "CABINET_BLUEPRINT");
 
       try
       {
          // Mark as started
-         updateRenderJobStarted(renderJobId);
+         renderJob.markStarted();
 
-         // Build the scene graph
-         CabinetSceneBuilder builder   = new CabinetSceneBuilder();
-         SceneNode           sceneRoot = builder.buildScene(cabinetRecord);
+         // Build the scene graph from the loaded context, without further queries
+         SceneNode sceneRoot = new CabinetSceneBuilder().withContext(context).buildScene(cabinet);
 
-         // Render to PDF (multi-view blueprint)
-         byte[] pdfData = renderToPdf(sceneRoot, cabinetName);
-         createRenderArtifact(renderJobId, cabinetName + " - Blueprint.pdf",
-            "PDF", "application/pdf", pdfData);
+         // Render the PDF blueprint and the SVG views from one pass over the geometry
+         Path spoolFile = Files.createTempFile("makers4-render-", ".pdf");
+         try
+         {
+            Map<ViewDirection, ByteArrayOutputStream> svgOutputs = renderArtifacts(sceneRoot, cabinetName, spoolFile);
 
-         // Render individual SVG views
-         for(ViewDirection view : ViewDirection.standardViews())
+            // Read the spooled PDF back in one exact-size allocation
+            renderJob.addArtifact(cabinetName + " - Blueprint.pdf",
+               "PDF", "application/pdf", Files.readAllBytes(spoolFile));
+
+            for(Map.Entry<ViewDirection, ByteArrayOutputStream> entry : svgOutputs.entrySet())
+            {
+               renderJob.addArtifact(cabinetName + " - " + entry.getKey().getDisplayName() + ".svg",
+                  "SVG", "image/svg+xml", entry.getValue().toByteArray());
+            }
+         }
+         finally
          {
-            byte[] svgData = renderToSvg(sceneRoot, view);
-            createRenderArtifact(renderJobId, cabinetName + " - " + view.getDisplayName() + ".svg",
-               "SVG", "image/svg+xml", svgData);
+            Files.deleteIfExists(spoolFile);
          }
 
          // Mark as completed
-         updateRenderJobCompleted(renderJobId);
+         renderJob.markCompleted();
 
-         output.addValue("renderJobId", renderJobId);
+         output.addValue("renderJobId", renderJob.getRenderJobId());
          output.addValue("message", "Successfully rendered cabinet to PDF and SVG");
 
-         LOG.info("Cabinet render completed", logPair("cabinetId", cabinetId), logPair("renderJobId", renderJobId));
+         LOG.info("Cabinet render completed", logPair("cabinetId", cabinetId), logPair("renderJobId", renderJob.getRenderJobId()));
       }
       catch(Exception e)
       {
-         updateRenderJobFailed(renderJobId, e.getMessage());
+         renderJob.markFailed(e.getMessage());
          throw new QException("Failed to render cabinet: " + e.getMessage(), e);
       }
    }
@@ -175,176 +182,56 @@ public class RenderCabinetProcess implements BackendStep, MetaDataProducerInterf
 
 
    /*******************************************************************************
-    ** Load a cabinet record by ID.
-    *******************************************************************************/
-   private QRecord loadCabinetRecord(Long cabinetId) throws QException
-   {
-      GetInput getInput = new GetInput();
-      getInput.setTableName(Cabinet.TABLE_NAME);
-      getInput.setPrimaryKey(cabinetId);
-
-      GetOutput getOutput = new GetAction().execute(getInput);
-
-      if(getOutput.getRecord() == null)
-      {
-         throw new QException("Cabinet not found: " + cabinetId);
-      }
-
-      return getOutput.getRecord();
-   }
-
-
-
-   /*******************************************************************************
-    ** Create a RenderJob record.
-    *******************************************************************************/
-   private Long createRenderJob(Long projectId, Long cabinetId) throws QException
-   {
-      QRecord jobRecord = new QRecord()
-         .withValue("projectId", projectId)
-         .withValue("cabinetId", cabinetId)
-         .withValue("renderType", "CABINET_BLUEPRINT")
-         .withValue("status", "PENDING")
-         .withValue("requestedAt", Instant.now());
-
-      InsertInput insertInput = new InsertInput();
-      insertInput.setTableName(RenderJob.TABLE_NAME);
-      insertInput.setRecords(List.of(jobRecord));
-
-      InsertOutput insertOutput = new InsertAction().execute(insertInput);
-
-      return insertOutput.getRecords().get(0).getValueLong("id");
-   }
-
-
-
-   /*******************************************************************************
-    ** Update RenderJob to RUNNING status.
-    *******************************************************************************/
-   private void updateRenderJobStarted(Long renderJobId) throws QException
-   {
-      QRecord updateRecord = new QRecord()
-         .withValue("id", renderJobId)
-         .withValue("status", "RUNNING")
-         .withValue("startedAt", Instant.now());
-
-      UpdateInput updateInput = new UpdateInput();
-      updateInput.setTableName(RenderJob.TABLE_NAME);
-      updateInput.setRecords(List.of(updateRecord));
-
-      new UpdateAction().execute(updateInput);
-   }
-
-
-
-   /*******************************************************************************
-    ** Update RenderJob to COMPLETED status.
-    *******************************************************************************/
-   private void updateRenderJobCompleted(Long renderJobId) throws QException
-   {
-      QRecord updateRecord = new QRecord()
-         .withValue("id", renderJobId)
-         .withValue("status", "COMPLETED")
-         .withValue("completedAt", Instant.now());
-
-      UpdateInput updateInput = new UpdateInput();
-      updateInput.setTableName(RenderJob.TABLE_NAME);
-      updateInput.setRecords(List.of(updateRecord));
-
-      new UpdateAction().execute(updateInput);
-   }
-
-
-
-   /*******************************************************************************
-    ** Update RenderJob to FAILED status.
-    *******************************************************************************/
-   private void updateRenderJobFailed(Long renderJobId, String errorMessage) throws QException
-   {
-      QRecord updateRecord = new QRecord()
-         .withValue("id", renderJobId)
-         .withValue("status", "FAILED")
-         .withValue("completedAt", Instant.now())
-         .withValue("errorMessage", errorMessage);
-
-      UpdateInput updateInput = new UpdateInput();
-      updateInput.setTableName(RenderJob.TABLE_NAME);
-      updateInput.setRecords(List.of(updateRecord));
-
-      new UpdateAction().execute(updateInput);
-   }
-
-
-
-   /*******************************************************************************
-    ** Create a RenderArtifact record.
-    *******************************************************************************/
-   private void createRenderArtifact(Long renderJobId, String name, String artifactType,
-                                     String mimeType, byte[] fileData) throws QException
-   {
-      QRecord artifactRecord = new QRecord()
-         .withValue("renderJobId", renderJobId)
-         .withValue("name", name)
-         .withValue("artifactType", artifactType)
-         .withValue("mimeType", mimeType)
-         .withValue("fileSizeBytes", (long) fileData.length)
-         .withValue("fileData", fileData);
-
-      InsertInput insertInput = new InsertInput();
-      insertInput.setTableName(RenderArtifact.TABLE_NAME);
-      insertInput.setRecords(List.of(artifactRecord));
-
-      new InsertAction().execute(insertInput);
-   }
-
-
-
-   /*******************************************************************************
-    ** Render the scene to a multi-view PDF blueprint.
+    ** Render the multi-view PDF blueprint (spooled to pdfSpoolFile) and one SVG
+    ** per standard view.  The views are prepared once and shared by both
+    ** exporters, which run concurrently.  The PDF is built with a bounded heap
+    ** and streamed to the spool file.  Spooling avoids a ByteArrayOutputStream,
+    ** which would hold the document twice (its growth buffer plus the
+    ** toByteArray copy).
     *******************************************************************************/
-   private byte[] renderToPdf(SceneNode sceneRoot, String cabinetName) throws Exception
+   private Map<ViewDirection, ByteArrayOutputStream> renderArtifacts(SceneNode sceneRoot, String cabinetName,
+                                                                     Path pdfSpoolFile) throws Exception
    {
-      PdfExporter exporter = new PdfExporter();
-
-      // Use architectural blueprint settings
-      RenderSettings settings = RenderSettings.architecturalBlueprint()
+      // Use architectural blueprint settings for the PDF
+      RenderSettings pdfSettings = RenderSettings.architecturalBlueprint()
          .withCompanyName("Makers4")
          .withProjectName("Cabinet: " + cabinetName)
          .withDrawnBy("Makers4 System")
-         .withDate(java.time.LocalDate.now().toString());
+         .withDate(java.time.LocalDate.now().toString())
+         .withPdfMaxMainMemoryBytes(PDF_MAX_MAIN_MEMORY_BYTES)
+         .withRenderThreads(Runtime.getRuntime().availableProcessors());
 
-      ByteArrayOutputStream baos = new ByteArrayOutputStream();
+      // Preview settings for the SVG views (also used to prepare the shared geometry)
+      RenderSettings svgSettings = RenderSettings.preview()
+         .withScale(12.0)
+         .withShowPartLabels(true)
+         .withCompactSvg(true)
+         .withSvgPrecision(2);
 
       // Render all standard views (Front, Left, Top) plus Isometric
-      List<ViewDirection> views = List.of(
+      List<ViewDirection> pdfViews = List.of(
          ViewDirection.FRONT,
          ViewDirection.LEFT,
          ViewDirection.TOP,
          ViewDirection.ISOMETRIC
       );
 
-      exporter.exportViews(sceneRoot, views, settings, baos);
-
-      return baos.toByteArray();
-   }
-
-
-
-   /*******************************************************************************
-    ** Render the scene to SVG for a specific view.
-    *******************************************************************************/
-   private byte[] renderToSvg(SceneNode sceneRoot, ViewDirection view) throws Exception
-   {
-      SvgExporter exporter = new SvgExporter();
-
-      RenderSettings settings = RenderSettings.preview()
-         .withScale(12.0)
-         .withShowPartLabels(true);
+      Map<ViewDirection, ByteArrayOutputStream> svgOutputs = new LinkedHashMap<>();
+      try(OutputStream pdfOutput = new BufferedOutputStream(Files.newOutputStream(pdfSpoolFile)))
+      {
+         MultiExporter multiExporter = new MultiExporter()
+            .withTarget(new PdfExporter(), pdfViews, pdfSettings, pdfOutput);
 
-      ByteArrayOutputStream baos = new ByteArrayOutputStream();
+         for(ViewDirection view : ViewDirection.standardViews())
+         {
+            ByteArrayOutputStream svgOutput = new ByteArrayOutputStream();
+            svgOutputs.put(view, svgOutput);
+            multiExporter.withTarget(new SvgExporter(), List.of(view), svgSettings, svgOutput);
+         }
 
-      exporter.exportView(sceneRoot, view, settings, baos);
+         multiExporter.export(sceneRoot, svgSettings);
+      }
 
-      return baos.toByteArray();
+      return svgOutputs;
    }
 }
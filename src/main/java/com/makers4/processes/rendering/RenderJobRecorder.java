@@ -0,0 +1,147 @@
+package com.makers4.processes.rendering;
+
+
+import java.time.Instant;
+import java.util.List;
+import com.kingsrook.qqq.backend.core.actions.tables.InsertAction;
+import com.kingsrook.qqq.backend.core.actions.tables.UpdateAction;
+import com.kingsrook.qqq.backend.core.exceptions.QException;
+import com.kingsrook.qqq.backend.core.model.actions.tables.insert.InsertInput;
+import com.kingsrook.qqq.backend.core.model.actions.tables.insert.InsertOutput;
+import com.kingsrook.qqq.backend.core.model.actions.tables.update.UpdateInput;
+import com.kingsrook.qqq.backend.core.model.data.QRecord;
+import com.makers4.model.RenderArtifact;
+import com.makers4.model.RenderJob;
+
+
+/*******************************************************************************
+ ** Records one render run: creates its RenderJob, moves it through
+ ** RUNNING to COMPLETED or FAILED, and stores its RenderArtifacts.
+ *******************************************************************************/
+public class RenderJobRecorder
+{
+   private final Long renderJobId;
+
+
+
+   /*******************************************************************************
+    ** Constructor - use create().
+    *******************************************************************************/
+   private RenderJobRecorder(Long renderJobId)
+   {
+      this.renderJobId = renderJobId;
+   }
+
+
+
+   /*******************************************************************************
+    ** Create a PENDING RenderJob record.
+    **
+    ** @param projectId  the project rendered
+    ** @param cabinetId  the cabinet rendered, or null for project-level output
+    ** @param renderType e.g. CABINET_BLUEPRINT
+    *******************************************************************************/
+   public static RenderJobRecorder create(Long projectId, Long cabinetId, String renderType) throws QException
+   {
+      QRecord jobRecord = new QRecord()
+         .withValue("projectId", projectId)
+         .withValue("cabinetId", cabinetId)
+         .withValue("renderType", renderType)
+         .withValue("status", "PENDING")
+         .withValue("requestedAt", Instant.now());
+
+      InsertInput insertInput = new InsertInput();
+      insertInput.setTableName(RenderJob.TABLE_NAME);
+      insertInput.setRecords(List.of(jobRecord));
+
+      InsertOutput insertOutput = new InsertAction().execute(insertInput);
+
+      return new RenderJobRecorder(insertOutput.getRecords().get(0).getValueLong("id"));
+   }
+
+
+
+   /*******************************************************************************
+    ** Update RenderJob to RUNNING status.
+    *******************************************************************************/
+   public void markStarted() throws QException
+   {
+      update(new QRecord()
+         .withValue("id", renderJobId)
+         .withValue("status", "RUNNING")
+         .withValue("startedAt", Instant.now()));
+   }
+
+
+
+   /*******************************************************************************
+    ** Update RenderJob to COMPLETED status.
+    *******************************************************************************/
+   public void markCompleted() throws QException
+   {
+      update(new QRecord()
+         .withValue("id", renderJobId)
+         .withValue("status", "COMPLETED")
+         .withValue("completedAt", Instant.now()));
+   }
+
+
+
+   /*******************************************************************************
+    ** Update RenderJob to FAILED status.
+    *******************************************************************************/
+   public void markFailed(String errorMessage) throws QException
+   {
+      update(new QRecord()
+         .withValue("id", renderJobId)
+         .withValue("status", "FAILED")
+         .withValue("completedAt", Instant.now())
+         .withValue("errorMessage", errorMessage));
+   }
+
+
+
+   /*******************************************************************************
+    ** Create a RenderArtifact record.
+    *******************************************************************************/
+   public void addArtifact(String name, String artifactType, String mimeType, byte[] fileData) throws QException
+   {
+      QRecord artifactRecord = new QRecord()
+         .withValue("renderJobId", renderJobId)
+         .withValue("name", name)
+         .withValue("artifactType", artifactType)
+         .withValue("mimeType", mimeType)
+         .withValue("fileSizeBytes", (long) fileData.length)
+         .withValue("fileData", fileData);
+
+      InsertInput insertInput = new InsertInput();
+      insertInput.setTableName(RenderArtifact.TABLE_NAME);
+      insertInput.setRecords(List.of(artifactRecord));
+
+      new InsertAction().execute(insertInput);
+   }
+
+
+
+   /*******************************************************************************
+    ** Getter for renderJobId
+    *******************************************************************************/
+   public Long getRenderJobId()
+   {
+      return renderJobId;
+   }
+
+
+
+   /*******************************************************************************
+    ** Update the RenderJob record.
+    *******************************************************************************/
+   private void update(QRecord updateRecord) throws QException
+   {
+      UpdateInput updateInput = new UpdateInput();
+      updateInput.setTableName(RenderJob.TABLE_NAME);
+      updateInput.setRecords(List.of(updateRecord));
+
+      new UpdateAction().execute(updateInput);
+   }
+}
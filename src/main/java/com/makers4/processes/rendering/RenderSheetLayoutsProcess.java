@@ -0,0 +1,219 @@
+package com.makers4.processes.rendering;
+
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import com.kingsrook.qqq.backend.core.actions.processes.BackendStep;
+import com.kingsrook.qqq.backend.core.exceptions.QException;
+import com.kingsrook.qqq.backend.core.logging.QLogger;
+import com.kingsrook.qqq.backend.core.model.actions.processes.RunBackendStepInput;
+import com.kingsrook.qqq.backend.core.model.actions.processes.RunBackendStepOutput;
+import com.kingsrook.qqq.backend.core.model.metadata.MetaDataProducerInterface;
+import com.kingsrook.qqq.backend.core.model.metadata.QInstance;
+import com.kingsrook.qqq.backend.core.model.metadata.code.QCodeReference;
+import com.kingsrook.qqq.backend.core.model.metadata.fields.QFieldMetaData;
+import com.kingsrook.qqq.backend.core.model.metadata.fields.QFieldType;
+import com.kingsrook.qqq.backend.core.model.metadata.layout.QIcon;
+import com.kingsrook.qqq.backend.core.model.metadata.processes.QBackendStepMetaData;
+import com.kingsrook.qqq.backend.core.model.metadata.processes.QFrontendStepMetaData;
+import com.kingsrook.qqq.backend.core.model.metadata.processes.QProcessMetaData;
+import com.makers4.cutlist.CutListRow;
+import com.makers4.model.CutList;
+import com.makers4.processes.cutlist.CutListRowLoader;
+import com.makers4.rendering.RenderSettings;
+import com.makers4.rendering.builders.SheetLayoutSceneBuilder;
+import com.makers4.rendering.camera.ViewDirection;
+import com.makers4.rendering.export.PdfExporter;
+import com.makers4.rendering.export.SvgExporter;
+import com.makers4.rendering.scene.SceneNode;
+import static com.kingsrook.qqq.backend.core.logging.LogUtils.logPair;
+
+
+/*******************************************************************************
+ ** Process to draw a nested cut list's sheets and boards from the top: one
+ ** blueprint PDF with a page per sheet, plus an SVG per sheet, stored as
+ ** RenderArtifacts of a CUT_LIST_LAYOUT RenderJob.
+ *******************************************************************************/
+public class RenderSheetLayoutsProcess implements BackendStep, MetaDataProducerInterface<QProcessMetaData>
+{
+   public static final String PROCESS_NAME = "renderSheetLayouts";
+   public static final String STEP_NAME    = "render";
+   public static final String RESULT_STEP  = "result";
+
+   // Heap budget for PDF page content; the rest is spooled to scratch files
+   private static final long PDF_MAX_MAIN_MEMORY_BYTES = 8L * 1024 * 1024;
+
+   private static final QLogger LOG = QLogger.getLogger(RenderSheetLayoutsProcess.class);
+
+
+
+   /*******************************************************************************
+    ** Produce the process metadata.
+    *******************************************************************************/
+   @Override
+   public QProcessMetaData produce(QInstance qInstance) throws QException
+   {
+      return new QProcessMetaData()
+         .withName(PROCESS_NAME)
+         .withLabel("Render Sheet Layouts")
+         .withIcon(new QIcon().withName("grid_view"))
+         .withTableName(CutList.TABLE_NAME)
+         .withIsHidden(false)
+         .withStepList(List.of(
+            new QBackendStepMetaData()
+               .withName(STEP_NAME)
+               .withCode(new QCodeReference(getClass())),
+            new QFrontendStepMetaData()
+               .withName(RESULT_STEP)
+               .withLabel("Render Complete")
+               .withFormField(new QFieldMetaData("message", QFieldType.STRING).withLabel("Result"))
+               .withFormField(new QFieldMetaData("renderJobId", QFieldType.LONG).withLabel("Render Job ID"))
+               .withFormField(new QFieldMetaData("sheetCount", QFieldType.INTEGER).withLabel("Sheets"))
+         ));
+   }
+
+
+
+   /*******************************************************************************
+    ** Execute the render process.
+    *******************************************************************************/
+   @Override
+   public void run(RunBackendStepInput input, RunBackendStepOutput output) throws QException
+   {
+      Long cutListId = null;
+
+      // Try to get cut list ID from various sources
+      if(input.getValue("cutListId") != null)
+      {
+         cutListId = Long.parseLong(input.getValue("cutListId").toString());
+      }
+      else if(input.getValue("id") != null)
+      {
+         cutListId = Long.parseLong(input.getValue("id").toString());
+      }
+      else if(input.getValue("recordIds") != null)
+      {
+         // Record IDs can come as a String or List depending on context
+         Object recordIds = input.getValue("recordIds");
+         if(recordIds instanceof String)
+         {
+            cutListId = Long.parseLong((String) recordIds);
+         }
+         else if(recordIds instanceof List)
+         {
+            @SuppressWarnings("unchecked")
+            List<Object> idList = (List<Object>) recordIds;
+            if(!idList.isEmpty())
+            {
+               cutListId = Long.parseLong(idList.get(0).toString());
+            }
+         }
+      }
+      else if(input.getRecords() != null && !input.getRecords().isEmpty())
+      {
+         cutListId = input.getRecords().get(0).getValueLong("id");
+      }
+
+      if(cutListId == null)
+      {
+         LOG.warn("Cut list ID not found in input. Available values: " + input.getValues());
+         throw new QException("Cut list ID is required");
+      }
+
+      LOG.info("Starting sheet layout render", logPair("cutListId", cutListId));
+
+      // Load the nested rows and build a scene per sheet
+      CutListRowLoader loader  = new CutListRowLoader(cutListId);
+      CutList          cutList = loader.loadCutList();
+      List<CutListRow> rows    = new ArrayList<>();
+      for(CutListRowLoader.SheetRange page : loader.planPages())
+      {
+         if(page.first() != null)
+         {
+            rows.addAll(loader.loadRows(page));
+         }
+      }
+
+      if(rows.isEmpty())
+      {
+         throw new QException("Cut list has no nested parts to draw: " + cutList.getName());
+      }
+
+      List<SceneNode> scenes = new SheetLayoutSceneBuilder().buildScenes(rows);
+
+      RenderJobRecorder renderJob = RenderJobRecorder.create(cutList.getProjectId(), cutList.getCabinetId(), "CUT_LIST_LAYOUT");
+
+      try
+      {
+         renderJob.markStarted();
+
+         // All sheets in one blueprint PDF, spooled to a file rather than held twice in memory
+         Path spoolFile = Files.createTempFile("makers4-layout-", ".pdf");
+         try
+         {
+            try(OutputStream pdfOutput = new BufferedOutputStream(Files.newOutputStream(spoolFile)))
+            {
+               new PdfExporter().exportScenes(scenes, ViewDirection.TOP, createPdfSettings(cutList.getName()), pdfOutput);
+            }
+
+            renderJob.addArtifact(cutList.getName() + " - Sheet Layouts.pdf",
+               "PDF", "application/pdf", Files.readAllBytes(spoolFile));
+         }
+         finally
+         {
+            Files.deleteIfExists(spoolFile);
+         }
+
+         // One SVG per sheet
+         RenderSettings svgSettings = RenderSettings.preview()
+            .withScale(6.0)
+            .withShowPartLabels(true)
+            .withCompactSvg(true)
+            .withSvgPrecision(2);
+
+         SvgExporter svgExporter = new SvgExporter();
+         for(SceneNode scene : scenes)
+         {
+            ByteArrayOutputStream svgOutput = new ByteArrayOutputStream();
+            svgExporter.exportView(scene, ViewDirection.TOP, svgSettings, svgOutput);
+            renderJob.addArtifact(cutList.getName() + " - " + scene.getName() + ".svg",
+               "SVG", "image/svg+xml", svgOutput.toByteArray());
+         }
+
+         renderJob.markCompleted();
+
+         output.addValue("renderJobId", renderJob.getRenderJobId());
+         output.addValue("sheetCount", scenes.size());
+         output.addValue("message", "Drew " + scenes.size() + " sheet and board layouts to PDF and SVG");
+
+         LOG.info("Sheet layout render completed", logPair("cutListId", cutListId), logPair("renderJobId", renderJob.getRenderJobId()),
+            logPair("sheets", scenes.size()), logPair("parts", rows.size()));
+      }
+      catch(Exception e)
+      {
+         renderJob.markFailed(e.getMessage());
+         throw new QException("Failed to render sheet layouts: " + e.getMessage(), e);
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** Blueprint settings for the layout PDF, rendering pages on every core.
+    *******************************************************************************/
+   private RenderSettings createPdfSettings(String cutListName)
+   {
+      return RenderSettings.architecturalBlueprint()
+         .withCompanyName("Makers4")
+         .withProjectName("Cut List: " + cutListName)
+         .withDrawnBy("Makers4 System")
+         .withDate(java.time.LocalDate.now().toString())
+         .withPdfMaxMainMemoryBytes(PDF_MAX_MAIN_MEMORY_BYTES)
+         .withRenderThreads(Runtime.getRuntime().availableProcessors());
+   }
+}
@@ -0,0 +1,128 @@
+package com.makers4.processes.rendering;
+
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import com.kingsrook.qqq.backend.core.actions.tables.GetAction;
+import com.kingsrook.qqq.backend.core.exceptions.QException;
+import com.kingsrook.qqq.backend.core.model.actions.tables.get.GetInput;
+import com.kingsrook.qqq.backend.core.model.actions.tables.get.GetOutput;
+import com.kingsrook.qqq.backend.core.model.data.QRecordEntity;
+import com.makers4.cache.LookupCaching;
+import com.makers4.cache.LookupValue;
+import com.makers4.cache.MaterialSpec;
+import com.makers4.model.Cabinet;
+import com.makers4.model.Project;
+import com.makers4.model.lookup.CabinetType;
+import com.makers4.rendering.builders.RenderingContext;
+
+
+/*******************************************************************************
+ ** Loads the RenderingContext for a cabinet: the cabinet, its project, and
+ ** the box and back materials (its own and the project defaults) in one
+ ** batch through the MaterialCache.  The cabinet type code comes from the
+ ** LookupCache.
+ *******************************************************************************/
+public class RenderingContextLoader
+{
+
+   /*******************************************************************************
+    ** The context for rendering one cabinet.
+    *******************************************************************************/
+   public RenderingContext loadCabinet(Long cabinetId) throws QException
+   {
+      Cabinet cabinet = get(Cabinet.class, Cabinet.TABLE_NAME, cabinetId);
+      if(cabinet == null)
+      {
+         throw new QException("Cabinet not found: " + cabinetId);
+      }
+
+      Project project = cabinet.getProjectId() != null ? get(Project.class, Project.TABLE_NAME, cabinet.getProjectId()) : null;
+      return load(project, List.of(cabinet));
+   }
+
+
+
+   /*******************************************************************************
+    ** The context for already-loaded cabinets of a project: reads their
+    ** materials and type codes.
+    *******************************************************************************/
+   private RenderingContext load(Project project, List<Cabinet> cabinets) throws QException
+   {
+      try
+      {
+         Map<Long, MaterialSpec> materials = LookupCaching.getMaterialCache().getAll(collectMaterialIds(project, cabinets));
+         return new RenderingContext(project, cabinets, materials, loadCabinetTypeCodes(cabinets));
+      }
+      catch(IllegalStateException e)
+      {
+         throw new QException("Could not load rendering context: " + e.getMessage(), e);
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** The box and back material ids the builder reads: the cabinets' own and
+    ** the project defaults they fall back to.
+    *******************************************************************************/
+   private static Set<Long> collectMaterialIds(Project project, List<Cabinet> cabinets)
+   {
+      Set<Long> ids = new LinkedHashSet<>();
+      if(project != null)
+      {
+         ids.add(project.getDefaultBoxMaterialId());
+         ids.add(project.getDefaultBackMaterialId());
+      }
+
+      for(Cabinet cabinet : cabinets)
+      {
+         ids.add(cabinet.getBoxMaterialId());
+         ids.add(cabinet.getBackMaterialId());
+      }
+
+      ids.remove(null);
+      return ids;
+   }
+
+
+
+   /*******************************************************************************
+    ** The codes of the cabinets' types, keyed by type id.
+    *******************************************************************************/
+   private static Map<Long, String> loadCabinetTypeCodes(List<Cabinet> cabinets)
+   {
+      Map<Long, String> codes = new HashMap<>();
+      for(Cabinet cabinet : cabinets)
+      {
+         Long cabinetTypeId = cabinet.getCabinetTypeId();
+         if(cabinetTypeId != null && !codes.containsKey(cabinetTypeId))
+         {
+            LookupValue cabinetType = LookupCaching.getCache().getValue(CabinetType.TABLE_NAME, cabinetTypeId);
+            if(cabinetType != null && cabinetType.code() != null)
+            {
+               codes.put(cabinetTypeId, cabinetType.code());
+            }
+         }
+      }
+      return codes;
+   }
+
+
+
+   /*******************************************************************************
+    ** Get a record by primary key as an entity, or null.
+    *******************************************************************************/
+   private <T extends QRecordEntity> T get(Class<T> entityClass, String tableName, Long id) throws QException
+   {
+      GetInput getInput = new GetInput();
+      getInput.setTableName(tableName);
+      getInput.setPrimaryKey(id);
+
+      GetOutput getOutput = new GetAction().execute(getInput);
+      return getOutput.getRecord() != null ? QRecordEntity.fromQRecord(entityClass, getOutput.getRecord()) : null;
+   }
+}
@@ -0,0 +1,86 @@
+package com.makers4.processes.summary;
+
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.List;
+import com.makers4.model.ProjectSummary;
+import com.makers4.processes.costing.CostSummary;
+import com.makers4.processes.costing.MaterialCost;
+import com.makers4.processes.costing.MaterialCostCalculator;
+import com.makers4.processes.costing.PartGroup;
+
+
+/*******************************************************************************
+ ** Folds one project's counts and grouped part rows into its summary row.
+ ** Sheet area and sheet count cover sheet goods only; board feet cover
+ ** solid lumber only, as on the material cost report.
+ *******************************************************************************/
+public class ProjectRollup
+{
+   private final MaterialCostCalculator calculator;
+
+
+
+   /*******************************************************************************
+    ** Constructor.
+    *******************************************************************************/
+   public ProjectRollup(MaterialCostCalculator calculator)
+   {
+      this.calculator = calculator;
+   }
+
+
+
+   /*******************************************************************************
+    ** Summarize a project from its cabinet and opening counts and the part
+    ** groups of its cabinets.
+    *******************************************************************************/
+   public ProjectSummary summarize(long projectId, int cabinetCount, int openingCount, List<PartGroup> groups, Instant refreshedAt)
+   {
+      long partCount = 0;
+      for(PartGroup group : groups)
+      {
+         partCount += group.quantity();
+      }
+
+      CostSummary costs      = calculator.calculate(groups);
+      double      squareFeet = 0;
+      double      boardFeet  = 0;
+      int         sheets     = 0;
+      for(MaterialCost cost : costs.byMaterial())
+      {
+         if(cost.solid())
+         {
+            boardFeet += cost.boardFeet();
+         }
+         else
+         {
+            squareFeet += cost.squareFeet();
+            sheets += cost.sheets();
+         }
+      }
+
+      return new ProjectSummary()
+         .withProjectId(projectId)
+         .withCabinetCount(cabinetCount)
+         .withOpeningCount(openingCount)
+         .withPartCount(Math.toIntExact(partCount))
+         .withSheetCount(sheets)
+         .withSheetAreaSqFt(hundredths(squareFeet))
+         .withBoardFeet(hundredths(boardFeet))
+         .withEstimatedCost(costs.total())
+         .withRefreshedAt(refreshedAt);
+   }
+
+
+
+   /*******************************************************************************
+    ** A measure rounded to two places, as stored.
+    *******************************************************************************/
+   private static BigDecimal hundredths(double value)
+   {
+      return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+   }
+}
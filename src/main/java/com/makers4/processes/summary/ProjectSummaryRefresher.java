@@ -0,0 +1,278 @@
+package com.makers4.processes.summary;
+
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import com.kingsrook.qqq.backend.core.actions.tables.AggregateAction;
+import com.kingsrook.qqq.backend.core.actions.tables.InsertAction;
+import com.kingsrook.qqq.backend.core.actions.tables.UpdateAction;
+import com.kingsrook.qqq.backend.core.exceptions.QException;
+import com.kingsrook.qqq.backend.core.logging.QLogger;
+import com.kingsrook.qqq.backend.core.model.actions.tables.aggregate.Aggregate;
+import com.kingsrook.qqq.backend.core.model.actions.tables.aggregate.AggregateInput;
+import com.kingsrook.qqq.backend.core.model.actions.tables.aggregate.AggregateOperator;
+import com.kingsrook.qqq.backend.core.model.actions.tables.aggregate.AggregateResult;
+import com.kingsrook.qqq.backend.core.model.actions.tables.aggregate.GroupBy;
+import com.kingsrook.qqq.backend.core.model.actions.tables.insert.InsertInput;
+import com.kingsrook.qqq.backend.core.model.actions.tables.query.QCriteriaOperator;
+import com.kingsrook.qqq.backend.core.model.actions.tables.query.QFilterCriteria;
+import com.kingsrook.qqq.backend.core.model.actions.tables.query.QQueryFilter;
+import com.kingsrook.qqq.backend.core.model.actions.tables.update.UpdateInput;
+import com.kingsrook.qqq.backend.core.model.data.QRecord;
+import com.kingsrook.qqq.backend.core.model.metadata.fields.QFieldType;
+import com.makers4.model.Cabinet;
+import com.makers4.model.CabinetOpening;
+import com.makers4.model.ProjectSummary;
+import com.makers4.processes.costing.CostingLoader;
+import com.makers4.processes.costing.PartGroup;
+import static com.kingsrook.qqq.backend.core.logging.LogUtils.logPair;
+import static com.makers4.processes.EntityQueries.query;
+import static com.makers4.processes.EntityQueries.toLong;
+
+
+/*******************************************************************************
+ ** Brings the project_summary rows of some projects up to date.
+ **
+ ** Only the projects asked for are touched.  Each is recomputed from grouped
+ ** queries (cabinets by project, an opening count and the part groups by
+ ** cabinet) rather than by adding deltas to the stored row, so a refresh is
+ ** always exact and costs the same whether one part or a whole cabinet
+ ** changed.  The row is updated in place, or inserted the first time; an
+ ** insert that loses a race with another refresh is retried as an update.
+ *******************************************************************************/
+public class ProjectSummaryRefresher
+{
+   private static final QLogger LOG = QLogger.getLogger(ProjectSummaryRefresher.class);
+
+
+
+   /*******************************************************************************
+    ** Recompute and store the summaries of the given projects (nulls are
+    ** ignored).
+    *******************************************************************************/
+   public void refresh(Collection<Long> projectIds) throws QException
+   {
+      Set<Long> ids = new TreeSet<>();
+      projectIds.stream().filter(Objects::nonNull).forEach(ids::add);
+      if(ids.isEmpty())
+      {
+         return;
+      }
+
+      Map<Long, Long>    projectByCabinet = new HashMap<>();
+      Map<Long, Integer> cabinetCounts    = new HashMap<>();
+      for(Cabinet cabinet : query(Cabinet.class, Cabinet.TABLE_NAME, "projectId", ids))
+      {
+         projectByCabinet.put(cabinet.getId(), cabinet.getProjectId());
+         cabinetCounts.merge(cabinet.getProjectId(), 1, Integer::sum);
+      }
+
+      Map<Long, Integer> openingCounts = new HashMap<>();
+      countOpenings(projectByCabinet.keySet()).forEach((cabinetId, count) ->
+         openingCounts.merge(projectByCabinet.get(cabinetId), count, Integer::sum));
+
+      CostingLoader              loader = new CostingLoader();
+      Map<Long, List<PartGroup>> groups = new HashMap<>();
+      for(PartGroup group : loader.loadPartGroups(projectByCabinet.keySet()))
+      {
+         groups.computeIfAbsent(projectByCabinet.get(group.cabinetId()), id -> new ArrayList<>()).add(group);
+      }
+
+      Map<Long, Long> existingIds = loadSummaryIds(ids);
+
+      ProjectRollup             rollup  = new ProjectRollup(loader.createCalculator(loader.loadMaterials()));
+      Instant                   now     = Instant.now();
+      Map<Long, ProjectSummary> inserts = new LinkedHashMap<>();
+      List<ProjectSummary>      updates = new ArrayList<>();
+      for(Long projectId : ids)
+      {
+         ProjectSummary summary = rollup.summarize(projectId, cabinetCounts.getOrDefault(projectId, 0),
+            openingCounts.getOrDefault(projectId, 0), groups.getOrDefault(projectId, List.of()), now);
+
+         Long id = existingIds.get(projectId);
+         if(id != null)
+         {
+            updates.add(summary.withId(id));
+         }
+         else
+         {
+            inserts.put(projectId, summary);
+         }
+      }
+
+      update(updates);
+      try
+      {
+         insert(inserts.values());
+      }
+      catch(QException e)
+      {
+         retryAsUpdates(inserts, e);
+      }
+
+      LOG.debug("Refreshed project summaries", logPair("projects", ids.size()),
+         logPair("updated", updates.size()), logPair("inserted", inserts.size()));
+   }
+
+
+
+   /*******************************************************************************
+    ** A refresh running at the same time may have inserted some of these
+    ** projects' rows first (project_id is unique), failing the insert.
+    ** Update those rows instead and insert the rest again; rethrow if no row
+    ** appeared, as the insert failed for some other reason.
+    *******************************************************************************/
+   private void retryAsUpdates(Map<Long, ProjectSummary> inserts, QException insertError) throws QException
+   {
+      Map<Long, Long> racedIds = loadSummaryIds(inserts.keySet());
+      if(racedIds.isEmpty())
+      {
+         throw insertError;
+      }
+
+      List<ProjectSummary> updates = new ArrayList<>();
+      List<ProjectSummary> retries = new ArrayList<>();
+      inserts.forEach((projectId, summary) ->
+      {
+         Long id = racedIds.get(projectId);
+         if(id != null)
+         {
+            updates.add(summary.withId(id));
+         }
+         else
+         {
+            retries.add(summary);
+         }
+      });
+
+      LOG.info("Project summary insert raced another refresh, updating instead", logPair("projects", updates.size()));
+      update(updates);
+      insert(retries);
+   }
+
+
+
+   /*******************************************************************************
+    ** The ids of the stored summary rows of some projects, by project id.
+    *******************************************************************************/
+   private Map<Long, Long> loadSummaryIds(Collection<Long> projectIds) throws QException
+   {
+      Map<Long, Long> summaryIds = new HashMap<>();
+      for(ProjectSummary summary : query(ProjectSummary.class, ProjectSummary.TABLE_NAME, "projectId", projectIds))
+      {
+         summaryIds.put(summary.getProjectId(), summary.getId());
+      }
+      return summaryIds;
+   }
+
+
+
+   /*******************************************************************************
+    ** Update stored summary rows.
+    *******************************************************************************/
+   private static void update(Collection<ProjectSummary> summaries) throws QException
+   {
+      if(summaries.isEmpty())
+      {
+         return;
+      }
+
+      UpdateInput updateInput = new UpdateInput();
+      updateInput.setTableName(ProjectSummary.TABLE_NAME);
+      updateInput.setRecords(toRecords(summaries));
+      new UpdateAction().execute(updateInput);
+   }
+
+
+
+   /*******************************************************************************
+    ** Insert new summary rows.
+    *******************************************************************************/
+   private static void insert(Collection<ProjectSummary> summaries) throws QException
+   {
+      if(summaries.isEmpty())
+      {
+         return;
+      }
+
+      InsertInput insertInput = new InsertInput();
+      insertInput.setTableName(ProjectSummary.TABLE_NAME);
+      insertInput.setRecords(toRecords(summaries));
+      new InsertAction().execute(insertInput);
+   }
+
+
+
+   /*******************************************************************************
+    ** Summaries as records.
+    *******************************************************************************/
+   private static List<QRecord> toRecords(Collection<ProjectSummary> summaries)
+   {
+      List<QRecord> records = new ArrayList<>();
+      for(ProjectSummary summary : summaries)
+      {
+         records.add(summary.toQRecord());
+      }
+      return records;
+   }
+
+
+
+   /*******************************************************************************
+    ** The projects the given cabinets belong to.
+    *******************************************************************************/
+   public Set<Long> findProjectIds(Collection<Long> cabinetIds) throws QException
+   {
+      Set<Long>  projectIds = new TreeSet<>();
+      List<Long> ids        = cabinetIds.stream().filter(Objects::nonNull).distinct().toList();
+      if(!ids.isEmpty())
+      {
+         for(Cabinet cabinet : query(Cabinet.class, Cabinet.TABLE_NAME, "id", ids))
+         {
+            projectIds.add(cabinet.getProjectId());
+         }
+      }
+      return projectIds;
+   }
+
+
+
+   /*******************************************************************************
+    ** Count openings by cabinet in one aggregate query.
+    *******************************************************************************/
+   private Map<Long, Integer> countOpenings(Collection<Long> cabinetIds) throws QException
+   {
+      Map<Long, Integer> counts = new HashMap<>();
+      if(cabinetIds.isEmpty())
+      {
+         return counts;
+      }
+
+      Aggregate count     = new Aggregate("id", AggregateOperator.COUNT);
+      GroupBy   cabinetId = new GroupBy(QFieldType.LONG, "cabinetId");
+
+      AggregateInput aggregateInput = new AggregateInput();
+      aggregateInput.setTableName(CabinetOpening.TABLE_NAME);
+      aggregateInput.setFilter(new QQueryFilter(new QFilterCriteria("cabinetId", QCriteriaOperator.IN, cabinetIds)));
+      aggregateInput.withAggregate(count).withGroupBy(cabinetId);
+
+      for(AggregateResult result : new AggregateAction().execute(aggregateInput).getResults())
+      {
+         Long cabinet  = toLong(result.getGroupByValue(cabinetId));
+         Long openings = toLong(result.getAggregateValue(count));
+         if(cabinet != null && openings != null)
+         {
+            counts.put(cabinet, openings.intValue());
+         }
+      }
+      return counts;
+   }
+}
@@ -0,0 +1,218 @@
+package com.makers4.processes.summary;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import com.kingsrook.qqq.backend.core.actions.customizers.TableCustomizerInterface;
+import com.kingsrook.qqq.backend.core.exceptions.QException;
+import com.kingsrook.qqq.backend.core.logging.QLogger;
+import com.kingsrook.qqq.backend.core.model.actions.tables.delete.DeleteInput;
+import com.kingsrook.qqq.backend.core.model.actions.tables.insert.InsertInput;
+import com.kingsrook.qqq.backend.core.model.actions.tables.update.UpdateInput;
+import com.kingsrook.qqq.backend.core.model.data.QRecord;
+import com.makers4.model.Cabinet;
+import static com.kingsrook.qqq.backend.core.logging.LogUtils.logPair;
+
+
+/*******************************************************************************
+ ** Post-insert, post-update and post-delete hook for the cabinet,
+ ** cabinet_opening and part tables: refreshes the summary row of every
+ ** project the changed records belong to, before and after an update.
+ **
+ ** The summary is derived data, so a failed refresh is logged rather than
+ ** failing the user's save; RebuildProjectSummaries puts it right.  Bulk
+ ** processes wrap their writes in deferRefreshes(), so each project is
+ ** refreshed once at the end rather than once per batch.
+ *******************************************************************************/
+public class ProjectSummaryTableCustomizer implements TableCustomizerInterface
+{
+   private static final QLogger LOG = QLogger.getLogger(ProjectSummaryTableCustomizer.class);
+
+   // Refreshes held back on this thread by deferRefreshes(), if any
+   private static final ThreadLocal<Deferral> DEFERRAL = new ThreadLocal<>();
+
+
+
+   /*******************************************************************************
+    ** Refresh the projects of inserted records.
+    *******************************************************************************/
+   @Override
+   public List<QRecord> postInsert(InsertInput insertInput, List<QRecord> records) throws QException
+   {
+      refresh(insertInput.getTableName(), records);
+      return records;
+   }
+
+
+
+   /*******************************************************************************
+    ** Refresh the projects of updated records, old values included: a
+    ** cabinet moved to another project changes both.
+    *******************************************************************************/
+   @Override
+   public List<QRecord> postUpdate(UpdateInput updateInput, List<QRecord> records, Optional<List<QRecord>> oldRecordList) throws QException
+   {
+      List<QRecord> changed = new ArrayList<>(records);
+      oldRecordList.ifPresent(changed::addAll);
+      refresh(updateInput.getTableName(), changed);
+      return records;
+   }
+
+
+
+   /*******************************************************************************
+    ** Refresh the projects of deleted records.
+    *******************************************************************************/
+   @Override
+   public List<QRecord> postDelete(DeleteInput deleteInput, List<QRecord> records) throws QException
+   {
+      refresh(deleteInput.getTableName(), records);
+      return records;
+   }
+
+
+
+   /*******************************************************************************
+    ** Hold back this thread's summary refreshes until the returned deferral
+    ** is closed, then refresh every project touched in between once.  For
+    ** processes that write cabinets, openings or parts in many batches:
+    **
+    ** <pre>
+    ** try(ProjectSummaryTableCustomizer.Deferral deferral = ProjectSummaryTableCustomizer.deferRefreshes())
+    ** {
+    **    ...batched inserts and updates...
+    ** }
+    ** </pre>
+    **
+    ** A deferral opened inside another is a no-op; the outer one refreshes.
+    *******************************************************************************/
+   public static Deferral deferRefreshes()
+   {
+      if(DEFERRAL.get() != null)
+      {
+         return new Deferral(false);
+      }
+
+      Deferral deferral = new Deferral(true);
+      DEFERRAL.set(deferral);
+      return deferral;
+   }
+
+
+
+   /*******************************************************************************
+    ** Refresh the projects of some cabinet (by projectId) or opening or part
+    ** (by cabinetId) records, or note them for the open deferral.
+    *******************************************************************************/
+   private void refresh(String tableName, List<QRecord> records)
+   {
+      Set<Long> projectIds = new TreeSet<>();
+      Set<Long> cabinetIds = new TreeSet<>();
+      if(Cabinet.TABLE_NAME.equals(tableName))
+      {
+         projectIds.addAll(values(records, "projectId"));
+      }
+      else
+      {
+         cabinetIds.addAll(values(records, "cabinetId"));
+      }
+
+      Deferral deferral = DEFERRAL.get();
+      if(deferral != null)
+      {
+         deferral.projectIds.addAll(projectIds);
+         deferral.cabinetIds.addAll(cabinetIds);
+         return;
+      }
+
+      refresh(projectIds, cabinetIds, tableName);
+   }
+
+
+
+   /*******************************************************************************
+    ** Refresh some projects and the projects of some cabinets, logging rather
+    ** than throwing on failure.
+    *******************************************************************************/
+   private static void refresh(Set<Long> projectIds, Set<Long> cabinetIds, String source)
+   {
+      try
+      {
+         ProjectSummaryRefresher refresher = new ProjectSummaryRefresher();
+         Set<Long>               projects  = new TreeSet<>(projectIds);
+         projects.addAll(refresher.findProjectIds(cabinetIds));
+         refresher.refresh(projects);
+      }
+      catch(Exception e)
+      {
+         LOG.warn("Error refreshing project summaries, run " + RebuildProjectSummariesProcess.PROCESS_NAME + " to repair", e,
+            logPair("source", source), logPair("projects", projectIds.size()), logPair("cabinets", cabinetIds.size()));
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** The distinct non-null values of a Long field.
+    *******************************************************************************/
+   private static Set<Long> values(List<QRecord> records, String fieldName)
+   {
+      Set<Long> values = new TreeSet<>();
+      for(QRecord record : records)
+      {
+         Long value = record.getValueLong(fieldName);
+         if(value != null)
+         {
+            values.add(value);
+         }
+      }
+      return values;
+   }
+
+
+
+   /*******************************************************************************
+    ** Summary refreshes held back on one thread; see deferRefreshes().
+    *******************************************************************************/
+   public static class Deferral implements AutoCloseable
+   {
+      private final boolean   owner;
+      private final Set<Long> projectIds = new TreeSet<>();
+      private final Set<Long> cabinetIds = new TreeSet<>();
+
+
+
+      /*******************************************************************************
+       ** Constructor.
+       *******************************************************************************/
+      private Deferral(boolean owner)
+      {
+         this.owner = owner;
+      }
+
+
+
+      /*******************************************************************************
+       ** Stop deferring and refresh every project touched meanwhile, once.
+       ** Runs even when the work failed partway, since some batches may have
+       ** been written.
+       *******************************************************************************/
+      @Override
+      public void close()
+      {
+         if(!owner)
+         {
+            return;
+         }
+
+         DEFERRAL.remove();
+         if(!projectIds.isEmpty() || !cabinetIds.isEmpty())
+         {
+            refresh(projectIds, cabinetIds, "deferred");
+         }
+      }
+   }
+}
@@ -0,0 +1,104 @@
+package com.makers4.processes.summary;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import com.kingsrook.qqq.backend.core.actions.processes.BackendStep;
+import com.kingsrook.qqq.backend.core.actions.tables.QueryAction;
+import com.kingsrook.qqq.backend.core.exceptions.QException;
+import com.kingsrook.qqq.backend.core.logging.QLogger;
+import com.kingsrook.qqq.backend.core.model.actions.processes.RunBackendStepInput;
+import com.kingsrook.qqq.backend.core.model.actions.processes.RunBackendStepOutput;
+import com.kingsrook.qqq.backend.core.model.actions.tables.query.QueryInput;
+import com.kingsrook.qqq.backend.core.model.data.QRecord;
+import com.kingsrook.qqq.backend.core.model.metadata.MetaDataProducerInterface;
+import com.kingsrook.qqq.backend.core.model.metadata.QInstance;
+import com.kingsrook.qqq.backend.core.model.metadata.code.QCodeReference;
+import com.kingsrook.qqq.backend.core.model.metadata.fields.QFieldMetaData;
+import com.kingsrook.qqq.backend.core.model.metadata.fields.QFieldType;
+import com.kingsrook.qqq.backend.core.model.metadata.layout.QIcon;
+import com.kingsrook.qqq.backend.core.model.metadata.processes.QBackendStepMetaData;
+import com.kingsrook.qqq.backend.core.model.metadata.processes.QFrontendStepMetaData;
+import com.kingsrook.qqq.backend.core.model.metadata.processes.QProcessMetaData;
+import com.makers4.model.Project;
+import com.makers4.model.ProjectSummary;
+import static com.kingsrook.qqq.backend.core.logging.LogUtils.logPair;
+
+
+/*******************************************************************************
+ ** Process to recompute every project summary from scratch, for recovery
+ ** after a failed refresh or changes made outside the application.
+ **
+ ** Every project is refreshed in batches with the same
+ ** ProjectSummaryRefresher the table hooks use, which updates each row in
+ ** place (or inserts it), so a rebuild that fails partway leaves the
+ ** remaining projects with their previous summary rather than none.  Rows of
+ ** deleted projects go with them (ON DELETE CASCADE).
+ *******************************************************************************/
+public class RebuildProjectSummariesProcess implements BackendStep, MetaDataProducerInterface<QProcessMetaData>
+{
+   public static final String PROCESS_NAME = "rebuildProjectSummaries";
+   public static final String STEP_NAME    = "rebuild";
+   public static final String RESULT_STEP  = "result";
+
+   // Projects refreshed per round of queries
+   private static final int BATCH_SIZE = 100;
+
+   private static final QLogger LOG = QLogger.getLogger(RebuildProjectSummariesProcess.class);
+
+
+
+   /*******************************************************************************
+    ** Produce the process metadata.
+    *******************************************************************************/
+   @Override
+   public QProcessMetaData produce(QInstance qInstance) throws QException
+   {
+      return new QProcessMetaData()
+         .withName(PROCESS_NAME)
+         .withLabel("Rebuild Project Summaries")
+         .withIcon(new QIcon().withName("sync"))
+         .withTableName(ProjectSummary.TABLE_NAME)
+         .withIsHidden(false)
+         .withStepList(List.of(
+            new QBackendStepMetaData()
+               .withName(STEP_NAME)
+               .withCode(new QCodeReference(getClass())),
+            new QFrontendStepMetaData()
+               .withName(RESULT_STEP)
+               .withLabel("Rebuild Results")
+               .withFormField(new QFieldMetaData("message", QFieldType.STRING).withLabel("Result"))
+               .withFormField(new QFieldMetaData("projectCount", QFieldType.INTEGER).withLabel("Projects"))
+         ));
+   }
+
+
+
+   /*******************************************************************************
+    ** Execute the rebuild process.
+    *******************************************************************************/
+   @Override
+   public void run(RunBackendStepInput input, RunBackendStepOutput output) throws QException
+   {
+      LOG.info("Starting project summary rebuild");
+
+      QueryInput queryInput = new QueryInput();
+      queryInput.setTableName(Project.TABLE_NAME);
+      List<Long> projectIds = new ArrayList<>();
+      for(QRecord record : new QueryAction().execute(queryInput).getRecords())
+      {
+         projectIds.add(record.getValueLong("id"));
+      }
+
+      ProjectSummaryRefresher refresher = new ProjectSummaryRefresher();
+      for(int i = 0; i < projectIds.size(); i += BATCH_SIZE)
+      {
+         refresher.refresh(projectIds.subList(i, Math.min(i + BATCH_SIZE, projectIds.size())));
+      }
+
+      output.addValue("message", "Rebuilt summaries for " + projectIds.size() + " projects");
+      output.addValue("projectCount", projectIds.size());
+
+      LOG.info("Project summary rebuild completed", logPair("projects", projectIds.size()));
+   }
+}
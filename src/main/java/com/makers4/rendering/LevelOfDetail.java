@@ -0,0 +1,131 @@
+package com.makers4.rendering;
+
+
+/*******************************************************************************
+ ** Level-of-detail policies for rendering, driven by projected size in points.
+ ** Controls when parts are collapsed into their parent's outline, when labels
+ ** are drawn, and when isometric faces are shaded individually.
+ *******************************************************************************/
+public enum LevelOfDetail
+{
+   /*******************************************************************************
+    ** Full detail - every part is drawn, for print blueprints and CAD output.
+    *******************************************************************************/
+   FULL("Full Detail", 0.0, 20.0, 15.0, 0.0),
+
+   /*******************************************************************************
+    ** Standard detail - skips sub-half-point parts (the historical behavior).
+    *******************************************************************************/
+   STANDARD("Standard", 0.5, 20.0, 15.0, 0.0),
+
+   /*******************************************************************************
+    ** Preview detail - aggressive simplification for interactive previews.
+    ** Small parts collapse into their parent, labels need more room, and
+    ** small isometric boxes are drawn as a single flat silhouette.
+    *******************************************************************************/
+   PREVIEW("Preview", 4.0, 40.0, 20.0, 48.0);
+
+
+   private final String displayName;
+   private final double minPartSize;
+   private final double minLabelWidth;
+   private final double minLabelHeight;
+   private final double minShadedSize;
+
+
+
+   /*******************************************************************************
+    ** Constructor
+    *******************************************************************************/
+   LevelOfDetail(String displayName, double minPartSize,
+                 double minLabelWidth, double minLabelHeight, double minShadedSize)
+   {
+      this.displayName = displayName;
+      this.minPartSize = minPartSize;
+      this.minLabelWidth = minLabelWidth;
+      this.minLabelHeight = minLabelHeight;
+      this.minShadedSize = minShadedSize;
+   }
+
+
+
+   /*******************************************************************************
+    ** Check if a part with the given projected size (in points) should be drawn.
+    ** Parts that fail this check are collapsed into their parent's outline.
+    *******************************************************************************/
+   public boolean isPartVisible(double projectedWidth, double projectedHeight)
+   {
+      return projectedWidth >= minPartSize && projectedHeight >= minPartSize;
+   }
+
+
+
+   /*******************************************************************************
+    ** Check if a part with the given projected size (in points) has room for a label.
+    *******************************************************************************/
+   public boolean isLabelVisible(double projectedWidth, double projectedHeight)
+   {
+      return projectedWidth > minLabelWidth && projectedHeight > minLabelHeight;
+   }
+
+
+
+   /*******************************************************************************
+    ** Check if an isometric box of the given projected size (in points) should
+    ** have its faces shaded individually, rather than as one flat silhouette.
+    *******************************************************************************/
+   public boolean isShadingVisible(double projectedWidth, double projectedHeight)
+   {
+      return Math.max(projectedWidth, projectedHeight) >= minShadedSize;
+   }
+
+
+
+   /*******************************************************************************
+    ** Getter for displayName
+    *******************************************************************************/
+   public String getDisplayName()
+   {
+      return displayName;
+   }
+
+
+
+   /*******************************************************************************
+    ** Getter for minPartSize
+    *******************************************************************************/
+   public double getMinPartSize()
+   {
+      return minPartSize;
+   }
+
+
+
+   /*******************************************************************************
+    ** Getter for minLabelWidth
+    *******************************************************************************/
+   public double getMinLabelWidth()
+   {
+      return minLabelWidth;
+   }
+
+
+
+   /*******************************************************************************
+    ** Getter for minLabelHeight
+    *******************************************************************************/
+   public double getMinLabelHeight()
+   {
+      return minLabelHeight;
+   }
+
+
+
+   /*******************************************************************************
+    ** Getter for minShadedSize
+    *******************************************************************************/
+   public double getMinShadedSize()
+   {
+      return minShadedSize;
+   }
+}
@@ -5,6 +5,8 @@ import java.awt.BasicStroke;
 import java.awt.Color;
 import java.awt.Font;
 import java.awt.Stroke;
+import java.io.File;
+import com.makers4.rendering.core.FractionalInchFormatter;
 
 
 /*******************************************************************************
@@ -71,6 +73,24 @@ public class RenderSettings
    private String  sheetNumber          = "1";
    private String  totalSheets          = "1";
 
+   // Level of detail (projected-size driven simplification)
+   private LevelOfDetail levelOfDetail = LevelOfDetail.STANDARD;
+
+   // PDF memory budget: -1 keeps the whole document on the heap; otherwise page
+   // content beyond this many bytes is spooled to scratch files
+   private long pdfMaxMainMemoryBytes = -1;
+   private File pdfScratchDirectory   = null;  // null = java.io.tmpdir
+
+   // Worker threads for multi-page exports (1 = render pages in sequence)
+   private int renderThreads = 1;
+
+   // SVG output: compact mode (CSS classes, merged paths, defaults dropped) and coordinate decimals
+   private boolean compactSvg   = false;
+   private int     svgPrecision = 3;
+
+   // Dimension labels are rounded to 1/fractionDenominator of an inch
+   private int fractionDenominator = 16;
+
 
 
    /*******************************************************************************
@@ -333,6 +353,77 @@ public class RenderSettings
 
 
 
+   public RenderSettings withLevelOfDetail(LevelOfDetail levelOfDetail)
+   {
+      this.levelOfDetail = levelOfDetail;
+      return this;
+   }
+
+
+
+   /*******************************************************************************
+    ** Cap the heap used for PDF page content; anything beyond it goes to scratch
+    ** files.  Zero spools everything; a negative value removes the cap.
+    *******************************************************************************/
+   public RenderSettings withPdfMaxMainMemoryBytes(long pdfMaxMainMemoryBytes)
+   {
+      this.pdfMaxMainMemoryBytes = pdfMaxMainMemoryBytes;
+      return this;
+   }
+
+
+
+   public RenderSettings withPdfScratchDirectory(File pdfScratchDirectory)
+   {
+      this.pdfScratchDirectory = pdfScratchDirectory;
+      return this;
+   }
+
+
+
+   public RenderSettings withRenderThreads(int renderThreads)
+   {
+      this.renderThreads = Math.max(1, renderThreads);
+      return this;
+   }
+
+
+
+   public RenderSettings withCompactSvg(boolean compactSvg)
+   {
+      this.compactSvg = compactSvg;
+      return this;
+   }
+
+
+
+   /*******************************************************************************
+    ** Decimal places for SVG coordinates (0-6).  Coordinates are in points, so
+    ** 1 or 2 is plenty for on-screen previews.
+    *******************************************************************************/
+   public RenderSettings withSvgPrecision(int svgPrecision)
+   {
+      this.svgPrecision = Math.max(0, Math.min(6, svgPrecision));
+      return this;
+   }
+
+
+
+   /*******************************************************************************
+    ** Round dimension labels to 1/8, 1/16, 1/32 (or 1/64) of an inch.
+    **
+    ** @throws IllegalArgumentException if the denominator is not a power of two
+    **                                  up to 64
+    *******************************************************************************/
+   public RenderSettings withFractionDenominator(int fractionDenominator)
+   {
+      FractionalInchFormatter.forDenominator(fractionDenominator);
+      this.fractionDenominator = fractionDenominator;
+      return this;
+   }
+
+
+
    // ═══════════════════════════════════════════════════════════════════════════
    // Getters
    // ═══════════════════════════════════════════════════════════════════════════
@@ -598,6 +689,75 @@ public class RenderSettings
 
 
 
+   public LevelOfDetail getLevelOfDetail()
+   {
+      return levelOfDetail;
+   }
+
+
+
+   public long getPdfMaxMainMemoryBytes()
+   {
+      return pdfMaxMainMemoryBytes;
+   }
+
+
+
+   public File getPdfScratchDirectory()
+   {
+      return pdfScratchDirectory;
+   }
+
+
+
+   public int getRenderThreads()
+   {
+      return renderThreads;
+   }
+
+
+
+   public boolean isCompactSvg()
+   {
+      return compactSvg;
+   }
+
+
+
+   public int getSvgPrecision()
+   {
+      return svgPrecision;
+   }
+
+
+
+   public int getFractionDenominator()
+   {
+      return fractionDenominator;
+   }
+
+
+
+   /*******************************************************************************
+    ** Get the (shared) formatter for dimension labels.
+    *******************************************************************************/
+   public FractionalInchFormatter getFractionFormatter()
+   {
+      return FractionalInchFormatter.forDenominator(fractionDenominator);
+   }
+
+
+
+   /*******************************************************************************
+    ** Whether PDF generation should run within a bounded heap budget.
+    *******************************************************************************/
+   public boolean isPdfMemoryBounded()
+   {
+      return pdfMaxMainMemoryBytes >= 0;
+   }
+
+
+
    // ═══════════════════════════════════════════════════════════════════════════
    // Derived stroke objects
    // ═══════════════════════════════════════════════════════════════════════════
@@ -662,13 +822,14 @@ public class RenderSettings
          .withShowDimensions(true)
          .withShowPartLabels(true)
          .withShowTitleBlock(true)
-         .withShowGrid(true);
+         .withShowGrid(true)
+         .withLevelOfDetail(LevelOfDetail.FULL);
    }
 
 
 
    /*******************************************************************************
-    ** Preset for simple preview (smaller scale, minimal annotations).
+    ** Preset for simple preview (smaller scale, minimal annotations, aggressive LOD).
     *******************************************************************************/
    public static RenderSettings preview()
    {
@@ -678,7 +839,8 @@ public class RenderSettings
          .withShowDimensions(false)
          .withShowPartLabels(false)
          .withShowTitleBlock(false)
-         .withShowGrid(false);
+         .withShowGrid(false)
+         .withLevelOfDetail(LevelOfDetail.PREVIEW);
    }
 
 
@@ -695,7 +857,8 @@ public class RenderSettings
          .withShowDimensions(true)
          .withShowPartLabels(false)
          .withShowTitleBlock(false)
-         .withShowGrid(false);
+         .withShowGrid(false)
+         .withLevelOfDetail(LevelOfDetail.FULL);
    }
 
 
@@ -719,6 +882,7 @@ public class RenderSettings
          .withTraditionalTitleBlock(true)
          .withShowDimensions(true)
          .withShowPartLabels(true)
-         .withShowTitleBlock(false);  // Use traditional instead
+         .withShowTitleBlock(false)  // Use traditional instead
+         .withLevelOfDetail(LevelOfDetail.FULL);
    }
 }
@@ -7,6 +7,7 @@ import java.awt.Dimension;
 import java.awt.Font;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
+import java.awt.geom.Path2D;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
 import java.util.ArrayList;
@@ -26,6 +27,11 @@ import com.makers4.rendering.scene.SceneNode;
  *******************************************************************************/
 public class SceneRenderer
 {
+   // Corners outlining a projected isometric box (its hull - the same area as the
+   // three shaded faces), indexed as calculateIsometricCorners orders them.
+   // Shared by every format that draws silhouettes; do not modify.
+   public static final int[] ISOMETRIC_SILHOUETTE = { 0, 1, 5, 6, 7, 3 };
+
    private RenderSettings settings;
 
 
@@ -44,15 +50,46 @@ public class SceneRenderer
     ** Render a scene to a Graphics2D context.
     *******************************************************************************/
    public void render(SceneNode rootNode, OrthographicCamera camera, Graphics2D g2d)
+   {
+      // Collect all nodes with geometry that survive the level-of-detail policy
+      List<SceneNode> nodesToRender = collectVisibleNodes(rootNode, camera);
+
+      drawNodes(nodesToRender, camera, g2d);
+   }
+
+
+
+   /*******************************************************************************
+    ** Render a pre-selected set of nodes (e.g. from a SpatialIndex window query)
+    ** to a Graphics2D context.  Nodes that the level of detail collapses - either
+    ** themselves or through an ancestor - are skipped.
+    *******************************************************************************/
+   public void renderNodes(List<SceneNode> nodes, OrthographicCamera camera, Graphics2D g2d)
+   {
+      LevelOfDetail   lod           = settings.getLevelOfDetail();
+      List<SceneNode> nodesToRender = new ArrayList<>();
+      for(SceneNode node : nodes)
+      {
+         if(!isCollapsed(node, camera, lod))
+         {
+            nodesToRender.add(node);
+         }
+      }
+
+      drawNodes(nodesToRender, camera, g2d);
+   }
+
+
+
+   /*******************************************************************************
+    ** Sort and draw a list of nodes.
+    *******************************************************************************/
+   private void drawNodes(List<SceneNode> nodesToRender, OrthographicCamera camera, Graphics2D g2d)
    {
       // Set up rendering hints for quality
       g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
       g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
 
-      // Collect all nodes with geometry
-      List<SceneNode> nodesToRender = new ArrayList<>();
-      collectNodes(rootNode, nodesToRender);
-
       // Sort nodes by depth for proper overlapping (back to front)
       sortByDepth(nodesToRender, camera.getDirection());
 
@@ -85,26 +122,67 @@ public class SceneRenderer
 
 
    /*******************************************************************************
-    ** Collect all nodes with geometry from the scene graph.
+    ** Collect the nodes with geometry that should be drawn for this camera,
+    ** according to the settings' level of detail.  A node whose projected size
+    ** is below the LOD threshold is skipped along with its entire subtree, so
+    ** it collapses into its parent's outline.
     *******************************************************************************/
-   private void collectNodes(SceneNode node, List<SceneNode> result)
+   public List<SceneNode> collectVisibleNodes(SceneNode rootNode, OrthographicCamera camera)
+   {
+      List<SceneNode> result = new ArrayList<>();
+      collectNodes(rootNode, camera, settings.getLevelOfDetail(), result);
+      return result;
+   }
+
+
+
+   /*******************************************************************************
+    ** Collect all visible nodes with geometry from the scene graph.
+    *******************************************************************************/
+   private void collectNodes(SceneNode node, OrthographicCamera camera, LevelOfDetail lod, List<SceneNode> result)
    {
       if(node.hasGeometry())
       {
+         double[] projectedSize = camera.calculateProjectedSize(node.getLocalBounds());
+         if(!lod.isPartVisible(projectedSize[0], projectedSize[1]))
+         {
+            return;
+         }
          result.add(node);
       }
       for(SceneNode child : node.getChildren())
       {
-         collectNodes(child, result);
+         collectNodes(child, camera, lod, result);
       }
    }
 
 
 
+   /*******************************************************************************
+    ** Check if a node, or any ancestor with geometry, is below the level of detail.
+    *******************************************************************************/
+   private boolean isCollapsed(SceneNode node, OrthographicCamera camera, LevelOfDetail lod)
+   {
+      for(SceneNode current = node; current != null; current = current.getParent())
+      {
+         if(current.hasGeometry())
+         {
+            double[] projectedSize = camera.calculateProjectedSize(current.getLocalBounds());
+            if(!lod.isPartVisible(projectedSize[0], projectedSize[1]))
+            {
+               return true;
+            }
+         }
+      }
+      return false;
+   }
+
+
+
    /*******************************************************************************
     ** Sort nodes by depth for proper z-ordering based on view direction.
     *******************************************************************************/
-   private void sortByDepth(List<SceneNode> nodes, ViewDirection direction)
+   public static void sortByDepth(List<SceneNode> nodes, ViewDirection direction)
    {
       // Determine which axis represents depth for this view
       Comparator<SceneNode> comparator = (a, b) ->
@@ -187,12 +265,6 @@ public class SceneRenderer
       double   width     = projected[2];
       double   height    = projected[3];
 
-      // Skip if too small to render
-      if(width < 0.5 || height < 0.5)
-      {
-         return;
-      }
-
       RenderStyle style = node.getStyle();
 
       // Fill
@@ -218,7 +290,8 @@ public class SceneRenderer
       g2d.draw(new Rectangle2D.Double(x, y, width, height));
 
       // Label
-      if(style.isShowLabel() && settings.isShowPartLabels() && width > 20 && height > 15)
+      if(style.isShowLabel() && settings.isShowPartLabels()
+         && settings.getLevelOfDetail().isLabelVisible(width, height))
       {
          String label = node.getLabel();
          if(label != null && !label.isEmpty())
@@ -244,15 +317,8 @@ public class SceneRenderer
     *******************************************************************************/
    private void renderIsometricNode(SceneNode node, Box3D bounds, OrthographicCamera camera, Graphics2D g2d)
    {
-      Vector3D pos  = bounds.position();
-      Vector3D size = bounds.size();
-
-      double scale = camera.getScale();
-      double cos30 = Math.cos(Math.toRadians(30));
-      double sin30 = Math.sin(Math.toRadians(30));
-
       // Calculate the 8 corners of the box in isometric coordinates
-      double[][] corners = calculateIsometricCorners(pos, size, scale, cos30, sin30, camera);
+      double[][] corners = calculateIsometricCorners(bounds.position(), bounds.size(), camera);
 
       RenderStyle style = node.getStyle();
 
@@ -263,6 +329,20 @@ public class SceneRenderer
          fillColor = settings.getFillColor();
       }
 
+      Color strokeColor = style.getStrokeColor();
+      if(strokeColor == null)
+      {
+         strokeColor = settings.getOutlineColor();
+      }
+
+      // Small boxes are drawn as one flat silhouette instead of three shaded faces
+      double[] projectedSize = camera.calculateProjectedSize(bounds);
+      if(!settings.getLevelOfDetail().isShadingVisible(projectedSize[0], projectedSize[1]))
+      {
+         renderIsometricSilhouette(corners, fillColor, strokeColor, style, g2d);
+         return;
+      }
+
       if(fillColor != null)
       {
          // Top face (lightest)
@@ -277,19 +357,15 @@ public class SceneRenderer
          int[] frontY = { (int) corners[0][1], (int) corners[1][1], (int) corners[5][1], (int) corners[4][1] };
          g2d.fillPolygon(frontX, frontY, 4);
 
-         // Right face (darker)
+         // Side face (darker) - the low-x face, which with the front and top
+         // faces covers the box's silhouette
          g2d.setColor(adjustBrightness(fillColor, 0.9f));
-         int[] rightX = { (int) corners[1][0], (int) corners[2][0], (int) corners[6][0], (int) corners[5][0] };
-         int[] rightY = { (int) corners[1][1], (int) corners[2][1], (int) corners[6][1], (int) corners[5][1] };
-         g2d.fillPolygon(rightX, rightY, 4);
+         int[] sideX = { (int) corners[0][0], (int) corners[3][0], (int) corners[7][0], (int) corners[4][0] };
+         int[] sideY = { (int) corners[0][1], (int) corners[3][1], (int) corners[7][1], (int) corners[4][1] };
+         g2d.fillPolygon(sideX, sideY, 4);
       }
 
       // Draw outlines
-      Color strokeColor = style.getStrokeColor();
-      if(strokeColor == null)
-      {
-         strokeColor = settings.getOutlineColor();
-      }
       g2d.setColor(strokeColor);
       g2d.setStroke(new BasicStroke(style.getStrokeWidth()));
 
@@ -305,50 +381,71 @@ public class SceneRenderer
       drawLine(g2d, corners[6], corners[7]);
       drawLine(g2d, corners[7], corners[4]);
 
-      // Right face vertical edges
-      drawLine(g2d, corners[1], corners[2]);
-      drawLine(g2d, corners[2], corners[6]);
+      // Side face edges
+      drawLine(g2d, corners[0], corners[3]);
+      drawLine(g2d, corners[3], corners[7]);
    }
 
 
 
    /*******************************************************************************
-    ** Calculate isometric corner positions.
+    ** Render an isometric box as its flat outer hexagon - one fill, one outline.
     *******************************************************************************/
-   private double[][] calculateIsometricCorners(Vector3D pos, Vector3D size,
-                                                 double scale, double cos30, double sin30,
-                                                 OrthographicCamera camera)
+   private void renderIsometricSilhouette(double[][] corners, Color fillColor, Color strokeColor,
+                                          RenderStyle style, Graphics2D g2d)
    {
-      double px = pos.x();
-      double py = pos.y();
-      double pz = pos.z();
-      double w  = size.x();
-      double h  = size.y();
-      double d  = size.z();
-
-      double offsetX = camera.getOffsetX();
-      double offsetY = camera.getOffsetY();
-
-      // Base isometric coordinates for front-bottom-left corner
-      double isoX0 = offsetX + (px * cos30 - pz * cos30) * scale;
-      double isoY0 = offsetY + (py + px * sin30 + pz * sin30) * scale;
-
-      double[][] corners = new double[8][2];
-
-      // Bottom face corners
-      corners[0] = new double[] { isoX0, isoY0 };  // front-left
-      corners[1] = new double[] { isoX0 + w * cos30 * scale, isoY0 + w * sin30 * scale };  // front-right
-      corners[2] = new double[] { isoX0 + w * cos30 * scale - d * cos30 * scale,
-         isoY0 + w * sin30 * scale + d * sin30 * scale };  // back-right
-      corners[3] = new double[] { isoX0 - d * cos30 * scale, isoY0 + d * sin30 * scale };  // back-left
-
-      // Top face corners (same as bottom + height)
-      double hScale = h * scale;
-      corners[4] = new double[] { corners[0][0], corners[0][1] + hScale };  // front-left-top
-      corners[5] = new double[] { corners[1][0], corners[1][1] + hScale };  // front-right-top
-      corners[6] = new double[] { corners[2][0], corners[2][1] + hScale };  // back-right-top
-      corners[7] = new double[] { corners[3][0], corners[3][1] + hScale };  // back-left-top
+      Path2D.Double outline = new Path2D.Double();
+      outline.moveTo(corners[ISOMETRIC_SILHOUETTE[0]][0], corners[ISOMETRIC_SILHOUETTE[0]][1]);
+      for(int i = 1; i < ISOMETRIC_SILHOUETTE.length; i++)
+      {
+         outline.lineTo(corners[ISOMETRIC_SILHOUETTE[i]][0], corners[ISOMETRIC_SILHOUETTE[i]][1]);
+      }
+      outline.closePath();
 
+      if(fillColor != null)
+      {
+         g2d.setColor(fillColor);
+         g2d.fill(outline);
+      }
+
+      g2d.setColor(strokeColor);
+      g2d.setStroke(new BasicStroke(style.getStrokeWidth()));
+      g2d.draw(outline);
+   }
+
+
+
+   /*******************************************************************************
+    ** Calculate isometric corner positions, projected in one batch through the
+    ** camera's matrix (so dimetric/trimetric camera angles are honored).
+    *******************************************************************************/
+   private double[][] calculateIsometricCorners(Vector3D pos, Vector3D size, OrthographicCamera camera)
+   {
+      double x0 = pos.x();
+      double y0 = pos.y();
+      double z0 = pos.z();
+      double x1 = x0 + size.x();
+      double y1 = y0 + size.y();
+      double z1 = z0 + size.z();
+
+      double[] world = {
+         x0, y0, z0,  // front-left
+         x1, y0, z0,  // front-right
+         x1, y0, z1,  // back-right
+         x0, y0, z1,  // back-left
+         x0, y1, z0,  // front-left-top
+         x1, y1, z0,  // front-right-top
+         x1, y1, z1,  // back-right-top
+         x0, y1, z1   // back-left-top
+      };
+      double[] screen = new double[16];
+      camera.projectPoints(world, screen);
+
+      double[][] corners = new double[8][];
+      for(int i = 0; i < 8; i++)
+      {
+         corners[i] = new double[] { screen[i * 2], screen[i * 2 + 1] };
+      }
       return corners;
    }
 
@@ -367,7 +464,7 @@ public class SceneRenderer
    /*******************************************************************************
     ** Adjust the brightness of a color.
     *******************************************************************************/
-   private Color adjustBrightness(Color color, float factor)
+   public static Color adjustBrightness(Color color, float factor)
    {
       int r = Math.min(255, Math.max(0, (int) (color.getRed() * factor)));
       int g = Math.min(255, Math.max(0, (int) (color.getGreen() * factor)));
@@ -380,7 +477,7 @@ public class SceneRenderer
    /*******************************************************************************
     ** Truncate a label if too long.
     *******************************************************************************/
-   private String truncateLabel(String label, int maxLen)
+   public static String truncateLabel(String label, int maxLen)
    {
       if(label.length() <= maxLen)
       {
@@ -1,9 +1,13 @@
 package com.makers4.rendering.builders;
 
 
+import java.util.Map;
+import java.util.function.Function;
 import com.kingsrook.qqq.backend.core.model.data.QRecord;
+import com.makers4.cache.MaterialSpec;
 import com.makers4.model.Cabinet;
-import com.makers4.rendering.core.Dimension;
+import com.makers4.model.Project;
+import com.makers4.rendering.core.Length;
 import com.makers4.rendering.core.Vector3D;
 import com.makers4.rendering.scene.RenderStyle;
 import com.makers4.rendering.scene.SceneNode;
@@ -12,14 +16,92 @@ import com.makers4.rendering.scene.SceneNode;
 /*******************************************************************************
  ** Parametric scene builder that constructs a 3D scene graph from a Cabinet entity.
  ** Uses cabinet dimensions, type, and construction rules to generate positioned parts.
+ **
+ ** Box and back panels take the thickness of the cabinet's materials (or the
+ ** project defaults) from withMaterials(), typically a MaterialCache that was
+ ** bulk-loaded first, so each lookup is a map read.  withContext() takes
+ ** those, the project defaults and the cabinet type codes from a
+ ** RenderingContext instead.  A builder holds the thicknesses of the scene
+ ** it is building: use one per thread.
  *******************************************************************************/
 public class CabinetSceneBuilder
 {
-   // Default material thicknesses (in inches) - TODO: lookup from Material table
-   private static final double BOX_THICKNESS  = 0.75;   // 3/4" plywood
-   private static final double BACK_THICKNESS = 0.25;   // 1/4" plywood
-   private static final double DEFAULT_TOE_KICK_HEIGHT = 4.5;
-   private static final double DEFAULT_TOE_KICK_DEPTH  = 3.0;
+   // Material thicknesses when a cabinet's material is unset or unknown
+   private static final Length DEFAULT_BOX_THICKNESS  = Length.inches(3, 4);   // 3/4" plywood
+   private static final Length DEFAULT_BACK_THICKNESS = Length.inches(1, 4);   // 1/4" plywood
+   private static final Length DEFAULT_TOE_KICK_HEIGHT = Length.inches(9, 2);
+   private static final Length DEFAULT_TOE_KICK_DEPTH  = Length.inches(3, 1);
+
+   // Defaults for records with missing dimensions (24" x 34-1/2" x 24" base)
+   private static final Length DEFAULT_WIDTH  = Length.inches(24, 1);
+   private static final Length DEFAULT_HEIGHT = Length.inches(69, 2);
+   private static final Length DEFAULT_DEPTH  = Length.inches(24, 1);
+
+   // Cabinet type codes that are not built as base cabinets
+   private static final String WALL_TYPE_CODE        = "WALL";
+   private static final String CORNER_WALL_TYPE_CODE = "CORNER_WALL";
+   private static final String TALL_TYPE_CODE        = "TALL";
+
+   // Cabinet type codes by seed data id, for builders given no context
+   private static final Map<Long, String> SEED_TYPE_CODES = Map.of(
+      1L, "BASE",
+      2L, WALL_TYPE_CODE,
+      3L, TALL_TYPE_CODE,
+      4L, "VANITY",
+      5L, "CORNER_BASE",
+      6L, CORNER_WALL_TYPE_CODE);
+
+   private Function<Long, MaterialSpec> materials        = materialId -> null;
+   private Function<Long, String>       cabinetTypeCodes = SEED_TYPE_CODES::get;
+   private Long                         defaultBoxMaterialId;
+   private Long                         defaultBackMaterialId;
+
+   // Thicknesses (in inches) of the scene being built
+   private double boxThickness;
+   private double backThickness;
+
+
+
+   /*******************************************************************************
+    ** Look up box and back material thicknesses with the given function.
+    *******************************************************************************/
+   public CabinetSceneBuilder withMaterials(Function<Long, MaterialSpec> materials)
+   {
+      this.materials = materials;
+      return this;
+   }
+
+
+
+   /*******************************************************************************
+    ** Materials for cabinets that do not set their own: the project's
+    ** default box and back materials.
+    *******************************************************************************/
+   public CabinetSceneBuilder withDefaultMaterials(Long boxMaterialId, Long backMaterialId)
+   {
+      this.defaultBoxMaterialId = boxMaterialId;
+      this.defaultBackMaterialId = backMaterialId;
+      return this;
+   }
+
+
+
+   /*******************************************************************************
+    ** Take materials, project default materials and cabinet type codes from a
+    ** loaded rendering context, so building runs no queries.
+    *******************************************************************************/
+   public CabinetSceneBuilder withContext(RenderingContext context)
+   {
+      this.materials = context::getMaterial;
+      this.cabinetTypeCodes = context::getCabinetTypeCode;
+
+      Project project = context.project();
+      if(project != null)
+      {
+         withDefaultMaterials(project.getDefaultBoxMaterialId(), project.getDefaultBackMaterialId());
+      }
+      return this;
+   }
 
 
 
@@ -32,31 +114,22 @@ public class CabinetSceneBuilder
          .withLabel(cabinet.getName());
 
       // Convert cabinet dimensions from mm to inches
-      double width  = Dimension.mm(cabinet.getWidthMm()).toInchesDouble();
-      double height = Dimension.mm(cabinet.getHeightMm()).toInchesDouble();
-      double depth  = Dimension.mm(cabinet.getDepthMm()).toInchesDouble();
+      double width  = Length.mm(cabinet.getWidthMm()).toInches();
+      double height = Length.mm(cabinet.getHeightMm()).toInches();
+      double depth  = Length.mm(cabinet.getDepthMm()).toInches();
 
       // Set root node size for bounding box calculations
       root.withSize(width, height, depth);
 
-      // Determine cabinet type and build accordingly
-      Long cabinetTypeId = cabinet.getCabinetTypeId();
+      boxThickness = thickness(cabinet.getBoxMaterialId(), defaultBoxMaterialId, DEFAULT_BOX_THICKNESS);
+      backThickness = thickness(cabinet.getBackMaterialId(), defaultBackMaterialId, DEFAULT_BACK_THICKNESS);
 
-      // CabinetType IDs: 1=Base, 2=Wall, 3=Tall (from seed data)
-      if(cabinetTypeId != null)
+      // Determine cabinet type and build accordingly (anything else builds as a base cabinet)
+      switch(typeCode(cabinet.getCabinetTypeId()))
       {
-         switch(cabinetTypeId.intValue())
-         {
-            case 1 -> buildBaseCabinet(cabinet, root, width, height, depth);
-            case 2 -> buildWallCabinet(cabinet, root, width, height, depth);
-            case 3 -> buildTallCabinet(cabinet, root, width, height, depth);
-            default -> buildBaseCabinet(cabinet, root, width, height, depth);
-         }
-      }
-      else
-      {
-         // Default to base cabinet
-         buildBaseCabinet(cabinet, root, width, height, depth);
+         case WALL_TYPE_CODE, CORNER_WALL_TYPE_CODE -> buildWallCabinet(cabinet, root, width, height, depth);
+         case TALL_TYPE_CODE -> buildTallCabinet(cabinet, root, width, height, depth);
+         default -> buildBaseCabinet(cabinet, root, width, height, depth);
       }
 
       return root;
@@ -78,9 +151,9 @@ public class CabinetSceneBuilder
       Integer heightMm = record.getValueInteger("heightMm");
       Integer depthMm = record.getValueInteger("depthMm");
 
-      double width  = widthMm != null ? Dimension.mm(widthMm).toInchesDouble() : 24.0;
-      double height = heightMm != null ? Dimension.mm(heightMm).toInchesDouble() : 34.5;
-      double depth  = depthMm != null ? Dimension.mm(depthMm).toInchesDouble() : 24.0;
+      double width  = (widthMm != null ? Length.mm(widthMm) : DEFAULT_WIDTH).toInches();
+      double height = (heightMm != null ? Length.mm(heightMm) : DEFAULT_HEIGHT).toInches();
+      double depth  = (depthMm != null ? Length.mm(depthMm) : DEFAULT_DEPTH).toInches();
 
       // Set root node size for bounding box calculations
       root.withSize(width, height, depth);
@@ -88,31 +161,18 @@ public class CabinetSceneBuilder
       // Get toe kick dimensions
       Integer toeKickHeightMm = record.getValueInteger("toeKickHeightMm");
       Integer toeKickDepthMm = record.getValueInteger("toeKickDepthMm");
-      double toeKickHeight = toeKickHeightMm != null && toeKickHeightMm > 0
-         ? Dimension.mm(toeKickHeightMm).toInchesDouble()
-         : DEFAULT_TOE_KICK_HEIGHT;
-      double toeKickDepth = toeKickDepthMm != null && toeKickDepthMm > 0
-         ? Dimension.mm(toeKickDepthMm).toInchesDouble()
-         : DEFAULT_TOE_KICK_DEPTH;
-
-      // Determine cabinet type and build accordingly
-      Long cabinetTypeId = record.getValueLong("cabinetTypeId");
-
-      // CabinetType IDs: 1=Base, 2=Wall, 3=Tall (from seed data)
-      if(cabinetTypeId != null)
-      {
-         switch(cabinetTypeId.intValue())
-         {
-            case 1 -> buildBaseCabinetFromRecord(root, width, height, depth, toeKickHeight, toeKickDepth);
-            case 2 -> buildWallCabinetFromRecord(root, width, height, depth);
-            case 3 -> buildTallCabinetFromRecord(root, width, height, depth, toeKickHeight, toeKickDepth);
-            default -> buildBaseCabinetFromRecord(root, width, height, depth, toeKickHeight, toeKickDepth);
-         }
-      }
-      else
+      double toeKickHeight = toeKickLength(toeKickHeightMm, DEFAULT_TOE_KICK_HEIGHT);
+      double toeKickDepth  = toeKickLength(toeKickDepthMm, DEFAULT_TOE_KICK_DEPTH);
+
+      boxThickness = thickness(record.getValueLong("boxMaterialId"), defaultBoxMaterialId, DEFAULT_BOX_THICKNESS);
+      backThickness = thickness(record.getValueLong("backMaterialId"), defaultBackMaterialId, DEFAULT_BACK_THICKNESS);
+
+      // Determine cabinet type and build accordingly (anything else builds as a base cabinet)
+      switch(typeCode(record.getValueLong("cabinetTypeId")))
       {
-         // Default to base cabinet
-         buildBaseCabinetFromRecord(root, width, height, depth, toeKickHeight, toeKickDepth);
+         case WALL_TYPE_CODE, CORNER_WALL_TYPE_CODE -> buildWallCabinetFromRecord(root, width, height, depth);
+         case TALL_TYPE_CODE -> buildTallCabinetFromRecord(root, width, height, depth, toeKickHeight, toeKickDepth);
+         default -> buildBaseCabinetFromRecord(root, width, height, depth, toeKickHeight, toeKickDepth);
       }
 
       return root;
@@ -127,45 +187,45 @@ public class CabinetSceneBuilder
                                            double toeKickHeight, double toeKickDepth)
    {
       double boxHeight = height - toeKickHeight;
-      double interiorWidth = width - 2 * BOX_THICKNESS;
-      double interiorDepth = depth - BACK_THICKNESS;
+      double interiorWidth = width - 2 * boxThickness;
+      double interiorDepth = depth - backThickness;
 
       RenderStyle panelStyle = RenderStyle.woodPanel();
 
       root.addChild(new SceneNode("Left Side")
          .withPosition(0, toeKickHeight, 0)
-         .withSize(BOX_THICKNESS, boxHeight, interiorDepth)
+         .withSize(boxThickness, boxHeight, interiorDepth)
          .withStyle(panelStyle));
 
       root.addChild(new SceneNode("Right Side")
-         .withPosition(width - BOX_THICKNESS, toeKickHeight, 0)
-         .withSize(BOX_THICKNESS, boxHeight, interiorDepth)
+         .withPosition(width - boxThickness, toeKickHeight, 0)
+         .withSize(boxThickness, boxHeight, interiorDepth)
          .withStyle(panelStyle));
 
       root.addChild(new SceneNode("Bottom")
-         .withPosition(BOX_THICKNESS, toeKickHeight, 0)
-         .withSize(interiorWidth, BOX_THICKNESS, interiorDepth)
+         .withPosition(boxThickness, toeKickHeight, 0)
+         .withSize(interiorWidth, boxThickness, interiorDepth)
          .withStyle(panelStyle));
 
       root.addChild(new SceneNode("Back")
-         .withPosition(BOX_THICKNESS, toeKickHeight + BOX_THICKNESS, depth - BACK_THICKNESS)
-         .withSize(interiorWidth, boxHeight - BOX_THICKNESS, BACK_THICKNESS)
+         .withPosition(boxThickness, toeKickHeight + boxThickness, depth - backThickness)
+         .withSize(interiorWidth, boxHeight - boxThickness, backThickness)
          .withStyle(panelStyle));
 
       root.addChild(new SceneNode("Toe Kick")
-         .withPosition(BOX_THICKNESS, 0, toeKickDepth)
-         .withSize(interiorWidth, toeKickHeight, BOX_THICKNESS)
+         .withPosition(boxThickness, 0, toeKickDepth)
+         .withSize(interiorWidth, toeKickHeight, boxThickness)
          .withStyle(panelStyle));
 
       root.addChild(new SceneNode("Top Nailer")
-         .withPosition(BOX_THICKNESS, height - 3.0, depth - 3.75)
-         .withSize(interiorWidth, 3.0, BOX_THICKNESS)
+         .withPosition(boxThickness, height - 3.0, depth - 3.75)
+         .withSize(interiorWidth, 3.0, boxThickness)
          .withStyle(panelStyle));
 
       double shelfY = toeKickHeight + boxHeight / 2;
       root.addChild(new SceneNode("Shelf")
-         .withPosition(BOX_THICKNESS + 0.125, shelfY, 0.5)
-         .withSize(interiorWidth - 0.25, BOX_THICKNESS, interiorDepth - 1.0)
+         .withPosition(boxThickness + 0.125, shelfY, 0.5)
+         .withSize(interiorWidth - 0.25, boxThickness, interiorDepth - 1.0)
          .withStyle(panelStyle));
    }
 
@@ -176,47 +236,47 @@ public class CabinetSceneBuilder
     *******************************************************************************/
    private void buildWallCabinetFromRecord(SceneNode root, double width, double height, double depth)
    {
-      double interiorWidth = width - 2 * BOX_THICKNESS;
-      double interiorDepth = depth - BACK_THICKNESS;
+      double interiorWidth = width - 2 * boxThickness;
+      double interiorDepth = depth - backThickness;
 
       RenderStyle panelStyle = RenderStyle.woodPanel();
 
       root.addChild(new SceneNode("Left Side")
          .withPosition(0, 0, 0)
-         .withSize(BOX_THICKNESS, height, interiorDepth)
+         .withSize(boxThickness, height, interiorDepth)
          .withStyle(panelStyle));
 
       root.addChild(new SceneNode("Right Side")
-         .withPosition(width - BOX_THICKNESS, 0, 0)
-         .withSize(BOX_THICKNESS, height, interiorDepth)
+         .withPosition(width - boxThickness, 0, 0)
+         .withSize(boxThickness, height, interiorDepth)
          .withStyle(panelStyle));
 
       root.addChild(new SceneNode("Top")
-         .withPosition(BOX_THICKNESS, height - BOX_THICKNESS, 0)
-         .withSize(interiorWidth, BOX_THICKNESS, interiorDepth)
+         .withPosition(boxThickness, height - boxThickness, 0)
+         .withSize(interiorWidth, boxThickness, interiorDepth)
          .withStyle(panelStyle));
 
       root.addChild(new SceneNode("Bottom")
-         .withPosition(BOX_THICKNESS, 0, 0)
-         .withSize(interiorWidth, BOX_THICKNESS, interiorDepth)
+         .withPosition(boxThickness, 0, 0)
+         .withSize(interiorWidth, boxThickness, interiorDepth)
          .withStyle(panelStyle));
 
       root.addChild(new SceneNode("Back")
-         .withPosition(BOX_THICKNESS, BOX_THICKNESS, depth - BACK_THICKNESS)
-         .withSize(interiorWidth, height - 2 * BOX_THICKNESS, BACK_THICKNESS)
+         .withPosition(boxThickness, boxThickness, depth - backThickness)
+         .withSize(interiorWidth, height - 2 * boxThickness, backThickness)
          .withStyle(panelStyle));
 
       double shelfY1 = height / 3;
       double shelfY2 = 2 * height / 3;
 
       root.addChild(new SceneNode("Lower Shelf")
-         .withPosition(BOX_THICKNESS + 0.125, shelfY1, 0.5)
-         .withSize(interiorWidth - 0.25, BOX_THICKNESS, interiorDepth - 1.0)
+         .withPosition(boxThickness + 0.125, shelfY1, 0.5)
+         .withSize(interiorWidth - 0.25, boxThickness, interiorDepth - 1.0)
          .withStyle(panelStyle));
 
       root.addChild(new SceneNode("Upper Shelf")
-         .withPosition(BOX_THICKNESS + 0.125, shelfY2, 0.5)
-         .withSize(interiorWidth - 0.25, BOX_THICKNESS, interiorDepth - 1.0)
+         .withPosition(boxThickness + 0.125, shelfY2, 0.5)
+         .withSize(interiorWidth - 0.25, boxThickness, interiorDepth - 1.0)
          .withStyle(panelStyle));
    }
 
@@ -229,39 +289,39 @@ public class CabinetSceneBuilder
                                            double toeKickHeight, double toeKickDepth)
    {
       double boxHeight = height - toeKickHeight;
-      double interiorWidth = width - 2 * BOX_THICKNESS;
-      double interiorDepth = depth - BACK_THICKNESS;
+      double interiorWidth = width - 2 * boxThickness;
+      double interiorDepth = depth - backThickness;
 
       RenderStyle panelStyle = RenderStyle.woodPanel();
 
       root.addChild(new SceneNode("Left Side")
          .withPosition(0, toeKickHeight, 0)
-         .withSize(BOX_THICKNESS, boxHeight, interiorDepth)
+         .withSize(boxThickness, boxHeight, interiorDepth)
          .withStyle(panelStyle));
 
       root.addChild(new SceneNode("Right Side")
-         .withPosition(width - BOX_THICKNESS, toeKickHeight, 0)
-         .withSize(BOX_THICKNESS, boxHeight, interiorDepth)
+         .withPosition(width - boxThickness, toeKickHeight, 0)
+         .withSize(boxThickness, boxHeight, interiorDepth)
          .withStyle(panelStyle));
 
       root.addChild(new SceneNode("Top")
-         .withPosition(BOX_THICKNESS, height - BOX_THICKNESS, 0)
-         .withSize(interiorWidth, BOX_THICKNESS, interiorDepth)
+         .withPosition(boxThickness, height - boxThickness, 0)
+         .withSize(interiorWidth, boxThickness, interiorDepth)
          .withStyle(panelStyle));
 
       root.addChild(new SceneNode("Bottom")
-         .withPosition(BOX_THICKNESS, toeKickHeight, 0)
-         .withSize(interiorWidth, BOX_THICKNESS, interiorDepth)
+         .withPosition(boxThickness, toeKickHeight, 0)
+         .withSize(interiorWidth, boxThickness, interiorDepth)
          .withStyle(panelStyle));
 
       root.addChild(new SceneNode("Back")
-         .withPosition(BOX_THICKNESS, toeKickHeight + BOX_THICKNESS, depth - BACK_THICKNESS)
-         .withSize(interiorWidth, boxHeight - BOX_THICKNESS, BACK_THICKNESS)
+         .withPosition(boxThickness, toeKickHeight + boxThickness, depth - backThickness)
+         .withSize(interiorWidth, boxHeight - boxThickness, backThickness)
          .withStyle(panelStyle));
 
       root.addChild(new SceneNode("Toe Kick")
-         .withPosition(BOX_THICKNESS, 0, toeKickDepth)
-         .withSize(interiorWidth, toeKickHeight, BOX_THICKNESS)
+         .withPosition(boxThickness, 0, toeKickDepth)
+         .withSize(interiorWidth, toeKickHeight, boxThickness)
          .withStyle(panelStyle));
 
       double shelfSpacing = boxHeight / 5;
@@ -269,8 +329,8 @@ public class CabinetSceneBuilder
       {
          double shelfY = toeKickHeight + shelfSpacing * i;
          root.addChild(new SceneNode("Shelf " + i)
-            .withPosition(BOX_THICKNESS + 0.125, shelfY, 0.5)
-            .withSize(interiorWidth - 0.25, BOX_THICKNESS, interiorDepth - 1.0)
+            .withPosition(boxThickness + 0.125, shelfY, 0.5)
+            .withSize(interiorWidth - 0.25, boxThickness, interiorDepth - 1.0)
             .withStyle(panelStyle));
       }
    }
@@ -291,52 +351,52 @@ public class CabinetSceneBuilder
       double boxHeight = height - toeKickHeight;
 
       // Interior dimensions (accounting for material thickness)
-      double interiorWidth = width - 2 * BOX_THICKNESS;
-      double interiorDepth = depth - BACK_THICKNESS;
+      double interiorWidth = width - 2 * boxThickness;
+      double interiorDepth = depth - backThickness;
 
       RenderStyle panelStyle = RenderStyle.woodPanel();
 
       // Left side panel
       root.addChild(new SceneNode("Left Side")
          .withPosition(0, toeKickHeight, 0)
-         .withSize(BOX_THICKNESS, boxHeight, interiorDepth)
+         .withSize(boxThickness, boxHeight, interiorDepth)
          .withStyle(panelStyle));
 
       // Right side panel
       root.addChild(new SceneNode("Right Side")
-         .withPosition(width - BOX_THICKNESS, toeKickHeight, 0)
-         .withSize(BOX_THICKNESS, boxHeight, interiorDepth)
+         .withPosition(width - boxThickness, toeKickHeight, 0)
+         .withSize(boxThickness, boxHeight, interiorDepth)
          .withStyle(panelStyle));
 
       // Bottom panel
       root.addChild(new SceneNode("Bottom")
-         .withPosition(BOX_THICKNESS, toeKickHeight, 0)
-         .withSize(interiorWidth, BOX_THICKNESS, interiorDepth)
+         .withPosition(boxThickness, toeKickHeight, 0)
+         .withSize(interiorWidth, boxThickness, interiorDepth)
          .withStyle(panelStyle));
 
       // Back panel (1/4" plywood, inset into rabbet)
       root.addChild(new SceneNode("Back")
-         .withPosition(BOX_THICKNESS, toeKickHeight + BOX_THICKNESS, depth - BACK_THICKNESS)
-         .withSize(interiorWidth, boxHeight - BOX_THICKNESS, BACK_THICKNESS)
+         .withPosition(boxThickness, toeKickHeight + boxThickness, depth - backThickness)
+         .withSize(interiorWidth, boxHeight - boxThickness, backThickness)
          .withStyle(panelStyle));
 
       // Toe kick board
       root.addChild(new SceneNode("Toe Kick")
-         .withPosition(BOX_THICKNESS, 0, toeKickDepth)
-         .withSize(interiorWidth, toeKickHeight, BOX_THICKNESS)
+         .withPosition(boxThickness, 0, toeKickDepth)
+         .withSize(interiorWidth, toeKickHeight, boxThickness)
          .withStyle(panelStyle));
 
       // Top nailer strip
       root.addChild(new SceneNode("Top Nailer")
-         .withPosition(BOX_THICKNESS, height - 3.0, depth - 3.75)
-         .withSize(interiorWidth, 3.0, BOX_THICKNESS)
+         .withPosition(boxThickness, height - 3.0, depth - 3.75)
+         .withSize(interiorWidth, 3.0, boxThickness)
          .withStyle(panelStyle));
 
       // Add a shelf at middle height
       double shelfY = toeKickHeight + boxHeight / 2;
       root.addChild(new SceneNode("Shelf")
-         .withPosition(BOX_THICKNESS + 0.125, shelfY, 0.5)
-         .withSize(interiorWidth - 0.25, BOX_THICKNESS, interiorDepth - 1.0)
+         .withPosition(boxThickness + 0.125, shelfY, 0.5)
+         .withSize(interiorWidth - 0.25, boxThickness, interiorDepth - 1.0)
          .withStyle(panelStyle));
    }
 
@@ -349,39 +409,39 @@ public class CabinetSceneBuilder
    private void buildWallCabinet(Cabinet cabinet, SceneNode root, double width, double height, double depth)
    {
       // Interior dimensions
-      double interiorWidth = width - 2 * BOX_THICKNESS;
-      double interiorDepth = depth - BACK_THICKNESS;
+      double interiorWidth = width - 2 * boxThickness;
+      double interiorDepth = depth - backThickness;
 
       RenderStyle panelStyle = RenderStyle.woodPanel();
 
       // Left side panel
       root.addChild(new SceneNode("Left Side")
          .withPosition(0, 0, 0)
-         .withSize(BOX_THICKNESS, height, interiorDepth)
+         .withSize(boxThickness, height, interiorDepth)
          .withStyle(panelStyle));
 
       // Right side panel
       root.addChild(new SceneNode("Right Side")
-         .withPosition(width - BOX_THICKNESS, 0, 0)
-         .withSize(BOX_THICKNESS, height, interiorDepth)
+         .withPosition(width - boxThickness, 0, 0)
+         .withSize(boxThickness, height, interiorDepth)
          .withStyle(panelStyle));
 
       // Top panel
       root.addChild(new SceneNode("Top")
-         .withPosition(BOX_THICKNESS, height - BOX_THICKNESS, 0)
-         .withSize(interiorWidth, BOX_THICKNESS, interiorDepth)
+         .withPosition(boxThickness, height - boxThickness, 0)
+         .withSize(interiorWidth, boxThickness, interiorDepth)
          .withStyle(panelStyle));
 
       // Bottom panel
       root.addChild(new SceneNode("Bottom")
-         .withPosition(BOX_THICKNESS, 0, 0)
-         .withSize(interiorWidth, BOX_THICKNESS, interiorDepth)
+         .withPosition(boxThickness, 0, 0)
+         .withSize(interiorWidth, boxThickness, interiorDepth)
          .withStyle(panelStyle));
 
       // Back panel
       root.addChild(new SceneNode("Back")
-         .withPosition(BOX_THICKNESS, BOX_THICKNESS, depth - BACK_THICKNESS)
-         .withSize(interiorWidth, height - 2 * BOX_THICKNESS, BACK_THICKNESS)
+         .withPosition(boxThickness, boxThickness, depth - backThickness)
+         .withSize(interiorWidth, height - 2 * boxThickness, backThickness)
          .withStyle(panelStyle));
 
       // Two shelves at 1/3 and 2/3 height
@@ -389,13 +449,13 @@ public class CabinetSceneBuilder
       double shelfY2 = 2 * height / 3;
 
       root.addChild(new SceneNode("Lower Shelf")
-         .withPosition(BOX_THICKNESS + 0.125, shelfY1, 0.5)
-         .withSize(interiorWidth - 0.25, BOX_THICKNESS, interiorDepth - 1.0)
+         .withPosition(boxThickness + 0.125, shelfY1, 0.5)
+         .withSize(interiorWidth - 0.25, boxThickness, interiorDepth - 1.0)
          .withStyle(panelStyle));
 
       root.addChild(new SceneNode("Upper Shelf")
-         .withPosition(BOX_THICKNESS + 0.125, shelfY2, 0.5)
-         .withSize(interiorWidth - 0.25, BOX_THICKNESS, interiorDepth - 1.0)
+         .withPosition(boxThickness + 0.125, shelfY2, 0.5)
+         .withSize(interiorWidth - 0.25, boxThickness, interiorDepth - 1.0)
          .withStyle(panelStyle));
    }
 
@@ -415,45 +475,45 @@ public class CabinetSceneBuilder
       double boxHeight = height - toeKickHeight;
 
       // Interior dimensions
-      double interiorWidth = width - 2 * BOX_THICKNESS;
-      double interiorDepth = depth - BACK_THICKNESS;
+      double interiorWidth = width - 2 * boxThickness;
+      double interiorDepth = depth - backThickness;
 
       RenderStyle panelStyle = RenderStyle.woodPanel();
 
       // Left side panel
       root.addChild(new SceneNode("Left Side")
          .withPosition(0, toeKickHeight, 0)
-         .withSize(BOX_THICKNESS, boxHeight, interiorDepth)
+         .withSize(boxThickness, boxHeight, interiorDepth)
          .withStyle(panelStyle));
 
       // Right side panel
       root.addChild(new SceneNode("Right Side")
-         .withPosition(width - BOX_THICKNESS, toeKickHeight, 0)
-         .withSize(BOX_THICKNESS, boxHeight, interiorDepth)
+         .withPosition(width - boxThickness, toeKickHeight, 0)
+         .withSize(boxThickness, boxHeight, interiorDepth)
          .withStyle(panelStyle));
 
       // Top panel
       root.addChild(new SceneNode("Top")
-         .withPosition(BOX_THICKNESS, height - BOX_THICKNESS, 0)
-         .withSize(interiorWidth, BOX_THICKNESS, interiorDepth)
+         .withPosition(boxThickness, height - boxThickness, 0)
+         .withSize(interiorWidth, boxThickness, interiorDepth)
          .withStyle(panelStyle));
 
       // Bottom panel
       root.addChild(new SceneNode("Bottom")
-         .withPosition(BOX_THICKNESS, toeKickHeight, 0)
-         .withSize(interiorWidth, BOX_THICKNESS, interiorDepth)
+         .withPosition(boxThickness, toeKickHeight, 0)
+         .withSize(interiorWidth, boxThickness, interiorDepth)
          .withStyle(panelStyle));
 
       // Back panel
       root.addChild(new SceneNode("Back")
-         .withPosition(BOX_THICKNESS, toeKickHeight + BOX_THICKNESS, depth - BACK_THICKNESS)
-         .withSize(interiorWidth, boxHeight - BOX_THICKNESS, BACK_THICKNESS)
+         .withPosition(boxThickness, toeKickHeight + boxThickness, depth - backThickness)
+         .withSize(interiorWidth, boxHeight - boxThickness, backThickness)
          .withStyle(panelStyle));
 
       // Toe kick board
       root.addChild(new SceneNode("Toe Kick")
-         .withPosition(BOX_THICKNESS, 0, toeKickDepth)
-         .withSize(interiorWidth, toeKickHeight, BOX_THICKNESS)
+         .withPosition(boxThickness, 0, toeKickDepth)
+         .withSize(interiorWidth, toeKickHeight, boxThickness)
          .withStyle(panelStyle));
 
       // Four evenly-spaced shelves
@@ -462,8 +522,8 @@ public class CabinetSceneBuilder
       {
          double shelfY = toeKickHeight + shelfSpacing * i;
          root.addChild(new SceneNode("Shelf " + i)
-            .withPosition(BOX_THICKNESS + 0.125, shelfY, 0.5)
-            .withSize(interiorWidth - 0.25, BOX_THICKNESS, interiorDepth - 1.0)
+            .withPosition(boxThickness + 0.125, shelfY, 0.5)
+            .withSize(interiorWidth - 0.25, boxThickness, interiorDepth - 1.0)
             .withStyle(panelStyle));
       }
    }
@@ -475,12 +535,7 @@ public class CabinetSceneBuilder
     *******************************************************************************/
    private double getToeKickHeight(Cabinet cabinet)
    {
-      Integer toeKickHeightMm = cabinet.getToeKickHeightMm();
-      if(toeKickHeightMm != null && toeKickHeightMm > 0)
-      {
-         return Dimension.mm(toeKickHeightMm).toInchesDouble();
-      }
-      return DEFAULT_TOE_KICK_HEIGHT;
+      return toeKickLength(cabinet.getToeKickHeightMm(), DEFAULT_TOE_KICK_HEIGHT);
    }
 
 
@@ -490,11 +545,44 @@ public class CabinetSceneBuilder
     *******************************************************************************/
    private double getToeKickDepth(Cabinet cabinet)
    {
-      Integer toeKickDepthMm = cabinet.getToeKickDepthMm();
-      if(toeKickDepthMm != null && toeKickDepthMm > 0)
-      {
-         return Dimension.mm(toeKickDepthMm).toInchesDouble();
-      }
-      return DEFAULT_TOE_KICK_DEPTH;
+      return toeKickLength(cabinet.getToeKickDepthMm(), DEFAULT_TOE_KICK_DEPTH);
+   }
+
+
+
+   /*******************************************************************************
+    ** The thickness in inches of a cabinet's material, or of the project
+    ** default when the cabinet sets none, falling back to the given length
+    ** when neither is set or the material has no thickness.
+    *******************************************************************************/
+   private double thickness(Long materialId, Long defaultMaterialId, Length defaultLength)
+   {
+      Long         id       = materialId != null ? materialId : defaultMaterialId;
+      MaterialSpec material = id != null ? materials.apply(id) : null;
+      Length       length   = Length.mm(material != null ? material.thicknessMm() : null);
+      return (length.isPositive() ? length : defaultLength).toInches();
+   }
+
+
+
+   /*******************************************************************************
+    ** The code of a cabinet type ("" for a null or unknown type).
+    *******************************************************************************/
+   private String typeCode(Long cabinetTypeId)
+   {
+      String code = cabinetTypeId != null ? cabinetTypeCodes.apply(cabinetTypeId) : null;
+      return code != null ? code : "";
+   }
+
+
+
+   /*******************************************************************************
+    ** Convert a toe kick measurement in mm to inches, falling back to the
+    ** default when it is missing or not positive.
+    *******************************************************************************/
+   private static double toeKickLength(Integer valueMm, Length defaultLength)
+   {
+      Length length = Length.mm(valueMm);
+      return (length.isPositive() ? length : defaultLength).toInches();
    }
 }
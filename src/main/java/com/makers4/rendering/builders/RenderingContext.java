@@ -0,0 +1,75 @@
+package com.makers4.rendering.builders;
+
+
+import java.util.List;
+import java.util.Map;
+import com.makers4.cache.MaterialSpec;
+import com.makers4.model.Cabinet;
+import com.makers4.model.Project;
+
+
+/*******************************************************************************
+ ** Everything the scene builders read about the cabinets they draw, loaded
+ ** up front so building never goes back to the database: the project (for
+ ** its default materials), the cabinets, their box and back materials, and
+ ** the codes of their cabinet types.
+ **
+ ** The collections are unmodifiable copies; the entities in them are shared
+ ** with the loader and must not be changed by builders.
+ **
+ ** @param project          the cabinets' project, or null if they have none
+ ** @param cabinets         the cabinets
+ ** @param materials        box and back materials by id
+ ** @param cabinetTypeCodes cabinet type codes (BASE, WALL...) by id
+ *******************************************************************************/
+public record RenderingContext(Project project, List<Cabinet> cabinets, Map<Long, MaterialSpec> materials,
+                               Map<Long, String> cabinetTypeCodes)
+{
+
+   /*******************************************************************************
+    ** Constructor - copies the collections.
+    *******************************************************************************/
+   public RenderingContext
+   {
+      cabinets = List.copyOf(cabinets);
+      materials = Map.copyOf(materials);
+      cabinetTypeCodes = Map.copyOf(cabinetTypeCodes);
+   }
+
+
+
+   /*******************************************************************************
+    ** The cabinet with an id, or null.
+    *******************************************************************************/
+   public Cabinet getCabinet(Long cabinetId)
+   {
+      for(Cabinet cabinet : cabinets)
+      {
+         if(cabinet.getId().equals(cabinetId))
+         {
+            return cabinet;
+         }
+      }
+      return null;
+   }
+
+
+
+   /*******************************************************************************
+    ** The material with an id, or null for a null or unknown id.
+    *******************************************************************************/
+   public MaterialSpec getMaterial(Long materialId)
+   {
+      return materialId == null ? null : materials.get(materialId);
+   }
+
+
+
+   /*******************************************************************************
+    ** The code of a cabinet type, or null for a null or unknown id.
+    *******************************************************************************/
+   public String getCabinetTypeCode(Long cabinetTypeId)
+   {
+      return cabinetTypeId == null ? null : cabinetTypeCodes.get(cabinetTypeId);
+   }
+}
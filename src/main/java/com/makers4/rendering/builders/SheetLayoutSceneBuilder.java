@@ -0,0 +1,137 @@
+package com.makers4.rendering.builders;
+
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import com.makers4.cutlist.CutListRow;
+import com.makers4.nesting.NestingSettings;
+import com.makers4.rendering.core.Length;
+import com.makers4.rendering.scene.RenderStyle;
+import com.makers4.rendering.scene.SceneNode;
+
+
+/*******************************************************************************
+ ** Builds one scene per sheet (or board) of a nested cut list, for drawing
+ ** in the TOP view: the stock lies flat as the root node, with the sheet
+ ** length along x and its width along z, and each part sits on it as a
+ ** labelled child at its nested position.  Sizes are converted from mm to
+ ** inches, like CabinetSceneBuilder.
+ **
+ ** Rows must arrive in sheet order (as CutListRowLoader reads them).  The
+ ** styles are shared by every node, so a scene costs only its nodes.
+ *******************************************************************************/
+public class SheetLayoutSceneBuilder
+{
+   // Thickness for rows whose part and material have none
+   private static final Length DEFAULT_THICKNESS = Length.mm(18);
+
+   private static final RenderStyle STOCK_STYLE = new RenderStyle()
+      .withFillColor(new Color(225, 225, 225))  // Offcut gray
+      .withShowLabel(false);
+   private static final RenderStyle PART_STYLE  = RenderStyle.woodPanel();
+
+   private int sheetLengthMm;
+   private int sheetWidthMm;
+
+
+
+   /*******************************************************************************
+    ** Constructor using the default nesting sheet size.
+    *******************************************************************************/
+   public SheetLayoutSceneBuilder()
+   {
+      NestingSettings defaults = new NestingSettings();
+      this.sheetLengthMm = defaults.getSheetLengthMm();
+      this.sheetWidthMm = defaults.getSheetWidthMm();
+   }
+
+
+
+   /*******************************************************************************
+    ** Fluent setter for the full sheet size the cut list was nested on.
+    *******************************************************************************/
+   public SheetLayoutSceneBuilder withSheetSize(int lengthMm, int widthMm)
+   {
+      this.sheetLengthMm = lengthMm;
+      this.sheetWidthMm = widthMm;
+      return this;
+   }
+
+
+
+   /*******************************************************************************
+    ** Build one scene per sheet or board, in the order the rows arrive.
+    *******************************************************************************/
+   public List<SceneNode> buildScenes(List<CutListRow> rows)
+   {
+      List<SceneNode>  scenes = new ArrayList<>();
+      List<CutListRow> stock  = new ArrayList<>();
+      for(CutListRow row : rows)
+      {
+         if(!stock.isEmpty() && !isSameStock(stock.get(0), row))
+         {
+            scenes.add(buildSheet(stock));
+            stock.clear();
+         }
+         stock.add(row);
+      }
+      if(!stock.isEmpty())
+      {
+         scenes.add(buildSheet(stock));
+      }
+      return scenes;
+   }
+
+
+
+   /*******************************************************************************
+    ** Build the scene for one sheet or board from its rows.
+    *******************************************************************************/
+   public SceneNode buildSheet(List<CutListRow> rows)
+   {
+      CutListRow first     = rows.get(0);
+      double     thickness = (first.thicknessMm() != null ? Length.mm(first.thicknessMm()) : DEFAULT_THICKNESS).toInches();
+      String     name      = (first.isBoard() ? "Board " : "Sheet ") + first.sheetNumber();
+
+      SceneNode root = new SceneNode(name)
+         .withLabel(first.materialCode() != null ? name + " - " + first.materialCode() : name)
+         .withStyle(STOCK_STYLE);
+
+      // A board is as wide as its widest part (it is ripped to width first)
+      int stockWidthMm = first.isBoard() ? 0 : sheetWidthMm;
+      for(CutListRow row : rows)
+      {
+         int placedLengthMm = row.rotated() ? row.widthMm() : row.lengthMm();
+         int placedWidthMm  = row.rotated() ? row.lengthMm() : row.widthMm();
+         int x              = row.positionX() != null ? row.positionX() : 0;
+         int z              = row.positionY() != null ? row.positionY() : 0;
+
+         // Parts sit on top of the stock, so the depth sort draws them over it
+         root.addChild(new SceneNode(row.partName() != null ? row.partName() : "Part")
+            .withPosition(Length.mm(x).toInches(), thickness, Length.mm(z).toInches())
+            .withSize(Length.mm(placedLengthMm).toInches(), thickness, Length.mm(placedWidthMm).toInches())
+            .withStyle(PART_STYLE));
+
+         if(first.isBoard())
+         {
+            stockWidthMm = Math.max(stockWidthMm, z + placedWidthMm);
+         }
+      }
+
+      int stockLengthMm = first.isBoard() ? first.boardLengthMm() : sheetLengthMm;
+      root.withSize(Length.mm(stockLengthMm).toInches(), thickness, Length.mm(stockWidthMm).toInches());
+      return root;
+   }
+
+
+
+   /*******************************************************************************
+    ** Whether two rows are on the same sheet or board.
+    *******************************************************************************/
+   private static boolean isSameStock(CutListRow a, CutListRow b)
+   {
+      return a.sheetNumber() == b.sheetNumber() && Objects.equals(a.materialCode(), b.materialCode());
+   }
+}
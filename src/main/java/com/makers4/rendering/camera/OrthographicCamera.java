@@ -2,25 +2,41 @@ package com.makers4.rendering.camera;
 
 
 import java.awt.geom.Point2D;
+import java.util.Arrays;
 import com.makers4.rendering.core.Box3D;
+import com.makers4.rendering.core.BoxBatch;
 import com.makers4.rendering.core.Vector3D;
 
 
 /*******************************************************************************
  ** Orthographic camera for projecting 3D scenes to 2D.
- ** Handles the transform from world coordinates to screen coordinates.
+ ** Handles the transform from world coordinates to screen coordinates, folding
+ ** axis selection, mirroring, axonometric angles, scale and offset into one
+ ** precomputed 2x4 affine matrix.
  *******************************************************************************/
 public class OrthographicCamera
 {
+   // Isometric projection angle
+   private static final double ISO_ANGLE_DEGREES = 30.0;
+
    private ViewDirection direction;
    private double        scale;
    private double        offsetX;
    private double        offsetY;
 
-   // Isometric projection constants
-   private static final double ISO_ANGLE = Math.toRadians(30);
-   private static final double ISO_COS   = Math.cos(ISO_ANGLE);
-   private static final double ISO_SIN   = Math.sin(ISO_ANGLE);
+   // Axonometric angles (degrees above horizontal) for the X and Z axes,
+   // and per-axis foreshortening.  30/30 with unit foreshortening is isometric.
+   private double xAxisAngle = ISO_ANGLE_DEGREES;
+   private double zAxisAngle = ISO_ANGLE_DEGREES;
+   private double xForeshortening = 1.0;
+   private double yForeshortening = 1.0;
+   private double zForeshortening = 1.0;
+
+   // Unscaled 2x3 linear projection (row-major: hx, hy, hz, vx, vy, vz)
+   private final double[] basis  = new double[6];
+
+   // Full 2x4 affine projection (row-major: m00..m03, m10..m13) = basis * scale + offset
+   private final double[] matrix = new double[8];
 
 
 
@@ -33,6 +49,7 @@ public class OrthographicCamera
       this.scale = 1.0;
       this.offsetX = 0;
       this.offsetY = 0;
+      updateBasis();
    }
 
 
@@ -52,36 +69,58 @@ public class OrthographicCamera
     *******************************************************************************/
    public Point2D project(Vector3D worldPoint)
    {
-      double screenX, screenY;
+      double x = worldPoint.x();
+      double y = worldPoint.y();
+      double z = worldPoint.z();
+      return new Point2D.Double(
+         matrix[0] * x + matrix[1] * y + matrix[2] * z + matrix[3],
+         matrix[4] * x + matrix[5] * y + matrix[6] * z + matrix[7]
+      );
+   }
 
-      if(direction.isIsometric())
+
+
+   /*******************************************************************************
+    ** Project many points at once without allocating.  The input holds packed
+    ** x,y,z triples and the output receives packed screen x,y pairs; the output
+    ** must hold at least 2/3 as many values as the input.
+    *******************************************************************************/
+   public void projectPoints(double[] in, double[] out)
+   {
+      int count = in.length / 3;
+      if(out.length < count * 2)
       {
-         // Isometric projection
-         screenX = (worldPoint.x() - worldPoint.z()) * ISO_COS;
-         screenY = worldPoint.y() + (worldPoint.x() + worldPoint.z()) * ISO_SIN;
+         throw new IllegalArgumentException("Output array too small: need " + (count * 2) + " values, got " + out.length);
       }
-      else
+
+      double m00 = matrix[0], m01 = matrix[1], m02 = matrix[2], m03 = matrix[3];
+      double m10 = matrix[4], m11 = matrix[5], m12 = matrix[6], m13 = matrix[7];
+      for(int i = 0, o = 0; i < count * 3; i += 3, o += 2)
       {
-         // Orthographic projection based on view direction
-         screenX = getAxisValue(worldPoint, direction.getHorizontalAxis());
-         screenY = getAxisValue(worldPoint, direction.getVerticalAxis());
-
-         // Apply mirroring if needed
-         if(direction.isMirrorHorizontal())
-         {
-            screenX = -screenX;
-         }
-         if(direction.isMirrorVertical())
-         {
-            screenY = -screenY;
-         }
+         double x = in[i];
+         double y = in[i + 1];
+         double z = in[i + 2];
+         out[o] = m00 * x + m01 * y + m02 * z + m03;
+         out[o + 1] = m10 * x + m11 * y + m12 * z + m13;
       }
+   }
 
-      // Apply scale and offset
-      return new Point2D.Double(
-         screenX * scale + offsetX,
-         screenY * scale + offsetY
-      );
+
+
+   /*******************************************************************************
+    ** Project the exact screen bounds of many boxes at once, using the best
+    ** available ProjectionKernel (SIMD when enabled, scalar otherwise).  Each
+    ** output array must hold at least boxes.size() values.
+    *******************************************************************************/
+   public void projectBounds(BoxBatch boxes, double[] outX, double[] outY, double[] outWidth, double[] outHeight)
+   {
+      int count = boxes.size();
+      if(outX.length < count || outY.length < count || outWidth.length < count || outHeight.length < count)
+      {
+         throw new IllegalArgumentException("Output arrays too small: need " + count + " values");
+      }
+
+      ProjectionKernels.get().projectBounds(matrix, boxes, outX, outY, outWidth, outHeight);
    }
 
 
@@ -109,53 +148,106 @@ public class OrthographicCamera
     *******************************************************************************/
    public double[] calculateProjectedSize(Box3D box)
    {
+      double[] size = calculateUnscaledSize(box);
+      return new double[] { size[0] * scale, size[1] * scale };
+   }
+
+
+
+   /*******************************************************************************
+    ** Projected extent of a box at scale 1 - each screen axis is the sum of the
+    ** box's extents weighted by the absolute projection coefficients.
+    *******************************************************************************/
+   private double[] calculateUnscaledSize(Box3D box)
+   {
+      double w = box.width();
+      double h = box.height();
+      double d = box.depth();
+      return new double[] {
+         Math.abs(basis[0]) * w + Math.abs(basis[1]) * h + Math.abs(basis[2]) * d,
+         Math.abs(basis[3]) * w + Math.abs(basis[4]) * h + Math.abs(basis[5]) * d
+      };
+   }
+
+
+
+   /*******************************************************************************
+    ** Rebuild the linear projection for the current direction and angles.
+    *******************************************************************************/
+   private void updateBasis()
+   {
+      Arrays.fill(basis, 0);
+
       if(direction.isIsometric())
       {
-         // Isometric bounding box size
-         double w = box.width();
-         double h = box.height();
-         double d = box.depth();
-         double width  = (w + d) * ISO_COS;
-         double height = h + (w + d) * ISO_SIN;
-         return new double[] { width * scale, height * scale };
+         // X recedes right-and-up, Z recedes left-and-up, Y is vertical
+         double xAngle = Math.toRadians(xAxisAngle);
+         double zAngle = Math.toRadians(zAxisAngle);
+         basis[0] = Math.cos(xAngle) * xForeshortening;
+         basis[2] = -Math.cos(zAngle) * zForeshortening;
+         basis[3] = Math.sin(xAngle) * xForeshortening;
+         basis[4] = yForeshortening;
+         basis[5] = Math.sin(zAngle) * zForeshortening;
       }
       else
       {
-         double width  = getAxisValue(box.size(), direction.getHorizontalAxis());
-         double height = getAxisValue(box.size(), direction.getVerticalAxis());
-         return new double[] { width * scale, height * scale };
+         // Axis selection and mirroring folded into a single signed coefficient per row
+         basis[axisColumn(direction.getHorizontalAxis())] = direction.isMirrorHorizontal() ? -1 : 1;
+         basis[3 + axisColumn(direction.getVerticalAxis())] = direction.isMirrorVertical() ? -1 : 1;
       }
+
+      updateMatrix();
    }
 
 
 
    /*******************************************************************************
-    ** Get a component value from a vector based on axis.
+    ** Rebuild the affine matrix from the basis, scale and offset.
     *******************************************************************************/
-   private double getAxisValue(Vector3D vector, ViewDirection.Axis axis)
+   private void updateMatrix()
+   {
+      for(int i = 0; i < 3; i++)
+      {
+         matrix[i] = basis[i] * scale;
+         matrix[4 + i] = basis[3 + i] * scale;
+      }
+      matrix[3] = offsetX;
+      matrix[7] = offsetY;
+   }
+
+
+
+   /*******************************************************************************
+    ** Get the matrix column for an axis.
+    *******************************************************************************/
+   private static int axisColumn(ViewDirection.Axis axis)
    {
       return switch(axis)
       {
-         case X -> vector.x();
-         case Y -> vector.y();
-         case Z -> vector.z();
+         case X -> 0;
+         case Y -> 1;
+         case Z -> 2;
       };
    }
 
 
 
+   /*******************************************************************************
+    ** Get a copy of the 2x4 affine projection matrix, row-major.
+    *******************************************************************************/
+   public double[] getProjectionMatrix()
+   {
+      return matrix.clone();
+   }
+
+
+
    /*******************************************************************************
     ** Calculate auto-scale to fit a bounding box within given screen dimensions.
     *******************************************************************************/
    public double calculateAutoScale(Box3D bounds, double screenWidth, double screenHeight, double margin)
    {
-      double[] projectedSize = calculateProjectedSize(bounds);
-
-      // Reset scale temporarily to get unscaled size
-      double oldScale = this.scale;
-      this.scale = 1.0;
-      projectedSize = calculateProjectedSize(bounds);
-      this.scale = oldScale;
+      double[] projectedSize = calculateUnscaledSize(bounds);
 
       double availableWidth  = screenWidth - 2 * margin;
       double availableHeight = screenHeight - 2 * margin;
@@ -179,11 +271,42 @@ public class OrthographicCamera
       this.offsetX = (screenWidth - projectedSize[0]) / 2;
       this.offsetY = (screenHeight - projectedSize[1]) / 2;
 
-      // For isometric, we need additional offset for the depth axis
+      // For axonometric views, we need additional offset for the depth axis
       if(direction.isIsometric())
       {
-         this.offsetX += bounds.depth() * ISO_COS * scale;
+         this.offsetX += bounds.depth() * Math.abs(basis[2]) * scale;
       }
+      updateMatrix();
+   }
+
+
+
+   /*******************************************************************************
+    ** Set the axonometric axis angles (degrees above horizontal) used by the
+    ** ISOMETRIC view.  Equal angles other than 30 give a dimetric projection,
+    ** unequal angles a trimetric one.
+    *******************************************************************************/
+   public OrthographicCamera withAxonometricAngles(double xAxisAngle, double zAxisAngle)
+   {
+      this.xAxisAngle = xAxisAngle;
+      this.zAxisAngle = zAxisAngle;
+      updateBasis();
+      return this;
+   }
+
+
+
+   /*******************************************************************************
+    ** Set per-axis foreshortening factors used by the ISOMETRIC view
+    ** (e.g. 1, 1, 0.5 for a common dimetric drawing).
+    *******************************************************************************/
+   public OrthographicCamera withForeshortening(double xFactor, double yFactor, double zFactor)
+   {
+      this.xForeshortening = xFactor;
+      this.yForeshortening = yFactor;
+      this.zForeshortening = zFactor;
+      updateBasis();
+      return this;
    }
 
 
@@ -204,6 +327,7 @@ public class OrthographicCamera
    public OrthographicCamera withDirection(ViewDirection direction)
    {
       this.direction = direction;
+      updateBasis();
       return this;
    }
 
@@ -225,6 +349,7 @@ public class OrthographicCamera
    public OrthographicCamera withScale(double scale)
    {
       this.scale = scale;
+      updateMatrix();
       return this;
    }
 
@@ -246,6 +371,7 @@ public class OrthographicCamera
    public OrthographicCamera withOffsetX(double offsetX)
    {
       this.offsetX = offsetX;
+      updateMatrix();
       return this;
    }
 
@@ -267,6 +393,7 @@ public class OrthographicCamera
    public OrthographicCamera withOffsetY(double offsetY)
    {
       this.offsetY = offsetY;
+      updateMatrix();
       return this;
    }
 }
@@ -0,0 +1,30 @@
+package com.makers4.rendering.camera;
+
+
+import com.makers4.rendering.core.BoxBatch;
+
+
+/*******************************************************************************
+ ** Bulk projection arithmetic over a camera's 2x4 affine matrix (row-major:
+ ** m00..m03, m10..m13).  Implementations must produce the same results; they
+ ** differ only in how the arithmetic is executed.
+ **
+ ** Use ProjectionKernels.get() to obtain the best available implementation.
+ *******************************************************************************/
+public interface ProjectionKernel
+{
+
+   /*******************************************************************************
+    ** Project the screen bounds of each box: outX/outY receive the minimum
+    ** corner and outWidth/outHeight the extent, for the first boxes.size() boxes.
+    *******************************************************************************/
+   void projectBounds(double[] matrix, BoxBatch boxes,
+                      double[] outX, double[] outY, double[] outWidth, double[] outHeight);
+
+
+
+   /*******************************************************************************
+    ** Get a short name for logging/benchmarks.
+    *******************************************************************************/
+   String getName();
+}
@@ -0,0 +1,72 @@
+package com.makers4.rendering.camera;
+
+
+/*******************************************************************************
+ ** Selects the projection kernel for this JVM.
+ **
+ ** The SIMD kernel (VectorProjectionKernel) is only compiled in the "vector"
+ ** build profile and needs the JVM started with
+ ** --add-modules jdk.incubator.vector.  If either is missing - or the system
+ ** property makers4.rendering.vector is set to false - the scalar kernel is used.
+ *******************************************************************************/
+public final class ProjectionKernels
+{
+   public static final String VECTOR_KERNEL_CLASS = "com.makers4.rendering.camera.VectorProjectionKernel";
+   public static final String DISABLE_PROPERTY    = "makers4.rendering.vector";
+
+   private static final ProjectionKernel SCALAR = new ScalarProjectionKernel();
+   private static final ProjectionKernel BEST   = loadBest();
+
+
+
+   /*******************************************************************************
+    ** Constructor - static utility class.
+    *******************************************************************************/
+   private ProjectionKernels()
+   {
+   }
+
+
+
+   /*******************************************************************************
+    ** Get the best available kernel.
+    *******************************************************************************/
+   public static ProjectionKernel get()
+   {
+      return BEST;
+   }
+
+
+
+   /*******************************************************************************
+    ** Get the scalar kernel (e.g. as a benchmark baseline).
+    *******************************************************************************/
+   public static ProjectionKernel scalar()
+   {
+      return SCALAR;
+   }
+
+
+
+   /*******************************************************************************
+    ** Try to load the vectorized kernel, falling back to scalar on any linkage
+    ** problem (class not compiled in, incubator module not resolved, etc).
+    *******************************************************************************/
+   private static ProjectionKernel loadBest()
+   {
+      if("false".equalsIgnoreCase(System.getProperty(DISABLE_PROPERTY)))
+      {
+         return SCALAR;
+      }
+
+      try
+      {
+         Class<?> kernelClass = Class.forName(VECTOR_KERNEL_CLASS);
+         return (ProjectionKernel) kernelClass.getDeclaredConstructor().newInstance();
+      }
+      catch(Exception | LinkageError e)
+      {
+         return SCALAR;
+      }
+   }
+}
@@ -0,0 +1,55 @@
+package com.makers4.rendering.camera;
+
+
+import com.makers4.rendering.core.BoxBatch;
+
+
+/*******************************************************************************
+ ** Plain-Java projection kernel.  Always available; used whenever the
+ ** vectorized kernel is not on the classpath or its module is not enabled.
+ *******************************************************************************/
+public class ScalarProjectionKernel implements ProjectionKernel
+{
+
+   /*******************************************************************************
+    ** For an axis-aligned box under an affine map, each screen axis's minimum is
+    ** the projected origin plus every negative coefficient times its extent, and
+    ** its size is the sum of absolute coefficients times extents.
+    *******************************************************************************/
+   @Override
+   public void projectBounds(double[] matrix, BoxBatch boxes,
+                             double[] outX, double[] outY, double[] outWidth, double[] outHeight)
+   {
+      double m00 = matrix[0], m01 = matrix[1], m02 = matrix[2], m03 = matrix[3];
+      double m10 = matrix[4], m11 = matrix[5], m12 = matrix[6], m13 = matrix[7];
+
+      double[] xs = boxes.x();
+      double[] ys = boxes.y();
+      double[] zs = boxes.z();
+      double[] ws = boxes.width();
+      double[] hs = boxes.height();
+      double[] ds = boxes.depth();
+
+      for(int i = 0; i < boxes.size(); i++)
+      {
+         double w = ws[i];
+         double h = hs[i];
+         double d = ds[i];
+
+         outX[i] = m00 * xs[i] + m01 * ys[i] + m02 * zs[i] + m03
+            + Math.min(0, m00) * w + Math.min(0, m01) * h + Math.min(0, m02) * d;
+         outY[i] = m10 * xs[i] + m11 * ys[i] + m12 * zs[i] + m13
+            + Math.min(0, m10) * w + Math.min(0, m11) * h + Math.min(0, m12) * d;
+         outWidth[i] = Math.abs(m00) * w + Math.abs(m01) * h + Math.abs(m02) * d;
+         outHeight[i] = Math.abs(m10) * w + Math.abs(m11) * h + Math.abs(m12) * d;
+      }
+   }
+
+
+
+   @Override
+   public String getName()
+   {
+      return "scalar";
+   }
+}
@@ -0,0 +1,150 @@
+package com.makers4.rendering.core;
+
+
+import java.util.Arrays;
+import java.util.List;
+
+
+/*******************************************************************************
+ ** A batch of axis-aligned boxes stored column-wise (one primitive array per
+ ** component) so bulk projection kernels can stream through them.
+ *******************************************************************************/
+public class BoxBatch
+{
+   private double[] x;
+   private double[] y;
+   private double[] z;
+   private double[] width;
+   private double[] height;
+   private double[] depth;
+   private int      size;
+
+
+
+   /*******************************************************************************
+    ** Constructor with initial capacity.
+    *******************************************************************************/
+   public BoxBatch(int capacity)
+   {
+      int initial = Math.max(1, capacity);
+      this.x = new double[initial];
+      this.y = new double[initial];
+      this.z = new double[initial];
+      this.width = new double[initial];
+      this.height = new double[initial];
+      this.depth = new double[initial];
+   }
+
+
+
+   /*******************************************************************************
+    ** Create a batch from a list of boxes.
+    *******************************************************************************/
+   public static BoxBatch of(List<Box3D> boxes)
+   {
+      BoxBatch batch = new BoxBatch(boxes.size());
+      for(Box3D box : boxes)
+      {
+         batch.add(box);
+      }
+      return batch;
+   }
+
+
+
+   /*******************************************************************************
+    ** Append a box to the batch.
+    *******************************************************************************/
+   public BoxBatch add(Box3D box)
+   {
+      if(size == x.length)
+      {
+         int capacity = size * 2;
+         x = Arrays.copyOf(x, capacity);
+         y = Arrays.copyOf(y, capacity);
+         z = Arrays.copyOf(z, capacity);
+         width = Arrays.copyOf(width, capacity);
+         height = Arrays.copyOf(height, capacity);
+         depth = Arrays.copyOf(depth, capacity);
+      }
+
+      x[size] = box.position().x();
+      y[size] = box.position().y();
+      z[size] = box.position().z();
+      width[size] = box.size().x();
+      height[size] = box.size().y();
+      depth[size] = box.size().z();
+      size++;
+      return this;
+   }
+
+
+
+   /*******************************************************************************
+    ** Getter for size
+    *******************************************************************************/
+   public int size()
+   {
+      return size;
+   }
+
+
+
+   /*******************************************************************************
+    ** Getter for x (backing array - only the first size() values are valid)
+    *******************************************************************************/
+   public double[] x()
+   {
+      return x;
+   }
+
+
+
+   /*******************************************************************************
+    ** Getter for y (backing array - only the first size() values are valid)
+    *******************************************************************************/
+   public double[] y()
+   {
+      return y;
+   }
+
+
+
+   /*******************************************************************************
+    ** Getter for z (backing array - only the first size() values are valid)
+    *******************************************************************************/
+   public double[] z()
+   {
+      return z;
+   }
+
+
+
+   /*******************************************************************************
+    ** Getter for width (backing array - only the first size() values are valid)
+    *******************************************************************************/
+   public double[] width()
+   {
+      return width;
+   }
+
+
+
+   /*******************************************************************************
+    ** Getter for height (backing array - only the first size() values are valid)
+    *******************************************************************************/
+   public double[] height()
+   {
+      return height;
+   }
+
+
+
+   /*******************************************************************************
+    ** Getter for depth (backing array - only the first size() values are valid)
+    *******************************************************************************/
+   public double[] depth()
+   {
+      return depth;
+   }
+}
@@ -159,53 +159,11 @@ public record Dimension(BigDecimal value, Unit unit)
 
 
    /*******************************************************************************
-    ** Format as fractional inches (e.g., "3/4" for 0.75).
+    ** Format as fractional inches to the nearest 1/16" (e.g., "3/4" for 0.75).
     *******************************************************************************/
    public String formatFractional()
    {
-      double inches = toInchesDouble();
-      int    whole  = (int) inches;
-      double fraction = inches - whole;
-
-      // Common fractions in cabinet making
-      String fractionStr = "";
-      if(Math.abs(fraction - 0.75) < 0.001)
-      {
-         fractionStr = "3/4";
-      }
-      else if(Math.abs(fraction - 0.5) < 0.001)
-      {
-         fractionStr = "1/2";
-      }
-      else if(Math.abs(fraction - 0.25) < 0.001)
-      {
-         fractionStr = "1/4";
-      }
-      else if(Math.abs(fraction - 0.125) < 0.001)
-      {
-         fractionStr = "1/8";
-      }
-      else if(Math.abs(fraction - 0.0625) < 0.001)
-      {
-         fractionStr = "1/16";
-      }
-      else if(fraction > 0.001)
-      {
-         fractionStr = String.format("%.3f", fraction);
-      }
-
-      if(whole == 0 && !fractionStr.isEmpty())
-      {
-         return fractionStr + "\"";
-      }
-      else if(fractionStr.isEmpty())
-      {
-         return whole + "\"";
-      }
-      else
-      {
-         return whole + " " + fractionStr + "\"";
-      }
+      return FractionalInchFormatter.SIXTEENTHS.format(toInchesDouble());
    }
 
 
@@ -0,0 +1,157 @@
+package com.makers4.rendering.core;
+
+
+/*******************************************************************************
+ ** Formats lengths as shop-style fractional inches (e.g. 23 7/16"), rounded to
+ ** the nearest 1/denominator of an inch and reduced (8/16 prints as 1/2).
+ **
+ ** The reduced "n/d" strings for every numerator are built once per
+ ** denominator, and appendTo() writes straight into a caller-supplied
+ ** StringBuilder, so formatting thousands of labels allocates nothing beyond
+ ** the builder itself.  Instances are immutable and shared; get one with
+ ** forDenominator().
+ *******************************************************************************/
+public final class FractionalInchFormatter
+{
+   public static final int MAX_DENOMINATOR = 64;
+
+   // One shared instance per supported denominator, indexed by log2(denominator)
+   private static final FractionalInchFormatter[] FORMATTERS = new FractionalInchFormatter[7];
+
+   static
+   {
+      for(int shift = 0; shift < FORMATTERS.length; shift++)
+      {
+         FORMATTERS[shift] = new FractionalInchFormatter(1 << shift);
+      }
+   }
+
+   public static final FractionalInchFormatter EIGHTHS        = forDenominator(8);
+   public static final FractionalInchFormatter SIXTEENTHS     = forDenominator(16);
+   public static final FractionalInchFormatter THIRTY_SECONDS = forDenominator(32);
+   public static final FractionalInchFormatter SIXTY_FOURTHS  = forDenominator(64);
+
+   private final int      denominator;
+   private final long     nanometersPerStep;
+   private final String[] fractions;
+
+
+
+   /*******************************************************************************
+    ** Constructor - use forDenominator() or the constants.
+    *******************************************************************************/
+   private FractionalInchFormatter(int denominator)
+   {
+      this.denominator = denominator;
+      this.nanometersPerStep = Length.NANOMETERS_PER_INCH / denominator;
+
+      // fractions[n] is n/denominator in lowest terms ("" for zero)
+      this.fractions = new String[denominator];
+      this.fractions[0] = "";
+      for(int numerator = 1; numerator < denominator; numerator++)
+      {
+         int divisor = Integer.lowestOneBit(numerator);
+         fractions[numerator] = (numerator / divisor) + "/" + (denominator / divisor);
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** Get the formatter for a denominator: a power of two from 1 to 64
+    ** (2, 4, 8, 16, 32 or 64; 1 rounds to whole inches).
+    **
+    ** @throws IllegalArgumentException for any other denominator
+    *******************************************************************************/
+   public static FractionalInchFormatter forDenominator(int denominator)
+   {
+      if(denominator < 1 || denominator > MAX_DENOMINATOR || Integer.bitCount(denominator) != 1)
+      {
+         throw new IllegalArgumentException("Fraction denominator must be a power of two up to " + MAX_DENOMINATOR + ": " + denominator);
+      }
+      return FORMATTERS[Integer.numberOfTrailingZeros(denominator)];
+   }
+
+
+
+   /*******************************************************************************
+    ** Append a length (e.g. 34 1/2", 3/4", 24", -1/16") to the builder.
+    **
+    ** @return the builder, for chaining
+    *******************************************************************************/
+   public StringBuilder appendTo(StringBuilder builder, Length length)
+   {
+      return appendNanometers(builder, length.nanometers());
+   }
+
+
+
+   /*******************************************************************************
+    ** Append a length given in inches to the builder.
+    *******************************************************************************/
+   public StringBuilder appendTo(StringBuilder builder, double inches)
+   {
+      return appendNanometers(builder, Math.round(inches * Length.NANOMETERS_PER_INCH));
+   }
+
+
+
+   /*******************************************************************************
+    ** Append a length in nanometers to the builder.
+    *******************************************************************************/
+   private StringBuilder appendNanometers(StringBuilder builder, long nanometers)
+   {
+      long magnitude = Math.abs(nanometers);
+
+      // Round to the nearest step (half up), in whole steps of 1/denominator
+      long steps    = (magnitude + nanometersPerStep / 2) / nanometersPerStep;
+      long whole    = steps / denominator;
+      int  fraction = (int) (steps % denominator);
+
+      if(nanometers < 0 && steps != 0)
+      {
+         builder.append('-');
+      }
+      if(whole != 0 || fraction == 0)
+      {
+         builder.append(whole);
+         if(fraction != 0)
+         {
+            builder.append(' ');
+         }
+      }
+      builder.append(fractions[fraction]);
+      builder.append('"');
+      return builder;
+   }
+
+
+
+   /*******************************************************************************
+    ** Format a length as a new string.
+    *******************************************************************************/
+   public String format(Length length)
+   {
+      return appendTo(new StringBuilder(12), length).toString();
+   }
+
+
+
+   /*******************************************************************************
+    ** Format a length given in inches as a new string.
+    *******************************************************************************/
+   public String format(double inches)
+   {
+      return appendTo(new StringBuilder(12), inches).toString();
+   }
+
+
+
+   /*******************************************************************************
+    ** Getter for denominator
+    *******************************************************************************/
+   public int getDenominator()
+   {
+      return denominator;
+   }
+}
@@ -0,0 +1,219 @@
+package com.makers4.rendering.core;
+
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+
+/*******************************************************************************
+ ** Immutable fixed-point length, stored as a whole number of nanometers.
+ **
+ ** A nanometer grid represents every whole millimeter and every fraction of an
+ ** inch down to 1/64" exactly (1" = 25,400,000 nm, 1/64" = 396,875 nm), so
+ ** conversions and add/subtract are plain long arithmetic with no rounding
+ ** drift.  Use this in geometry and formatting hot paths instead of the
+ ** BigDecimal-based Dimension, converting with from() / toDimension() at the
+ ** edges.
+ *******************************************************************************/
+public record Length(long nanometers) implements Comparable<Length>
+{
+   public static final long NANOMETERS_PER_MILLIMETER = 1_000_000L;
+   public static final long NANOMETERS_PER_INCH       = 25_400_000L;
+
+   public static final Length ZERO = new Length(0);
+
+
+
+   /*******************************************************************************
+    ** Create a length from whole millimeters (exact).
+    *******************************************************************************/
+   public static Length mm(long value)
+   {
+      return new Length(Math.multiplyExact(value, NANOMETERS_PER_MILLIMETER));
+   }
+
+
+
+   /*******************************************************************************
+    ** Create a length from millimeters stored as an Integer (null is zero, as
+    ** with Dimension.mm(Integer)).
+    *******************************************************************************/
+   public static Length mm(Integer value)
+   {
+      return value != null ? mm(value.longValue()) : ZERO;
+   }
+
+
+
+   /*******************************************************************************
+    ** Create a length from fractional millimeters, rounded to the nearest
+    ** nanometer.
+    *******************************************************************************/
+   public static Length mm(double value)
+   {
+      return new Length(Math.round(value * NANOMETERS_PER_MILLIMETER));
+   }
+
+
+
+   /*******************************************************************************
+    ** Create a length from inches, rounded to the nearest nanometer (exact for
+    ** any multiple of 1/64").
+    *******************************************************************************/
+   public static Length inches(double value)
+   {
+      return new Length(Math.round(value * NANOMETERS_PER_INCH));
+   }
+
+
+
+   /*******************************************************************************
+    ** Create a length from a fraction of an inch, e.g. inches(3, 4) for 3/4".
+    *******************************************************************************/
+   public static Length inches(long numerator, long denominator)
+   {
+      return new Length(divideRounded(Math.multiplyExact(numerator, NANOMETERS_PER_INCH), denominator));
+   }
+
+
+
+   /*******************************************************************************
+    ** Convert a Dimension (any unit) to a length, rounded to the nearest
+    ** nanometer.
+    *******************************************************************************/
+   public static Length from(Dimension dimension)
+   {
+      BigDecimal perUnit = switch(dimension.unit())
+      {
+         case INCHES -> BigDecimal.valueOf(NANOMETERS_PER_INCH);
+         case MILLIMETERS -> BigDecimal.valueOf(NANOMETERS_PER_MILLIMETER);
+         case CENTIMETERS -> BigDecimal.valueOf(10 * NANOMETERS_PER_MILLIMETER);
+      };
+      return new Length(dimension.value().multiply(perUnit).setScale(0, RoundingMode.HALF_UP).longValueExact());
+   }
+
+
+
+   /*******************************************************************************
+    ** Convert to a Dimension in the given unit.  Millimeters and centimeters are
+    ** exact; inches are rounded to 6 decimals, as Dimension.toInches() does.
+    *******************************************************************************/
+   public Dimension toDimension(Dimension.Unit unit)
+   {
+      BigDecimal value = switch(unit)
+      {
+         case INCHES -> BigDecimal.valueOf(nanometers).divide(BigDecimal.valueOf(NANOMETERS_PER_INCH), 6, RoundingMode.HALF_UP);
+         case MILLIMETERS -> BigDecimal.valueOf(nanometers, 6);
+         case CENTIMETERS -> BigDecimal.valueOf(nanometers, 7);
+      };
+      return new Dimension(value.stripTrailingZeros(), unit);
+   }
+
+
+
+   /*******************************************************************************
+    ** Get the value in inches.
+    *******************************************************************************/
+   public double toInches()
+   {
+      return (double) nanometers / NANOMETERS_PER_INCH;
+   }
+
+
+
+   /*******************************************************************************
+    ** Get the value in millimeters.
+    *******************************************************************************/
+   public double toMillimeters()
+   {
+      return (double) nanometers / NANOMETERS_PER_MILLIMETER;
+   }
+
+
+
+   /*******************************************************************************
+    ** Add another length.
+    *******************************************************************************/
+   public Length plus(Length other)
+   {
+      return new Length(Math.addExact(nanometers, other.nanometers));
+   }
+
+
+
+   /*******************************************************************************
+    ** Subtract another length.
+    *******************************************************************************/
+   public Length minus(Length other)
+   {
+      return new Length(Math.subtractExact(nanometers, other.nanometers));
+   }
+
+
+
+   /*******************************************************************************
+    ** Multiply by a whole number.
+    *******************************************************************************/
+   public Length times(long factor)
+   {
+      return new Length(Math.multiplyExact(nanometers, factor));
+   }
+
+
+
+   /*******************************************************************************
+    ** Divide by a whole number, rounding to the nearest nanometer.
+    *******************************************************************************/
+   public Length dividedBy(long divisor)
+   {
+      return new Length(divideRounded(nanometers, divisor));
+   }
+
+
+
+   /*******************************************************************************
+    ** Format as fractional inches to the nearest 1/16" (e.g., 1 3/4").
+    *******************************************************************************/
+   public String formatFractional()
+   {
+      return FractionalInchFormatter.SIXTEENTHS.format(this);
+   }
+
+
+
+   /*******************************************************************************
+    ** Integer division rounded half up (toward positive infinity on ties).
+    *******************************************************************************/
+   private static long divideRounded(long dividend, long divisor)
+   {
+      if(divisor < 0)
+      {
+         dividend = Math.negateExact(dividend);
+         divisor = -divisor;
+      }
+      long quotient  = Math.floorDiv(dividend, divisor);
+      long remainder = Math.floorMod(dividend, divisor);
+      return remainder * 2 >= divisor ? quotient + 1 : quotient;
+   }
+
+
+
+   /*******************************************************************************
+    ** Whether this length is greater than zero.
+    *******************************************************************************/
+   public boolean isPositive()
+   {
+      return nanometers > 0;
+   }
+
+
+
+   /*******************************************************************************
+    ** Compare by length.
+    *******************************************************************************/
+   @Override
+   public int compareTo(Length other)
+   {
+      return Long.compare(nanometers, other.nanometers);
+   }
+}
@@ -5,9 +5,13 @@ import java.awt.geom.Rectangle2D;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import com.makers4.rendering.RenderSettings;
+import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
 import org.apache.pdfbox.pdmodel.font.PDType1Font;
-import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
+import org.apache.pdfbox.pdmodel.interactive.annotation.PDAppearanceStream;
 
 
 /*******************************************************************************
@@ -30,19 +34,44 @@ public class BlueprintElements
    public static final float TITLE_BLOCK_WIDTH  = 252f;  // 3.5" wide
    public static final float TITLE_BLOCK_HEIGHT = 162f;  // 2.25" tall
 
+   // Title block rows (from top to bottom):
+   // Row 1 (32pt): Company/Logo area
+   // Row 2 (32pt): Drawing title + view
+   // Row 3 (24pt): Scale | Date
+   // Row 4 (24pt): Drawn by | Checked by
+   // Row 5 (24pt): Revision info
+   // Row 6 (26pt): Project | Sheet number
+   private static final float[] TITLE_BLOCK_ROW_HEIGHTS = { 32f, 32f, 24f, 24f, 24f, 26f };
+
    // Grid reference zone width
    public static final float GRID_ZONE_WIDTH = 18f;  // 0.25"
 
    private final RenderSettings settings;
 
+   // One instance per font, so each is written to the document only once
+   private final PDType1Font boldFont;
+   private final PDType1Font regularFont;
+
 
 
    /*******************************************************************************
     ** Constructor.
     *******************************************************************************/
    public BlueprintElements(RenderSettings settings)
+   {
+      this(settings, PdfFonts.create());
+   }
+
+
+
+   /*******************************************************************************
+    ** Constructor drawing with the given font set.
+    *******************************************************************************/
+   public BlueprintElements(RenderSettings settings, PdfFonts fonts)
    {
       this.settings = settings;
+      this.boldFont = fonts.bold();
+      this.regularFont = fonts.regular();
    }
 
 
@@ -130,7 +159,6 @@ public class BlueprintElements
       cs.stroke();
 
       // Draw letter labels (top and bottom)
-      PDType1Font boldFont = new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD);
       cs.setNonStrokingColor(0f, 0f, 0f);
 
       for(int i = 0; i < horizDivisions; i++)
@@ -193,17 +221,93 @@ public class BlueprintElements
 
 
 
+   /*******************************************************************************
+    ** The furniture that is the same on every sheet of a document, as two
+    ** Form XObjects: the background (borders and grid references) goes under
+    ** the scene and the foreground (title block frame and document-wide
+    ** fields) over it, so scene lines never cross the title block.
+    **
+    ** @param background drawn before the scene
+    ** @param foreground drawn after the scene and its dimensions
+    *******************************************************************************/
+   public record PageTemplate(PDFormXObject background, PDFormXObject foreground)
+   {
+   }
+
+
+
+   /*******************************************************************************
+    ** Capture everything that is the same on every sheet of a document as a
+    ** PageTemplate.  Stamp its background onto each page with
+    ** PDPageContentStream.drawForm(), draw the scene, stamp its foreground,
+    ** then draw only the per-sheet text with drawSheetText().
+    *******************************************************************************/
+   public PageTemplate createPageTemplate(PDDocument document) throws Exception
+   {
+      PDAppearanceStream background = createForm(document);
+      try(PDPageContentStream cs = new PDPageContentStream(document, background))
+      {
+         if(settings.isShowArchitecturalBorder())
+         {
+            drawBorders(cs);
+         }
+         if(settings.isShowGridReferences())
+         {
+            drawGridReferences(cs);
+         }
+      }
+
+      PDAppearanceStream foreground = createForm(document);
+      try(PDPageContentStream cs = new PDPageContentStream(document, foreground))
+      {
+         if(settings.isUseTraditionalTitleBlock())
+         {
+            drawTitleBlockFrame(cs);
+            drawTitleBlockFields(cs);
+         }
+      }
+
+      return new PageTemplate(background, foreground);
+   }
+
+
+
+   /*******************************************************************************
+    ** Create an empty page-sized form.  It is a PDAppearanceStream - a plain
+    ** Form XObject subtype - only because that is what PDPageContentStream can
+    ** write into, which lets the same drawing methods serve both pages and
+    ** templates.
+    *******************************************************************************/
+   private PDAppearanceStream createForm(PDDocument document)
+   {
+      PDAppearanceStream form = new PDAppearanceStream(document);
+      form.setBBox(new PDRectangle(PAGE_WIDTH, PAGE_HEIGHT));
+      form.setResources(new PDResources());
+      return form;
+   }
+
+
+
    /*******************************************************************************
     ** Draw the traditional title block in the bottom-right corner.
     *******************************************************************************/
    public void drawTitleBlock(PDPageContentStream cs, String drawingName,
                               String viewName) throws Exception
    {
-      float innerRight  = PAGE_WIDTH - OUTER_MARGIN - BORDER_GAP;
-      float innerBottom = OUTER_MARGIN + BORDER_GAP;
+      drawTitleBlockFrame(cs);
+      drawTitleBlockFields(cs);
+      drawSheetText(cs, drawingName, viewName, settings.getSheetNumber(), settings.getTotalSheets());
+   }
+
 
-      float blockX = innerRight - TITLE_BLOCK_WIDTH;
-      float blockY = innerBottom;
+
+   /*******************************************************************************
+    ** Draw the title block border, background and row dividers.
+    *******************************************************************************/
+   public void drawTitleBlockFrame(PDPageContentStream cs) throws Exception
+   {
+      float blockX = getTitleBlockX();
+      float blockY = getTitleBlockY();
 
       // Title block outer border
       cs.setLineWidth(2f);
@@ -216,23 +320,15 @@ public class BlueprintElements
       cs.addRect(blockX + 1, blockY + 1, TITLE_BLOCK_WIDTH - 2, TITLE_BLOCK_HEIGHT - 2);
       cs.fill();
 
-      // Divide into rows (from top to bottom):
-      // Row 1 (32pt): Company/Logo area
-      // Row 2 (32pt): Drawing title + view
-      // Row 3 (24pt): Scale | Date
-      // Row 4 (24pt): Drawn by | Checked by
-      // Row 5 (24pt): Revision info
-      // Row 6 (26pt): Project | Sheet number
-      float[] rowHeights = { 32f, 32f, 24f, 24f, 24f, 26f };
-      float   currentY   = blockY + TITLE_BLOCK_HEIGHT;
+      float currentY = blockY + TITLE_BLOCK_HEIGHT;
 
       cs.setLineWidth(0.5f);
       cs.setStrokingColor(0f, 0f, 0f);
 
       // Draw horizontal dividers
-      for(int i = 0; i < rowHeights.length - 1; i++)
+      for(int i = 0; i < TITLE_BLOCK_ROW_HEIGHTS.length - 1; i++)
       {
-         currentY -= rowHeights[i];
+         currentY -= TITLE_BLOCK_ROW_HEIGHTS[i];
          cs.moveTo(blockX, currentY);
          cs.lineTo(blockX + TITLE_BLOCK_WIDTH, currentY);
       }
@@ -240,19 +336,26 @@ public class BlueprintElements
 
       // Draw vertical divider for split rows (rows 3-6)
       float midX         = blockX + TITLE_BLOCK_WIDTH / 2;
-      float splitRowsTop = blockY + rowHeights[5] + rowHeights[4] + rowHeights[3] + rowHeights[2];
+      float splitRowsTop = blockY + TITLE_BLOCK_ROW_HEIGHTS[5] + TITLE_BLOCK_ROW_HEIGHTS[4]
+         + TITLE_BLOCK_ROW_HEIGHTS[3] + TITLE_BLOCK_ROW_HEIGHTS[2];
       cs.moveTo(midX, blockY);
       cs.lineTo(midX, splitRowsTop);
       cs.stroke();
+   }
 
-      // Fill in text content
-      PDType1Font boldFont    = new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD);
-      PDType1Font regularFont = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
 
-      currentY = blockY + TITLE_BLOCK_HEIGHT;
+
+   /*******************************************************************************
+    ** Draw the title block fields that are the same on every sheet (company,
+    ** scale, date, drawn/checked by, revision, project).
+    *******************************************************************************/
+   public void drawTitleBlockFields(PDPageContentStream cs) throws Exception
+   {
+      float blockX = getTitleBlockX();
+      float midX   = blockX + TITLE_BLOCK_WIDTH / 2;
 
       // Row 1: Company name
-      currentY -= rowHeights[0];
+      float currentY = getTitleBlockRowBottom(0);
       cs.beginText();
       cs.setFont(boldFont, 11);
       cs.setNonStrokingColor(0f, 0f, 0f);
@@ -261,21 +364,8 @@ public class BlueprintElements
       cs.showText(company);
       cs.endText();
 
-      // Row 2: Drawing title (name + view)
-      currentY -= rowHeights[1];
-      cs.beginText();
-      cs.setFont(boldFont, 10);
-      cs.newLineAtOffset(blockX + 8, currentY + 18);
-      cs.showText(truncateText(drawingName, 28));
-      cs.endText();
-      cs.beginText();
-      cs.setFont(regularFont, 9);
-      cs.newLineAtOffset(blockX + 8, currentY + 6);
-      cs.showText(viewName);
-      cs.endText();
-
       // Row 3: Scale | Date
-      currentY -= rowHeights[2];
+      currentY = getTitleBlockRowBottom(2);
       drawLabelValue(cs, blockX + 4, currentY, "SCALE:",
          settings.getScaleNotation().isEmpty() ? "AS NOTED" : settings.getScaleNotation());
       drawLabelValue(cs, midX + 4, currentY, "DATE:",
@@ -284,42 +374,103 @@ public class BlueprintElements
             settings.getDate());
 
       // Row 4: Drawn by | Checked by
-      currentY -= rowHeights[3];
+      currentY = getTitleBlockRowBottom(3);
       drawLabelValue(cs, blockX + 4, currentY, "DRAWN BY:",
          settings.getDrawnBy().isEmpty() ? "-" : settings.getDrawnBy());
       drawLabelValue(cs, midX + 4, currentY, "CHECKED BY:",
          settings.getCheckedBy().isEmpty() ? "-" : settings.getCheckedBy());
 
       // Row 5: Revision
-      currentY -= rowHeights[4];
+      currentY = getTitleBlockRowBottom(4);
       drawLabelValue(cs, blockX + 4, currentY, "REV:",
          settings.getRevisionNumber().isEmpty() ? "-" : settings.getRevisionNumber());
       drawLabelValue(cs, midX + 4, currentY, "DESC:",
          settings.getRevisionDescription().isEmpty() ? "-" : settings.getRevisionDescription());
 
-      // Row 6: Project | Sheet number
-      currentY -= rowHeights[5];
+      // Row 6: Project
+      currentY = getTitleBlockRowBottom(5);
       drawLabelValue(cs, blockX + 4, currentY, "PROJECT:",
          settings.getProjectName().isEmpty() ? "-" : settings.getProjectName());
+   }
+
+
+
+   /*******************************************************************************
+    ** Draw the title block text that changes per sheet: drawing title, view
+    ** name and sheet number.
+    *******************************************************************************/
+   public void drawSheetText(PDPageContentStream cs, String drawingName, String viewName,
+                             String sheetNumber, String totalSheets) throws Exception
+   {
+      float blockX = getTitleBlockX();
+      float midX   = blockX + TITLE_BLOCK_WIDTH / 2;
+
+      // Row 2: Drawing title (name + view)
+      float currentY = getTitleBlockRowBottom(1);
+      cs.beginText();
+      cs.setFont(boldFont, 10);
+      cs.setNonStrokingColor(0f, 0f, 0f);
+      cs.newLineAtOffset(blockX + 8, currentY + 18);
+      cs.showText(truncateText(drawingName, 28));
+      cs.endText();
+      cs.beginText();
+      cs.setFont(regularFont, 9);
+      cs.newLineAtOffset(blockX + 8, currentY + 6);
+      cs.showText(viewName);
+      cs.endText();
 
-      // Sheet number - larger and centered
+      // Row 6: Sheet number - larger and centered
+      currentY = getTitleBlockRowBottom(5);
       cs.beginText();
       cs.setFont(boldFont, 10);
       cs.newLineAtOffset(midX + 10, currentY + 8);
-      cs.showText("SHEET " + settings.getSheetNumber() + " OF " + settings.getTotalSheets());
+      cs.showText("SHEET " + sheetNumber + " OF " + totalSheets);
       cs.endText();
    }
 
 
 
+   /*******************************************************************************
+    ** Get the left edge of the title block.
+    *******************************************************************************/
+   private float getTitleBlockX()
+   {
+      return PAGE_WIDTH - OUTER_MARGIN - BORDER_GAP - TITLE_BLOCK_WIDTH;
+   }
+
+
+
+   /*******************************************************************************
+    ** Get the bottom edge of the title block.
+    *******************************************************************************/
+   private float getTitleBlockY()
+   {
+      return OUTER_MARGIN + BORDER_GAP;
+   }
+
+
+
+   /*******************************************************************************
+    ** Get the bottom edge of a title block row (0 = top row).
+    *******************************************************************************/
+   private float getTitleBlockRowBottom(int row)
+   {
+      float y = getTitleBlockY() + TITLE_BLOCK_HEIGHT;
+      for(int i = 0; i <= row; i++)
+      {
+         y -= TITLE_BLOCK_ROW_HEIGHTS[i];
+      }
+      return y;
+   }
+
+
+
    /*******************************************************************************
     ** Helper to draw a label and value pair.
     *******************************************************************************/
    private void drawLabelValue(PDPageContentStream cs, float x, float y,
                                String label, String value) throws Exception
    {
-      PDType1Font regularFont = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
-
       cs.beginText();
       cs.setFont(regularFont, 6);
       cs.setNonStrokingColor(0.3f, 0.3f, 0.3f);
@@ -54,6 +54,51 @@ public interface Exporter
 
 
 
+   /*******************************************************************************
+    ** Export one view of each of several scenes (e.g. one scene per sheet of a
+    ** cut list) to a single file, for formats that support it, like PDF.
+    ** Default implementation exports only the first scene.
+    **
+    ** @param sceneRoots    The scenes to render, in output order
+    ** @param viewDirection The view angle to render every scene from
+    ** @param settings      Rendering configuration
+    ** @param output        The output stream to write to
+    ** @throws ExportException if export fails
+    *******************************************************************************/
+   default void exportScenes(List<SceneNode> sceneRoots, ViewDirection viewDirection,
+                             RenderSettings settings, OutputStream output) throws ExportException
+   {
+      if(!sceneRoots.isEmpty())
+      {
+         exportView(sceneRoots.get(0), viewDirection, settings, output);
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** Export views whose geometry has already been prepared (see PreparedView),
+    ** so several exporters can share one projection pass.  Formats that hold a
+    ** single view use the first.  The default implementation ignores the
+    ** prepared geometry and exports the views from the scene again.
+    **
+    ** @param views    Prepared views, in output order
+    ** @param settings Rendering configuration for this format
+    ** @param output   The output stream to write to
+    ** @throws ExportException if export fails
+    *******************************************************************************/
+   default void exportPrepared(List<PreparedView> views, RenderSettings settings,
+                               OutputStream output) throws ExportException
+   {
+      if(!views.isEmpty())
+      {
+         List<ViewDirection> viewDirections = views.stream().map(PreparedView::getViewDirection).toList();
+         exportViews(views.get(0).getSceneRoot(), viewDirections, settings, output);
+      }
+   }
+
+
+
    /*******************************************************************************
     ** Convenience method to export a single view to a file.
     **
@@ -0,0 +1,159 @@
+package com.makers4.rendering.export;
+
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import com.makers4.rendering.RenderSettings;
+import com.makers4.rendering.camera.ViewDirection;
+import com.makers4.rendering.scene.SceneNode;
+
+
+/*******************************************************************************
+ ** Exports one scene to several formats in a single pass.  Each distinct view
+ ** is prepared once (bounds, culling, depth sort, projection - see
+ ** PreparedView), then every target exporter runs concurrently against the
+ ** shared prepared views, streaming to its own sink.
+ **
+ ** Usage:
+ **    new MultiExporter()
+ **       .withTarget(new PdfExporter(), views, pdfSettings, pdfOut)
+ **       .withTarget(new SvgExporter(), List.of(ViewDirection.FRONT), svgSettings, svgOut)
+ **       .export(sceneRoot, svgSettings);
+ *******************************************************************************/
+public class MultiExporter
+{
+   private final List<Target> targets = new ArrayList<>();
+
+
+
+   /*******************************************************************************
+    ** One exporter, the views it should write, its settings and its sink.
+    *******************************************************************************/
+   private record Target(Exporter exporter, List<ViewDirection> viewDirections,
+                         RenderSettings settings, OutputStream sink)
+   {
+   }
+
+
+
+   /*******************************************************************************
+    ** Add a target.  Sinks are written but not closed (unless the exporter
+    ** itself closes its output).
+    *******************************************************************************/
+   public MultiExporter withTarget(Exporter exporter, List<ViewDirection> viewDirections,
+                                   RenderSettings settings, OutputStream sink)
+   {
+      targets.add(new Target(exporter, List.copyOf(viewDirections), settings, sink));
+      return this;
+   }
+
+
+
+   /*******************************************************************************
+    ** Prepare every view the targets need once, then run all targets.
+    **
+    ** @param sceneRoot        The root scene node to render
+    ** @param geometrySettings Settings the views are prepared with (scale,
+    **                         margin and level of detail)
+    ** @throws ExportException if preparation or any target fails (all targets
+    **                         are still run to completion)
+    *******************************************************************************/
+   public void export(SceneNode sceneRoot, RenderSettings geometrySettings) throws ExportException
+   {
+      Map<ViewDirection, PreparedView> prepared = prepareViews(sceneRoot, geometrySettings);
+
+      if(targets.size() == 1)
+      {
+         runTarget(targets.get(0), prepared);
+         return;
+      }
+
+      List<Callable<Void>> tasks = new ArrayList<>();
+      for(Target target : targets)
+      {
+         tasks.add(() ->
+         {
+            runTarget(target, prepared);
+            return null;
+         });
+      }
+
+      ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, targets.size()));
+      try
+      {
+         ExportException failure = null;
+         for(Future<Void> future : executor.invokeAll(tasks))
+         {
+            try
+            {
+               future.get();
+            }
+            catch(ExecutionException e)
+            {
+               if(failure == null)
+               {
+                  failure = e.getCause() instanceof ExportException exportException
+                     ? exportException
+                     : new ExportException("Multi-format export failed", e.getCause());
+               }
+            }
+         }
+
+         if(failure != null)
+         {
+            throw failure;
+         }
+      }
+      catch(InterruptedException e)
+      {
+         Thread.currentThread().interrupt();
+         throw new ExportException("Interrupted during multi-format export", e);
+      }
+      finally
+      {
+         executor.shutdownNow();
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** Prepare each distinct view used by any target, once.
+    *******************************************************************************/
+   Map<ViewDirection, PreparedView> prepareViews(SceneNode sceneRoot, RenderSettings geometrySettings)
+   {
+      Map<ViewDirection, PreparedView> prepared = new EnumMap<>(ViewDirection.class);
+      for(Target target : targets)
+      {
+         for(ViewDirection viewDirection : target.viewDirections())
+         {
+            prepared.computeIfAbsent(viewDirection, v -> PreparedView.prepare(sceneRoot, v, geometrySettings));
+         }
+      }
+      return prepared;
+   }
+
+
+
+   /*******************************************************************************
+    ** Run one target against the shared prepared views.
+    *******************************************************************************/
+   private void runTarget(Target target, Map<ViewDirection, PreparedView> prepared) throws ExportException
+   {
+      List<PreparedView> views = new ArrayList<>(target.viewDirections().size());
+      for(ViewDirection viewDirection : target.viewDirections())
+      {
+         views.add(prepared.get(viewDirection));
+      }
+
+      target.exporter().exportPrepared(views, target.settings(), target.sink());
+   }
+}
@@ -1,24 +1,36 @@
 package com.makers4.rendering.export;
 
 
+import java.io.IOException;
 import java.io.OutputStream;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import com.makers4.rendering.LevelOfDetail;
 import com.makers4.rendering.RenderSettings;
+import com.makers4.rendering.SceneRenderer;
 import com.makers4.rendering.camera.OrthographicCamera;
 import com.makers4.rendering.camera.ViewDirection;
 import com.makers4.rendering.core.Box3D;
-import com.makers4.rendering.core.Dimension;
-import com.makers4.rendering.core.Vector3D;
+import com.makers4.rendering.core.FractionalInchFormatter;
+import com.makers4.rendering.export.BlueprintElements.PageTemplate;
 import com.makers4.rendering.scene.RenderStyle;
 import com.makers4.rendering.scene.SceneNode;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdfwriter.compress.CompressParameters;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.PDResources;
 import org.apache.pdfbox.pdmodel.common.PDRectangle;
-import org.apache.pdfbox.pdmodel.font.PDType1Font;
-import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
 
 
 /*******************************************************************************
@@ -52,23 +64,57 @@ public class PdfExporter implements Exporter
    @Override
    public void exportViews(SceneNode sceneRoot, List<ViewDirection> viewDirections,
                            RenderSettings settings, OutputStream output) throws ExportException
+   {
+      exportPrepared(PreparedView.prepareAll(sceneRoot, viewDirections, settings), settings, output);
+   }
+
+
+
+   /*******************************************************************************
+    ** Export one view of each scene to a multi-page PDF, one page per scene.
+    ** In blueprint mode the pages are rendered on the settings' render
+    ** threads and all stamp the one shared page template.
+    *******************************************************************************/
+   @Override
+   public void exportScenes(List<SceneNode> sceneRoots, ViewDirection viewDirection,
+                            RenderSettings settings, OutputStream output) throws ExportException
+   {
+      List<PreparedView> views = new ArrayList<>(sceneRoots.size());
+      for(SceneNode sceneRoot : sceneRoots)
+      {
+         views.add(PreparedView.prepare(sceneRoot, viewDirection, settings));
+      }
+      exportPrepared(views, settings, output);
+   }
+
+
+
+   /*******************************************************************************
+    ** Export prepared views to a multi-page PDF, one page per view.  PDF pages
+    ** are laid out at their own scale, so only the scene bounds and the
+    ** depth-sorted node lists are taken from the prepared views.
+    *******************************************************************************/
+   @Override
+   public void exportPrepared(List<PreparedView> views, RenderSettings settings,
+                              OutputStream output) throws ExportException
    {
       // Check if blueprint mode is enabled
       if(settings.isUseFixedPageSize() && settings.isUseTraditionalTitleBlock())
       {
-         exportBlueprintViews(sceneRoot, viewDirections, settings, output);
+         exportBlueprintViews(views, settings, output);
          return;
       }
 
       // Dynamic-size implementation
-      try(PDDocument document = new PDDocument())
+      try(PDDocument document = createDocument(settings))
       {
-         for(ViewDirection viewDirection : viewDirections)
+         PdfFonts fonts = PdfFonts.create();
+         for(PreparedView view : views)
          {
-            addViewPage(document, sceneRoot, viewDirection, settings);
+            addViewPage(document, view, settings, fonts);
          }
 
-         document.save(output);
+         saveDocument(document, settings, output);
       }
       catch(Exception e)
       {
@@ -82,46 +128,224 @@ public class PdfExporter implements Exporter
     ** Export views in traditional architectural blueprint style.
     ** Uses fixed page size with borders, grid references, and title block.
     *******************************************************************************/
-   private void exportBlueprintViews(SceneNode sceneRoot, List<ViewDirection> viewDirections,
-                                     RenderSettings settings, OutputStream output) throws ExportException
+   private void exportBlueprintViews(List<PreparedView> views, RenderSettings settings,
+                                     OutputStream output) throws ExportException
    {
-      try(PDDocument document = new PDDocument())
+      // Pages rendered in parallel keep their content in their own documents until the save
+      List<PDDocument> pageDocuments = new ArrayList<>();
+
+      try(PDDocument document = createDocument(settings))
       {
-         int sheetNumber = 1;
-         int totalSheets = viewDirections.size();
+         String totalSheets = String.valueOf(views.size());
+
+         // Settings, fonts and the static page furniture are shared by every sheet
+         RenderSettings    pageSettings = createBlueprintPageSettings(settings);
+         PdfFonts          fonts        = PdfFonts.create();
+         BlueprintElements blueprint    = new BlueprintElements(pageSettings, fonts);
+         PageTemplate      template     = blueprint.createPageTemplate(document);
 
-         for(ViewDirection viewDirection : viewDirections)
+         int threads = Math.min(settings.getRenderThreads(), views.size());
+         if(threads > 1)
+         {
+            List<PDPage> pages = renderBlueprintPagesInParallel(views, settings, pageSettings, template,
+               threads, pageDocuments);
+            assemblePages(document, template, pages);
+         }
+         else
          {
-            addBlueprintPage(document, sceneRoot, viewDirection, settings,
-               String.valueOf(sheetNumber), String.valueOf(totalSheets));
-            sheetNumber++;
+            for(int i = 0; i < views.size(); i++)
+            {
+               document.addPage(createBlueprintPage(document, views.get(i), pageSettings,
+                  blueprint, fonts, template, String.valueOf(i + 1), totalSheets));
+            }
          }
 
-         document.save(output);
+         saveDocument(document, settings, output);
       }
       catch(Exception e)
       {
          throw new ExportException("Failed to generate blueprint PDF", e);
       }
+      finally
+      {
+         pageDocuments.forEach(IOUtils::closeQuietly);
+      }
    }
 
 
 
    /*******************************************************************************
-    ** Add a page in architectural blueprint style.
+    ** Render each blueprint sheet on a worker thread into its own scratch
+    ** document (see createPageDocument), with its own fonts (PDFBox fonts are
+    ** not thread-safe).  Pages come back in sheet order; the caller must keep
+    ** the page documents open until the assembled document has been saved.
     *******************************************************************************/
-   private void addBlueprintPage(PDDocument document, SceneNode sceneRoot,
-                                 ViewDirection viewDirection, RenderSettings settings,
-                                 String sheetNum, String totalSheets) throws Exception
+   private List<PDPage> renderBlueprintPagesInParallel(List<PreparedView> views, RenderSettings settings,
+                                                       RenderSettings pageSettings, PageTemplate template,
+                                                       int threads, List<PDDocument> pageDocuments) throws Exception
    {
-      // Fixed page size: 11x8.5" landscape
-      PDRectangle pageSize = new PDRectangle(BlueprintElements.PAGE_WIDTH,
-         BlueprintElements.PAGE_HEIGHT);
-      PDPage page = new PDPage(pageSize);
-      document.addPage(page);
+      String                 totalSheets = String.valueOf(views.size());
+      List<Callable<PDPage>> tasks       = new ArrayList<>();
+
+      for(int i = 0; i < views.size(); i++)
+      {
+         PreparedView view         = views.get(i);
+         String       sheetNumber  = String.valueOf(i + 1);
+         PDDocument   pageDocument = createPageDocument(settings);
+         pageDocuments.add(pageDocument);
+
+         tasks.add(() ->
+         {
+            PdfFonts          pageFonts     = PdfFonts.create();
+            BlueprintElements pageBlueprint = new BlueprintElements(pageSettings, pageFonts);
+            return createBlueprintPage(pageDocument, view, pageSettings,
+               pageBlueprint, pageFonts, template, sheetNumber, totalSheets);
+         });
+      }
+
+      ExecutorService executor = Executors.newFixedThreadPool(threads);
+      try
+      {
+         List<PDPage> pages = new ArrayList<>();
+         for(Future<PDPage> future : executor.invokeAll(tasks))
+         {
+            pages.add(future.get());
+         }
+         return pages;
+      }
+      finally
+      {
+         executor.shutdownNow();
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** Add rendered pages to the document in order, folding each page's fonts
+    ** onto one shared dictionary per font so every font is written only once.
+    ** The template XObjects are already single shared objects.
+    *******************************************************************************/
+   private void assemblePages(PDDocument document, PageTemplate template, List<PDPage> pages)
+   {
+      Map<String, COSDictionary> canonicalFonts = new HashMap<>();
+      deduplicateFonts(template.background().getResources(), canonicalFonts);
+      deduplicateFonts(template.foreground().getResources(), canonicalFonts);
+
+      for(PDPage page : pages)
+      {
+         deduplicateFonts(page.getResources(), canonicalFonts);
+         document.addPage(page);
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** Point each non-embedded font in the resources at the first equivalent font
+    ** dictionary seen (same subtype, base font and encoding).
+    *******************************************************************************/
+   private void deduplicateFonts(PDResources resources, Map<String, COSDictionary> canonicalFonts)
+   {
+      COSDictionary fontResources = resources == null ? null : resources.getCOSObject().getCOSDictionary(COSName.FONT);
+      if(fontResources == null)
+      {
+         return;
+      }
+
+      for(COSName name : new ArrayList<>(fontResources.keySet()))
+      {
+         COSDictionary font = fontResources.getCOSDictionary(name);
+         if(font == null || font.containsKey(COSName.FONT_DESC))
+         {
+            continue;
+         }
+
+         String key = font.getNameAsString(COSName.SUBTYPE) + "/" + font.getNameAsString(COSName.BASE_FONT)
+            + "/" + font.getDictionaryObject(COSName.ENCODING);
+         fontResources.setItem(name, canonicalFonts.computeIfAbsent(key, k -> font));
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** Create the document, backed by scratch files when the settings ask for a
+    ** bounded heap.  Each page's content stream is closed before the next page
+    ** is started, so with a memory cap the finished pages live in the scratch
+    ** file rather than on the heap.
+    *******************************************************************************/
+   PDDocument createDocument(RenderSettings settings)
+   {
+      return createDocument(settings, settings.getPdfMaxMainMemoryBytes());
+   }
+
+
+
+   /*******************************************************************************
+    ** Create a scratch document for one sheet rendered in parallel.  Every page
+    ** document is open until the save, so in bounded mode they are backed by
+    ** scratch files only: the main-memory budget is spent once, by the
+    ** assembled document, rather than once per page.
+    *******************************************************************************/
+   PDDocument createPageDocument(RenderSettings settings)
+   {
+      return createDocument(settings, 0);
+   }
+
+
+
+   /*******************************************************************************
+    ** Create a document holding at most maxMainMemoryBytes on the heap (0 for
+    ** scratch files only) when the settings ask for a bounded heap.
+    *******************************************************************************/
+   private PDDocument createDocument(RenderSettings settings, long maxMainMemoryBytes)
+   {
+      if(!settings.isPdfMemoryBounded())
+      {
+         return new PDDocument();
+      }
+
+      MemoryUsageSetting memoryUsage = maxMainMemoryBytes == 0
+         ? MemoryUsageSetting.setupTempFileOnly()
+         : MemoryUsageSetting.setupMixed(maxMainMemoryBytes);
+
+      if(settings.getPdfScratchDirectory() != null)
+      {
+         memoryUsage.setTempDir(settings.getPdfScratchDirectory());
+      }
+
+      return new PDDocument(memoryUsage.streamCache);
+   }
+
+
+
+   /*******************************************************************************
+    ** Write the document out.  In bounded mode object-stream compression is
+    ** skipped, since it gathers every indirect object into in-memory pools
+    ** before anything is written.
+    *******************************************************************************/
+   private void saveDocument(PDDocument document, RenderSettings settings, OutputStream output) throws IOException
+   {
+      if(settings.isPdfMemoryBounded())
+      {
+         document.save(output, CompressParameters.NO_COMPRESSION);
+      }
+      else
+      {
+         document.save(output);
+      }
+   }
+
 
-      // Create settings with sheet info
-      RenderSettings pageSettings = RenderSettings.architecturalBlueprint()
+
+   /*******************************************************************************
+    ** Build the blueprint page settings, carrying over the title block fields
+    ** and the dimension fraction denominator.
+    *******************************************************************************/
+   private RenderSettings createBlueprintPageSettings(RenderSettings settings)
+   {
+      return RenderSettings.architecturalBlueprint()
          .withCompanyName(settings.getCompanyName())
          .withProjectName(settings.getProjectName())
          .withDrawnBy(settings.getDrawnBy())
@@ -129,9 +353,29 @@ public class PdfExporter implements Exporter
          .withScaleNotation(settings.getScaleNotation())
          .withDate(settings.getDate())
          .withRevision(settings.getRevisionNumber(), settings.getRevisionDescription())
-         .withSheetInfo(sheetNum, totalSheets);
+         .withFractionDenominator(settings.getFractionDenominator());
+   }
+
 
-      BlueprintElements blueprint = new BlueprintElements(pageSettings);
+
+   /*******************************************************************************
+    ** Create a page in architectural blueprint style (not yet added to any
+    ** document).  The borders and grid references come from the shared
+    ** template's background, stamped under the scene, and the title block
+    ** from its foreground, stamped over the scene and dimensions; only the
+    ** scene and the per-sheet title block text are drawn onto the page itself.
+    *******************************************************************************/
+   private PDPage createBlueprintPage(PDDocument document, PreparedView view, RenderSettings pageSettings,
+                                      BlueprintElements blueprint, PdfFonts fonts, PageTemplate template,
+                                      String sheetNum, String totalSheets) throws Exception
+   {
+      SceneNode     sceneRoot     = view.getSceneRoot();
+      ViewDirection viewDirection = view.getViewDirection();
+
+      // Fixed page size: 11x8.5" landscape
+      PDRectangle pageSize = new PDRectangle(BlueprintElements.PAGE_WIDTH,
+         BlueprintElements.PAGE_HEIGHT);
+      PDPage page = new PDPage(pageSize);
 
       try(PDPageContentStream cs = new PDPageContentStream(document, page))
       {
@@ -140,20 +384,11 @@ public class PdfExporter implements Exporter
          cs.addRect(0, 0, pageSize.getWidth(), pageSize.getHeight());
          cs.fill();
 
-         // 2. Draw architectural borders
-         if(pageSettings.isShowArchitecturalBorder())
-         {
-            blueprint.drawBorders(cs);
-         }
-
-         // 3. Draw grid reference system
-         if(pageSettings.isShowGridReferences())
-         {
-            blueprint.drawGridReferences(cs);
-         }
+         // 2-3. Stamp the shared borders and grid references
+         cs.drawForm(template.background());
 
          // 4. Calculate auto-scale and center offset
-         Box3D  bounds = sceneRoot.calculateTotalBounds();
+         Box3D  bounds = view.getSceneBounds();
          double viewWidth, viewHeight;
 
          // Get view-specific dimensions
@@ -195,23 +430,28 @@ public class PdfExporter implements Exporter
             (float) offset[0], (float) offset[1]));
 
          // Render the scene graph
-         renderSceneToContentStream(cs, sceneRoot, viewDirection, autoScale, pageSettings);
+         renderSceneToContentStream(cs, view.getDrawableNodes(), viewDirection, autoScale, pageSettings, fonts);
 
          cs.restoreGraphicsState();
 
          // 6. Draw dimensions (outside the transform) - skip for isometric
          if(pageSettings.isShowDimensions() && !viewDirection.isIsometric())
          {
-            drawBlueprintDimensions(cs, bounds, viewDirection, autoScale, offset);
+            drawBlueprintDimensions(cs, bounds, viewDirection, autoScale, offset, pageSettings.getFractionFormatter(), fonts);
          }
 
-         // 7. Draw traditional title block
+         // 7. Stamp the shared title block over the scene
+         cs.drawForm(template.foreground());
+
+         // 8. Draw the per-sheet title block text
          if(pageSettings.isUseTraditionalTitleBlock())
          {
             String label = sceneRoot.getLabel() != null ? sceneRoot.getLabel() : sceneRoot.getName();
-            blueprint.drawTitleBlock(cs, label, viewDirection.getDisplayName());
+            blueprint.drawSheetText(cs, label, viewDirection.getDisplayName(), sheetNum, totalSheets);
          }
       }
+
+      return page;
    }
 
 
@@ -219,14 +459,17 @@ public class PdfExporter implements Exporter
    /*******************************************************************************
     ** Add a page with dynamic sizing.
     *******************************************************************************/
-   private void addViewPage(PDDocument document, SceneNode sceneRoot,
-                            ViewDirection viewDirection, RenderSettings settings) throws Exception
+   private void addViewPage(PDDocument document, PreparedView view, RenderSettings settings,
+                            PdfFonts fonts) throws Exception
    {
+      SceneNode     sceneRoot     = view.getSceneRoot();
+      ViewDirection viewDirection = view.getViewDirection();
+
       // Calculate canvas size
       OrthographicCamera camera = OrthographicCamera.forView(viewDirection)
          .withScale(settings.getScale());
 
-      Box3D    bounds        = sceneRoot.calculateTotalBounds();
+      Box3D    bounds        = view.getSceneBounds();
       double[] projectedSize = camera.calculateProjectedSize(bounds);
       double   margin        = settings.getMarginPoints();
       double   titleBlockHeight = settings.isShowTitleBlock() ? settings.toPoints(1.5) : 0;
@@ -253,20 +496,20 @@ public class PdfExporter implements Exporter
             (float) margin, (float) (margin + titleBlockHeight)));
 
          // Render the scene graph
-         renderSceneToContentStream(cs, sceneRoot, viewDirection, settings.getScale(), settings);
+         renderSceneToContentStream(cs, view.getDrawableNodes(), viewDirection, settings.getScale(), settings, fonts);
 
          cs.restoreGraphicsState();
 
          // Draw overall dimensions
          if(settings.isShowDimensions())
          {
-            drawDimensions(cs, bounds, viewDirection, settings, width, height);
+            drawDimensions(cs, bounds, viewDirection, settings, width, height, fonts);
          }
 
          // Draw title block
          if(settings.isShowTitleBlock())
          {
-            drawTitleBlock(cs, sceneRoot, viewDirection, settings, width, height);
+            drawTitleBlock(cs, sceneRoot, viewDirection, settings, width, height, fonts);
          }
       }
    }
@@ -274,32 +517,33 @@ public class PdfExporter implements Exporter
 
 
    /*******************************************************************************
-    ** Render the scene graph to a PDF content stream.
+    ** Render depth-sorted scene nodes to a PDF content stream.
     *******************************************************************************/
-   private void renderSceneToContentStream(PDPageContentStream cs, SceneNode sceneRoot,
+   private void renderSceneToContentStream(PDPageContentStream cs, List<SceneNode> nodesToRender,
                                            ViewDirection viewDirection, double scale,
-                                           RenderSettings settings) throws Exception
+                                           RenderSettings settings, PdfFonts fonts) throws Exception
    {
-      // Collect all nodes with geometry
-      List<SceneNode> nodesToRender = new ArrayList<>();
-      collectNodes(sceneRoot, nodesToRender);
-
-      // Sort by depth for proper z-ordering
-      sortByDepth(nodesToRender, viewDirection);
-
       // Set up stroke
       cs.setLineWidth(settings.getOutlineStrokeWidth());
 
-      // Render each node
+      // Render each node the level of detail keeps
+      LevelOfDetail      lod    = settings.getLevelOfDetail();
+      OrthographicCamera camera = OrthographicCamera.forView(viewDirection).withScale(scale);
       for(SceneNode node : nodesToRender)
       {
+         if(isCollapsed(node, camera, lod))
+         {
+            continue;
+         }
+
          if(viewDirection.isIsometric())
          {
-            renderIsometricNode(cs, node, scale, settings);
+            double[] size = camera.calculateProjectedSize(node.getWorldBounds());
+            renderIsometricNode(cs, node, scale, lod.isShadingVisible(size[0], size[1]), settings);
          }
          else
          {
-            renderOrthographicNode(cs, node, viewDirection, scale, settings);
+            renderOrthographicNode(cs, node, viewDirection, scale, settings, fonts);
          }
       }
    }
@@ -307,79 +551,45 @@ public class PdfExporter implements Exporter
 
 
    /*******************************************************************************
-    ** Collect all nodes with geometry from the scene graph.
+    ** Check if a node, or any ancestor with geometry, is too small for the
+    ** level of detail in the camera's view.  Matches
+    ** SceneRenderer.collectVisibleNodes, which skips the whole subtree of a
+    ** collapsed node, so PDF and SVG show the same parts in every view.
     *******************************************************************************/
-   private void collectNodes(SceneNode node, List<SceneNode> result)
+   private static boolean isCollapsed(SceneNode node, OrthographicCamera camera, LevelOfDetail lod)
    {
-      if(node.hasGeometry())
+      for(SceneNode current = node; current != null; current = current.getParent())
       {
-         result.add(node);
-      }
-      for(SceneNode child : node.getChildren())
-      {
-         collectNodes(child, result);
+         if(current.hasGeometry())
+         {
+            double[] size = camera.calculateProjectedSize(current.getWorldBounds());
+            if(!lod.isPartVisible(size[0], size[1]))
+            {
+               return true;
+            }
+         }
       }
+      return false;
    }
 
 
 
    /*******************************************************************************
-    ** Sort nodes by depth for proper z-ordering.
+    ** Project world bounds onto an orthographic view: x, y, width and height
+    ** in points, or null for a view that is not orthographic.
     *******************************************************************************/
-   private void sortByDepth(List<SceneNode> nodes, ViewDirection direction)
+   private static double[] projectOrthographic(Box3D bounds, ViewDirection viewDirection, double scale)
    {
-      Comparator<SceneNode> comparator = (a, b) ->
+      return switch(viewDirection)
       {
-         Vector3D posA = a.getWorldPosition();
-         Vector3D posB = b.getWorldPosition();
-
-         double depthA, depthB;
-         switch(direction)
-         {
-            case FRONT ->
-            {
-               depthA = posA.z();
-               depthB = posB.z();
-            }
-            case BACK ->
-            {
-               depthA = -posA.z();
-               depthB = -posB.z();
-            }
-            case LEFT ->
-            {
-               depthA = posA.x();
-               depthB = posB.x();
-            }
-            case RIGHT ->
-            {
-               depthA = -posA.x();
-               depthB = -posB.x();
-            }
-            case TOP ->
-            {
-               depthA = posA.y();
-               depthB = posB.y();
-            }
-            case BOTTOM ->
-            {
-               depthA = -posA.y();
-               depthB = -posB.y();
-            }
-            case ISOMETRIC ->
-            {
-               depthA = posA.x() + posA.z();
-               depthB = posB.x() + posB.z();
-            }
-            default ->
-            {
-               depthA = depthB = 0;
-            }
-         }
-         return Double.compare(depthA, depthB);
+         case FRONT, BACK -> new double[] { bounds.position().x() * scale, bounds.position().y() * scale,
+            bounds.width() * scale, bounds.height() * scale };
+         case LEFT, RIGHT -> new double[] { bounds.position().z() * scale, bounds.position().y() * scale,
+            bounds.depth() * scale, bounds.height() * scale };
+         case TOP, BOTTOM -> new double[] { bounds.position().x() * scale, bounds.position().z() * scale,
+            bounds.width() * scale, bounds.depth() * scale };
+         default -> null;
       };
-
-      nodes.sort(comparator);
    }
 
 
@@ -389,46 +599,18 @@ public class PdfExporter implements Exporter
     *******************************************************************************/
    private void renderOrthographicNode(PDPageContentStream cs, SceneNode node,
                                        ViewDirection viewDirection, double scale,
-                                       RenderSettings settings) throws Exception
+                                       RenderSettings settings, PdfFonts fonts) throws Exception
    {
-      Box3D bounds = node.getWorldBounds();
-
-      // Project based on view direction
-      double x, y, w, h;
-      switch(viewDirection)
-      {
-         case FRONT, BACK ->
-         {
-            x = bounds.position().x() * scale;
-            y = bounds.position().y() * scale;
-            w = bounds.width() * scale;
-            h = bounds.height() * scale;
-         }
-         case LEFT, RIGHT ->
-         {
-            x = bounds.position().z() * scale;
-            y = bounds.position().y() * scale;
-            w = bounds.depth() * scale;
-            h = bounds.height() * scale;
-         }
-         case TOP, BOTTOM ->
-         {
-            x = bounds.position().x() * scale;
-            y = bounds.position().z() * scale;
-            w = bounds.width() * scale;
-            h = bounds.depth() * scale;
-         }
-         default ->
-         {
-            return;
-         }
-      }
-
-      // Skip if too small
-      if(w < 0.5 || h < 0.5)
+      // Project based on view direction (the caller has checked the level of detail)
+      double[] rect = projectOrthographic(node.getWorldBounds(), viewDirection, scale);
+      if(rect == null)
       {
          return;
       }
+      double x = rect[0];
+      double y = rect[1];
+      double w = rect[2];
+      double h = rect[3];
 
       RenderStyle style = node.getStyle();
 
@@ -459,13 +641,14 @@ public class PdfExporter implements Exporter
       cs.stroke();
 
       // Label
-      if(style.isShowLabel() && settings.isShowPartLabels() && w > 20 && h > 15)
+      if(style.isShowLabel() && settings.isShowPartLabels()
+         && settings.getLevelOfDetail().isLabelVisible(w, h))
       {
          String label = node.getLabel();
          if(label != null && !label.isEmpty())
          {
             cs.beginText();
-            cs.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 8);
+            cs.setFont(fonts.regular(), 8);
             java.awt.Color labelColor = style.getLabelColor();
             cs.setNonStrokingColor(labelColor.getRed() / 255f,
                labelColor.getGreen() / 255f, labelColor.getBlue() / 255f);
@@ -479,10 +662,11 @@ public class PdfExporter implements Exporter
 
 
    /*******************************************************************************
-    ** Render a node in isometric projection.
+    ** Render a node in isometric projection - three shaded faces, or a single
+    ** flat silhouette when the level of detail says the box is too small.
     *******************************************************************************/
-   private void renderIsometricNode(PDPageContentStream cs, SceneNode node,
-                                    double scale, RenderSettings settings) throws Exception
+   private void renderIsometricNode(PDPageContentStream cs, SceneNode node, double scale,
+                                    boolean shaded, RenderSettings settings) throws Exception
    {
       Box3D bounds = node.getWorldBounds();
 
@@ -518,13 +702,38 @@ public class PdfExporter implements Exporter
 
       RenderStyle style = node.getStyle();
 
-      // Draw filled faces
       java.awt.Color fillColor = style.getFillColor();
       if(fillColor == null)
       {
          fillColor = settings.getFillColor();
       }
 
+      java.awt.Color strokeColor = style.getStrokeColor();
+      if(strokeColor == null)
+      {
+         strokeColor = settings.getOutlineColor();
+      }
+
+      // Small boxes are drawn as one flat silhouette instead of three shaded faces
+      if(!shaded)
+      {
+         if(fillColor != null)
+         {
+            cs.setNonStrokingColor(fillColor.getRed() / 255f,
+               fillColor.getGreen() / 255f, fillColor.getBlue() / 255f);
+            addPolygon(cs, corners, SceneRenderer.ISOMETRIC_SILHOUETTE);
+            cs.fill();
+         }
+
+         cs.setStrokingColor(strokeColor.getRed() / 255f,
+            strokeColor.getGreen() / 255f, strokeColor.getBlue() / 255f);
+         cs.setLineWidth(style.getStrokeWidth());
+         addPolygon(cs, corners, SceneRenderer.ISOMETRIC_SILHOUETTE);
+         cs.stroke();
+         return;
+      }
+
+      // Draw filled faces
       if(fillColor != null)
       {
          // Top face (lightest)
@@ -549,25 +758,20 @@ public class PdfExporter implements Exporter
          cs.closePath();
          cs.fill();
 
-         // Right face (darker)
+         // Side face (darker) - the low-x face, as in SceneRenderer
          cs.setNonStrokingColor(
             fillColor.getRed() / 255f * 0.9f,
             fillColor.getGreen() / 255f * 0.9f,
             fillColor.getBlue() / 255f * 0.9f);
-         cs.moveTo((float) corners[1][0], (float) corners[1][1]);
-         cs.lineTo((float) corners[2][0], (float) corners[2][1]);
-         cs.lineTo((float) corners[6][0], (float) corners[6][1]);
-         cs.lineTo((float) corners[5][0], (float) corners[5][1]);
+         cs.moveTo((float) corners[0][0], (float) corners[0][1]);
+         cs.lineTo((float) corners[3][0], (float) corners[3][1]);
+         cs.lineTo((float) corners[7][0], (float) corners[7][1]);
+         cs.lineTo((float) corners[4][0], (float) corners[4][1]);
          cs.closePath();
          cs.fill();
       }
 
       // Draw outlines
-      java.awt.Color strokeColor = style.getStrokeColor();
-      if(strokeColor == null)
-      {
-         strokeColor = settings.getOutlineColor();
-      }
       cs.setStrokingColor(strokeColor.getRed() / 255f,
          strokeColor.getGreen() / 255f, strokeColor.getBlue() / 255f);
       cs.setLineWidth(style.getStrokeWidth());
@@ -588,21 +792,37 @@ public class PdfExporter implements Exporter
       cs.closePath();
       cs.stroke();
 
-      // Right face vertical edges
-      cs.moveTo((float) corners[1][0], (float) corners[1][1]);
-      cs.lineTo((float) corners[2][0], (float) corners[2][1]);
-      cs.lineTo((float) corners[6][0], (float) corners[6][1]);
+      // Side face edges
+      cs.moveTo((float) corners[0][0], (float) corners[0][1]);
+      cs.lineTo((float) corners[3][0], (float) corners[3][1]);
+      cs.lineTo((float) corners[7][0], (float) corners[7][1]);
       cs.stroke();
    }
 
 
 
+   /*******************************************************************************
+    ** Add a closed path through the given corners to the content stream.
+    *******************************************************************************/
+   private static void addPolygon(PDPageContentStream cs, double[][] corners, int[] indexes) throws IOException
+   {
+      cs.moveTo((float) corners[indexes[0]][0], (float) corners[indexes[0]][1]);
+      for(int i = 1; i < indexes.length; i++)
+      {
+         cs.lineTo((float) corners[indexes[i]][0], (float) corners[indexes[i]][1]);
+      }
+      cs.closePath();
+   }
+
+
+
    /*******************************************************************************
     ** Draw dimension annotations for blueprint style.
     *******************************************************************************/
    private void drawBlueprintDimensions(PDPageContentStream cs, Box3D bounds,
                                         ViewDirection viewDirection, double scale,
-                                        double[] offset) throws Exception
+                                        double[] offset, FractionalInchFormatter formatter,
+                                        PdfFonts fonts) throws Exception
    {
       // Get view-specific dimensions
       String widthText, heightText;
@@ -612,22 +832,22 @@ public class PdfExporter implements Exporter
       {
          case FRONT, BACK ->
          {
-            widthText = Dimension.inches(bounds.width()).formatFractional();
-            heightText = Dimension.inches(bounds.height()).formatFractional();
+            widthText = formatter.format(bounds.width());
+            heightText = formatter.format(bounds.height());
             drawWidth = bounds.width() * scale;
             drawHeight = bounds.height() * scale;
          }
          case LEFT, RIGHT ->
          {
-            widthText = Dimension.inches(bounds.depth()).formatFractional();
-            heightText = Dimension.inches(bounds.height()).formatFractional();
+            widthText = formatter.format(bounds.depth());
+            heightText = formatter.format(bounds.height());
             drawWidth = bounds.depth() * scale;
             drawHeight = bounds.height() * scale;
          }
          case TOP, BOTTOM ->
          {
-            widthText = Dimension.inches(bounds.width()).formatFractional();
-            heightText = Dimension.inches(bounds.depth()).formatFractional();
+            widthText = formatter.format(bounds.width());
+            heightText = formatter.format(bounds.depth());
             drawWidth = bounds.width() * scale;
             drawHeight = bounds.depth() * scale;
          }
@@ -660,7 +880,7 @@ public class PdfExporter implements Exporter
 
       // Width text
       cs.beginText();
-      cs.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 9);
+      cs.setFont(fonts.regular(), 9);
       cs.setNonStrokingColor(20f / 255f, 40f / 255f, 80f / 255f);
       cs.newLineAtOffset((startX + endX) / 2 - 15, dimY - 12);
       cs.showText(widthText);
@@ -685,7 +905,7 @@ public class PdfExporter implements Exporter
 
       // Height text
       cs.beginText();
-      cs.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 9);
+      cs.setFont(fonts.regular(), 9);
       cs.newLineAtOffset(dimX + 5, (startY + endY) / 2 - 3);
       cs.showText(heightText);
       cs.endText();
@@ -698,7 +918,7 @@ public class PdfExporter implements Exporter
     *******************************************************************************/
    private void drawDimensions(PDPageContentStream cs, Box3D bounds,
                                ViewDirection viewDirection, RenderSettings settings,
-                               int canvasWidth, int canvasHeight) throws Exception
+                               int canvasWidth, int canvasHeight, PdfFonts fonts) throws Exception
    {
       double margin = settings.getMarginPoints();
       double scale  = settings.getScale();
@@ -709,6 +929,7 @@ public class PdfExporter implements Exporter
       cs.setLineWidth(settings.getDimensionLineStrokeWidth());
 
       // Get dimensions based on view
+      FractionalInchFormatter formatter = settings.getFractionFormatter();
       String widthText, heightText;
       double drawWidth, drawHeight;
 
@@ -716,22 +937,22 @@ public class PdfExporter implements Exporter
       {
          case FRONT, BACK ->
          {
-            widthText = Dimension.inches(bounds.width()).formatFractional();
-            heightText = Dimension.inches(bounds.height()).formatFractional();
+            widthText = formatter.format(bounds.width());
+            heightText = formatter.format(bounds.height());
             drawWidth = bounds.width() * scale;
             drawHeight = bounds.height() * scale;
          }
          case LEFT, RIGHT ->
          {
-            widthText = Dimension.inches(bounds.depth()).formatFractional();
-            heightText = Dimension.inches(bounds.height()).formatFractional();
+            widthText = formatter.format(bounds.depth());
+            heightText = formatter.format(bounds.height());
             drawWidth = bounds.depth() * scale;
             drawHeight = bounds.height() * scale;
          }
          case TOP, BOTTOM ->
          {
-            widthText = Dimension.inches(bounds.width()).formatFractional();
-            heightText = Dimension.inches(bounds.depth()).formatFractional();
+            widthText = formatter.format(bounds.width());
+            heightText = formatter.format(bounds.depth());
             drawWidth = bounds.width() * scale;
             drawHeight = bounds.depth() * scale;
          }
@@ -751,7 +972,7 @@ public class PdfExporter implements Exporter
 
       // Width text
       cs.beginText();
-      cs.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 10);
+      cs.setFont(fonts.regular(), 10);
       cs.setNonStrokingColor(dimColor.getRed() / 255f,
          dimColor.getGreen() / 255f, dimColor.getBlue() / 255f);
       cs.newLineAtOffset((float) (margin + drawWidth / 2 - 15), dimY - 12);
@@ -766,7 +987,7 @@ public class PdfExporter implements Exporter
 
       // Height text
       cs.beginText();
-      cs.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 10);
+      cs.setFont(fonts.regular(), 10);
       cs.newLineAtOffset(dimX + 5, (float) (margin + titleBlockHeight + drawHeight / 2));
       cs.showText(heightText);
       cs.endText();
@@ -779,7 +1000,7 @@ public class PdfExporter implements Exporter
     *******************************************************************************/
    private void drawTitleBlock(PDPageContentStream cs, SceneNode sceneRoot,
                                ViewDirection viewDirection, RenderSettings settings,
-                               int canvasWidth, int canvasHeight) throws Exception
+                               int canvasWidth, int canvasHeight, PdfFonts fonts) throws Exception
    {
       double margin      = settings.getMarginPoints();
       double blockHeight = settings.toPoints(1.2);
@@ -800,7 +1021,7 @@ public class PdfExporter implements Exporter
       // Name
       String label = sceneRoot.getLabel() != null ? sceneRoot.getLabel() : sceneRoot.getName();
       cs.beginText();
-      cs.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD), 14);
+      cs.setFont(fonts.bold(), 14);
       cs.setNonStrokingColor(0f, 0f, 0f);
       cs.newLineAtOffset((float) margin + 10, y + (float) blockHeight - 18);
       cs.showText(label);
@@ -808,22 +1029,23 @@ public class PdfExporter implements Exporter
 
       // View name
       cs.beginText();
-      cs.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 11);
+      cs.setFont(fonts.regular(), 11);
       cs.newLineAtOffset((float) margin + 10, y + (float) blockHeight - 35);
       cs.showText(viewDirection.getDisplayName());
       cs.endText();
 
       // Dimensions summary
       Box3D  bounds  = sceneRoot.calculateTotalBounds();
-      String dimText = String.format("Overall: %s W x %s H x %s D",
-         Dimension.inches(bounds.width()).formatFractional(),
-         Dimension.inches(bounds.height()).formatFractional(),
-         Dimension.inches(bounds.depth()).formatFractional());
+      FractionalInchFormatter formatter = settings.getFractionFormatter();
+      StringBuilder dimText = new StringBuilder(48).append("Overall: ");
+      formatter.appendTo(dimText, bounds.width()).append(" W x ");
+      formatter.appendTo(dimText, bounds.height()).append(" H x ");
+      formatter.appendTo(dimText, bounds.depth()).append(" D");
 
       cs.beginText();
-      cs.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 10);
+      cs.setFont(fonts.regular(), 10);
       cs.newLineAtOffset((float) (canvasWidth - margin - 200), y + (float) blockHeight - 18);
-      cs.showText(dimText);
+      cs.showText(dimText.toString());
       cs.endText();
    }
 
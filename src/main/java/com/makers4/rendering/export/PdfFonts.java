@@ -0,0 +1,24 @@
+package com.makers4.rendering.export;
+
+
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+
+
+/*******************************************************************************
+ ** The fonts used to draw one PDF document (or one page, when pages are
+ ** rendered in parallel).  PDFBox fonts cache encodings and glyph widths in
+ ** unsynchronized maps, so a font set must never be shared between threads.
+ *******************************************************************************/
+public record PdfFonts(PDType1Font regular, PDType1Font bold)
+{
+
+   /*******************************************************************************
+    ** Create a fresh Helvetica / Helvetica-Bold font set.
+    *******************************************************************************/
+   public static PdfFonts create()
+   {
+      return new PdfFonts(new PDType1Font(Standard14Fonts.FontName.HELVETICA),
+         new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD));
+   }
+}
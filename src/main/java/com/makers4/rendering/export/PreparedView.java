@@ -0,0 +1,319 @@
+package com.makers4.rendering.export;
+
+
+import java.awt.Dimension;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import com.makers4.rendering.RenderSettings;
+import com.makers4.rendering.SceneRenderer;
+import com.makers4.rendering.camera.OrthographicCamera;
+import com.makers4.rendering.camera.ViewDirection;
+import com.makers4.rendering.core.Box3D;
+import com.makers4.rendering.core.BoxBatch;
+import com.makers4.rendering.core.Vector3D;
+import com.makers4.rendering.scene.SceneNode;
+
+
+/*******************************************************************************
+ ** One view of a scene with the format-independent geometry work already done:
+ ** scene bounds, the centered camera and canvas size, depth-sorted node lists,
+ ** and the projected screen bounds (and isometric corners) of every visible
+ ** node.  Prepared once, it can be handed to any number of exporters - see
+ ** MultiExporter and Exporter.exportPrepared.
+ **
+ ** Instances are read-only after preparation and safe to share between
+ ** threads; the arrays returned by the getters must not be modified.
+ *******************************************************************************/
+public final class PreparedView
+{
+   private final SceneNode          sceneRoot;
+   private final ViewDirection      viewDirection;
+   private final RenderSettings     settings;
+   private final OrthographicCamera camera;
+   private final Box3D              sceneBounds;
+   private final int                width;
+   private final int                height;
+
+   private final List<SceneNode> drawableNodes;
+   private final List<SceneNode> visibleNodes;
+
+   private final double[] projectedX;
+   private final double[] projectedY;
+   private final double[] projectedWidth;
+   private final double[] projectedHeight;
+   private final double[] isometricCorners;
+
+
+
+   /*******************************************************************************
+    ** Constructor - use prepare().
+    *******************************************************************************/
+   private PreparedView(SceneNode sceneRoot, ViewDirection viewDirection, RenderSettings settings)
+   {
+      this.sceneRoot = sceneRoot;
+      this.viewDirection = viewDirection;
+      this.settings = settings;
+
+      this.camera = OrthographicCamera.forView(viewDirection)
+         .withScale(settings.getScale());
+
+      SceneRenderer renderer = new SceneRenderer(settings);
+      Dimension     size     = renderer.calculateCanvasSize(sceneRoot, camera);
+      this.width = size.width;
+      this.height = size.height;
+      this.sceneBounds = sceneRoot.calculateTotalBounds();
+      camera.centerOn(sceneBounds, width, height, settings.getMarginPoints());
+
+      // Every node with geometry, back to front (fixed-scale formats such as PDF)
+      List<SceneNode> drawable = new ArrayList<>();
+      collectDrawableNodes(sceneRoot, drawable);
+      SceneRenderer.sortByDepth(drawable, viewDirection);
+      this.drawableNodes = Collections.unmodifiableList(drawable);
+
+      // The level-of-detail subset, in the same (stable) depth order
+      Set<SceneNode> visibleSet = Collections.newSetFromMap(new IdentityHashMap<>());
+      visibleSet.addAll(renderer.collectVisibleNodes(sceneRoot, camera));
+      List<SceneNode> visible = new ArrayList<>(visibleSet.size());
+      for(SceneNode node : drawable)
+      {
+         if(visibleSet.contains(node))
+         {
+            visible.add(node);
+         }
+      }
+      this.visibleNodes = Collections.unmodifiableList(visible);
+
+      // Bulk-project the visible nodes' bounds in one kernel pass
+      int      count = visible.size();
+      BoxBatch batch = new BoxBatch(count);
+      for(SceneNode node : visible)
+      {
+         batch.add(node.getWorldBounds());
+      }
+      this.projectedX = new double[count];
+      this.projectedY = new double[count];
+      this.projectedWidth = new double[count];
+      this.projectedHeight = new double[count];
+      camera.projectBounds(batch, projectedX, projectedY, projectedWidth, projectedHeight);
+
+      this.isometricCorners = viewDirection.isIsometric() ? projectCorners(visible) : null;
+   }
+
+
+
+   /*******************************************************************************
+    ** Prepare one view.
+    *******************************************************************************/
+   public static PreparedView prepare(SceneNode sceneRoot, ViewDirection viewDirection, RenderSettings settings)
+   {
+      return new PreparedView(sceneRoot, viewDirection, settings);
+   }
+
+
+
+   /*******************************************************************************
+    ** Prepare several views of the same scene, in order.
+    *******************************************************************************/
+   public static List<PreparedView> prepareAll(SceneNode sceneRoot, List<ViewDirection> viewDirections,
+                                               RenderSettings settings)
+   {
+      List<PreparedView> views = new ArrayList<>(viewDirections.size());
+      for(ViewDirection viewDirection : viewDirections)
+      {
+         views.add(prepare(sceneRoot, viewDirection, settings));
+      }
+      return views;
+   }
+
+
+
+   /*******************************************************************************
+    ** Collect all nodes with geometry from the scene graph.
+    *******************************************************************************/
+   private static void collectDrawableNodes(SceneNode node, List<SceneNode> result)
+   {
+      if(node.hasGeometry())
+      {
+         result.add(node);
+      }
+      for(SceneNode child : node.getChildren())
+      {
+         collectDrawableNodes(child, result);
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** Project the eight corners of every node (16 values per node) in one call.
+    ** Corner order: front-left, front-right, back-right, back-left at the
+    ** bottom, then the same four at the top.
+    *******************************************************************************/
+   private double[] projectCorners(List<SceneNode> nodes)
+   {
+      double[] world = new double[nodes.size() * 24];
+      int      i     = 0;
+      for(SceneNode node : nodes)
+      {
+         Box3D    bounds = node.getWorldBounds();
+         Vector3D min    = bounds.min();
+         Vector3D max    = bounds.max();
+         for(int top = 0; top < 2; top++)
+         {
+            double y = top == 0 ? min.y() : max.y();
+            world[i++] = min.x(); world[i++] = y; world[i++] = min.z();
+            world[i++] = max.x(); world[i++] = y; world[i++] = min.z();
+            world[i++] = max.x(); world[i++] = y; world[i++] = max.z();
+            world[i++] = min.x(); world[i++] = y; world[i++] = max.z();
+         }
+      }
+
+      double[] corners = new double[nodes.size() * 16];
+      camera.projectPoints(world, corners);
+      return corners;
+   }
+
+
+
+   /*******************************************************************************
+    ** Getter for sceneRoot
+    *******************************************************************************/
+   public SceneNode getSceneRoot()
+   {
+      return sceneRoot;
+   }
+
+
+
+   /*******************************************************************************
+    ** Getter for viewDirection
+    *******************************************************************************/
+   public ViewDirection getViewDirection()
+   {
+      return viewDirection;
+   }
+
+
+
+   /*******************************************************************************
+    ** Getter for the settings the view was prepared with (scale, margin, LOD)
+    *******************************************************************************/
+   public RenderSettings getSettings()
+   {
+      return settings;
+   }
+
+
+
+   /*******************************************************************************
+    ** Getter for the camera, already centered on the canvas
+    *******************************************************************************/
+   public OrthographicCamera getCamera()
+   {
+      return camera;
+   }
+
+
+
+   /*******************************************************************************
+    ** Getter for sceneBounds
+    *******************************************************************************/
+   public Box3D getSceneBounds()
+   {
+      return sceneBounds;
+   }
+
+
+
+   /*******************************************************************************
+    ** Getter for the canvas width in points
+    *******************************************************************************/
+   public int getWidth()
+   {
+      return width;
+   }
+
+
+
+   /*******************************************************************************
+    ** Getter for the canvas height in points
+    *******************************************************************************/
+   public int getHeight()
+   {
+      return height;
+   }
+
+
+
+   /*******************************************************************************
+    ** Getter for every node with geometry, depth-sorted (ignores level of detail)
+    *******************************************************************************/
+   public List<SceneNode> getDrawableNodes()
+   {
+      return drawableNodes;
+   }
+
+
+
+   /*******************************************************************************
+    ** Getter for the nodes visible at the settings' level of detail, depth-sorted
+    *******************************************************************************/
+   public List<SceneNode> getVisibleNodes()
+   {
+      return visibleNodes;
+   }
+
+
+
+   /*******************************************************************************
+    ** Getter for the projected x of each visible node
+    *******************************************************************************/
+   public double[] getProjectedX()
+   {
+      return projectedX;
+   }
+
+
+
+   /*******************************************************************************
+    ** Getter for the projected y of each visible node
+    *******************************************************************************/
+   public double[] getProjectedY()
+   {
+      return projectedY;
+   }
+
+
+
+   /*******************************************************************************
+    ** Getter for the projected width of each visible node
+    *******************************************************************************/
+   public double[] getProjectedWidth()
+   {
+      return projectedWidth;
+   }
+
+
+
+   /*******************************************************************************
+    ** Getter for the projected height of each visible node
+    *******************************************************************************/
+   public double[] getProjectedHeight()
+   {
+      return projectedHeight;
+   }
+
+
+
+   /*******************************************************************************
+    ** Getter for the projected corners of each visible node (16 values per node;
+    ** null for non-isometric views)
+    *******************************************************************************/
+   public double[] getIsometricCorners()
+   {
+      return isometricCorners;
+   }
+}
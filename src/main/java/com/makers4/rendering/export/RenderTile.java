@@ -0,0 +1,19 @@
+package com.makers4.rendering.export;
+
+
+/*******************************************************************************
+ ** One rendered tile of a viewport window.  Tiles are laid out in a grid from
+ ** the top-left of the window; x and y are the tile's offset within the
+ ** window's canvas, in points.
+ *******************************************************************************/
+public record RenderTile(int row, int column, double x, double y, int width, int height, String content)
+{
+
+   /*******************************************************************************
+    ** Get a stable key for this tile (e.g. for client-side caching).
+    *******************************************************************************/
+   public String key()
+   {
+      return row + "_" + column;
+   }
+}
@@ -0,0 +1,643 @@
+package com.makers4.rendering.export;
+
+
+import java.awt.Color;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+
+/*******************************************************************************
+ ** Minimal SVG element writer that streams straight to an OutputStream.
+ ** Each element is written as soon as it is emitted (through a small fixed
+ ** buffer), so memory use does not grow with the size of the drawing and the
+ ** header reaches the client before the scene has finished rendering.
+ **
+ ** With a style sheet (withStyleSheet) the writer produces compact output:
+ ** paints become CSS classes in a style block, runs of consecutive
+ ** same-class shapes whose paint does not touch are merged into one path, and
+ ** default attributes, the XML prolog and whitespace between elements are
+ ** dropped.
+ *******************************************************************************/
+public class StreamingSvgWriter implements AutoCloseable
+{
+   private static final int    BUFFER_SIZE       = 8192;
+   private static final int    MAX_PATH_SEGMENTS = 64;
+   private static final char[] HEX               = "0123456789abcdef".toCharArray();
+
+   private final Writer writer;
+   private int          precision = 3;
+   private long         scaleFactor = 1000;
+
+   // Compact mode: class lookup, and the currently open merged path (if any)
+   private SvgStyleSheet        styleSheet;
+   private String               pathClass;
+   private final List<double[]> pathBounds = new ArrayList<>();
+
+
+
+   /*******************************************************************************
+    ** Constructor wrapping an output stream (UTF-8).
+    *******************************************************************************/
+   public StreamingSvgWriter(OutputStream output)
+   {
+      this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), BUFFER_SIZE);
+   }
+
+
+
+   /*******************************************************************************
+    ** Write the XML prolog and opening svg element.
+    *******************************************************************************/
+   public StreamingSvgWriter startDocument(double width, double height) throws IOException
+   {
+      // UTF-8 is the XML default, so compact output can skip the prolog
+      if(!isCompact())
+      {
+         writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+      }
+      writer.write("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"");
+      writeNumber(width);
+      writer.write("\" height=\"");
+      writeNumber(height);
+      writer.write("\" viewBox=\"0 0 ");
+      writeNumber(width);
+      writer.write(' ');
+      writeNumber(height);
+      writer.write('"');
+      writer.write('>');
+      writeLineBreak();
+
+      if(isCompact())
+      {
+         writeStyleBlock();
+      }
+
+      // Push the header out right away so the client can start on it
+      writer.flush();
+      return this;
+   }
+
+
+
+   /*******************************************************************************
+    ** Write a rectangle.  A null fill or stroke color omits that paint.
+    *******************************************************************************/
+   public StreamingSvgWriter rect(double x, double y, double width, double height,
+                                  Color fill, Color stroke, float strokeWidth) throws IOException
+   {
+      String cssClass = isCompact() ? styleSheet.findShapeClass(fill, stroke, strokeWidth) : null;
+      if(cssClass != null)
+      {
+         startSubpath(cssClass, strokeHalo(fill, stroke, strokeWidth), x, y, x + width, y + height);
+         writer.write('M');
+         writeNumber(x);
+         writePathNumber(y);
+         writer.write('H');
+         writeNumber(x + width);
+         writer.write('V');
+         writeNumber(y + height);
+         writer.write('H');
+         writeNumber(x);
+         writer.write('z');
+         return this;
+      }
+
+      endPath();
+      writer.write("<rect x=\"");
+      writeNumber(x);
+      writer.write("\" y=\"");
+      writeNumber(y);
+      writer.write("\" width=\"");
+      writeNumber(width);
+      writer.write("\" height=\"");
+      writeNumber(height);
+      writer.write('"');
+      writePaint(fill, stroke, strokeWidth);
+      writer.write("/>");
+      writeLineBreak();
+      return this;
+   }
+
+
+
+   /*******************************************************************************
+    ** Write a closed polygon from the first count points.
+    *******************************************************************************/
+   public StreamingSvgWriter polygon(double[] xPoints, double[] yPoints, int count,
+                                     Color fill, Color stroke, float strokeWidth) throws IOException
+   {
+      String cssClass = isCompact() && count > 0 ? styleSheet.findShapeClass(fill, stroke, strokeWidth) : null;
+      if(cssClass != null)
+      {
+         double minX = xPoints[0], maxX = xPoints[0], minY = yPoints[0], maxY = yPoints[0];
+         for(int i = 1; i < count; i++)
+         {
+            minX = Math.min(minX, xPoints[i]);
+            maxX = Math.max(maxX, xPoints[i]);
+            minY = Math.min(minY, yPoints[i]);
+            maxY = Math.max(maxY, yPoints[i]);
+         }
+
+         // After the moveto, further coordinate pairs are implicit linetos
+         startSubpath(cssClass, strokeHalo(fill, stroke, strokeWidth), minX, minY, maxX, maxY);
+         writer.write('M');
+         writeNumber(xPoints[0]);
+         writePathNumber(yPoints[0]);
+         for(int i = 1; i < count; i++)
+         {
+            writePathNumber(xPoints[i]);
+            writePathNumber(yPoints[i]);
+         }
+         writer.write('z');
+         return this;
+      }
+
+      endPath();
+      writer.write("<polygon points=\"");
+      for(int i = 0; i < count; i++)
+      {
+         if(i > 0)
+         {
+            writer.write(' ');
+         }
+         writeNumber(xPoints[i]);
+         writer.write(',');
+         writeNumber(yPoints[i]);
+      }
+      writer.write('"');
+      writePaint(fill, stroke, strokeWidth);
+      writer.write("/>");
+      writeLineBreak();
+      return this;
+   }
+
+
+
+   /*******************************************************************************
+    ** Write a text element (content is XML-escaped).
+    *******************************************************************************/
+   public StreamingSvgWriter text(double x, double y, String text, Color fill,
+                                  String fontFamily, double fontSize) throws IOException
+   {
+      endPath();
+      writer.write("<text x=\"");
+      writeNumber(x);
+      writer.write("\" y=\"");
+      writeNumber(y);
+
+      String cssClass = isCompact() ? styleSheet.findTextClass(fill, fontFamily, fontSize) : null;
+      if(cssClass != null)
+      {
+         writer.write("\" class=\"");
+         writer.write(cssClass);
+         writer.write("\">");
+         writeEscaped(text);
+         writer.write("</text>");
+         return this;
+      }
+
+      writer.write("\" font-family=\"");
+      writeEscaped(fontFamily);
+      writer.write("\" font-size=\"");
+      writeNumber(fontSize);
+      writer.write("\" fill=\"");
+      writeColor(fill);
+      writer.write('"');
+      writeOpacityAttribute("fill-opacity", fill);
+      writer.write('>');
+      writeEscaped(text);
+      writer.write("</text>");
+      writeLineBreak();
+      return this;
+   }
+
+
+
+   /*******************************************************************************
+    ** Close the svg element and flush.
+    *******************************************************************************/
+   public StreamingSvgWriter endDocument() throws IOException
+   {
+      endPath();
+      writer.write("</svg>\n");
+      writer.flush();
+      return this;
+   }
+
+
+
+   /*******************************************************************************
+    ** Flush and close the underlying stream.
+    *******************************************************************************/
+   @Override
+   public void close() throws IOException
+   {
+      writer.close();
+   }
+
+
+
+   /*******************************************************************************
+    ** Whether the writer is producing compact (class-based) output.
+    *******************************************************************************/
+   private boolean isCompact()
+   {
+      return styleSheet != null;
+   }
+
+
+
+   /*******************************************************************************
+    ** Write a newline between elements (verbose mode only).
+    *******************************************************************************/
+   private void writeLineBreak() throws IOException
+   {
+      if(!isCompact())
+      {
+         writer.write('\n');
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** Write the style block with one rule per registered class.  Values equal to
+    ** the SVG defaults (black fill, no stroke, stroke width 1) are left out.
+    *******************************************************************************/
+   private void writeStyleBlock() throws IOException
+   {
+      if(styleSheet.getShapeClasses().isEmpty() && styleSheet.getTextClasses().isEmpty())
+      {
+         return;
+      }
+
+      writer.write("<style>");
+      for(Map.Entry<SvgStyleSheet.ShapeStyle, String> entry : styleSheet.getShapeClasses().entrySet())
+      {
+         SvgStyleSheet.ShapeStyle style = entry.getKey();
+         writer.write('.');
+         writer.write(entry.getValue());
+         writer.write('{');
+
+         String separator = "";
+         if(style.fill() == null)
+         {
+            writer.write("fill:none");
+            separator = ";";
+         }
+         else if(!Color.BLACK.equals(style.fill()))
+         {
+            writer.write("fill:");
+            writeColor(style.fill());
+            writeOpacityProperty("fill-opacity", style.fill());
+            separator = ";";
+         }
+
+         if(style.stroke() != null)
+         {
+            writer.write(separator);
+            writer.write("stroke:");
+            writeColor(style.stroke());
+            writeOpacityProperty("stroke-opacity", style.stroke());
+            if(style.strokeWidth() != 1f)
+            {
+               writer.write(";stroke-width:");
+               writeNumber(style.strokeWidth());
+            }
+         }
+         writer.write('}');
+      }
+
+      for(Map.Entry<SvgStyleSheet.TextStyle, String> entry : styleSheet.getTextClasses().entrySet())
+      {
+         SvgStyleSheet.TextStyle style = entry.getKey();
+         writer.write('.');
+         writer.write(entry.getValue());
+         writer.write("{font-family:");
+         writeEscaped(style.fontFamily());
+         writer.write(";font-size:");
+         writeNumber(style.fontSize());
+         writer.write("px");
+         if(!Color.BLACK.equals(style.fill()))
+         {
+            writer.write(";fill:");
+            writeColor(style.fill());
+            writeOpacityProperty("fill-opacity", style.fill());
+         }
+         writer.write('}');
+      }
+      writer.write("</style>");
+   }
+
+
+
+   /*******************************************************************************
+    ** Continue the open path with a new subpath, or start a new path element.
+    ** A shape only joins the open path if it has the same class and its
+    ** painted area, stroke included, does not touch any shape already in it.
+    ** Within one path every fill is painted before any stroke, so merging
+    ** shapes whose paint meets - including neighbours sharing an edge, whose
+    ** later fill would cover half the earlier stroke - would change the
+    ** result.  Only consecutive shapes are merged, so draw order is kept.
+    *******************************************************************************/
+   private void startSubpath(String cssClass, double halo, double minX, double minY, double maxX, double maxY) throws IOException
+   {
+      double[] bounds = { minX - halo, minY - halo, maxX + halo, maxY + halo };
+      if(cssClass.equals(pathClass) && pathBounds.size() < MAX_PATH_SEGMENTS && !overlapsPath(bounds))
+      {
+         pathBounds.add(bounds);
+         return;
+      }
+
+      endPath();
+      writer.write("<path class=\"");
+      writer.write(cssClass);
+      writer.write("\" d=\"");
+      pathClass = cssClass;
+      pathBounds.add(bounds);
+   }
+
+
+
+   /*******************************************************************************
+    ** Check whether bounds overlap (not merely touch) any subpath in the open path.
+    *******************************************************************************/
+   private boolean overlapsPath(double[] bounds)
+   {
+      for(double[] other : pathBounds)
+      {
+         if(bounds[0] < other[2] && other[0] < bounds[2] && bounds[1] < other[3] && other[1] < bounds[3])
+         {
+            return true;
+         }
+      }
+      return false;
+   }
+
+
+
+   /*******************************************************************************
+    ** How far a shape's paint reaches past its outline, for the merge test: half
+    ** the stroke width when a stroke could be covered by a fill, else nothing
+    ** (shapes of one class with only a fill or only a stroke paint the same
+    ** in any order).
+    *******************************************************************************/
+   private static double strokeHalo(Color fill, Color stroke, float strokeWidth)
+   {
+      return fill != null && stroke != null ? strokeWidth / 2.0 : 0;
+   }
+
+
+
+   /*******************************************************************************
+    ** Close the open path element, if any.
+    *******************************************************************************/
+   private void endPath() throws IOException
+   {
+      if(pathClass != null)
+      {
+         writer.write("\"/>");
+         pathClass = null;
+         pathBounds.clear();
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** Write a path coordinate after a previous one: a space separates them,
+    ** except before a minus sign, which already delimits the number.
+    *******************************************************************************/
+   private void writePathNumber(double value) throws IOException
+   {
+      if(Math.round(value * scaleFactor) >= 0)
+      {
+         writer.write(' ');
+      }
+      writeNumber(value);
+   }
+
+
+
+   /*******************************************************************************
+    ** Write fill/stroke attributes.
+    *******************************************************************************/
+   private void writePaint(Color fill, Color stroke, float strokeWidth) throws IOException
+   {
+      writer.write(" fill=\"");
+      if(fill == null)
+      {
+         writer.write("none");
+      }
+      else
+      {
+         writeColor(fill);
+      }
+      writer.write('"');
+      writeOpacityAttribute("fill-opacity", fill);
+
+      if(stroke != null)
+      {
+         writer.write(" stroke=\"");
+         writeColor(stroke);
+         writer.write('"');
+         writeOpacityAttribute("stroke-opacity", stroke);
+         writer.write(" stroke-width=\"");
+         writeNumber(strokeWidth);
+         writer.write('"');
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** Write a color as #rrggbb, or as #rgb in compact mode when that is exact.
+    *******************************************************************************/
+   private void writeColor(Color color) throws IOException
+   {
+      int red   = color.getRed();
+      int green = color.getGreen();
+      int blue  = color.getBlue();
+
+      writer.write('#');
+      if(isCompact() && red % 17 == 0 && green % 17 == 0 && blue % 17 == 0)
+      {
+         writer.write(HEX[red / 17]);
+         writer.write(HEX[green / 17]);
+         writer.write(HEX[blue / 17]);
+         return;
+      }
+      writeHexByte(red);
+      writeHexByte(green);
+      writeHexByte(blue);
+   }
+
+
+
+   /*******************************************************************************
+    ** Write an opacity attribute (e.g. fill-opacity="0.5") for a translucent
+    ** color; nothing for an opaque or null one.
+    *******************************************************************************/
+   private void writeOpacityAttribute(String name, Color color) throws IOException
+   {
+      if(color != null && color.getAlpha() < 255)
+      {
+         writer.write(' ');
+         writer.write(name);
+         writer.write("=\"");
+         writeOpacity(color);
+         writer.write('"');
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** Write an opacity CSS property (e.g. ;fill-opacity:0.5) for a translucent
+    ** color; nothing for an opaque or null one.
+    *******************************************************************************/
+   private void writeOpacityProperty(String name, Color color) throws IOException
+   {
+      if(color != null && color.getAlpha() < 255)
+      {
+         writer.write(';');
+         writer.write(name);
+         writer.write(':');
+         writeOpacity(color);
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** Write a color's alpha as an opacity between 0 and 1, to three decimals
+    ** whatever the coordinate precision.
+    *******************************************************************************/
+   private void writeOpacity(Color color) throws IOException
+   {
+      long thousandths = Math.round(color.getAlpha() * 1000 / 255.0);
+      writer.write(BigDecimal.valueOf(thousandths, 3).stripTrailingZeros().toPlainString());
+   }
+
+
+
+   /*******************************************************************************
+    ** Write one byte as two lowercase hex digits.
+    *******************************************************************************/
+   private void writeHexByte(int value) throws IOException
+   {
+      writer.write(HEX[(value >> 4) & 0xF]);
+      writer.write(HEX[value & 0xF]);
+   }
+
+
+
+   /*******************************************************************************
+    ** Write a number rounded to the configured precision, without trailing
+    ** zeros and without going through String.format.
+    *******************************************************************************/
+   private void writeNumber(double value) throws IOException
+   {
+      long scaled = Math.round(value * scaleFactor);
+      if(scaled < 0)
+      {
+         writer.write('-');
+         scaled = -scaled;
+      }
+
+      long whole    = scaled / scaleFactor;
+      long fraction = scaled % scaleFactor;
+
+      // Compact output drops the leading zero of pure fractions (".5")
+      if(whole != 0 || fraction == 0 || !isCompact())
+      {
+         writer.write(Long.toString(whole));
+      }
+
+      if(fraction != 0)
+      {
+         writer.write('.');
+         long divisor = scaleFactor / 10;
+         while(fraction != 0)
+         {
+            writer.write((char) ('0' + fraction / divisor));
+            fraction %= divisor;
+            divisor /= 10;
+         }
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** Write text with XML special characters escaped.
+    *******************************************************************************/
+   private void writeEscaped(String text) throws IOException
+   {
+      for(int i = 0; i < text.length(); i++)
+      {
+         char c = text.charAt(i);
+         switch(c)
+         {
+            case '<' -> writer.write("&lt;");
+            case '>' -> writer.write("&gt;");
+            case '&' -> writer.write("&amp;");
+            case '"' -> writer.write("&quot;");
+            default -> writer.write(c);
+         }
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** Getter for precision
+    *******************************************************************************/
+   public int getPrecision()
+   {
+      return precision;
+   }
+
+
+
+   /*******************************************************************************
+    ** Fluent setter for precision (decimal places for coordinates, 0-6)
+    *******************************************************************************/
+   public StreamingSvgWriter withPrecision(int precision)
+   {
+      this.precision = Math.max(0, Math.min(6, precision));
+      this.scaleFactor = (long) Math.pow(10, this.precision);
+      return this;
+   }
+
+
+
+   /*******************************************************************************
+    ** Getter for styleSheet
+    *******************************************************************************/
+   public SvgStyleSheet getStyleSheet()
+   {
+      return styleSheet;
+   }
+
+
+
+   /*******************************************************************************
+    ** Fluent setter for styleSheet - switches the writer to compact output.  Set
+    ** it, with every paint registered, before startDocument.  Paints that were
+    ** not registered fall back to inline attributes.
+    *******************************************************************************/
+   public StreamingSvgWriter withStyleSheet(SvgStyleSheet styleSheet)
+   {
+      this.styleSheet = styleSheet;
+      return this;
+   }
+}
@@ -1,21 +1,28 @@
 package com.makers4.rendering.export;
 
 
-import java.awt.Dimension;
+import java.awt.Color;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
-import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import com.makers4.rendering.RenderSettings;
 import com.makers4.rendering.SceneRenderer;
 import com.makers4.rendering.camera.OrthographicCamera;
 import com.makers4.rendering.camera.ViewDirection;
+import com.makers4.rendering.core.Box3D;
+import com.makers4.rendering.core.BoxBatch;
+import com.makers4.rendering.core.Vector3D;
+import com.makers4.rendering.scene.RenderStyle;
 import com.makers4.rendering.scene.SceneNode;
+import com.makers4.rendering.scene.SpatialIndex;
 import org.jfree.graphics2d.svg.SVGGraphics2D;
 
 
 /*******************************************************************************
  ** Exporter for SVG vector graphics.
- ** Uses JFreeSVG library which provides a Graphics2D implementation that outputs SVG.
+ ** Full views are streamed element-by-element to the output (StreamingSvgWriter)
+ ** so memory stays flat regardless of scene size; window tiles, which are
+ ** returned as strings, use JFreeSVG's Graphics2D implementation.
  *******************************************************************************/
 public class SvgExporter implements Exporter
 {
@@ -27,45 +34,382 @@ public class SvgExporter implements Exporter
    public void exportView(SceneNode sceneRoot, ViewDirection viewDirection,
                           RenderSettings settings, OutputStream output) throws ExportException
    {
-      // Set up camera
-      OrthographicCamera camera = OrthographicCamera.forView(viewDirection)
-         .withScale(settings.getScale());
+      exportPrepared(List.of(PreparedView.prepare(sceneRoot, viewDirection, settings)), settings, output);
+   }
+
+
+
+   /*******************************************************************************
+    ** Export the first prepared view, streaming its already-projected geometry.
+    ** Level of detail - which nodes are drawn, labelled and shaded - comes from
+    ** the settings the view was prepared with, so the visible nodes and their
+    ** labels and shading always agree; the given settings supply the paint,
+    ** labels switch and SVG output options.
+    *******************************************************************************/
+   @Override
+   public void exportPrepared(List<PreparedView> views, RenderSettings settings,
+                              OutputStream output) throws ExportException
+   {
+      if(views.isEmpty())
+      {
+         return;
+      }
+
+      PreparedView view = views.get(0);
+
+      // Stream elements straight to the output as nodes are rendered
+      try(StreamingSvgWriter svg = new StreamingSvgWriter(output).withPrecision(settings.getSvgPrecision()))
+      {
+         if(settings.isCompactSvg())
+         {
+            svg.withStyleSheet(createStyleSheet(view, settings));
+         }
+         svg.startDocument(view.getWidth(), view.getHeight());
+
+         // Draw background
+         if(settings.getBackgroundColor() != null)
+         {
+            svg.rect(0, 0, view.getWidth(), view.getHeight(), settings.getBackgroundColor(), null, 0);
+         }
+
+         List<SceneNode> nodesToRender = view.getVisibleNodes();
+         for(int i = 0; i < nodesToRender.size(); i++)
+         {
+            if(view.getViewDirection().isIsometric())
+            {
+               streamIsometricNode(svg, nodesToRender.get(i), view, i, settings);
+            }
+            else
+            {
+               streamOrthographicNode(svg, nodesToRender.get(i), view, i, settings);
+            }
+         }
+
+         svg.endDocument();
+      }
+      catch(Exception e)
+      {
+         throw new ExportException("Failed to write SVG document", e);
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** Stream the index'th visible node of a view in orthographic projection.
+    *******************************************************************************/
+   private void streamOrthographicNode(StreamingSvgWriter svg, SceneNode node, PreparedView view,
+                                       int index, RenderSettings settings) throws Exception
+   {
+      double x      = view.getProjectedX()[index];
+      double y      = view.getProjectedY()[index];
+      double width  = view.getProjectedWidth()[index];
+      double height = view.getProjectedHeight()[index];
+
+      RenderStyle style = node.getStyle();
+      svg.rect(x, y, width, height, resolveFill(style, settings), resolveStroke(style, settings), style.getStrokeWidth());
+
+      // Label
+      if(isLabelDrawn(node, view, width, height, settings))
+      {
+         String displayLabel = SceneRenderer.truncateLabel(node.getLabel(), 12);
+         double labelX       = x + width / 2 - displayLabel.length() * 3;
+         double labelY       = y + height / 2 + 3;
+         svg.text(labelX, labelY, displayLabel, style.getLabelColor(), "sans-serif", (int) style.getLabelFontSize());
+      }
+   }
+
+
 
-      // Create renderer
-      SceneRenderer renderer = new SceneRenderer(settings);
+   /*******************************************************************************
+    ** Stream the index'th visible node of a view in isometric projection - three
+    ** shaded faces, or a single flat silhouette when the level of detail says
+    ** the box is too small.
+    *******************************************************************************/
+   private void streamIsometricNode(StreamingSvgWriter svg, SceneNode node, PreparedView view,
+                                    int index, RenderSettings settings) throws Exception
+   {
+      double[] corners = view.getIsometricCorners();
+      int      base    = index * 16;
+
+      RenderStyle style       = node.getStyle();
+      Color       fillColor   = resolveFill(style, settings);
+      Color       strokeColor = resolveStroke(style, settings);
+      float       strokeWidth = style.getStrokeWidth();
+
+      if(!isShaded(view, index))
+      {
+         streamFace(svg, corners, base, SceneRenderer.ISOMETRIC_SILHOUETTE, fillColor, strokeColor, strokeWidth);
+         return;
+      }
+
+      // Top (lightest), front (medium), side (darker)
+      streamFace(svg, corners, base, new int[] { 4, 5, 6, 7 },
+         fillColor == null ? null : SceneRenderer.adjustBrightness(fillColor, 1.05f), strokeColor, strokeWidth);
+      streamFace(svg, corners, base, new int[] { 0, 1, 5, 4 }, fillColor, strokeColor, strokeWidth);
+      streamFace(svg, corners, base, new int[] { 0, 3, 7, 4 },
+         fillColor == null ? null : SceneRenderer.adjustBrightness(fillColor, 0.9f), strokeColor, strokeWidth);
+   }
 
-      // Calculate canvas size
-      Dimension size = renderer.calculateCanvasSize(sceneRoot, camera);
 
-      // Center content in canvas
-      camera.centerOn(sceneRoot.calculateTotalBounds(),
-         size.getWidth(), size.getHeight(), settings.getMarginPoints());
 
-      // JFreeSVG provides a Graphics2D that outputs SVG
-      SVGGraphics2D g2d = new SVGGraphics2D(size.width, size.height);
+   /*******************************************************************************
+    ** Stream one polygon through the given projected corner indexes, relative to
+    ** a node's first corner value at base.
+    *******************************************************************************/
+   private void streamFace(StreamingSvgWriter svg, double[] corners, int base, int[] indexes,
+                           Color fill, Color stroke, float strokeWidth) throws Exception
+   {
+      double[] xPoints = new double[indexes.length];
+      double[] yPoints = new double[indexes.length];
+      for(int i = 0; i < indexes.length; i++)
+      {
+         xPoints[i] = corners[base + indexes[i] * 2];
+         yPoints[i] = corners[base + indexes[i] * 2 + 1];
+      }
+      svg.polygon(xPoints, yPoints, indexes.length, fill, stroke, strokeWidth);
+   }
+
 
-      // Draw background
+
+   /*******************************************************************************
+    ** Register every paint the view will use, so the compact writer can put
+    ** them all in the style block ahead of the first element.
+    *******************************************************************************/
+   private SvgStyleSheet createStyleSheet(PreparedView view, RenderSettings settings)
+   {
+      SvgStyleSheet styleSheet = new SvgStyleSheet();
       if(settings.getBackgroundColor() != null)
       {
-         g2d.setColor(settings.getBackgroundColor());
-         g2d.fillRect(0, 0, size.width, size.height);
+         styleSheet.shapeClass(settings.getBackgroundColor(), null, 0);
       }
 
-      // Render using our standard Graphics2D renderer
-      renderer.render(sceneRoot, camera, g2d);
+      List<SceneNode> nodes = view.getVisibleNodes();
+      for(int i = 0; i < nodes.size(); i++)
+      {
+         SceneNode   node        = nodes.get(i);
+         RenderStyle style       = node.getStyle();
+         Color       fillColor   = resolveFill(style, settings);
+         Color       strokeColor = resolveStroke(style, settings);
+         float       strokeWidth = style.getStrokeWidth();
 
-      // Get the SVG document
-      String svgDocument = g2d.getSVGDocument();
+         styleSheet.shapeClass(fillColor, strokeColor, strokeWidth);
+         if(view.getViewDirection().isIsometric())
+         {
+            if(fillColor != null && isShaded(view, i))
+            {
+               styleSheet.shapeClass(SceneRenderer.adjustBrightness(fillColor, 1.05f), strokeColor, strokeWidth);
+               styleSheet.shapeClass(SceneRenderer.adjustBrightness(fillColor, 0.9f), strokeColor, strokeWidth);
+            }
+         }
+         else if(isLabelDrawn(node, view, view.getProjectedWidth()[i], view.getProjectedHeight()[i], settings))
+         {
+            styleSheet.textClass(style.getLabelColor(), "sans-serif", (int) style.getLabelFontSize());
+         }
+      }
+      return styleSheet;
+   }
 
-      // Write to output stream
-      try(OutputStreamWriter writer = new OutputStreamWriter(output, StandardCharsets.UTF_8))
+
+
+   /*******************************************************************************
+    ** Whether a node's label is drawn at the given projected size, by the
+    ** view's level of detail.
+    *******************************************************************************/
+   private boolean isLabelDrawn(SceneNode node, PreparedView view, double width, double height, RenderSettings settings)
+   {
+      return node.getStyle().isShowLabel() && settings.isShowPartLabels()
+         && view.getSettings().getLevelOfDetail().isLabelVisible(width, height)
+         && node.getLabel() != null && !node.getLabel().isEmpty();
+   }
+
+
+
+   /*******************************************************************************
+    ** Whether the index'th visible node of an isometric view gets shaded faces.
+    *******************************************************************************/
+   private boolean isShaded(PreparedView view, int index)
+   {
+      return view.getSettings().getLevelOfDetail().isShadingVisible(view.getProjectedWidth()[index], view.getProjectedHeight()[index]);
+   }
+
+
+
+   /*******************************************************************************
+    ** Resolve a node's fill color, falling back to the settings.
+    *******************************************************************************/
+   private Color resolveFill(RenderStyle style, RenderSettings settings)
+   {
+      return style.getFillColor() != null ? style.getFillColor() : settings.getFillColor();
+   }
+
+
+
+   /*******************************************************************************
+    ** Resolve a node's stroke color, falling back to the settings.
+    *******************************************************************************/
+   private Color resolveStroke(RenderStyle style, RenderSettings settings)
+   {
+      return style.getStrokeColor() != null ? style.getStrokeColor() : settings.getOutlineColor();
+   }
+
+
+
+   /*******************************************************************************
+    ** Render only a world-space window of a scene, at the given scale, as a grid
+    ** of SVG tiles.  Convenience overload that indexes the scene first - callers
+    ** that pan/zoom repeatedly should build the SpatialIndex once and reuse it.
+    *******************************************************************************/
+   public List<RenderTile> exportWindow(SceneNode sceneRoot, ViewDirection viewDirection, Box3D window,
+                                        double scale, int tileSize, RenderSettings settings) throws ExportException
+   {
+      return exportWindow(SpatialIndex.build(sceneRoot), viewDirection, window, scale, tileSize, settings);
+   }
+
+
+
+   /*******************************************************************************
+    ** Render only a world-space window of an indexed scene, at the given scale,
+    ** as a grid of SVG tiles (row-major, from the top-left of the window).
+    **
+    ** For orthographic views the window is extended along the viewing axis to
+    ** cover the whole scene, so only its extent in the view plane matters.  Only
+    ** nodes intersecting the window are considered, and each tile draws only
+    ** the nodes that overlap it.
+    *******************************************************************************/
+   public List<RenderTile> exportWindow(SpatialIndex index, ViewDirection viewDirection, Box3D window,
+                                        double scale, int tileSize, RenderSettings settings) throws ExportException
+   {
+      if(scale <= 0 || tileSize <= 0)
       {
-         writer.write(svgDocument);
+         throw new ExportException("Scale and tile size must be positive");
       }
-      catch(Exception e)
+
+      OrthographicCamera camera = OrthographicCamera.forView(viewDirection).withScale(scale);
+      Box3D cullWindow = extendAlongViewAxis(window, viewDirection, index.getSceneBounds());
+
+      // Screen rectangle of the window at offset 0
+      double[] windowRect = projectedBounds(camera, cullWindow);
+
+      // Spatial culling - only nodes inside the window, with their screen rectangles
+      List<SceneNode> candidates = index.query(cullWindow);
+      BoxBatch        batch      = new BoxBatch(candidates.size());
+      for(SceneNode node : candidates)
       {
-         throw new ExportException("Failed to write SVG document", e);
+         batch.add(node.getWorldBounds());
       }
+      double[] rectX      = new double[candidates.size()];
+      double[] rectY      = new double[candidates.size()];
+      double[] rectWidth  = new double[candidates.size()];
+      double[] rectHeight = new double[candidates.size()];
+      camera.projectBounds(batch, rectX, rectY, rectWidth, rectHeight);
+
+      int columns = Math.max(1, (int) Math.ceil(windowRect[2] / tileSize));
+      int rows    = Math.max(1, (int) Math.ceil(windowRect[3] / tileSize));
+
+      SceneRenderer    renderer = new SceneRenderer(settings);
+      List<RenderTile> tiles    = new ArrayList<>(rows * columns);
+      for(int row = 0; row < rows; row++)
+      {
+         for(int column = 0; column < columns; column++)
+         {
+            double tileX      = column * (double) tileSize;
+            double tileY      = row * (double) tileSize;
+            int    tileWidth  = (int) Math.max(1, Math.min(tileSize, Math.ceil(windowRect[2] - tileX)));
+            int    tileHeight = (int) Math.max(1, Math.min(tileSize, Math.ceil(windowRect[3] - tileY)));
+
+            double left = windowRect[0] + tileX;
+            double top  = windowRect[1] + tileY;
+
+            List<SceneNode> tileNodes = new ArrayList<>();
+            for(int i = 0; i < candidates.size(); i++)
+            {
+               if(rectX[i] <= left + tileWidth && rectX[i] + rectWidth[i] >= left
+                  && rectY[i] <= top + tileHeight && rectY[i] + rectHeight[i] >= top)
+               {
+                  tileNodes.add(candidates.get(i));
+               }
+            }
+
+            OrthographicCamera tileCamera = OrthographicCamera.forView(viewDirection)
+               .withScale(scale)
+               .withOffsetX(-left)
+               .withOffsetY(-top);
+
+            SVGGraphics2D g2d = new SVGGraphics2D(tileWidth, tileHeight);
+            if(settings.isCompactSvg())
+            {
+               g2d.setGeometryDP(settings.getSvgPrecision());
+               g2d.setTransformDP(settings.getSvgPrecision());
+            }
+            if(settings.getBackgroundColor() != null)
+            {
+               g2d.setColor(settings.getBackgroundColor());
+               g2d.fillRect(0, 0, tileWidth, tileHeight);
+            }
+            renderer.renderNodes(tileNodes, tileCamera, g2d);
+
+            tiles.add(new RenderTile(row, column, tileX, tileY, tileWidth, tileHeight, g2d.getSVGDocument()));
+         }
+      }
+
+      return tiles;
+   }
+
+
+
+   /*******************************************************************************
+    ** For orthographic views, stretch a window along the viewing axis so it
+    ** covers the scene's full depth.  Isometric windows are used as given.
+    *******************************************************************************/
+   private Box3D extendAlongViewAxis(Box3D window, ViewDirection viewDirection, Box3D sceneBounds)
+   {
+      if(viewDirection.isIsometric())
+      {
+         return window;
+      }
+
+      Vector3D min = window.min();
+      Vector3D max = window.max();
+      boolean  x   = isViewPlaneAxis(viewDirection, ViewDirection.Axis.X);
+      boolean  y   = isViewPlaneAxis(viewDirection, ViewDirection.Axis.Y);
+      boolean  z   = isViewPlaneAxis(viewDirection, ViewDirection.Axis.Z);
+
+      Vector3D newMin = new Vector3D(
+         x ? min.x() : Math.min(min.x(), sceneBounds.min().x()),
+         y ? min.y() : Math.min(min.y(), sceneBounds.min().y()),
+         z ? min.z() : Math.min(min.z(), sceneBounds.min().z()));
+      Vector3D newMax = new Vector3D(
+         x ? max.x() : Math.max(max.x(), sceneBounds.max().x()),
+         y ? max.y() : Math.max(max.y(), sceneBounds.max().y()),
+         z ? max.z() : Math.max(max.z(), sceneBounds.max().z()));
+
+      return new Box3D(newMin, newMax.subtract(newMin));
+   }
+
+
+
+   /*******************************************************************************
+    ** Check if an axis is one of the two screen axes of an orthographic view.
+    *******************************************************************************/
+   private boolean isViewPlaneAxis(ViewDirection viewDirection, ViewDirection.Axis axis)
+   {
+      return viewDirection.getHorizontalAxis() == axis || viewDirection.getVerticalAxis() == axis;
+   }
+
+
+
+   /*******************************************************************************
+    ** Screen rectangle {x, y, width, height} enclosing a projected box.
+    *******************************************************************************/
+   private double[] projectedBounds(OrthographicCamera camera, Box3D box)
+   {
+      double[] x = new double[1];
+      double[] y = new double[1];
+      double[] w = new double[1];
+      double[] h = new double[1];
+      camera.projectBounds(new BoxBatch(1).add(box), x, y, w, h);
+      return new double[] { x[0], y[0], w[0], h[0] };
    }
 
 
@@ -0,0 +1,102 @@
+package com.makers4.rendering.export;
+
+
+import java.awt.Color;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+
+/*******************************************************************************
+ ** Registry of the distinct paints used in a compact SVG document, each mapped
+ ** to a short CSS class name.  Register every paint before the document starts
+ ** (the style block is written with the header); StreamingSvgWriter then emits
+ ** class="..." instead of inline fill/stroke attributes.
+ *******************************************************************************/
+public class SvgStyleSheet
+{
+   private final Map<ShapeStyle, String> shapeClasses = new LinkedHashMap<>();
+   private final Map<TextStyle, String>  textClasses  = new LinkedHashMap<>();
+
+
+
+   /*******************************************************************************
+    ** Fill and stroke of a shape (a null fill means no fill; a null stroke
+    ** means no stroke).
+    *******************************************************************************/
+   public record ShapeStyle(Color fill, Color stroke, float strokeWidth)
+   {
+   }
+
+
+
+   /*******************************************************************************
+    ** Font and color of a text element.
+    *******************************************************************************/
+   public record TextStyle(Color fill, String fontFamily, double fontSize)
+   {
+   }
+
+
+
+   /*******************************************************************************
+    ** Register a shape paint (if new) and return its class name.
+    *******************************************************************************/
+   public String shapeClass(Color fill, Color stroke, float strokeWidth)
+   {
+      ShapeStyle style = new ShapeStyle(fill, stroke, stroke == null ? 0 : strokeWidth);
+      return shapeClasses.computeIfAbsent(style, s -> "s" + shapeClasses.size());
+   }
+
+
+
+   /*******************************************************************************
+    ** Register a text style (if new) and return its class name.
+    *******************************************************************************/
+   public String textClass(Color fill, String fontFamily, double fontSize)
+   {
+      TextStyle style = new TextStyle(fill, fontFamily, fontSize);
+      return textClasses.computeIfAbsent(style, s -> "t" + textClasses.size());
+   }
+
+
+
+   /*******************************************************************************
+    ** Look up the class for a shape paint without registering it (null if the
+    ** paint was never registered).
+    *******************************************************************************/
+   public String findShapeClass(Color fill, Color stroke, float strokeWidth)
+   {
+      return shapeClasses.get(new ShapeStyle(fill, stroke, stroke == null ? 0 : strokeWidth));
+   }
+
+
+
+   /*******************************************************************************
+    ** Look up the class for a text style without registering it.
+    *******************************************************************************/
+   public String findTextClass(Color fill, String fontFamily, double fontSize)
+   {
+      return textClasses.get(new TextStyle(fill, fontFamily, fontSize));
+   }
+
+
+
+   /*******************************************************************************
+    ** Getter for the registered shape classes, in registration order
+    *******************************************************************************/
+   public Map<ShapeStyle, String> getShapeClasses()
+   {
+      return Collections.unmodifiableMap(shapeClasses);
+   }
+
+
+
+   /*******************************************************************************
+    ** Getter for the registered text classes, in registration order
+    *******************************************************************************/
+   public Map<TextStyle, String> getTextClasses()
+   {
+      return Collections.unmodifiableMap(textClasses);
+   }
+}
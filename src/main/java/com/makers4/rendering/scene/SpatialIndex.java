@@ -0,0 +1,216 @@
+package com.makers4.rendering.scene;
+
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import com.makers4.rendering.core.Box3D;
+import com.makers4.rendering.core.Vector3D;
+
+
+/*******************************************************************************
+ ** Uniform-grid spatial index over the world bounds of a scene's geometry.
+ ** Built once per scene, then queried for the nodes intersecting a window, so
+ ** the cost of a query is proportional to what is inside the window rather
+ ** than to the size of the whole scene.
+ *******************************************************************************/
+public class SpatialIndex
+{
+   private static final int MAX_CELLS_PER_AXIS = 64;
+
+   private final List<SceneNode> nodes;
+   private final List<Box3D>     bounds;
+   private final Box3D           sceneBounds;
+   private final int             cellsX;
+   private final int             cellsY;
+   private final int             cellsZ;
+   private final List<int[]>     cells;
+
+
+
+   /*******************************************************************************
+    ** Constructor - use build() to create from a scene.
+    *******************************************************************************/
+   private SpatialIndex(List<SceneNode> nodes, List<Box3D> bounds, Box3D sceneBounds)
+   {
+      this.nodes = nodes;
+      this.bounds = bounds;
+      this.sceneBounds = sceneBounds;
+
+      // Roughly one node per cell, spread across the axes
+      int perAxis = Math.max(1, Math.min(MAX_CELLS_PER_AXIS, (int) Math.ceil(Math.cbrt(nodes.size()))));
+      this.cellsX = sceneBounds.width() > 0 ? perAxis : 1;
+      this.cellsY = sceneBounds.height() > 0 ? perAxis : 1;
+      this.cellsZ = sceneBounds.depth() > 0 ? perAxis : 1;
+
+      List<List<Integer>> buckets = new ArrayList<>();
+      for(int i = 0; i < cellsX * cellsY * cellsZ; i++)
+      {
+         buckets.add(new ArrayList<>());
+      }
+
+      for(int i = 0; i < nodes.size(); i++)
+      {
+         int[] range = cellRange(bounds.get(i));
+         for(int x = range[0]; x <= range[3]; x++)
+         {
+            for(int y = range[1]; y <= range[4]; y++)
+            {
+               for(int z = range[2]; z <= range[5]; z++)
+               {
+                  buckets.get(cellIndex(x, y, z)).add(i);
+               }
+            }
+         }
+      }
+
+      this.cells = new ArrayList<>(buckets.size());
+      for(List<Integer> bucket : buckets)
+      {
+         this.cells.add(bucket.stream().mapToInt(Integer::intValue).toArray());
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** Build an index over every node with geometry in the scene.
+    *******************************************************************************/
+   public static SpatialIndex build(SceneNode rootNode)
+   {
+      List<SceneNode> nodes  = new ArrayList<>();
+      List<Box3D>     bounds = new ArrayList<>();
+      collect(rootNode, Vector3D.origin(), nodes, bounds);
+
+      Box3D sceneBounds = bounds.isEmpty() ? rootNode.getWorldBounds() : bounds.get(0);
+      for(Box3D box : bounds)
+      {
+         sceneBounds = sceneBounds.union(box);
+      }
+
+      return new SpatialIndex(nodes, bounds, sceneBounds);
+   }
+
+
+
+   /*******************************************************************************
+    ** Collect nodes with geometry in scene order, accumulating world positions
+    ** on the way down instead of walking back up the parent chain per node.
+    *******************************************************************************/
+   private static void collect(SceneNode node, Vector3D parentPosition, List<SceneNode> nodes, List<Box3D> bounds)
+   {
+      Vector3D worldPosition = parentPosition.add(node.getPosition());
+      if(node.hasGeometry())
+      {
+         nodes.add(node);
+         bounds.add(new Box3D(worldPosition, node.getSize()));
+      }
+      for(SceneNode child : node.getChildren())
+      {
+         collect(child, worldPosition, nodes, bounds);
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** Find all nodes whose world bounds intersect the window, in scene order.
+    *******************************************************************************/
+   public List<SceneNode> query(Box3D window)
+   {
+      List<SceneNode> result = new ArrayList<>();
+      if(nodes.isEmpty() || !window.intersects(sceneBounds))
+      {
+         return result;
+      }
+
+      BitSet seen  = new BitSet(nodes.size());
+      int[]  range = cellRange(window);
+      for(int x = range[0]; x <= range[3]; x++)
+      {
+         for(int y = range[1]; y <= range[4]; y++)
+         {
+            for(int z = range[2]; z <= range[5]; z++)
+            {
+               for(int i : cells.get(cellIndex(x, y, z)))
+               {
+                  if(!seen.get(i) && bounds.get(i).intersects(window))
+                  {
+                     seen.set(i);
+                  }
+               }
+            }
+         }
+      }
+
+      for(int i = seen.nextSetBit(0); i >= 0; i = seen.nextSetBit(i + 1))
+      {
+         result.add(nodes.get(i));
+      }
+      return result;
+   }
+
+
+
+   /*******************************************************************************
+    ** Get the inclusive cell range {minX, minY, minZ, maxX, maxY, maxZ} for a box.
+    *******************************************************************************/
+   private int[] cellRange(Box3D box)
+   {
+      Vector3D min = box.min();
+      Vector3D max = box.max();
+      return new int[] {
+         cellCoordinate(min.x(), sceneBounds.position().x(), sceneBounds.width(), cellsX),
+         cellCoordinate(min.y(), sceneBounds.position().y(), sceneBounds.height(), cellsY),
+         cellCoordinate(min.z(), sceneBounds.position().z(), sceneBounds.depth(), cellsZ),
+         cellCoordinate(max.x(), sceneBounds.position().x(), sceneBounds.width(), cellsX),
+         cellCoordinate(max.y(), sceneBounds.position().y(), sceneBounds.height(), cellsY),
+         cellCoordinate(max.z(), sceneBounds.position().z(), sceneBounds.depth(), cellsZ)
+      };
+   }
+
+
+
+   /*******************************************************************************
+    ** Map a world coordinate onto a cell along one axis, clamped to the grid.
+    *******************************************************************************/
+   private static int cellCoordinate(double value, double origin, double extent, int cellCount)
+   {
+      if(extent <= 0)
+      {
+         return 0;
+      }
+      int cell = (int) Math.floor((value - origin) / extent * cellCount);
+      return Math.max(0, Math.min(cellCount - 1, cell));
+   }
+
+
+
+   /*******************************************************************************
+    ** Flatten a cell coordinate into the cell list.
+    *******************************************************************************/
+   private int cellIndex(int x, int y, int z)
+   {
+      return (x * cellsY + y) * cellsZ + z;
+   }
+
+
+
+   /*******************************************************************************
+    ** Getter for sceneBounds
+    *******************************************************************************/
+   public Box3D getSceneBounds()
+   {
+      return sceneBounds;
+   }
+
+
+
+   /*******************************************************************************
+    ** Get the number of indexed nodes.
+    *******************************************************************************/
+   public int size()
+   {
+      return nodes.size();
+   }
+}
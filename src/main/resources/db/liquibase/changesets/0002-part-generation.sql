@@ -0,0 +1,10 @@
+-- liquibase formatted sql
+
+-- ============================================================================
+-- PART GENERATION TRACKING
+-- ============================================================================
+
+-- changeset makers4:schema-033
+-- Hash of the inputs the cabinet's parts were last generated from; a cabinet
+-- whose current inputs hash differently is regenerated, the rest are skipped.
+ALTER TABLE cabinet ADD COLUMN parts_input_hash VARCHAR(64);
@@ -0,0 +1,16 @@
+-- liquibase formatted sql
+
+-- ============================================================================
+-- CUT LIST NESTING
+-- ============================================================================
+
+-- changeset makers4:schema-034
+-- Whether the nester turned the part 90 degrees on its sheet (only ever true
+-- for stock without a visible grain direction).
+ALTER TABLE cut_list_item ADD COLUMN rotated BOOLEAN NOT NULL DEFAULT FALSE;
+
+-- changeset makers4:schema-035
+-- Length of the solid-wood board an item is cut from; null for items nested on
+-- sheets.  Boards are numbered in sheet_number after the sheets, with
+-- position_x the distance from the board's end.
+ALTER TABLE cut_list_item ADD COLUMN board_length_mm INTEGER;
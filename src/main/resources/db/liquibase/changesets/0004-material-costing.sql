@@ -0,0 +1,10 @@
+-- liquibase formatted sql
+
+-- ============================================================================
+-- MATERIAL COSTING
+-- ============================================================================
+
+-- changeset makers4:schema-036
+-- Solid lumber is priced by the board foot (144 cubic inches) whatever its
+-- thickness; sheet goods keep cost_per_sqft.
+ALTER TABLE material ADD COLUMN cost_per_board_foot NUMERIC(10,2);
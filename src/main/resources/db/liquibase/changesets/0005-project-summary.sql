@@ -0,0 +1,30 @@
+-- liquibase formatted sql
+
+-- ============================================================================
+-- PROJECT SUMMARY
+-- ============================================================================
+
+-- changeset makers4:schema-037
+-- One row of totals per project, refreshed by table hooks when the project's
+-- cabinets, openings or parts change, so the project screen never aggregates
+-- the part table.  Rows are derived data and can be rebuilt at any time with
+-- the RebuildProjectSummaries process.
+CREATE TABLE project_summary (
+   id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+   project_id BIGINT NOT NULL,
+   cabinet_count INTEGER NOT NULL DEFAULT 0,
+   opening_count INTEGER NOT NULL DEFAULT 0,
+   part_count INTEGER NOT NULL DEFAULT 0,
+   sheet_count INTEGER NOT NULL DEFAULT 0,
+   sheet_area_sqft NUMERIC(12,2) NOT NULL DEFAULT 0,
+   board_feet NUMERIC(12,2) NOT NULL DEFAULT 0,
+   estimated_cost NUMERIC(12,2) NOT NULL DEFAULT 0,
+   refreshed_at TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+   createdate TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+   modifydate TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+   CONSTRAINT uq_project_summary_project UNIQUE (project_id)
+);
+
+-- changeset makers4:schema-038
+-- A summary goes with its project.
+ALTER TABLE project_summary ADD CONSTRAINT fk_project_summary_project FOREIGN KEY (project_id) REFERENCES project (id) ON DELETE CASCADE;
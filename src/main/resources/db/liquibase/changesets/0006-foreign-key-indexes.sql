@@ -0,0 +1,54 @@
+-- liquibase formatted sql
+
+-- ============================================================================
+-- FOREIGN KEY INDEXES
+-- ============================================================================
+-- PostgreSQL does not index the referencing side of a foreign key, so every
+-- child-record widget (parent id filter, child id order, row limit) and every
+-- foreign key check on a parent delete scanned the whole child table.
+--
+-- Strategy:
+--   * Parent -> child lists get a composite (parent_id, id) index.  It serves
+--     the widget's filter and its id ordering in one range scan that stops at
+--     the row limit, and it covers the foreign key check, so no separate
+--     single-column index is needed.
+--   * cut_list_item also gets (cut_list_id, sheet_number, position_y,
+--     position_x) for the export and sheet layout reads, which page through a
+--     cut list by sheet range in nesting order.
+--   * Foreign keys that are only checked on the rare delete of a parent
+--     (cut_list.cabinet_id, render_job.cabinet_id, cut_list_item.part_id)
+--     get single-column indexes.
+--   * Foreign keys to lookup tables (materials, styles, types) are left
+--     unindexed: lookup rows are almost never deleted, and the indexes would
+--     only slow down part generation's bulk inserts.
+--
+-- QueryPlanTest runs the widget queries against these indexes on H2.
+
+-- changeset makers4:schema-039
+-- Project screen: Cabinets, Cut Lists and Render Jobs widgets.
+CREATE INDEX idx_cabinet_project ON cabinet (project_id, id);
+CREATE INDEX idx_cut_list_project ON cut_list (project_id, id);
+CREATE INDEX idx_render_job_project ON render_job (project_id, id);
+
+-- changeset makers4:schema-040
+-- Cabinet screen: Cabinet Openings and Parts widgets; Cabinet Opening screen:
+-- Parts widget.  Part generation and costing also read parts by cabinet.
+CREATE INDEX idx_cabinet_opening_cabinet ON cabinet_opening (cabinet_id, id);
+CREATE INDEX idx_part_cabinet ON part (cabinet_id, id);
+CREATE INDEX idx_part_cabinet_opening ON part (cabinet_opening_id, id);
+
+-- changeset makers4:schema-041
+-- Cut List screen: Cut List Items widget; export and sheet layout paging;
+-- part regeneration deletes items by part.
+CREATE INDEX idx_cut_list_item_cut_list ON cut_list_item (cut_list_id, id);
+CREATE INDEX idx_cut_list_item_sheet ON cut_list_item (cut_list_id, sheet_number, position_y, position_x);
+CREATE INDEX idx_cut_list_item_part ON cut_list_item (part_id);
+
+-- changeset makers4:schema-042
+-- Render Job screen: Render Artifacts widget.
+CREATE INDEX idx_render_artifact_render_job ON render_artifact (render_job_id, id);
+
+-- changeset makers4:schema-043
+-- Foreign key checks when a cabinet is deleted.
+CREATE INDEX idx_cut_list_cabinet ON cut_list (cabinet_id);
+CREATE INDEX idx_render_job_cabinet ON render_job (cabinet_id);
@@ -0,0 +1,12 @@
+-- liquibase formatted sql
+
+-- ============================================================================
+-- SOLID LUMBER BOARD-FOOT PRICES
+-- ============================================================================
+
+-- changeset makers4:data-019 context:test,dev
+UPDATE material SET cost_per_board_foot = 8.50 WHERE code IN ('CHR-SOLID-18MM', 'CHR-SOLID-25MM');
+UPDATE material SET cost_per_board_foot = 6.75 WHERE code IN ('MPL-SOLID-18MM', 'MPL-SOLID-25MM');
+UPDATE material SET cost_per_board_foot = 6.25 WHERE code IN ('OAK-SOLID-18MM', 'OAK-SOLID-25MM');
+UPDATE material SET cost_per_board_foot = 12.00 WHERE code IN ('WAL-SOLID-18MM', 'WAL-SOLID-25MM');
+UPDATE material SET cost_per_board_foot = 3.75 WHERE code = 'POP-SOLID-18MM';
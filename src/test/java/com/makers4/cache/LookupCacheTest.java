@@ -0,0 +1,138 @@
+package com.makers4.cache;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.Test;
+
+
+/*******************************************************************************
+ ** Unit tests for LookupCache class.
+ *******************************************************************************/
+class LookupCacheTest
+{
+   private static final Map<String, List<LookupValue>> TABLES = Map.of(
+      "cabinet_type", List.of(
+         new LookupValue(1, "BASE", "Base Cabinet", true),
+         new LookupValue(2, "WALL", "Wall Cabinet", true),
+         new LookupValue(3, "TALL", "Tall Pantry", false)),
+      "face_type", List.of(
+         new LookupValue(1, "FRAMED", "Face Frame", true),
+         new LookupValue(2, "FRAMELESS", "Frameless", true)));
+
+
+
+   /*******************************************************************************
+    ** Test a table is read once and then served from memory by id, code and
+    ** in order.
+    *******************************************************************************/
+   @Test
+   void testLoadsEachTableOnce()
+   {
+      LookupCache cache = new LookupCache(TABLES::get);
+
+      assertThat(cache.getValue("cabinet_type", 2).name()).isEqualTo("Wall Cabinet");
+      assertThat(cache.getValueByCode("cabinet_type", "TALL").id()).isEqualTo(3);
+      assertThat(cache.getValues("cabinet_type")).extracting(LookupValue::code).containsExactly("BASE", "WALL", "TALL");
+      assertThat(cache.getValue("cabinet_type", 99)).isNull();
+      assertThat(cache.getLoadCount()).isEqualTo(1);
+
+      cache.loadAll(List.of("cabinet_type", "face_type"));
+      assertThat(cache.getValue("face_type", 1).name()).isEqualTo("Face Frame");
+      assertThat(cache.getLoadCount()).isEqualTo(3);
+   }
+
+
+
+   /*******************************************************************************
+    ** Test searching by id, code or name, ignoring case.
+    *******************************************************************************/
+   @Test
+   void testSearch()
+   {
+      LookupCache cache = new LookupCache(TABLES::get);
+
+      assertThat(cache.search("cabinet_type", "cabinet")).extracting(LookupValue::id).containsExactly(1L, 2L);
+      assertThat(cache.search("cabinet_type", "tall")).extracting(LookupValue::id).containsExactly(3L);
+      assertThat(cache.search("cabinet_type", "2")).extracting(LookupValue::id).containsExactly(2L);
+      assertThat(cache.search("cabinet_type", " ")).hasSize(3);
+      assertThat(cache.search("cabinet_type", "drawer")).isEmpty();
+   }
+
+
+
+   /*******************************************************************************
+    ** Test an invalidated table is read again, and other tables are not.
+    *******************************************************************************/
+   @Test
+   void testInvalidateReloadsTable()
+   {
+      List<LookupValue> faceTypes = new ArrayList<>(TABLES.get("face_type"));
+      LookupCache       cache     = new LookupCache(tableName -> "face_type".equals(tableName) ? List.copyOf(faceTypes) : TABLES.get(tableName));
+
+      cache.getValues("face_type");
+      cache.getValues("cabinet_type");
+      faceTypes.add(new LookupValue(3, "INSET", "Inset Frame", true));
+      assertThat(cache.getValues("face_type")).hasSize(2);
+
+      cache.invalidate("face_type");
+      assertThat(cache.getValues("face_type")).hasSize(3);
+      cache.getValues("cabinet_type");
+      assertThat(cache.getLoadCount()).isEqualTo(3);
+   }
+
+
+
+   /*******************************************************************************
+    ** Test a load that an invalidation raced is returned but not kept.
+    *******************************************************************************/
+   @Test
+   void testLoadRacedByInvalidationIsNotKept()
+   {
+      LookupCache[] cache = new LookupCache[1];
+      cache[0] = new LookupCache(tableName ->
+      {
+         if(cache[0].getLoadCount() == 1)
+         {
+            cache[0].invalidate(tableName);
+         }
+         return TABLES.get(tableName);
+      });
+
+      assertThat(cache[0].getValues("face_type")).hasSize(2);
+      assertThat(cache[0].getValues("face_type")).hasSize(2);
+      assertThat(cache[0].getLoadCount()).isEqualTo(2);
+
+      cache[0].getValues("face_type");
+      assertThat(cache[0].getLoadCount()).isEqualTo(2);
+   }
+
+
+
+   /*******************************************************************************
+    ** Test a failed load is reported and retried on the next request.
+    *******************************************************************************/
+   @Test
+   void testFailedLoadIsRetried()
+   {
+      boolean[]   fail  = { true };
+      LookupCache cache = new LookupCache(tableName ->
+      {
+         if(fail[0])
+         {
+            throw new IllegalStateException("database is down");
+         }
+         return TABLES.get(tableName);
+      });
+
+      assertThatThrownBy(() -> cache.getValues("face_type"))
+         .isInstanceOf(IllegalStateException.class)
+         .hasMessageContaining("face_type");
+
+      fail[0] = false;
+      assertThat(cache.getValues("face_type")).hasSize(2);
+   }
+}
@@ -0,0 +1,178 @@
+package com.makers4.cache;
+
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+
+
+/*******************************************************************************
+ ** Unit tests for MaterialCache class.
+ *******************************************************************************/
+class MaterialCacheTest
+{
+   private final Map<Long, MaterialSpec> table = new HashMap<>(Map.of(
+      1L, material(1, "MPLY18", 18),
+      2L, material(2, "MPLY6", 6),
+      3L, material(3, "MAPLE-4/4", 19)));
+
+   private final List<List<Long>> batches = new ArrayList<>();
+   private final long[]           now     = { 0 };
+
+
+
+   /*******************************************************************************
+    ** Test a miss is read through and then served from memory.
+    *******************************************************************************/
+   @Test
+   void testReadThrough()
+   {
+      MaterialCache cache = cache(100);
+
+      assertThat(cache.get(1L).thicknessMm()).isEqualTo(18);
+      assertThat(cache.get(1L).code()).isEqualTo("MPLY18");
+      assertThat(cache.get(null)).isNull();
+      assertThat(cache.get(99L)).isNull();
+      assertThat(cache.get(99L)).isNull();
+
+      assertThat(batches).containsExactly(List.of(1L), List.of(99L), List.of(99L));
+      assertThat(cache.getHitCount()).isEqualTo(1);
+      assertThat(cache.getMissCount()).isEqualTo(3);
+   }
+
+
+
+   /*******************************************************************************
+    ** Test a bulk load reads only the misses, in one batch.
+    *******************************************************************************/
+   @Test
+   void testBulkLoadReadsMissesInOneBatch()
+   {
+      MaterialCache cache = cache(100);
+      cache.get(2L);
+
+      Map<Long, MaterialSpec> materials = cache.getAll(Arrays.asList(1L, 2L, 3L, 3L, null, 99L));
+
+      assertThat(materials).containsOnlyKeys(1L, 2L, 3L);
+      assertThat(batches).containsExactly(List.of(2L), List.of(1L, 3L, 99L));
+
+      cache.getAll(List.of(1L, 2L, 3L));
+      assertThat(cache.getLoadCount()).isEqualTo(2);
+   }
+
+
+
+   /*******************************************************************************
+    ** Test entries are read again once their time to live has passed.
+    *******************************************************************************/
+   @Test
+   void testTimeToLive()
+   {
+      MaterialCache cache = cache(100);
+      cache.get(1L);
+
+      now[0] = Duration.ofMinutes(9).toNanos();
+      cache.get(1L);
+      assertThat(cache.getLoadCount()).isEqualTo(1);
+
+      table.put(1L, material(1, "MPLY18", 19));
+      now[0] = Duration.ofMinutes(10).toNanos();
+      assertThat(cache.get(1L).thicknessMm()).isEqualTo(19);
+      assertThat(cache.getLoadCount()).isEqualTo(2);
+   }
+
+
+
+   /*******************************************************************************
+    ** Test the least recently used material is dropped past the bound.
+    *******************************************************************************/
+   @Test
+   void testSizeBound()
+   {
+      MaterialCache cache = cache(2);
+      cache.get(1L);
+      cache.get(2L);
+      cache.get(1L);
+      cache.get(3L);
+
+      batches.clear();
+      cache.getAll(List.of(1L, 2L, 3L));
+      assertThat(batches).containsExactly(List.of(2L));
+   }
+
+
+
+   /*******************************************************************************
+    ** Test invalidation forgets materials, and a load raced by an
+    ** invalidation is returned but not kept.
+    *******************************************************************************/
+   @Test
+   void testInvalidate()
+   {
+      MaterialCache cache = cache(100);
+      cache.getAll(List.of(1L, 2L));
+
+      table.put(1L, material(1, "MPLY18", 17));
+      cache.invalidate(List.of(1L));
+      assertThat(cache.get(1L).thicknessMm()).isEqualTo(17);
+      assertThat(cache.get(2L).thicknessMm()).isEqualTo(6);
+      assertThat(cache.getLoadCount()).isEqualTo(2);
+
+      MaterialCache[] racing = new MaterialCache[1];
+      racing[0] = new MaterialCache(ids ->
+      {
+         racing[0].invalidateAll();
+         return load(ids);
+      }, 100, Duration.ofMinutes(10), () -> now[0]);
+
+      assertThat(racing[0].get(3L)).isNotNull();
+      racing[0].get(3L);
+      assertThat(racing[0].getLoadCount()).isEqualTo(2);
+   }
+
+
+
+   /*******************************************************************************
+    ** A cache over the test table with a ten-minute time to live.
+    *******************************************************************************/
+   private MaterialCache cache(int maxEntries)
+   {
+      return new MaterialCache(this::load, maxEntries, Duration.ofMinutes(10), () -> now[0]);
+   }
+
+
+
+   /*******************************************************************************
+    ** Loader over the test table that records each batch.
+    *******************************************************************************/
+   private Map<Long, MaterialSpec> load(Collection<Long> ids)
+   {
+      batches.add(List.copyOf(ids));
+      Map<Long, MaterialSpec> materials = new HashMap<>();
+      for(Long id : ids)
+      {
+         if(table.containsKey(id))
+         {
+            materials.put(id, table.get(id));
+         }
+      }
+      return materials;
+   }
+
+
+
+   /*******************************************************************************
+    ** A sheet material.
+    *******************************************************************************/
+   private static MaterialSpec material(long id, String code, int thicknessMm)
+   {
+      return new MaterialSpec(id, code, 1L, thicknessMm, null, new BigDecimal("3.50"), null);
+   }
+}
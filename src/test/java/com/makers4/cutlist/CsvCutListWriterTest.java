@@ -0,0 +1,87 @@
+package com.makers4.cutlist;
+
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+
+
+/*******************************************************************************
+ ** Unit tests for CsvCutListWriter class.
+ *******************************************************************************/
+class CsvCutListWriterTest
+{
+
+   /*******************************************************************************
+    ** Test the default output is a header and one line per piece, with
+    ** fields quoted where needed.
+    *******************************************************************************/
+   @Test
+   void testPieceLines() throws Exception
+   {
+      ByteArrayOutputStream output = new ByteArrayOutputStream();
+      try(CsvCutListWriter writer = new CsvCutListWriter(output))
+      {
+         writer.write(new CutListRow("MPL-PLY-18", "Maple Plywood", 18, 1, null, "Side, left", 720, 560, false, 0, 0));
+         writer.write(new CutListRow("MPL-PLY-18", "Maple Plywood", 18, 1, null, "Side \"B\"", 720, 560, true, 723, 0));
+         writer.write(new CutListRow("MPL-SOLID-18", "Maple", 18, 2, 2440, "Stile", 762, 51, false, 0, null));
+      }
+
+      List<String> lines = lines(output);
+      assertThat(lines).containsExactly(
+         CsvCutListWriter.HEADER,
+         "MPL-PLY-18,18,1,,\"Side, left\",720,560,1,N,0,0",
+         "MPL-PLY-18,18,1,,\"Side \"\"B\"\"\",720,560,1,Y,723,0",
+         "MPL-SOLID-18,18,2,2440,Stile,762,51,1,N,0,");
+   }
+
+
+
+   /*******************************************************************************
+    ** Test subtotal lines follow each sheet and material, and the grand total
+    ** ends the file.
+    *******************************************************************************/
+   @Test
+   void testSubtotals() throws Exception
+   {
+      ByteArrayOutputStream output = new ByteArrayOutputStream();
+      CsvCutListWriter      writer = new CsvCutListWriter(output).withSubtotals(true);
+      writer.write(createRow("PLY", 1, "A"));
+      writer.write(createRow("PLY", 1, "B"));
+      writer.write(createRow("PLY", 2, "C"));
+      writer.write(createRow("MDF", 3, "D"));
+      writer.close();
+
+      assertThat(lines(output)).extracting(line -> line.split(",", -1)[4] + "=" + line.split(",", -1)[7]).containsExactly(
+         "Part=Quantity",
+         "A=1", "B=1", "Sheet 1 total=2",
+         "C=1", "Sheet 2 total=1", "PLY total=3",
+         "D=1", "Sheet 3 total=1", "MDF total=1",
+         "Total=4");
+      assertThat(writer.getTotals().getStockCount()).isEqualTo(3);
+   }
+
+
+
+   /*******************************************************************************
+    ** A 500 x 400 mm piece.
+    *******************************************************************************/
+   private CutListRow createRow(String materialCode, int sheetNumber, String partName)
+   {
+      return new CutListRow(materialCode, null, 18, sheetNumber, null, partName, 500, 400, false, 0, 0);
+   }
+
+
+
+   /*******************************************************************************
+    ** The output's lines, without the CRLF terminators.
+    *******************************************************************************/
+   private List<String> lines(ByteArrayOutputStream output)
+   {
+      String text = output.toString(StandardCharsets.UTF_8);
+      assertThat(text).endsWith("\r\n");
+      return List.of(text.split("\r\n"));
+   }
+}
@@ -0,0 +1,138 @@
+package com.makers4.cutlist;
+
+
+import java.io.ByteArrayOutputStream;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.apache.pdfbox.text.PDFTextStripper;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+
+
+/*******************************************************************************
+ ** Unit tests for PdfCutListWriter class.
+ *******************************************************************************/
+class PdfCutListWriterTest
+{
+
+   /*******************************************************************************
+    ** Test a long list runs over many pages, each numbered and carrying the
+    ** open material, with subtotals and the grand total in place.
+    *******************************************************************************/
+   @Test
+   void testPagination() throws Exception
+   {
+      ByteArrayOutputStream output = new ByteArrayOutputStream();
+      try(PdfCutListWriter writer = new PdfCutListWriter(output, "Kitchen Cut List", null))
+      {
+         // 2 materials, 40 sheets of 25 pieces each
+         for(int sheet = 1; sheet <= 40; sheet++)
+         {
+            String material = sheet <= 20 ? "MPL-PLY-18" : "MDF-19";
+            for(int piece = 1; piece <= 25; piece++)
+            {
+               writer.write(new CutListRow(material, "Sheet Stock", 18, sheet, null, "Part " + sheet + "." + piece,
+                  600, 300, piece % 5 == 0, piece * 10, 0));
+            }
+         }
+      }
+
+      try(PDDocument document = Loader.loadPDF(output.toByteArray()))
+      {
+         int pages = document.getNumberOfPages();
+         assertThat(pages).isGreaterThan(10);
+
+         String second = pageText(document, 2);
+         assertThat(second).contains("Kitchen Cut List");
+         assertThat(second).contains("MPL-PLY-18 - Sheet Stock (continued)");
+         assertThat(second).contains("Page 2 of " + pages);
+
+         String all = pageText(document, 1, pages);
+         assertThat(all).contains("Sheet 1: 25 parts, 48.44 sq ft");
+         assertThat(all).contains("MPL-PLY-18 total: 20 sheets, 500 parts, 968.75 sq ft");
+         assertThat(all).contains("Total: 40 sheets and boards, 1000 parts, 1937.50 sq ft");
+         assertThat(pageText(document, pages)).contains("Page " + pages + " of " + pages);
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** Test board groups show their stock length and total board length.
+    *******************************************************************************/
+   @Test
+   void testBoards() throws Exception
+   {
+      ByteArrayOutputStream output = new ByteArrayOutputStream();
+      try(PdfCutListWriter writer = new PdfCutListWriter(output, "Frames", null))
+      {
+         writer.write(new CutListRow("OAK-SOLID-19", "Red Oak", 19, 7, 2440, "Stile", 762, 51, false, 0, null));
+         writer.write(new CutListRow("OAK-SOLID-19", "Red Oak", 19, 7, 2440, "Stile", 762, 51, false, 765, null));
+      }
+
+      try(PDDocument document = Loader.loadPDF(output.toByteArray()))
+      {
+         String text = pageText(document, 1);
+         assertThat(text).contains("Board 7 (2440 mm)");
+         assertThat(text).contains("OAK-SOLID-19 total: 1 boards, 2 parts");
+         assertThat(text).contains("1524 mm of board");
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** Test an empty list still makes a one-page document with a zero total.
+    *******************************************************************************/
+   @Test
+   void testEmpty() throws Exception
+   {
+      ByteArrayOutputStream output = new ByteArrayOutputStream();
+      new PdfCutListWriter(output, "Empty", null).close();
+
+      try(PDDocument document = Loader.loadPDF(output.toByteArray()))
+      {
+         assertThat(document.getNumberOfPages()).isEqualTo(1);
+         assertThat(pageText(document, 1)).contains("Total: 0 sheets and boards, 0 parts");
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** Test text the standard fonts cannot show is replaced, not fatal.
+    *******************************************************************************/
+   @Test
+   void testUnencodableText()
+   {
+      PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+      assertThat(PdfCutListWriter.safe(font, "Door 板 left")).isEqualTo("Door ? left");
+      assertThat(PdfCutListWriter.safe(font, "Café")).isEqualTo("Café");
+      assertThat(PdfCutListWriter.safe(font, null)).isEmpty();
+   }
+
+
+
+   /*******************************************************************************
+    ** Text of one page.
+    *******************************************************************************/
+   private String pageText(PDDocument document, int page) throws Exception
+   {
+      return pageText(document, page, page);
+   }
+
+
+
+   /*******************************************************************************
+    ** Text of a range of pages.
+    *******************************************************************************/
+   private String pageText(PDDocument document, int startPage, int endPage) throws Exception
+   {
+      PDFTextStripper stripper = new PDFTextStripper();
+      stripper.setStartPage(startPage);
+      stripper.setEndPage(endPage);
+      return stripper.getText(document);
+   }
+}
@@ -0,0 +1,280 @@
+package com.makers4.db;
+
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+import liquibase.Contexts;
+import liquibase.Liquibase;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+
+/*******************************************************************************
+ ** Query-plan regression checks for the foreign key indexes: migrates an H2
+ ** database (PostgreSQL mode) with the Liquibase changelog, seeds enough
+ ** child rows that a scan would be the expensive choice, and asserts that the
+ ** child-record widget queries (parent id filter, id order, row limit) and
+ ** the cut list paging query are answered from the intended indexes.
+ **
+ ** H2 quietly creates an index behind every foreign key, which PostgreSQL
+ ** does not.  The foreign keys are dropped after migrating, so the plans only
+ ** see the indexes the changesets declare.
+ *******************************************************************************/
+class QueryPlanTest
+{
+   private static final String CHANGELOG = "db/liquibase/changelog.yaml";
+
+   private static final int PROJECTS  = 100;
+   private static final int CABINETS  = 2_000;
+   private static final int OPENINGS  = 6_000;
+   private static final int PARTS     = 20_000;
+   private static final int CUT_LISTS = 200;
+   private static final int ITEMS     = 20_000;
+   private static final int JOBS      = 1_000;
+   private static final int ARTIFACTS = 4_000;
+
+   private static Connection connection;
+
+
+
+   /*******************************************************************************
+    ** Migrate and seed the database once for all the checks.
+    *******************************************************************************/
+   @BeforeAll
+   static void setUp() throws Exception
+   {
+      connection = DriverManager.getConnection("jdbc:h2:mem:query_plan;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH", "sa", "");
+
+      Liquibase liquibase = new Liquibase(CHANGELOG, new ClassLoaderResourceAccessor(), new JdbcConnection(connection));
+      liquibase.update(new Contexts());
+
+      dropForeignKeys();
+
+      seed("cabinet", CABINETS, Map.of("project_id", i -> (long) (i % PROJECTS + 1)));
+      seed("cabinet_opening", OPENINGS, Map.of("cabinet_id", i -> (long) (i % CABINETS + 1), "sequence_number", i -> i / CABINETS + 1));
+      seed("part", PARTS, Map.of("cabinet_id", i -> (long) (i % CABINETS + 1), "cabinet_opening_id", i -> i % 2 == 0 ? null : (long) (i % OPENINGS + 1)));
+      seed("cut_list", CUT_LISTS, Map.of("project_id", i -> (long) (i % PROJECTS + 1), "cabinet_id", i -> null));
+      seed("cut_list_item", ITEMS, Map.of("cut_list_id", i -> (long) (i % CUT_LISTS + 1), "part_id", i -> (long) (i % PARTS + 1),
+         "sheet_number", i -> i / CUT_LISTS % 40 + 1, "position_x", i -> i % 7 * 300, "position_y", i -> i % 3 * 400));
+      seed("render_job", JOBS, Map.of("project_id", i -> (long) (i % PROJECTS + 1), "cabinet_id", i -> (long) (i % CABINETS + 1)));
+      seed("render_artifact", ARTIFACTS, Map.of("render_job_id", i -> (long) (i % JOBS + 1)));
+
+      try(Statement statement = connection.createStatement())
+      {
+         statement.execute("ANALYZE");
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** Close (and so drop) the in-memory database.
+    *******************************************************************************/
+   @AfterAll
+   static void tearDown() throws SQLException
+   {
+      if(connection != null)
+      {
+         connection.close();
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** Test the Project screen's Cabinets, Cut Lists and Render Jobs widgets.
+    *******************************************************************************/
+   @Test
+   void testProjectWidgets() throws SQLException
+   {
+      assertUsesIndex(widgetQuery("cabinet", "project_id", 50), "idx_cabinet_project");
+      assertUsesIndex(widgetQuery("cut_list", "project_id", 20), "idx_cut_list_project");
+      assertUsesIndex(widgetQuery("render_job", "project_id", 20), "idx_render_job_project");
+   }
+
+
+
+   /*******************************************************************************
+    ** Test the Cabinet screen's Openings and Parts widgets and the Cabinet
+    ** Opening screen's Parts widget.
+    *******************************************************************************/
+   @Test
+   void testCabinetWidgets() throws SQLException
+   {
+      assertUsesIndex(widgetQuery("cabinet_opening", "cabinet_id", 20), "idx_cabinet_opening_cabinet");
+      assertUsesIndex(widgetQuery("part", "cabinet_id", 50), "idx_part_cabinet");
+      assertUsesIndex(widgetQuery("part", "cabinet_opening_id", 30), "idx_part_cabinet_opening");
+   }
+
+
+
+   /*******************************************************************************
+    ** Test the Cut List screen's items widget and the Render Job screen's
+    ** artifacts widget.
+    *******************************************************************************/
+   @Test
+   void testCutListAndRenderJobWidgets() throws SQLException
+   {
+      assertUsesIndex(widgetQuery("cut_list_item", "cut_list_id", 100), "idx_cut_list_item_cut_list");
+      assertUsesIndex(widgetQuery("render_artifact", "render_job_id", 20), "idx_render_artifact_render_job");
+   }
+
+
+
+   /*******************************************************************************
+    ** Test the cut list export's sheet-range page read.
+    *******************************************************************************/
+   @Test
+   void testCutListPaging() throws SQLException
+   {
+      assertUsesIndex("SELECT * FROM cut_list_item WHERE cut_list_id = 7 AND sheet_number BETWEEN 3 AND 9 "
+         + "ORDER BY sheet_number, position_y, position_x, id", "idx_cut_list_item_sheet");
+   }
+
+
+
+   /*******************************************************************************
+    ** Test the foreign key lookups made when a part or cabinet is deleted.
+    *******************************************************************************/
+   @Test
+   void testParentDeleteLookups() throws SQLException
+   {
+      assertUsesIndex("SELECT id FROM cut_list_item WHERE part_id IN (5, 6, 7)", "idx_cut_list_item_part");
+      assertUsesIndex("SELECT id FROM cut_list WHERE cabinet_id = 11", "idx_cut_list_cabinet");
+      assertUsesIndex("SELECT id FROM render_job WHERE cabinet_id = 11", "idx_render_job_cabinet");
+   }
+
+
+
+   /*******************************************************************************
+    ** The query a child-record widget runs: the parent's children, in id
+    ** order, up to the widget's row limit.
+    *******************************************************************************/
+   private static String widgetQuery(String table, String joinColumn, int maxRows)
+   {
+      return "SELECT * FROM " + table + " WHERE " + joinColumn + " = 7 ORDER BY id LIMIT " + maxRows;
+   }
+
+
+
+   /*******************************************************************************
+    ** Assert the plan for a query reads the table through the given index.
+    *******************************************************************************/
+   private static void assertUsesIndex(String sql, String indexName) throws SQLException
+   {
+      StringBuilder plan = new StringBuilder();
+      try(Statement statement = connection.createStatement();
+          ResultSet resultSet = statement.executeQuery("EXPLAIN " + sql))
+      {
+         while(resultSet.next())
+         {
+            plan.append(resultSet.getString(1));
+         }
+      }
+
+      assertThat(plan.toString())
+         .as("plan for %s", sql)
+         .contains("public." + indexName + ":")
+         .doesNotContain("tableScan");
+   }
+
+
+
+   /*******************************************************************************
+    ** Drop every foreign key (H2 indexes them implicitly; PostgreSQL does not).
+    *******************************************************************************/
+   private static void dropForeignKeys() throws SQLException
+   {
+      List<String> statements = new ArrayList<>();
+      try(Statement statement = connection.createStatement();
+          ResultSet resultSet = statement.executeQuery("SELECT table_name, constraint_name FROM information_schema.table_constraints "
+             + "WHERE constraint_type = 'FOREIGN KEY' AND table_schema = 'public'"))
+      {
+         while(resultSet.next())
+         {
+            statements.add("ALTER TABLE \"" + resultSet.getString(1) + "\" DROP CONSTRAINT \"" + resultSet.getString(2) + "\"");
+         }
+      }
+
+      try(Statement statement = connection.createStatement())
+      {
+         for(String sql : statements)
+         {
+            statement.execute(sql);
+         }
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** Insert rows into a table, taking the given columns from their functions
+    ** of the row number and filling every other required column with a
+    ** placeholder of its type.
+    *******************************************************************************/
+   private static void seed(String table, int rows, Map<String, IntFunction<Object>> values) throws SQLException
+   {
+      Map<String, IntFunction<Object>> columns = new LinkedHashMap<>(values);
+      try(PreparedStatement statement = connection.prepareStatement("SELECT column_name, data_type FROM information_schema.columns "
+         + "WHERE table_schema = 'public' AND table_name = ? AND is_nullable = 'NO' AND column_default IS NULL AND is_identity = 'NO'"))
+      {
+         statement.setString(1, table);
+         try(ResultSet resultSet = statement.executeQuery())
+         {
+            while(resultSet.next())
+            {
+               Object placeholder = placeholder(resultSet.getString(2));
+               columns.putIfAbsent(resultSet.getString(1), i -> placeholder);
+            }
+         }
+      }
+
+      String sql = "INSERT INTO " + table + " (" + String.join(", ", columns.keySet()) + ") VALUES ("
+         + String.join(", ", columns.keySet().stream().map(c -> "?").toList()) + ")";
+      try(PreparedStatement statement = connection.prepareStatement(sql))
+      {
+         for(int i = 0; i < rows; i++)
+         {
+            int parameter = 1;
+            for(IntFunction<Object> column : columns.values())
+            {
+               statement.setObject(parameter++, column.apply(i));
+            }
+            statement.addBatch();
+         }
+         statement.executeBatch();
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** A value for a required column of the given SQL type.
+    *******************************************************************************/
+   private static Object placeholder(String dataType)
+   {
+      return switch(dataType.toUpperCase())
+      {
+         case "BIGINT", "INTEGER", "SMALLINT" -> 1;
+         case "BOOLEAN" -> false;
+         case "NUMERIC", "DECIMAL" -> 0;
+         case "BINARY VARYING", "BINARY LARGE OBJECT" -> new byte[0];
+         default -> dataType.toUpperCase().startsWith("TIMESTAMP") ? Timestamp.from(Instant.now()) : "x";
+      };
+   }
+}
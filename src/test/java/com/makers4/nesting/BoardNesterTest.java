@@ -0,0 +1,160 @@
+package com.makers4.nesting;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+
+
+/*******************************************************************************
+ ** Unit tests for BoardNester class.
+ *******************************************************************************/
+class BoardNesterTest
+{
+
+   /*******************************************************************************
+    ** Test branch and bound finds the two-board packing first-fit decreasing
+    ** misses.
+    *******************************************************************************/
+   @Test
+   void testImprovesOnFirstFitDecreasing()
+   {
+      // FFD: 480+380 | 300+270+260 | 210; best: 480+300+210 | 380+270+260
+      List<NestingPiece> pieces = pieces(300, 260, 270, 380, 210, 480);
+
+      BoardNestingResult firstFit = new BoardNester().nest(pieces, new BoardSettings().withBoardLengthsMm(1000).withKerfMm(0).withMaxNodes(0));
+      assertThat(firstFit.boardLengths()).hasSize(3);
+      assertThat(firstFit.optimal()).isFalse();
+
+      BoardSettings      settings = new BoardSettings().withBoardLengthsMm(1000).withKerfMm(0);
+      BoardNestingResult result   = new BoardNester().nest(pieces, settings);
+      assertThat(result.boardLengths()).containsExactly(1000, 1000);
+      assertThat(result.optimal()).isTrue();
+      assertThat(result.utilization()).isEqualTo(0.95);
+      assertValidLayout(result, settings);
+   }
+
+
+
+   /*******************************************************************************
+    ** Test the kerf is left between pieces on a board.
+    *******************************************************************************/
+   @Test
+   void testKerf()
+   {
+      List<NestingPiece> pieces = pieces(500, 500);
+
+      assertThat(new BoardNester().nest(pieces, new BoardSettings().withBoardLengthsMm(1000).withKerfMm(0)).boardLengths()).hasSize(1);
+
+      BoardSettings      settings = new BoardSettings().withBoardLengthsMm(1000).withKerfMm(3);
+      BoardNestingResult result   = new BoardNester().nest(pieces, settings);
+      assertThat(result.boardLengths()).hasSize(2);
+      assertValidLayout(result, settings);
+   }
+
+
+
+   /*******************************************************************************
+    ** Test each board is bought at the shortest standard length that holds
+    ** it, including the end trim.
+    *******************************************************************************/
+   @Test
+   void testShortestBoardLength()
+   {
+      BoardSettings settings = new BoardSettings().withEndTrimMm(25);
+
+      // 2390 + 2 x 25 fits an 8' board, 2400 needs a 10'
+      assertThat(new BoardNester().nest(pieces(2390), settings).boardLengths()).containsExactly(2440);
+      assertThat(new BoardNester().nest(pieces(2400), settings).boardLengths()).containsExactly(3050);
+
+      // one 12' board (3000 + 3 + 600) beats an 8' and a 10'
+      BoardNestingResult result = new BoardNester().nest(pieces(3000, 600), settings);
+      assertThat(result.boardLengths()).containsExactly(3660);
+      assertThat(result.totalLengthMm()).isEqualTo(3660);
+      assertThat(result.placements()).extracting(BoardPlacement::offset).containsExactly(25, 3028);
+      assertValidLayout(result, settings);
+   }
+
+
+
+   /*******************************************************************************
+    ** Test a piece longer than every board is left unplaced.
+    *******************************************************************************/
+   @Test
+   void testOverlongPiece()
+   {
+      BoardNestingResult result = new BoardNester().nest(pieces(4000, 700), new BoardSettings());
+      assertThat(result.unplaced()).extracting(NestingPiece::length).containsExactly(4000);
+      assertThat(result.placements()).extracting(placement -> placement.piece().length()).containsExactly(700);
+      assertThat(result.boardLengths()).containsExactly(2440);
+   }
+
+
+
+   /*******************************************************************************
+    ** Test a kitchen's worth of rails and stiles stays valid and within the
+    ** node limit.
+    *******************************************************************************/
+   @Test
+   void testLargeJob()
+   {
+      Random             random = new Random(7);
+      List<NestingPiece> pieces = new ArrayList<>();
+      for(int i = 0; i < 150; i++)
+      {
+         pieces.add(new NestingPiece(i, 200 + random.nextInt(900), 57, false));
+      }
+
+      BoardSettings      settings = new BoardSettings().withMaxNodes(50_000);
+      BoardNestingResult result   = new BoardNester().nest(pieces, settings);
+      BoardNestingResult firstFit = new BoardNester().nest(pieces, new BoardSettings().withMaxNodes(0));
+
+      assertThat(result.placements()).hasSize(150);
+      assertThat(result.exploredNodes()).isLessThanOrEqualTo(50_000);
+      assertThat(result.totalLengthMm()).isLessThanOrEqualTo(firstFit.totalLengthMm());
+      assertValidLayout(result, settings);
+   }
+
+
+
+   /*******************************************************************************
+    ** Build pieces of the given lengths, numbered from 1.
+    *******************************************************************************/
+   private List<NestingPiece> pieces(int... lengths)
+   {
+      List<NestingPiece> pieces = new ArrayList<>();
+      for(int length : lengths)
+      {
+         pieces.add(new NestingPiece(pieces.size() + 1, length, 57, false));
+      }
+      return pieces;
+   }
+
+
+
+   /*******************************************************************************
+    ** Assert every piece is inside its board's trimmed length, a kerf clear of
+    ** the next piece on the board.
+    *******************************************************************************/
+   private void assertValidLayout(BoardNestingResult result, BoardSettings settings)
+   {
+      int trim = settings.getEndTrimMm();
+      int kerf = settings.getKerfMm();
+
+      List<BoardPlacement> placements = result.placements();
+      for(int i = 0; i < placements.size(); i++)
+      {
+         BoardPlacement placement = placements.get(i);
+         int            end       = placement.offset() + placement.piece().length();
+         assertThat(placement.offset()).isGreaterThanOrEqualTo(trim);
+         assertThat(end).isLessThanOrEqualTo(result.boardLengths().get(placement.boardIndex()) - trim);
+
+         if(i + 1 < placements.size() && placements.get(i + 1).boardIndex() == placement.boardIndex())
+         {
+            assertThat(placements.get(i + 1).offset()).isGreaterThanOrEqualTo(end + kerf);
+         }
+      }
+   }
+}
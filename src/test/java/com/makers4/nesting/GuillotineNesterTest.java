@@ -0,0 +1,170 @@
+package com.makers4.nesting;
+
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+
+
+/*******************************************************************************
+ ** Unit tests for GuillotineNester class.
+ *******************************************************************************/
+class GuillotineNesterTest
+{
+
+   /*******************************************************************************
+    ** Test pieces that tile a sheet exactly are packed onto the minimum.
+    *******************************************************************************/
+   @Test
+   void testExactTiling()
+   {
+      List<NestingPiece> pieces = new ArrayList<>();
+      for(int i = 0; i < 8; i++)
+      {
+         pieces.add(new NestingPiece(i, 1220, 610, false));
+      }
+
+      NestingSettings settings = new NestingSettings().withKerfMm(0);
+      NestingResult   result   = new GuillotineNester().nest(pieces, settings);
+
+      assertThat(result.sheetCount()).isEqualTo(2);
+      assertThat(result.unplaced()).isEmpty();
+      assertThat(result.utilization(settings)).isEqualTo(1.0);
+      assertValidLayout(result, settings);
+   }
+
+
+
+   /*******************************************************************************
+    ** Test the kerf is left between neighbouring pieces.
+    *******************************************************************************/
+   @Test
+   void testKerf()
+   {
+      List<NestingPiece> pieces = List.of(
+         new NestingPiece(1, 1220, 1220, false),
+         new NestingPiece(2, 1220, 1220, false));
+
+      assertThat(new GuillotineNester().nest(pieces, new NestingSettings().withKerfMm(0)).sheetCount()).isEqualTo(1);
+
+      // 1220 + 3 + 1220 is longer than the 2440 sheet
+      NestingSettings settings = new NestingSettings().withKerfMm(3);
+      NestingResult   result   = new GuillotineNester().nest(pieces, settings);
+      assertThat(result.sheetCount()).isEqualTo(2);
+      assertValidLayout(result, settings);
+   }
+
+
+
+   /*******************************************************************************
+    ** Test grain-bound pieces are never rotated, and a piece that only fits
+    ** rotated is placed only when its stock has no grain.
+    *******************************************************************************/
+   @Test
+   void testGrainOrientation()
+   {
+      NestingSettings settings = new NestingSettings();
+
+      // 2400 across the grain is wider than the 1220 sheet unless turned
+      NestingResult grainBound = new GuillotineNester().nest(List.of(
+         new NestingPiece(1, 1000, 2400, false),
+         new NestingPiece(2, 700, 500, false)), settings);
+      assertThat(grainBound.unplaced()).extracting(NestingPiece::partId).containsExactly(1L);
+      assertThat(grainBound.placements()).singleElement()
+         .satisfies(placement -> assertThat(placement.rotated()).isFalse());
+
+      NestingResult noGrain = new GuillotineNester().nest(List.of(
+         new NestingPiece(1, 1000, 2400, true)), settings);
+      assertThat(noGrain.unplaced()).isEmpty();
+      assertThat(noGrain.placements()).singleElement()
+         .satisfies(placement -> assertThat(placement.rotated()).isTrue())
+         .satisfies(placement -> assertThat(placement.placedLength()).isEqualTo(2400));
+   }
+
+
+
+   /*******************************************************************************
+    ** Test a kitchen-sized job stays valid, near the area bound, and within
+    ** its time budget.
+    *******************************************************************************/
+   @Test
+   void testLargeJobWithinBudget()
+   {
+      Random             random = new Random(42);
+      List<NestingPiece> pieces = new ArrayList<>();
+      long               area   = 0;
+      for(int i = 0; i < 600; i++)
+      {
+         NestingPiece piece = new NestingPiece(i, 150 + random.nextInt(700), 50 + random.nextInt(550), i % 3 == 0);
+         pieces.add(piece);
+         area += piece.area();
+      }
+
+      NestingSettings settings = new NestingSettings()
+         .withEdgeTrimMm(5)
+         .withTimeBudget(Duration.ofMillis(500))
+         .withParallelism(2);
+
+      long          start   = System.nanoTime();
+      NestingResult result  = new GuillotineNester().nest(pieces, settings);
+      long          elapsed = (System.nanoTime() - start) / 1_000_000;
+
+      assertThat(elapsed).isLessThan(3000);
+      assertThat(result.unplaced()).isEmpty();
+      assertThat(result.placements()).hasSize(600);
+      assertValidLayout(result, settings);
+
+      long sheetArea  = (long) settings.getUsableLengthMm() * settings.getUsableWidthMm();
+      int  lowerBound = (int) ((area + sheetArea - 1) / sheetArea);
+      assertThat(result.sheetCount()).isBetween(lowerBound, lowerBound + 2);
+      assertThat(result.evaluatedLayouts()).isGreaterThanOrEqualTo(20);
+   }
+
+
+
+   /*******************************************************************************
+    ** Assert every placement is inside the usable sheet area and at least one
+    ** kerf away from every other piece on its sheet.
+    *******************************************************************************/
+   private void assertValidLayout(NestingResult result, NestingSettings settings)
+   {
+      int trim = settings.getEdgeTrimMm();
+      int kerf = settings.getKerfMm();
+
+      List<SheetPlacement> placements = result.placements();
+      for(SheetPlacement placement : placements)
+      {
+         assertThat(placement.sheetIndex()).isBetween(0, result.sheetCount() - 1);
+         assertThat(placement.x()).isGreaterThanOrEqualTo(trim);
+         assertThat(placement.y()).isGreaterThanOrEqualTo(trim);
+         assertThat(placement.x() + placement.placedLength()).isLessThanOrEqualTo(settings.getSheetLengthMm() - trim);
+         assertThat(placement.y() + placement.placedWidth()).isLessThanOrEqualTo(settings.getSheetWidthMm() - trim);
+         if(!placement.piece().rotatable())
+         {
+            assertThat(placement.rotated()).isFalse();
+         }
+      }
+
+      for(int i = 0; i < placements.size(); i++)
+      {
+         for(int j = i + 1; j < placements.size(); j++)
+         {
+            SheetPlacement a = placements.get(i);
+            SheetPlacement b = placements.get(j);
+            if(a.sheetIndex() != b.sheetIndex())
+            {
+               continue;
+            }
+
+            boolean separated = a.x() + a.placedLength() + kerf <= b.x()
+               || b.x() + b.placedLength() + kerf <= a.x()
+               || a.y() + a.placedWidth() + kerf <= b.y()
+               || b.y() + b.placedWidth() + kerf <= a.y();
+            assertThat(separated).as("pieces %d and %d on sheet %d", i, j, a.sheetIndex()).isTrue();
+         }
+      }
+   }
+}
@@ -0,0 +1,155 @@
+package com.makers4.nesting;
+
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+
+
+/*******************************************************************************
+ ** Unit tests for NestingCache class.
+ *******************************************************************************/
+class NestingCacheTest
+{
+
+   /*******************************************************************************
+    ** Test the same pieces, reordered and with new part ids, come back from
+    ** the cache without a search and with the new ids in place.
+    *******************************************************************************/
+   @Test
+   void testRepeatIsCached()
+   {
+      NestingCache       cache    = new NestingCache(8);
+      NestingSettings    settings = createSettings();
+      List<NestingPiece> pieces   = createPieces(200);
+
+      NestingResult first = cache.nest(3L, pieces, settings);
+      assertThat(first.evaluatedLayouts()).isPositive();
+
+      List<NestingPiece> renumbered = new ArrayList<>();
+      for(NestingPiece piece : pieces)
+      {
+         renumbered.add(piece.withPartId(piece.partId() + 1000));
+      }
+      Collections.shuffle(renumbered, new Random(5));
+
+      long          start   = System.nanoTime();
+      NestingResult second  = cache.nest(3L, renumbered, settings);
+      long          elapsed = (System.nanoTime() - start) / 1_000_000;
+
+      assertThat(cache.getHitCount()).isEqualTo(1);
+      assertThat(cache.getMissCount()).isEqualTo(1);
+      assertThat(elapsed).isLessThan(200);
+      assertThat(second.evaluatedLayouts()).isZero();
+      assertThat(second.sheetCount()).isEqualTo(first.sheetCount());
+      assertThat(second.placements()).hasSize(200)
+         .extracting(placement -> placement.piece().partId())
+         .containsExactlyElementsOf(renumbered.stream().map(NestingPiece::partId).toList());
+      assertThat(second.utilization(settings)).isEqualTo(first.utilization(settings));
+   }
+
+
+
+   /*******************************************************************************
+    ** Test a different material, stock setting or piece set is a miss, and a
+    ** different time budget is not.
+    *******************************************************************************/
+   @Test
+   void testKeyChanges()
+   {
+      NestingCache       cache  = new NestingCache(8);
+      List<NestingPiece> pieces = createPieces(20);
+
+      cache.nest(3L, pieces, createSettings());
+      cache.nest(6L, pieces, createSettings());
+      cache.nest(3L, pieces, createSettings().withKerfMm(4));
+      cache.nest(3L, pieces.subList(1, 20), createSettings());
+      assertThat(cache.getHitCount()).isZero();
+      assertThat(cache.getMissCount()).isEqualTo(4);
+
+      // a run with more materials gives each a shorter budget
+      cache.nest(3L, pieces, createSettings().withTimeBudget(Duration.ofMillis(50)));
+      assertThat(cache.getHitCount()).isEqualTo(1);
+
+      cache.clear();
+      cache.nest(3L, pieces, createSettings());
+      assertThat(cache.getHitCount()).isEqualTo(1);
+   }
+
+
+
+   /*******************************************************************************
+    ** Test the oldest result is dropped past the size limit.
+    *******************************************************************************/
+   @Test
+   void testLeastRecentlyUsed()
+   {
+      NestingCache       cache  = new NestingCache(2);
+      List<NestingPiece> pieces = createPieces(10);
+
+      cache.nest(1L, pieces, createSettings());
+      cache.nest(2L, pieces, createSettings());
+      cache.nest(1L, pieces, createSettings());
+      cache.nest(3L, pieces, createSettings());
+      assertThat(cache.getHitCount()).isEqualTo(1);
+
+      // 2 was least recently used when 3 came in
+      cache.nest(1L, pieces, createSettings());
+      cache.nest(2L, pieces, createSettings());
+      assertThat(cache.getHitCount()).isEqualTo(2);
+   }
+
+
+
+   /*******************************************************************************
+    ** Test a seed's order carries over to matching pieces, with a new piece
+    ** merged in by area.
+    *******************************************************************************/
+   @Test
+   void testSeedOrder()
+   {
+      GuillotineNester.Seed seed = new GuillotineNester.Seed(List.of(
+         new NestingPiece(1, 500, 400, false),
+         new NestingPiece(2, 300, 200, false)), GuillotineNester.Heuristic.BEST_AREA_LONGER_SPLIT);
+
+      List<NestingPiece> pieces = List.of(
+         new NestingPiece(12, 300, 200, false),
+         new NestingPiece(13, 400, 400, false),
+         new NestingPiece(11, 500, 400, false));
+
+      int[] order = new GuillotineNester.Search(pieces, createSettings(), seed).seedOrder();
+      assertThat(order).containsExactly(2, 1, 0);
+   }
+
+
+
+   /*******************************************************************************
+    ** Settings with a short budget for tests.
+    *******************************************************************************/
+   private NestingSettings createSettings()
+   {
+      return new NestingSettings()
+         .withTimeBudget(Duration.ofMillis(100))
+         .withParallelism(2);
+   }
+
+
+
+   /*******************************************************************************
+    ** Random cabinet-sized pieces, numbered from 1.
+    *******************************************************************************/
+   private List<NestingPiece> createPieces(int count)
+   {
+      Random             random = new Random(11);
+      List<NestingPiece> pieces = new ArrayList<>();
+      for(int i = 1; i <= count; i++)
+      {
+         pieces.add(new NestingPiece(i, 150 + random.nextInt(700), 50 + random.nextInt(550), i % 2 == 0));
+      }
+      return pieces;
+   }
+}
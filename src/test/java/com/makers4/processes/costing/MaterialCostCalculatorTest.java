@@ -0,0 +1,116 @@
+package com.makers4.processes.costing;
+
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import com.makers4.model.lookup.Material;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.assertj.core.data.Offset;
+import org.junit.jupiter.api.Test;
+
+
+/*******************************************************************************
+ ** Unit tests for MaterialCostCalculator class.
+ *******************************************************************************/
+class MaterialCostCalculatorTest
+{
+   private static final long SOLID_WOOD = 2L;
+
+   // 2440 x 1220 mm
+   private static final long SHEET_AREA_MM2 = 2_976_800L;
+
+
+
+   /*******************************************************************************
+    ** Test sheet goods are measured in square feet and whole sheets and
+    ** priced per square foot.
+    *******************************************************************************/
+   @Test
+   void testSheetGoods()
+   {
+      // 20 sides of 720 x 560 mm = 8.064 m2 = 86.80 sq ft, at $6.00
+      CostSummary summary = createCalculator().calculate(List.of(
+         new PartGroup(1L, 9L, 720, 560, 18, 12),
+         new PartGroup(2L, 9L, 720, 560, 18, 8)));
+
+      MaterialCost cost = summary.byMaterial().get(0);
+      assertThat(cost.solid()).isFalse();
+      assertThat(cost.squareFeet()).isCloseTo(86.80, Offset.offset(0.01));
+      assertThat(cost.boardFeet()).isZero();
+      assertThat(cost.sheets()).isEqualTo(3);
+      assertThat(cost.cost()).isEqualByComparingTo("520.80");
+      assertThat(summary.total()).isEqualByComparingTo("520.80");
+   }
+
+
+
+   /*******************************************************************************
+    ** Test solid lumber is measured and priced in board feet, falling back
+    ** to the square-foot price when it has no board-foot price.
+    *******************************************************************************/
+   @Test
+   void testSolidLumber()
+   {
+      // 1 bd ft = 144 in3, about 305 x 152 x 51 mm
+      CostSummary summary = createCalculator().calculate(List.of(
+         new PartGroup(1L, 18L, 305, 152, 51, 4),
+         new PartGroup(1L, 19L, 305, 305, 25, 1)));
+
+      MaterialCost maple = summary.byMaterial().get(0);
+      assertThat(maple.solid()).isTrue();
+      assertThat(maple.boardFeet()).isCloseTo(4.0, Offset.offset(0.01));
+      assertThat(maple.sheets()).isZero();
+      assertThat(maple.cost()).isEqualByComparingTo("27.05");
+
+      // no board-foot price: 305 x 305 mm is about 1 sq ft at $13.00
+      MaterialCost noBoardFootPrice = summary.byMaterial().get(1);
+      assertThat(noBoardFootPrice.cost()).isEqualByComparingTo("13.02");
+      assertThat(noBoardFootPrice.priced()).isTrue();
+   }
+
+
+
+   /*******************************************************************************
+    ** Test totals by cabinet and project add up, and an unpriced material is
+    ** flagged and counts as zero.
+    *******************************************************************************/
+   @Test
+   void testTotals()
+   {
+      CostSummary summary = createCalculator().calculate(List.of(
+         new PartGroup(1L, 9L, 1000, 1000, 18, 1),
+         new PartGroup(2L, 9L, 1000, 1000, 18, 2),
+         new PartGroup(2L, 30L, 1000, 1000, 6, 5),
+         new PartGroup(2L, 99L, 1000, 1000, 6, 5)));
+
+      assertThat(summary.byMaterial()).extracting(MaterialCost::materialId).containsExactly(9L, 30L);
+      assertThat(summary.byMaterial().get(1).priced()).isFalse();
+      assertThat(summary.byMaterial().get(1).cost()).isEqualByComparingTo("0");
+
+      // 1 m2 = 10.7639 sq ft at $6.00 = $64.58
+      assertThat(summary.byCabinet()).containsOnlyKeys(1L, 2L);
+      assertThat(summary.byCabinet().get(1L)).isEqualByComparingTo("64.58");
+      assertThat(summary.byCabinet().get(2L)).isEqualByComparingTo("129.17");
+      assertThat(summary.total()).isEqualByComparingTo("193.75");
+   }
+
+
+
+   /*******************************************************************************
+    ** Calculator over a few materials: maple plywood (9), maple solid with a
+    ** board-foot price (18), 1" maple solid without one (19), and MDF with no
+    ** price at all (30).
+    *******************************************************************************/
+   private MaterialCostCalculator createCalculator()
+   {
+      Map<Long, Material> materials = Map.of(
+         9L, new Material().withId(9L).withMaterialTypeId(1L).withThicknessMm(18).withCostPerSqFt(new BigDecimal("6.00")),
+         18L, new Material().withId(18L).withMaterialTypeId(SOLID_WOOD).withThicknessMm(18)
+            .withCostPerSqFt(new BigDecimal("10.00")).withCostPerBoardFoot(new BigDecimal("6.75")),
+         19L, new Material().withId(19L).withMaterialTypeId(SOLID_WOOD).withThicknessMm(25).withCostPerSqFt(new BigDecimal("13.00")),
+         30L, new Material().withId(30L).withMaterialTypeId(3L).withThicknessMm(6));
+
+      return new MaterialCostCalculator(materials, SOLID_WOOD, SHEET_AREA_MM2);
+   }
+}
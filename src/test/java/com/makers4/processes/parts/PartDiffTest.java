@@ -0,0 +1,152 @@
+package com.makers4.processes.parts;
+
+
+import java.util.List;
+import com.makers4.model.Part;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+
+
+/*******************************************************************************
+ ** Unit tests for PartDiff class.
+ *******************************************************************************/
+class PartDiffTest
+{
+
+   /*******************************************************************************
+    ** Test identical part sets produce no changes.
+    *******************************************************************************/
+   @Test
+   void testUnchanged()
+   {
+      List<Part> saved = List.of(
+         createPart(1L, null, 1L, "Left Side", 762),
+         createPart(2L, null, 2L, "Right Side", 762));
+      List<Part> generated = List.of(
+         createPart(null, null, 2L, "Right Side", 762),
+         createPart(null, null, 1L, "Left Side", 762));
+
+      PartDiff diff = PartDiff.compute(saved, generated);
+      assertThat(diff.isEmpty()).isTrue();
+      assertThat(diff.unchanged()).isEqualTo(2);
+   }
+
+
+
+   /*******************************************************************************
+    ** Test a resized cabinet updates parts in place, keeping their ids.
+    *******************************************************************************/
+   @Test
+   void testUpdateKeepsIds()
+   {
+      List<Part> saved = List.of(
+         createPart(1L, null, 1L, "Left Side", 762),
+         createPart(2L, null, 4L, "Bottom", 564).withNotes("Drill for levelers"));
+      List<Part> generated = List.of(
+         createPart(null, null, 1L, "Left Side", 762),
+         createPart(null, null, 4L, "Bottom", 864));
+
+      PartDiff diff = PartDiff.compute(saved, generated);
+      assertThat(diff.inserts()).isEmpty();
+      assertThat(diff.deletes()).isEmpty();
+      assertThat(diff.unchanged()).isEqualTo(1);
+      assertThat(diff.updates()).singleElement()
+         .satisfies(part -> assertThat(part.getId()).isEqualTo(2L))
+         .satisfies(part -> assertThat(part.getLengthMm()).isEqualTo(864));
+
+      // Notes are the user's; a notes-only difference is not a change
+      assertThat(PartDiff.compute(saved, List.of(
+         createPart(null, null, 1L, "Left Side", 762),
+         createPart(null, null, 4L, "Bottom", 564))).isEmpty()).isTrue();
+   }
+
+
+
+   /*******************************************************************************
+    ** Test a changed opening inserts the new parts and deletes the old.
+    *******************************************************************************/
+   @Test
+   void testInsertsAndDeletes()
+   {
+      List<Part> saved = List.of(
+         createPart(1L, null, 1L, "Left Side", 762),
+         createPart(2L, 20L, 17L, "Opening 1 Door", 516));
+      List<Part> generated = List.of(
+         createPart(null, null, 1L, "Left Side", 762),
+         createPart(null, 20L, 23L, "Opening 1 Drawer Front", 550),
+         createPart(null, 20L, 26L, "Opening 1 Drawer Box Left", 579));
+
+      PartDiff diff = PartDiff.compute(saved, generated);
+      assertThat(diff.updates()).isEmpty();
+      assertThat(diff.unchanged()).isEqualTo(1);
+      assertThat(diff.inserts()).extracting(Part::getName)
+         .containsExactly("Opening 1 Drawer Front", "Opening 1 Drawer Box Left");
+      assertThat(diff.deletes()).extracting(Part::getId).containsExactly(2L);
+   }
+
+
+
+   /*******************************************************************************
+    ** Test repeated keys pair off one to one.
+    *******************************************************************************/
+   @Test
+   void testRepeatedKeys()
+   {
+      List<Part> saved = List.of(
+         createPart(1L, null, 6L, "Shelf", 558),
+         createPart(2L, null, 6L, "Shelf", 558),
+         createPart(3L, null, 6L, "Shelf", 558));
+      List<Part> generated = List.of(
+         createPart(null, null, 6L, "Shelf", 558));
+
+      PartDiff diff = PartDiff.compute(saved, generated);
+      assertThat(diff.unchanged()).isEqualTo(1);
+      assertThat(diff.deletes()).extracting(Part::getId).containsExactly(2L, 3L);
+   }
+
+
+
+   /*******************************************************************************
+    ** Test a part whose dimensions change while it has cut list items is listed
+    ** as a layout change, so its placements are dropped, while a cosmetic
+    ** update keeps them.
+    *******************************************************************************/
+   @Test
+   void testLayoutChanges()
+   {
+      List<Part> saved = List.of(
+         createPart(1L, null, 1L, "Left Side", 762),
+         createPart(2L, null, 4L, "Bottom", 564),
+         createPart(3L, null, 6L, "Shelf", 558),
+         createPart(4L, null, 2L, "Right Side", 762));
+      List<Part> generated = List.of(
+         createPart(null, null, 1L, "Left Side", 762).withEdgeBandingNotes("Front edge"),
+         createPart(null, null, 4L, "Bottom", 864),
+         createPart(null, null, 6L, "Shelf", 558).withMaterialId(5L),
+         createPart(null, null, 2L, "Right Side", 762).withQuantity(2));
+
+      PartDiff diff = PartDiff.compute(saved, generated);
+      assertThat(diff.updates()).extracting(Part::getId).containsExactly(1L, 2L, 3L, 4L);
+      assertThat(diff.layoutChanges()).containsExactly(2L, 3L, 4L);
+   }
+
+
+
+   /*******************************************************************************
+    ** Create a part.
+    *******************************************************************************/
+   private Part createPart(Long id, Long openingId, Long partTypeId, String name, int length)
+   {
+      return new Part()
+         .withId(id)
+         .withCabinetId(7L)
+         .withCabinetOpeningId(openingId)
+         .withPartTypeId(partTypeId)
+         .withName(name)
+         .withLengthMm(length)
+         .withWidthMm(300)
+         .withThicknessMm(18)
+         .withMaterialId(3L)
+         .withQuantity(1);
+   }
+}
@@ -0,0 +1,399 @@
+package com.makers4.processes.parts;
+
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import com.makers4.model.Cabinet;
+import com.makers4.model.CabinetOpening;
+import com.makers4.model.Part;
+import com.makers4.model.Project;
+import com.makers4.model.lookup.Material;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+
+
+/*******************************************************************************
+ ** Unit tests for PartGenerator class.
+ *******************************************************************************/
+class PartGeneratorTest
+{
+   private static final long PLY_6     = 1;
+   private static final long PLY_18    = 3;
+   private static final long MAPLE_18  = 9;
+   private static final long SOLID_19  = 18;
+   private static final long CHERRY_18 = 6;
+
+   private static final List<String> PART_TYPE_CODES = List.of(
+      "LEFT_SIDE", "RIGHT_SIDE", "TOP", "BOTTOM", "BACK", "SHELF", "NAILER", "STRETCHER",
+      "TOE_KICK_FRONT", "TOE_KICK_SIDE",
+      "TOP_RAIL", "BOTTOM_RAIL", "MID_RAIL", "LEFT_STILE", "RIGHT_STILE", "MID_STILE",
+      "DOOR_SLAB", "DOOR_TOP_RAIL", "DOOR_BOTTOM_RAIL", "DOOR_LEFT_STILE", "DOOR_RIGHT_STILE", "DOOR_PANEL",
+      "DRAWER_FRONT", "DRAWER_BOX_FRONT", "DRAWER_BOX_BACK", "DRAWER_BOX_LEFT", "DRAWER_BOX_RIGHT", "DRAWER_BOX_BOTTOM",
+      "FINISHED_END_LEFT", "FINISHED_END_RIGHT", "FINISHED_END_BACK");
+
+
+
+   /*******************************************************************************
+    ** Test the carcass, toe kick and face frame of a plain base cabinet.
+    *******************************************************************************/
+   @Test
+   void testBaseCabinetCarcass()
+   {
+      PartGenerator.GeneratedParts result = createGenerator(createProject()).generate(createBaseCabinet(), List.of());
+      assertThat(result.errors()).isEmpty();
+
+      // 876 high less a 114 toe kick; 610 deep less the 6 mm back; 600 wide less two 18 mm sides
+      assertPart(result, "LEFT_SIDE", 762, 604, 18, 1);
+      assertPart(result, "RIGHT_SIDE", 762, 604, 18, 1);
+      assertPart(result, "BOTTOM", 564, 604, 18, 1);
+      assertPart(result, "NAILER", 564, 76, 18, 2);
+      assertPart(result, "BACK", 744, 564, 6, 1);
+      assertPart(result, "SHELF", 558, 591, 18, 1);
+      assertPart(result, "TOE_KICK_FRONT", 600, 114, 18, 1);
+      assertPart(result, "LEFT_STILE", 762, 38, 19, 1);
+      assertPart(result, "TOP_RAIL", 524, 38, 19, 1);
+      assertThat(find(result, "TOP")).isNull();
+      assertThat(find(result, "MID_RAIL")).isNull();
+
+      assertThat(find(result, "LEFT_SIDE").getMaterialId()).isEqualTo(PLY_18);
+      assertThat(find(result, "BACK").getMaterialId()).isEqualTo(PLY_6);
+      assertThat(find(result, "LEFT_STILE").getMaterialId()).isEqualTo(SOLID_19);
+      assertThat(find(result, "LEFT_SIDE").getCabinetId()).isEqualTo(7L);
+   }
+
+
+
+   /*******************************************************************************
+    ** Test a wall cabinet gets a top, no toe kick and two shelves.
+    *******************************************************************************/
+   @Test
+   void testWallCabinet()
+   {
+      Cabinet cabinet = createBaseCabinet()
+         .withCabinetTypeId(2L)
+         .withFaceTypeId(2L)
+         .withHeightMm(762)
+         .withDepthMm(305);
+
+      PartGenerator.GeneratedParts result = createGenerator(createProject()).generate(cabinet, List.of());
+      assertThat(result.errors()).isEmpty();
+
+      assertPart(result, "LEFT_SIDE", 762, 299, 18, 1);
+      assertPart(result, "TOP", 564, 299, 18, 1);
+      assertPart(result, "BACK", 726, 564, 6, 1);
+      assertPart(result, "SHELF", 558, 286, 18, 2);
+      assertThat(find(result, "TOE_KICK_FRONT")).isNull();
+      assertThat(find(result, "NAILER")).isNull();
+      assertThat(find(result, "LEFT_STILE")).isNull();
+   }
+
+
+
+   /*******************************************************************************
+    ** Test the construction rules follow the type codes, not the seed ids.
+    *******************************************************************************/
+   @Test
+   void testTypesResolvedByCode()
+   {
+      PartGenerator.TypeCodes typeCodes = new PartGenerator.TypeCodes(
+         Map.of(12L, "WALL", 2L, "BASE"),
+         Map.of(22L, "FRAMELESS", 2L, "FACE_FRAME"),
+         Map.of(31L, "DRAWER", 2L, "DOOR"),
+         Map.of());
+      PartGenerator generator = new PartGenerator(createProject(), createMaterials(), createPartTypeIds(), typeCodes);
+
+      Cabinet wall = createBaseCabinet().withCabinetTypeId(12L).withFaceTypeId(22L).withHeightMm(762).withDepthMm(305);
+      PartGenerator.GeneratedParts result = generator.generate(wall, List.of(
+         new CabinetOpening().withId(60L).withSequenceNumber(1).withOpeningTypeId(31L).withHeightMm(150)));
+      assertThat(result.errors()).isEmpty();
+      assertThat(find(result, "TOP")).isNotNull();
+      assertThat(find(result, "TOE_KICK_FRONT")).isNull();
+      assertThat(find(result, "LEFT_STILE")).isNull();
+      assertThat(find(result, "DRAWER_FRONT")).isNotNull();
+      assertThat(find(result, "DOOR_SLAB")).isNull();
+
+      // The seed ids of WALL, FRAMELESS and DRAWER mean BASE, FACE_FRAME and DOOR here
+      Cabinet base = createBaseCabinet().withCabinetTypeId(2L).withFaceTypeId(2L);
+      result = generator.generate(base, List.of(
+         new CabinetOpening().withId(61L).withSequenceNumber(1).withOpeningTypeId(2L).withHeightMm(680)));
+      assertThat(result.errors()).isEmpty();
+      assertThat(find(result, "TOE_KICK_FRONT")).isNotNull();
+      assertThat(find(result, "LEFT_STILE")).isNotNull();
+      assertThat(find(result, "DOOR_SLAB")).isNotNull();
+      assertThat(find(result, "DRAWER_FRONT")).isNull();
+   }
+
+
+
+   /*******************************************************************************
+    ** Test drawer and slab door parts for face frame overlay openings.
+    *******************************************************************************/
+   @Test
+   void testDrawerOverDoor()
+   {
+      List<CabinetOpening> openings = List.of(
+         new CabinetOpening().withId(21L).withCabinetId(7L).withSequenceNumber(2).withOpeningTypeId(1L).withHeightMm(490),
+         new CabinetOpening().withId(20L).withCabinetId(7L).withSequenceNumber(1).withOpeningTypeId(2L).withHeightMm(150));
+
+      PartGenerator.GeneratedParts result = createGenerator(createProject()).generate(createBaseCabinet(), openings);
+      assertThat(result.errors()).isEmpty();
+
+      // Opening width 600 - 2 x 38 stiles = 524; fronts overlay 13 mm on every edge
+      assertPart(result, "DRAWER_FRONT", 550, 176, 18, 1);
+      assertPart(result, "DOOR_SLAB", 516, 550, 18, 1);
+      assertPart(result, "MID_RAIL", 524, 38, 19, 1);
+
+      // Drawer box: 524 less 13 mm slide clearance per side, 150 - 25 high, 604 - 25 deep
+      assertPart(result, "DRAWER_BOX_LEFT", 579, 125, 18, 1);
+      assertPart(result, "DRAWER_BOX_FRONT", 462, 125, 18, 1);
+      assertPart(result, "DRAWER_BOX_BOTTOM", 555, 474, 6, 1);
+
+      assertThat(find(result, "DRAWER_FRONT").getCabinetOpeningId()).isEqualTo(20L);
+      assertThat(find(result, "DOOR_SLAB").getCabinetOpeningId()).isEqualTo(21L);
+      assertThat(find(result, "DRAWER_FRONT").getName()).isEqualTo("Opening 1 Drawer Front");
+      assertThat(find(result, "SHELF")).isNotNull();
+   }
+
+
+
+   /*******************************************************************************
+    ** Test a frame-and-panel double door on a frameless cabinet.
+    *******************************************************************************/
+   @Test
+   void testFrameAndPanelDoubleDoor()
+   {
+      Cabinet cabinet = createBaseCabinet()
+         .withFaceTypeId(2L)
+         .withDoorStyleId(3L);
+      List<CabinetOpening> openings = List.of(
+         new CabinetOpening().withId(30L).withCabinetId(7L).withSequenceNumber(1).withOpeningTypeId(4L).withHeightMm(762));
+
+      PartGenerator.GeneratedParts result = createGenerator(createProject()).generate(cabinet, openings);
+      assertThat(result.errors()).isEmpty();
+
+      // Frameless: full width less a 3 mm reveal, split into two leaves with a 3 mm gap
+      assertPart(result, "DOOR_LEFT_STILE", 759, 57, 19, 2);
+      assertPart(result, "DOOR_TOP_RAIL", 203, 57, 19, 2);
+      assertPart(result, "DOOR_PANEL", 663, 201, 18, 2);
+      assertThat(find(result, "DOOR_SLAB")).isNull();
+      assertThat(find(result, "DOOR_PANEL").getMaterialId()).isEqualTo(MAPLE_18);
+   }
+
+
+
+   /*******************************************************************************
+    ** Test materials inherit opening -> cabinet -> project default.
+    *******************************************************************************/
+   @Test
+   void testMaterialInheritance()
+   {
+      Cabinet cabinet = createBaseCabinet()
+         .withBoxMaterialId(null)
+         .withShelfMaterialId(CHERRY_18);
+      List<CabinetOpening> openings = List.of(
+         new CabinetOpening().withId(40L).withCabinetId(7L).withSequenceNumber(1).withOpeningTypeId(7L).withHeightMm(150)
+            .withDrawerFrontMaterialId(CHERRY_18),
+         new CabinetOpening().withId(41L).withCabinetId(7L).withSequenceNumber(2).withOpeningTypeId(1L).withHeightMm(490));
+
+      Project project = createProject().withDefaultBoxMaterialId(MAPLE_18);
+
+      PartGenerator.GeneratedParts result = createGenerator(project).generate(cabinet, openings);
+      assertThat(result.errors()).isEmpty();
+
+      assertThat(find(result, "LEFT_SIDE").getMaterialId()).isEqualTo(MAPLE_18);
+      assertThat(find(result, "TOE_KICK_FRONT").getMaterialId()).isEqualTo(MAPLE_18);
+      assertThat(find(result, "SHELF").getMaterialId()).isEqualTo(CHERRY_18);
+      assertThat(find(result, "DRAWER_FRONT").getMaterialId()).isEqualTo(CHERRY_18);
+      assertThat(find(result, "DOOR_SLAB").getMaterialId()).isEqualTo(MAPLE_18);
+
+      // A false front has no drawer box
+      assertThat(find(result, "DRAWER_BOX_LEFT")).isNull();
+   }
+
+
+
+   /*******************************************************************************
+    ** Test the input hash is stable and changes with anything that changes
+    ** the parts.
+    *******************************************************************************/
+   @Test
+   void testInputHash()
+   {
+      PartGenerator generator = createGenerator(createProject());
+      List<CabinetOpening> openings = List.of(
+         new CabinetOpening().withId(20L).withSequenceNumber(1).withOpeningTypeId(2L).withHeightMm(150),
+         new CabinetOpening().withId(21L).withSequenceNumber(2).withOpeningTypeId(1L).withHeightMm(490));
+
+      String hash = generator.inputHash(createBaseCabinet(), openings);
+      assertThat(hash).hasSize(64);
+      assertThat(generator.inputHash(createBaseCabinet(), List.of(openings.get(1), openings.get(0)))).isEqualTo(hash);
+      assertThat(generator.inputHash(createBaseCabinet().withName("Renamed").withDescription("x"), openings)).isEqualTo(hash);
+
+      assertThat(generator.inputHash(createBaseCabinet().withWidthMm(601), openings)).isNotEqualTo(hash);
+      assertThat(generator.inputHash(createBaseCabinet(), openings.subList(0, 1))).isNotEqualTo(hash);
+      assertThat(generator.inputHash(createBaseCabinet(), List.of(
+         new CabinetOpening().withId(20L).withSequenceNumber(1).withOpeningTypeId(2L).withHeightMm(150),
+         new CabinetOpening().withId(21L).withSequenceNumber(2).withOpeningTypeId(1L).withHeightMm(480)))).isNotEqualTo(hash);
+      assertThat(createGenerator(createProject().withDefaultDrawerFrontMaterialId(CHERRY_18))
+         .inputHash(createBaseCabinet(), openings)).isNotEqualTo(hash);
+
+      // A new thickness for a material in use changes the hash
+      Map<Long, Material> materials = new HashMap<>();
+      materials.put(PLY_6, new Material().withId(PLY_6).withThicknessMm(6));
+      materials.put(PLY_18, new Material().withId(PLY_18).withThicknessMm(19));
+      materials.put(MAPLE_18, new Material().withId(MAPLE_18).withThicknessMm(18));
+      materials.put(SOLID_19, new Material().withId(SOLID_19).withThicknessMm(19));
+      PartGenerator changed = new PartGenerator(createProject(), materials, createPartTypeIds(), createTypeCodes());
+      assertThat(changed.inputHash(createBaseCabinet(), openings)).isNotEqualTo(hash);
+   }
+
+
+
+   /*******************************************************************************
+    ** Test validation failures produce errors and no parts.
+    *******************************************************************************/
+   @Test
+   void testValidationErrors()
+   {
+      PartGenerator generator = createGenerator(createProject().withDefaultBoxMaterialId(null));
+
+      PartGenerator.GeneratedParts noBox = generator.generate(createBaseCabinet().withBoxMaterialId(null), List.of());
+      assertThat(noBox.isValid()).isFalse();
+      assertThat(noBox.parts()).isEmpty();
+      assertThat(noBox.errors()).singleElement().asString().contains("B24").contains("box material");
+
+      PartGenerator.GeneratedParts noWidth = generator.generate(createBaseCabinet().withWidthMm(0), List.of());
+      assertThat(noWidth.errors()).singleElement().asString().contains("positive width");
+
+      // 700 + 38 x 3 rails is more than the 762 mm box
+      List<CabinetOpening> openings = List.of(
+         new CabinetOpening().withId(50L).withSequenceNumber(1).withOpeningTypeId(1L).withHeightMm(500),
+         new CabinetOpening().withId(51L).withSequenceNumber(2).withOpeningTypeId(1L).withHeightMm(200));
+      PartGenerator.GeneratedParts tooTall = generator.generate(createBaseCabinet(), openings);
+      assertThat(tooTall.parts()).isEmpty();
+      assertThat(tooTall.errors()).singleElement().asString().contains("814 mm").contains("762 mm");
+
+      PartGenerator.GeneratedParts unknownMaterial = generator.generate(createBaseCabinet().withBoxMaterialId(999L), List.of());
+      assertThat(unknownMaterial.errors()).singleElement().asString().contains("unknown box material 999");
+   }
+
+
+
+   /*******************************************************************************
+    ** Assert one part of the given type and its size.
+    *******************************************************************************/
+   private void assertPart(PartGenerator.GeneratedParts result, String typeCode, int length, int width, int thickness, int quantity)
+   {
+      Part part = find(result, typeCode);
+      assertThat(part).as(typeCode).isNotNull();
+      assertThat(part.getLengthMm()).as(typeCode + " length").isEqualTo(length);
+      assertThat(part.getWidthMm()).as(typeCode + " width").isEqualTo(width);
+      assertThat(part.getThicknessMm()).as(typeCode + " thickness").isEqualTo(thickness);
+      assertThat(part.getQuantity()).as(typeCode + " quantity").isEqualTo(quantity);
+   }
+
+
+
+   /*******************************************************************************
+    ** Find the single part of a type, or null.
+    *******************************************************************************/
+   private Part find(PartGenerator.GeneratedParts result, String typeCode)
+   {
+      long       partTypeId = PART_TYPE_CODES.indexOf(typeCode) + 1;
+      List<Part> parts      = result.parts().stream().filter(p -> p.getPartTypeId() == partTypeId).toList();
+      assertThat(parts).as(typeCode).hasSizeLessThanOrEqualTo(1);
+      return parts.isEmpty() ? null : parts.get(0);
+   }
+
+
+
+   /*******************************************************************************
+    ** Create a generator with test materials and part types.
+    *******************************************************************************/
+   private PartGenerator createGenerator(Project project)
+   {
+      return new PartGenerator(project, createMaterials(), createPartTypeIds(), createTypeCodes());
+   }
+
+
+
+   /*******************************************************************************
+    ** Create the test materials, keyed by id.
+    *******************************************************************************/
+   private Map<Long, Material> createMaterials()
+   {
+      Map<Long, Material> materials = new HashMap<>();
+      materials.put(PLY_6, new Material().withId(PLY_6).withCode("BB-6").withThicknessMm(6));
+      materials.put(PLY_18, new Material().withId(PLY_18).withCode("BB-18").withThicknessMm(18));
+      materials.put(CHERRY_18, new Material().withId(CHERRY_18).withCode("CHY-PLY-18").withThicknessMm(18));
+      materials.put(MAPLE_18, new Material().withId(MAPLE_18).withCode("MPL-PLY-18").withThicknessMm(18));
+      materials.put(SOLID_19, new Material().withId(SOLID_19).withCode("MPL-SOLID-18").withThicknessMm(19));
+      return materials;
+   }
+
+
+
+   /*******************************************************************************
+    ** Create part type ids by code (ids follow PART_TYPE_CODES order).
+    *******************************************************************************/
+   private Map<String, Long> createPartTypeIds()
+   {
+      Map<String, Long> partTypeIds = new HashMap<>();
+      for(int i = 0; i < PART_TYPE_CODES.size(); i++)
+      {
+         partTypeIds.put(PART_TYPE_CODES.get(i), (long) i + 1);
+      }
+      return partTypeIds;
+   }
+
+
+
+   /*******************************************************************************
+    ** Create cabinet, face, opening and door style codes with the seed ids.
+    *******************************************************************************/
+   private PartGenerator.TypeCodes createTypeCodes()
+   {
+      return new PartGenerator.TypeCodes(
+         Map.of(1L, "BASE", 2L, "WALL", 3L, "TALL", 4L, "VANITY", 5L, "CORNER_BASE", 6L, "CORNER_WALL"),
+         Map.of(1L, "FACE_FRAME", 2L, "FRAMELESS", 3L, "INSET"),
+         Map.of(1L, "DOOR", 2L, "DRAWER", 3L, "DOOR_DRAWER", 4L, "DOUBLE_DOOR", 5L, "SHELF", 6L, "OPEN", 7L, "FALSE_FRONT"),
+         Map.of(1L, "SLAB", 2L, "5_PIECE", 3L, "SHAKER", 4L, "RAISED_PANEL", 5L, "GLASS_FRAME", 6L, "BEADBOARD"));
+   }
+
+
+
+   /*******************************************************************************
+    ** Create a project with default materials.
+    *******************************************************************************/
+   private Project createProject()
+   {
+      return new Project()
+         .withId(1L)
+         .withDefaultBackMaterialId(PLY_6)
+         .withDefaultFaceFrameMaterialId(SOLID_19)
+         .withDefaultDoorFrameMaterialId(SOLID_19)
+         .withDefaultDoorPanelMaterialId(MAPLE_18)
+         .withDefaultDrawerFrontMaterialId(MAPLE_18)
+         .withDefaultDrawerBoxMaterialId(PLY_18);
+   }
+
+
+
+   /*******************************************************************************
+    ** Create a 600 x 876 x 610 mm face frame base cabinet.
+    *******************************************************************************/
+   private Cabinet createBaseCabinet()
+   {
+      return new Cabinet()
+         .withId(7L)
+         .withName("B24")
+         .withCabinetTypeId(1L)
+         .withFaceTypeId(1L)
+         .withWidthMm(600)
+         .withHeightMm(876)
+         .withDepthMm(610)
+         .withBoxMaterialId(PLY_18)
+         .withDrawerBoxBottomMaterialId(PLY_6);
+   }
+}
@@ -0,0 +1,80 @@
+package com.makers4.processes.summary;
+
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import com.makers4.model.ProjectSummary;
+import com.makers4.model.lookup.Material;
+import com.makers4.processes.costing.MaterialCostCalculator;
+import com.makers4.processes.costing.PartGroup;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+
+
+/*******************************************************************************
+ ** Unit tests for ProjectRollup class.
+ *******************************************************************************/
+class ProjectRollupTest
+{
+   private static final long SOLID_WOOD = 2L;
+
+
+
+   /*******************************************************************************
+    ** Test counts, sheet goods and solid lumber land in the right columns.
+    *******************************************************************************/
+   @Test
+   void testSummarize()
+   {
+      Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+      // 4 m2 of plywood at $6.00 per sq ft, 4 bd ft of maple at $6.75
+      ProjectSummary summary = createRollup().summarize(7L, 2, 5, List.of(
+         new PartGroup(1L, 9L, 1000, 1000, 18, 1),
+         new PartGroup(2L, 9L, 1000, 1000, 18, 3),
+         new PartGroup(2L, 18L, 305, 152, 51, 4)), now);
+
+      assertThat(summary.getProjectId()).isEqualTo(7L);
+      assertThat(summary.getCabinetCount()).isEqualTo(2);
+      assertThat(summary.getOpeningCount()).isEqualTo(5);
+      assertThat(summary.getPartCount()).isEqualTo(8);
+      assertThat(summary.getSheetCount()).isEqualTo(2);
+      assertThat(summary.getSheetAreaSqFt()).isEqualByComparingTo("43.06");
+      assertThat(summary.getBoardFeet()).isEqualByComparingTo("4.01");
+      assertThat(summary.getEstimatedCost()).isEqualByComparingTo("285.39");
+      assertThat(summary.getRefreshedAt()).isEqualTo(now);
+   }
+
+
+
+   /*******************************************************************************
+    ** Test a project with no cabinets gets a row of zeros.
+    *******************************************************************************/
+   @Test
+   void testEmptyProject()
+   {
+      ProjectSummary summary = createRollup().summarize(7L, 0, 0, List.of(), Instant.now());
+
+      assertThat(summary.getPartCount()).isZero();
+      assertThat(summary.getSheetCount()).isZero();
+      assertThat(summary.getSheetAreaSqFt()).isEqualByComparingTo("0");
+      assertThat(summary.getBoardFeet()).isEqualByComparingTo("0");
+      assertThat(summary.getEstimatedCost()).isEqualByComparingTo("0");
+   }
+
+
+
+   /*******************************************************************************
+    ** Rollup over maple plywood (9) and maple solid (18) on 2440 x 1220 sheets.
+    *******************************************************************************/
+   private ProjectRollup createRollup()
+   {
+      Map<Long, Material> materials = Map.of(
+         9L, new Material().withId(9L).withMaterialTypeId(1L).withThicknessMm(18).withCostPerSqFt(new BigDecimal("6.00")),
+         18L, new Material().withId(18L).withMaterialTypeId(SOLID_WOOD).withThicknessMm(18).withCostPerBoardFoot(new BigDecimal("6.75")));
+
+      return new ProjectRollup(new MaterialCostCalculator(materials, SOLID_WOOD, 2_976_800L));
+   }
+}
@@ -0,0 +1,67 @@
+package com.makers4.rendering;
+
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+
+
+/*******************************************************************************
+ ** Unit tests for LevelOfDetail enum.
+ *******************************************************************************/
+class LevelOfDetailTest
+{
+
+   /*******************************************************************************
+    ** Test full detail draws everything.
+    *******************************************************************************/
+   @Test
+   void testFullDetail()
+   {
+      assertThat(LevelOfDetail.FULL.isPartVisible(0.1, 0.1)).isTrue();
+      assertThat(LevelOfDetail.FULL.isShadingVisible(1, 1)).isTrue();
+      assertThat(LevelOfDetail.FULL.isLabelVisible(21, 16)).isTrue();
+      assertThat(LevelOfDetail.FULL.isLabelVisible(20, 16)).isFalse();
+   }
+
+
+
+   /*******************************************************************************
+    ** Test standard detail keeps the historical half-point cutoff.
+    *******************************************************************************/
+   @Test
+   void testStandardDetail()
+   {
+      assertThat(LevelOfDetail.STANDARD.isPartVisible(0.5, 0.5)).isTrue();
+      assertThat(LevelOfDetail.STANDARD.isPartVisible(0.4, 10)).isFalse();
+      assertThat(LevelOfDetail.STANDARD.isLabelVisible(21, 16)).isTrue();
+      assertThat(LevelOfDetail.STANDARD.isShadingVisible(1, 1)).isTrue();
+   }
+
+
+
+   /*******************************************************************************
+    ** Test preview detail simplifies aggressively.
+    *******************************************************************************/
+   @Test
+   void testPreviewDetail()
+   {
+      assertThat(LevelOfDetail.PREVIEW.isPartVisible(3, 100)).isFalse();
+      assertThat(LevelOfDetail.PREVIEW.isPartVisible(4, 4)).isTrue();
+      assertThat(LevelOfDetail.PREVIEW.isLabelVisible(30, 30)).isFalse();
+      assertThat(LevelOfDetail.PREVIEW.isLabelVisible(50, 30)).isTrue();
+      assertThat(LevelOfDetail.PREVIEW.isShadingVisible(20, 40)).isFalse();
+      assertThat(LevelOfDetail.PREVIEW.isShadingVisible(20, 60)).isTrue();
+   }
+
+
+
+   /*******************************************************************************
+    ** Test display names.
+    *******************************************************************************/
+   @Test
+   void testDisplayNames()
+   {
+      assertThat(LevelOfDetail.FULL.getDisplayName()).isEqualTo("Full Detail");
+      assertThat(LevelOfDetail.PREVIEW.getDisplayName()).isEqualTo("Preview");
+   }
+}
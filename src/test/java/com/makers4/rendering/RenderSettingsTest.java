@@ -4,6 +4,7 @@ package com.makers4.rendering;
 import java.awt.Color;
 import java.awt.Font;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.Assertions.within;
 import org.junit.jupiter.api.Test;
 
@@ -294,4 +295,62 @@ class RenderSettingsTest
       assertThat(settings.getDimensionStroke()).isNotNull();
       assertThat(settings.getGridStroke()).isNotNull();
    }
+
+
+
+   /*******************************************************************************
+    ** Test level of detail default and presets.
+    *******************************************************************************/
+   @Test
+   void testLevelOfDetail()
+   {
+      assertThat(new RenderSettings().getLevelOfDetail()).isEqualTo(LevelOfDetail.STANDARD);
+      assertThat(RenderSettings.preview().getLevelOfDetail()).isEqualTo(LevelOfDetail.PREVIEW);
+      assertThat(RenderSettings.blueprint().getLevelOfDetail()).isEqualTo(LevelOfDetail.FULL);
+      assertThat(RenderSettings.cadExport().getLevelOfDetail()).isEqualTo(LevelOfDetail.FULL);
+      assertThat(RenderSettings.architecturalBlueprint().getLevelOfDetail()).isEqualTo(LevelOfDetail.FULL);
+
+      RenderSettings settings = new RenderSettings().withLevelOfDetail(LevelOfDetail.PREVIEW);
+      assertThat(settings.getLevelOfDetail()).isEqualTo(LevelOfDetail.PREVIEW);
+   }
+
+
+
+   /*******************************************************************************
+    ** Test compact SVG defaults and precision clamping.
+    *******************************************************************************/
+   @Test
+   void testSvgOutputSettings()
+   {
+      RenderSettings settings = new RenderSettings();
+      assertThat(settings.isCompactSvg()).isFalse();
+      assertThat(settings.getSvgPrecision()).isEqualTo(3);
+
+      settings.withCompactSvg(true).withSvgPrecision(1);
+      assertThat(settings.isCompactSvg()).isTrue();
+      assertThat(settings.getSvgPrecision()).isEqualTo(1);
+
+      assertThat(settings.withSvgPrecision(-2).getSvgPrecision()).isEqualTo(0);
+      assertThat(settings.withSvgPrecision(12).getSvgPrecision()).isEqualTo(6);
+   }
+
+
+
+   /*******************************************************************************
+    ** Test the dimension label fraction denominator.
+    *******************************************************************************/
+   @Test
+   void testFractionDenominator()
+   {
+      RenderSettings settings = new RenderSettings();
+      assertThat(settings.getFractionDenominator()).isEqualTo(16);
+      assertThat(settings.getFractionFormatter().format(0.3)).isEqualTo("5/16\"");
+
+      settings.withFractionDenominator(8);
+      assertThat(settings.getFractionFormatter().format(0.3)).isEqualTo("1/4\"");
+
+      assertThatThrownBy(() -> settings.withFractionDenominator(12))
+         .isInstanceOf(IllegalArgumentException.class);
+      assertThat(settings.getFractionDenominator()).isEqualTo(8);
+   }
 }
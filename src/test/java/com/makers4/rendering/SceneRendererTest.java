@@ -4,12 +4,15 @@ package com.makers4.rendering;
 import java.awt.Dimension;
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.Map;
 import com.makers4.rendering.camera.OrthographicCamera;
 import com.makers4.rendering.camera.ViewDirection;
 import com.makers4.rendering.scene.RenderStyle;
 import com.makers4.rendering.scene.SceneNode;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.within;
+import static org.assertj.core.api.Assertions.withinPercentage;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -266,12 +269,149 @@ class SceneRendererTest
 
 
 
+   /*******************************************************************************
+    ** Test preview level of detail drops parts that project below its threshold.
+    *******************************************************************************/
+   @Test
+   void testLevelOfDetailDropsSmallParts()
+   {
+      SceneNode scene = createSimpleCabinetScene();
+      OrthographicCamera camera = OrthographicCamera.forView(ViewDirection.FRONT)
+         .withScale(4.0);
+
+      SceneRenderer fullRenderer = new SceneRenderer(new RenderSettings().withLevelOfDetail(LevelOfDetail.FULL));
+      SceneRenderer previewRenderer = new SceneRenderer(new RenderSettings().withLevelOfDetail(LevelOfDetail.PREVIEW));
+
+      // 0.75" side panels project to 3pt wide - below the preview threshold
+      assertThat(fullRenderer.collectVisibleNodes(scene, camera)).hasSize(4);
+      assertThat(previewRenderer.collectVisibleNodes(scene, camera))
+         .extracting(SceneNode::getName)
+         .containsExactly("cabinet-root");
+   }
+
+
+
+   /*******************************************************************************
+    ** Test that a collapsed node takes its whole subtree with it.
+    *******************************************************************************/
+   @Test
+   void testLevelOfDetailCollapsesSubtree()
+   {
+      SceneNode root = new SceneNode("root");
+
+      SceneNode hardware = new SceneNode("hardware")
+         .withSize(1, 1, 1);
+      hardware.addChild(new SceneNode("screw")
+         .withSize(10, 10, 10));
+      root.addChild(hardware);
+
+      OrthographicCamera camera = OrthographicCamera.forView(ViewDirection.FRONT)
+         .withScale(1.0);
+
+      SceneRenderer previewRenderer = new SceneRenderer(new RenderSettings().withLevelOfDetail(LevelOfDetail.PREVIEW));
+      assertThat(previewRenderer.collectVisibleNodes(root, camera)).isEmpty();
+
+      // Nodes without geometry are always traversed
+      assertThat(renderer.collectVisibleNodes(root, camera)).hasSize(2);
+   }
+
+
+
+   /*******************************************************************************
+    ** Test a small isometric box is drawn as one flat silhouette in the fill
+    ** color under the preview level of detail, and as three shaded faces
+    ** under full detail.
+    *******************************************************************************/
+   @Test
+   void testRenderIsometricPreviewSilhouette()
+   {
+      SceneNode box = new SceneNode("box")
+         .withSize(10, 10, 10)
+         .withStyle(RenderStyle.woodPanel());
+
+      Map<Integer, Integer> silhouette = countColors(renderIsometric(box, LevelOfDetail.PREVIEW));
+      Map<Integer, Integer> shaded     = countColors(renderIsometric(box, LevelOfDetail.FULL));
+
+      int fill = RenderStyle.woodPanel().getFillColor().getRGB();
+      assertThat(silhouette).containsKey(fill);
+      assertThat(silhouette.get(fill)).isGreaterThanOrEqualTo(100);
+      assertThat(majorColors(silhouette)).isLessThan(majorColors(shaded));
+      assertThat(majorColors(shaded)).isGreaterThanOrEqualTo(3);
+
+      // The silhouette covers the same area as the three shaded faces
+      assertThat((double) opaquePixels(silhouette)).isCloseTo(opaquePixels(shaded), withinPercentage(5));
+   }
+
+
+
    // ════════════════════════════════════════════════════════════════════════════
    // Helper methods
    // ════════════════════════════════════════════════════════════════════════════
 
 
 
+   /*******************************************************************************
+    ** Render a scene isometrically at 2 points per inch onto a transparent
+    ** 100x100 image.
+    *******************************************************************************/
+   private BufferedImage renderIsometric(SceneNode scene, LevelOfDetail levelOfDetail)
+   {
+      OrthographicCamera camera = OrthographicCamera.forView(ViewDirection.ISOMETRIC)
+         .withScale(2.0);
+      camera.centerOn(scene.calculateTotalBounds(), 100, 100, 10);
+
+      BufferedImage image = new BufferedImage(100, 100, BufferedImage.TYPE_INT_ARGB);
+      Graphics2D    g2d   = image.createGraphics();
+      new SceneRenderer(RenderSettings.preview().withLevelOfDetail(levelOfDetail)).render(scene, camera, g2d);
+      g2d.dispose();
+      return image;
+   }
+
+
+
+   /*******************************************************************************
+    ** Count the opaque pixels of each color in an image.
+    *******************************************************************************/
+   private Map<Integer, Integer> countColors(BufferedImage image)
+   {
+      Map<Integer, Integer> counts = new HashMap<>();
+      for(int y = 0; y < image.getHeight(); y++)
+      {
+         for(int x = 0; x < image.getWidth(); x++)
+         {
+            int argb = image.getRGB(x, y);
+            if((argb >>> 24) == 0xFF)
+            {
+               counts.merge(argb, 1, Integer::sum);
+            }
+         }
+      }
+      return counts;
+   }
+
+
+
+   /*******************************************************************************
+    ** The total number of opaque pixels counted.
+    *******************************************************************************/
+   private int opaquePixels(Map<Integer, Integer> counts)
+   {
+      return counts.values().stream().mapToInt(Integer::intValue).sum();
+   }
+
+
+
+   /*******************************************************************************
+    ** How many colors cover a face-sized area (ignoring outline and
+    ** antialiasing pixels).
+    *******************************************************************************/
+   private long majorColors(Map<Integer, Integer> counts)
+   {
+      return counts.values().stream().filter(count -> count >= 100).count();
+   }
+
+
+
    private SceneNode createSimpleCabinetScene()
    {
       SceneNode root = new SceneNode("cabinet-root")
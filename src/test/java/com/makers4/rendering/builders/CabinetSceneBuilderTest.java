@@ -3,7 +3,10 @@ package com.makers4.rendering.builders;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import com.makers4.cache.MaterialSpec;
 import com.makers4.model.Cabinet;
+import com.makers4.model.Project;
 import com.makers4.rendering.core.Box3D;
 import com.makers4.rendering.scene.SceneNode;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -271,6 +274,80 @@ class CabinetSceneBuilderTest
 
 
 
+   /*******************************************************************************
+    ** Test panels take their material's thickness, the project default when
+    ** the cabinet sets none, and 3/4" and 1/4" when neither is known.
+    *******************************************************************************/
+   @Test
+   void testPanelThicknessFromMaterials()
+   {
+      Map<Long, MaterialSpec> materials = Map.of(
+         10L, new MaterialSpec(10, "MPLY18", 1L, 18, "3/4\"", null, null),
+         11L, new MaterialSpec(11, "MPLY6", 1L, 6, "1/4\"", null, null),
+         12L, new MaterialSpec(12, "BIRCH15", 1L, 15, "5/8\"", null, null));
+
+      SceneNode defaults = builder.buildScene(createBaseCabinet());
+      assertThat(findDescendant(defaults, "Left Side").getSize().x()).isCloseTo(0.75, within(0.001));
+      assertThat(findDescendant(defaults, "Back").getSize().z()).isCloseTo(0.25, within(0.001));
+
+      builder.withMaterials(materials::get).withDefaultMaterials(12L, 11L);
+
+      SceneNode own = builder.buildScene(createBaseCabinet().withBoxMaterialId(10L).withBackMaterialId(99L));
+      assertThat(findDescendant(own, "Left Side").getSize().x()).isCloseTo(18 / 25.4, within(0.001));
+      assertThat(findDescendant(own, "Back").getSize().z()).isCloseTo(0.25, within(0.001));
+
+      SceneNode inherited = builder.buildScene(createBaseCabinet());
+      assertThat(findDescendant(inherited, "Left Side").getSize().x()).isCloseTo(15 / 25.4, within(0.001));
+      assertThat(findDescendant(inherited, "Back").getSize().z()).isCloseTo(6 / 25.4, within(0.001));
+   }
+
+
+
+   /*******************************************************************************
+    ** Test a rendering context supplies the type codes (not the seed ids) and
+    ** the project's default materials.
+    *******************************************************************************/
+   @Test
+   void testBuildSceneFromContext()
+   {
+      Cabinet tall       = createBaseCabinet().withId(1L);
+      Cabinet cornerWall = createBaseCabinet().withId(2L).withCabinetTypeId(7L);
+
+      RenderingContext context = new RenderingContext(
+         new Project().withDefaultBoxMaterialId(12L),
+         List.of(tall, cornerWall),
+         Map.of(12L, new MaterialSpec(12, "BIRCH15", 1L, 15, "5/8\"", null, null)),
+         Map.of(1L, "TALL", 7L, "CORNER_WALL"));
+
+      builder.withContext(context);
+
+      assertThat(findDescendant(builder.buildScene(context.getCabinet(1L)), "Shelf 4")).isNotNull();
+
+      SceneNode wall = builder.buildScene(context.getCabinet(2L));
+      assertThat(findDescendant(wall, "Upper Shelf")).isNotNull();
+      assertThat(findDescendant(wall, "Left Side").getPosition().y()).isCloseTo(0.0, within(0.001));
+      assertThat(findDescendant(wall, "Left Side").getSize().x()).isCloseTo(15 / 25.4, within(0.001));
+   }
+
+
+
+   /*******************************************************************************
+    ** Test that without a context the seed corner wall type (id 6) builds as
+    ** a wall cabinet and the seed corner base type (id 5) as a base cabinet.
+    *******************************************************************************/
+   @Test
+   void testSeedCornerTypesWithoutContext()
+   {
+      SceneNode cornerWall = builder.buildScene(createWallCabinet().withCabinetTypeId(6L));
+      assertThat(findDescendant(cornerWall, "Upper Shelf")).isNotNull();
+      assertThat(findDescendant(cornerWall, "Toe Kick")).isNull();
+
+      SceneNode cornerBase = builder.buildScene(createBaseCabinet().withCabinetTypeId(5L));
+      assertThat(findDescendant(cornerBase, "Toe Kick")).isNotNull();
+   }
+
+
+
    // ════════════════════════════════════════════════════════════════════════════
    // Helper methods for test utilities
    // ════════════════════════════════════════════════════════════════════════════
@@ -0,0 +1,90 @@
+package com.makers4.rendering.builders;
+
+
+import java.util.List;
+import com.makers4.cutlist.CutListRow;
+import com.makers4.rendering.core.Box3D;
+import com.makers4.rendering.scene.SceneNode;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import org.junit.jupiter.api.Test;
+
+
+/*******************************************************************************
+ ** Unit tests for SheetLayoutSceneBuilder class.
+ *******************************************************************************/
+class SheetLayoutSceneBuilderTest
+{
+
+   /*******************************************************************************
+    ** Test rows split into one scene per sheet and board, in order.
+    *******************************************************************************/
+   @Test
+   void testOneScenePerSheet()
+   {
+      List<SceneNode> scenes = new SheetLayoutSceneBuilder().buildScenes(List.of(
+         sheetRow(1, "Side", 720, 560, false, 0, 0),
+         sheetRow(1, "Side", 720, 560, false, 723, 0),
+         sheetRow(2, "Bottom", 560, 550, false, 0, 0),
+         new CutListRow("MAPLE-4/4", "Maple", 19, 3, 2440, "Face Frame Stile", 762, 38, false, 0, null)));
+
+      assertThat(scenes).hasSize(3);
+      assertThat(scenes.get(0).getName()).isEqualTo("Sheet 1");
+      assertThat(scenes.get(0).getLabel()).isEqualTo("Sheet 1 - MPLY18");
+      assertThat(scenes.get(0).getChildren()).hasSize(2);
+      assertThat(scenes.get(1).getChildren()).hasSize(1);
+      assertThat(scenes.get(2).getName()).isEqualTo("Board 3");
+   }
+
+
+
+   /*******************************************************************************
+    ** Test the sheet and its parts are laid flat in inches, with rotated parts
+    ** turned across the sheet and drawn above the stock.
+    *******************************************************************************/
+   @Test
+   void testSheetGeometry()
+   {
+      SceneNode sheet = new SheetLayoutSceneBuilder()
+         .withSheetSize(2540, 1270)
+         .buildSheet(List.of(sheetRow(1, "Shelf", 508, 254, true, 254, 127)));
+
+      Box3D stock = sheet.getWorldBounds();
+      assertThat(stock.width()).isCloseTo(100.0, within(0.001));
+      assertThat(stock.depth()).isCloseTo(50.0, within(0.001));
+
+      Box3D part = sheet.getChildren().get(0).getWorldBounds();
+      assertThat(part.position().x()).isCloseTo(10.0, within(0.001));
+      assertThat(part.position().z()).isCloseTo(5.0, within(0.001));
+      assertThat(part.position().y()).isGreaterThan(stock.position().y());
+      assertThat(part.width()).isCloseTo(10.0, within(0.001));
+      assertThat(part.depth()).isCloseTo(20.0, within(0.001));
+   }
+
+
+
+   /*******************************************************************************
+    ** Test a board is as long as its stock and as wide as its widest part.
+    *******************************************************************************/
+   @Test
+   void testBoardGeometry()
+   {
+      SceneNode board = new SheetLayoutSceneBuilder().buildSheet(List.of(
+         new CutListRow("MAPLE-4/4", "Maple", 19, 5, 2540, "Rail", 508, 51, false, 0, null),
+         new CutListRow("MAPLE-4/4", "Maple", 19, 5, 2540, "Stile", 762, 76, false, 511, null)));
+
+      Box3D stock = board.getWorldBounds();
+      assertThat(stock.width()).isCloseTo(100.0, within(0.001));
+      assertThat(stock.depth()).isCloseTo(76 / 25.4, within(0.001));
+   }
+
+
+
+   /*******************************************************************************
+    ** A row on a maple plywood sheet.
+    *******************************************************************************/
+   private CutListRow sheetRow(int sheet, String name, int lengthMm, int widthMm, boolean rotated, int x, int y)
+   {
+      return new CutListRow("MPLY18", "Maple Plywood 3/4\"", 18, sheet, null, name, lengthMm, widthMm, rotated, x, y);
+   }
+}
@@ -5,6 +5,7 @@ import java.awt.geom.Point2D;
 import com.makers4.rendering.core.Box3D;
 import com.makers4.rendering.core.Vector3D;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.Assertions.within;
 import org.junit.jupiter.api.Test;
 
@@ -305,4 +306,89 @@ class OrthographicCameraTest
       assertThat(screenOrigin.getX()).isCloseTo(0.0, within(0.001));
       assertThat(screenOrigin.getY()).isCloseTo(0.0, within(0.001));
    }
+
+
+
+   /*******************************************************************************
+    ** Test the projection matrix folds in axis selection, mirroring, scale and offset.
+    *******************************************************************************/
+   @Test
+   void testProjectionMatrix()
+   {
+      OrthographicCamera camera = OrthographicCamera.forView(ViewDirection.RIGHT)
+         .withScale(2.0)
+         .withOffsetX(5.0)
+         .withOffsetY(7.0);
+
+      // Right view: horizontal = -Z, vertical = Y
+      assertThat(camera.getProjectionMatrix())
+         .containsExactly(0.0, 0.0, -2.0, 5.0, 0.0, 2.0, 0.0, 7.0);
+
+      Point2D point = camera.project(new Vector3D(1.0, 2.0, 3.0));
+      assertThat(point.getX()).isCloseTo(-1.0, within(0.001));   // -3 * 2 + 5
+      assertThat(point.getY()).isCloseTo(11.0, within(0.001));   // 2 * 2 + 7
+   }
+
+
+
+   /*******************************************************************************
+    ** Test bulk projection matches single-point projection for every view.
+    *******************************************************************************/
+   @Test
+   void testProjectPoints()
+   {
+      double[] in  = { 1.0, 2.0, 3.0, -4.0, 5.5, 0.25, 10.0, 0.0, -7.0 };
+      double[] out = new double[6];
+
+      for(ViewDirection direction : ViewDirection.values())
+      {
+         OrthographicCamera camera = OrthographicCamera.forView(direction)
+            .withScale(3.0)
+            .withOffsetX(11.0)
+            .withOffsetY(-2.0);
+
+         camera.projectPoints(in, out);
+
+         for(int i = 0; i < 3; i++)
+         {
+            Point2D expected = camera.project(new Vector3D(in[i * 3], in[i * 3 + 1], in[i * 3 + 2]));
+            assertThat(out[i * 2]).isCloseTo(expected.getX(), within(0.0001));
+            assertThat(out[i * 2 + 1]).isCloseTo(expected.getY(), within(0.0001));
+         }
+      }
+
+      assertThatThrownBy(() -> OrthographicCamera.forView(ViewDirection.FRONT).projectPoints(in, new double[4]))
+         .isInstanceOf(IllegalArgumentException.class);
+   }
+
+
+
+   /*******************************************************************************
+    ** Test dimetric and trimetric angles.
+    *******************************************************************************/
+   @Test
+   void testAxonometricAngles()
+   {
+      Vector3D unitX = new Vector3D(1.0, 0.0, 0.0);
+      Vector3D unitZ = new Vector3D(0.0, 0.0, 1.0);
+
+      // Default isometric is 30/30
+      OrthographicCamera iso = OrthographicCamera.forView(ViewDirection.ISOMETRIC);
+      assertThat(iso.project(unitX).getY()).isCloseTo(0.5, within(0.001));
+
+      // Trimetric - X at 15 degrees, Z at 45 degrees
+      OrthographicCamera trimetric = OrthographicCamera.forView(ViewDirection.ISOMETRIC)
+         .withAxonometricAngles(15.0, 45.0);
+      assertThat(trimetric.project(unitX).getX()).isCloseTo(Math.cos(Math.toRadians(15)), within(0.001));
+      assertThat(trimetric.project(unitX).getY()).isCloseTo(Math.sin(Math.toRadians(15)), within(0.001));
+      assertThat(trimetric.project(unitZ).getX()).isCloseTo(-Math.cos(Math.toRadians(45)), within(0.001));
+      assertThat(trimetric.project(unitZ).getY()).isCloseTo(Math.sin(Math.toRadians(45)), within(0.001));
+
+      // Dimetric with half-depth foreshortening shrinks the projected size
+      Box3D box = Box3D.atOrigin(24.0, 34.5, 24.0);
+      OrthographicCamera dimetric = OrthographicCamera.forView(ViewDirection.ISOMETRIC)
+         .withAxonometricAngles(7.0, 42.0)
+         .withForeshortening(1.0, 1.0, 0.5);
+      assertThat(dimetric.calculateProjectedSize(box)[0]).isLessThan(iso.calculateProjectedSize(box)[0]);
+   }
 }
@@ -0,0 +1,140 @@
+package com.makers4.rendering.camera;
+
+
+import java.awt.geom.Point2D;
+import java.util.Random;
+import com.makers4.rendering.core.Box3D;
+import com.makers4.rendering.core.BoxBatch;
+import com.makers4.rendering.core.Vector3D;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import org.junit.jupiter.api.Test;
+
+
+/*******************************************************************************
+ ** Unit tests for the projection kernels.
+ *******************************************************************************/
+class ProjectionKernelTest
+{
+
+   /*******************************************************************************
+    ** Test scalar bounds match the extremes of the 8 projected corners, for
+    ** every view (including mirrored ones).
+    *******************************************************************************/
+   @Test
+   void testScalarBoundsMatchCorners()
+   {
+      Box3D    box    = Box3D.of(2.0, 3.0, 4.0, 24.0, 34.5, 12.0);
+      BoxBatch boxes  = new BoxBatch(1).add(box);
+      double[] x      = new double[1];
+      double[] y      = new double[1];
+      double[] width  = new double[1];
+      double[] height = new double[1];
+
+      for(ViewDirection direction : ViewDirection.values())
+      {
+         OrthographicCamera camera = OrthographicCamera.forView(direction)
+            .withScale(5.0)
+            .withOffsetX(30.0)
+            .withOffsetY(-10.0);
+
+         ProjectionKernels.scalar().projectBounds(camera.getProjectionMatrix(), boxes, x, y, width, height);
+
+         double minX = Double.MAX_VALUE;
+         double minY = Double.MAX_VALUE;
+         double maxX = -Double.MAX_VALUE;
+         double maxY = -Double.MAX_VALUE;
+         for(int corner = 0; corner < 8; corner++)
+         {
+            Point2D point = camera.project(new Vector3D(
+               (corner & 1) == 0 ? box.min().x() : box.max().x(),
+               (corner & 2) == 0 ? box.min().y() : box.max().y(),
+               (corner & 4) == 0 ? box.min().z() : box.max().z()));
+            minX = Math.min(minX, point.getX());
+            minY = Math.min(minY, point.getY());
+            maxX = Math.max(maxX, point.getX());
+            maxY = Math.max(maxY, point.getY());
+         }
+
+         assertThat(x[0]).isCloseTo(minX, within(0.0001));
+         assertThat(y[0]).isCloseTo(minY, within(0.0001));
+         assertThat(width[0]).isCloseTo(maxX - minX, within(0.0001));
+         assertThat(height[0]).isCloseTo(maxY - minY, within(0.0001));
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** Test the selected kernel produces the same results as the scalar kernel
+    ** (this exercises the SIMD kernel when the vector profile/module is enabled).
+    *******************************************************************************/
+   @Test
+   void testBestKernelMatchesScalar()
+   {
+      Random   random = new Random(7);
+      int      count  = 37;  // not a multiple of any vector width, to cover the tail loop
+      BoxBatch boxes  = new BoxBatch(4);
+      for(int i = 0; i < count; i++)
+      {
+         boxes.add(Box3D.of(random.nextDouble() * 100, random.nextDouble() * 100, random.nextDouble() * 100,
+            random.nextDouble() * 30, random.nextDouble() * 30, random.nextDouble() * 30));
+      }
+
+      double[] matrix = OrthographicCamera.forView(ViewDirection.ISOMETRIC)
+         .withAxonometricAngles(15.0, 45.0)
+         .withScale(4.0)
+         .getProjectionMatrix();
+
+      double[][] expected = new double[4][count];
+      double[][] actual   = new double[4][count];
+      ProjectionKernels.scalar().projectBounds(matrix, boxes, expected[0], expected[1], expected[2], expected[3]);
+      ProjectionKernels.get().projectBounds(matrix, boxes, actual[0], actual[1], actual[2], actual[3]);
+
+      for(int i = 0; i < 4; i++)
+      {
+         assertThat(actual[i]).containsExactly(expected[i]);
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** Test the camera's bulk bounds API and its argument checking.
+    *******************************************************************************/
+   @Test
+   void testCameraProjectBounds()
+   {
+      OrthographicCamera camera = OrthographicCamera.forView(ViewDirection.FRONT)
+         .withScale(10.0);
+      BoxBatch boxes = new BoxBatch(2)
+         .add(Box3D.of(1.0, 2.0, 0.0, 5.0, 3.0, 10.0))
+         .add(Box3D.of(0.0, 0.0, 0.0, 1.0, 1.0, 1.0));
+
+      double[] x      = new double[2];
+      double[] y      = new double[2];
+      double[] width  = new double[2];
+      double[] height = new double[2];
+      camera.projectBounds(boxes, x, y, width, height);
+
+      // Same as projectBox for the first box
+      assertThat(new double[] { x[0], y[0], width[0], height[0] })
+         .containsExactly(camera.projectBox(Box3D.of(1.0, 2.0, 0.0, 5.0, 3.0, 10.0)), within(0.0001));
+
+      assertThatThrownBy(() -> camera.projectBounds(boxes, new double[1], y, width, height))
+         .isInstanceOf(IllegalArgumentException.class);
+   }
+
+
+
+   /*******************************************************************************
+    ** Test a kernel is always available.
+    *******************************************************************************/
+   @Test
+   void testKernelSelection()
+   {
+      assertThat(ProjectionKernels.get()).isNotNull();
+      assertThat(ProjectionKernels.scalar().getName()).isEqualTo("scalar");
+   }
+}
@@ -0,0 +1,49 @@
+package com.makers4.rendering.core;
+
+
+import java.util.List;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+
+
+/*******************************************************************************
+ ** Unit tests for BoxBatch class.
+ *******************************************************************************/
+class BoxBatchTest
+{
+
+   /*******************************************************************************
+    ** Test adding boxes grows the batch and stores components column-wise.
+    *******************************************************************************/
+   @Test
+   void testAddAndGrow()
+   {
+      BoxBatch batch = new BoxBatch(1);
+      for(int i = 0; i < 5; i++)
+      {
+         batch.add(Box3D.of(i, i + 1, i + 2, 10 + i, 20 + i, 30 + i));
+      }
+
+      assertThat(batch.size()).isEqualTo(5);
+      assertThat(batch.x()[4]).isEqualTo(4.0);
+      assertThat(batch.y()[4]).isEqualTo(5.0);
+      assertThat(batch.z()[4]).isEqualTo(6.0);
+      assertThat(batch.width()[2]).isEqualTo(12.0);
+      assertThat(batch.height()[2]).isEqualTo(22.0);
+      assertThat(batch.depth()[2]).isEqualTo(32.0);
+   }
+
+
+
+   /*******************************************************************************
+    ** Test creating from a list.
+    *******************************************************************************/
+   @Test
+   void testOf()
+   {
+      BoxBatch batch = BoxBatch.of(List.of(Box3D.atOrigin(1, 2, 3), Box3D.atOrigin(4, 5, 6)));
+
+      assertThat(batch.size()).isEqualTo(2);
+      assertThat(batch.depth()[1]).isEqualTo(6.0);
+   }
+}
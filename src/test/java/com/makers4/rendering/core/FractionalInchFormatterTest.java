@@ -0,0 +1,94 @@
+package com.makers4.rendering.core;
+
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.Test;
+
+
+/*******************************************************************************
+ ** Unit tests for FractionalInchFormatter class.
+ *******************************************************************************/
+class FractionalInchFormatterTest
+{
+
+   /*******************************************************************************
+    ** Test whole inches, pure fractions and mixed numbers.
+    *******************************************************************************/
+   @Test
+   void testFormatting()
+   {
+      FractionalInchFormatter formatter = FractionalInchFormatter.SIXTEENTHS;
+
+      assertThat(formatter.format(24.0)).isEqualTo("24\"");
+      assertThat(formatter.format(0.0)).isEqualTo("0\"");
+      assertThat(formatter.format(0.75)).isEqualTo("3/4\"");
+      assertThat(formatter.format(34.5)).isEqualTo("34 1/2\"");
+      assertThat(formatter.format(23.4375)).isEqualTo("23 7/16\"");
+      assertThat(formatter.format(-0.0625)).isEqualTo("-1/16\"");
+      assertThat(formatter.format(Length.mm(600))).isEqualTo("23 5/8\"");
+   }
+
+
+
+   /*******************************************************************************
+    ** Test rounding to the denominator, reduction and carrying into the whole
+    ** inches.
+    *******************************************************************************/
+   @Test
+   void testRoundingAndReduction()
+   {
+      // 0.3" is 4.8/16, 2.4/8 and 9.6/32
+      assertThat(FractionalInchFormatter.SIXTEENTHS.format(0.3)).isEqualTo("5/16\"");
+      assertThat(FractionalInchFormatter.EIGHTHS.format(0.3)).isEqualTo("1/4\"");
+      assertThat(FractionalInchFormatter.THIRTY_SECONDS.format(0.3)).isEqualTo("5/16\"");
+      assertThat(FractionalInchFormatter.THIRTY_SECONDS.format(0.29)).isEqualTo("9/32\"");
+
+      // 16/32 reduces to 1/2; halfway rounds up
+      assertThat(FractionalInchFormatter.THIRTY_SECONDS.format(0.5)).isEqualTo("1/2\"");
+      assertThat(FractionalInchFormatter.EIGHTHS.format(1.0625)).isEqualTo("1 1/8\"");
+
+      // Just under an inch rounds up to the next whole inch
+      assertThat(FractionalInchFormatter.SIXTEENTHS.format(11.99)).isEqualTo("12\"");
+      assertThat(FractionalInchFormatter.forDenominator(1).format(11.4)).isEqualTo("11\"");
+   }
+
+
+
+   /*******************************************************************************
+    ** Test appending into a reused builder.
+    *******************************************************************************/
+   @Test
+   void testAppendToReusedBuilder()
+   {
+      FractionalInchFormatter formatter = FractionalInchFormatter.SIXTEENTHS;
+      StringBuilder           builder   = new StringBuilder();
+
+      formatter.appendTo(builder, 24.0).append(" x ");
+      formatter.appendTo(builder, Length.inches(69, 2));
+      assertThat(builder.toString()).isEqualTo("24\" x 34 1/2\"");
+
+      builder.setLength(0);
+      formatter.appendTo(builder, 0.125);
+      assertThat(builder.toString()).isEqualTo("1/8\"");
+   }
+
+
+
+   /*******************************************************************************
+    ** Test denominator lookup and validation.
+    *******************************************************************************/
+   @Test
+   void testForDenominator()
+   {
+      assertThat(FractionalInchFormatter.forDenominator(16)).isSameAs(FractionalInchFormatter.SIXTEENTHS);
+      assertThat(FractionalInchFormatter.forDenominator(4).getDenominator()).isEqualTo(4);
+
+      assertThatThrownBy(() -> FractionalInchFormatter.forDenominator(10))
+         .isInstanceOf(IllegalArgumentException.class);
+      assertThatThrownBy(() -> FractionalInchFormatter.forDenominator(128))
+         .isInstanceOf(IllegalArgumentException.class);
+      assertThatThrownBy(() -> FractionalInchFormatter.forDenominator(0))
+         .isInstanceOf(IllegalArgumentException.class);
+   }
+}
@@ -0,0 +1,106 @@
+package com.makers4.rendering.core;
+
+
+import java.math.BigDecimal;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.Test;
+
+
+/*******************************************************************************
+ ** Unit tests for Length class.
+ *******************************************************************************/
+class LengthTest
+{
+
+   /*******************************************************************************
+    ** Test millimeter and inch conversions are exact.
+    *******************************************************************************/
+   @Test
+   void testExactConversions()
+   {
+      assertThat(Length.mm(25).nanometers()).isEqualTo(25_000_000L);
+      assertThat(Length.inches(1.0)).isEqualTo(Length.mm(25.4));
+      assertThat(Length.inches(3, 4).toInches()).isEqualTo(0.75);
+      assertThat(Length.inches(1, 64).nanometers()).isEqualTo(396_875L);
+      assertThat(Length.inches(1, 64).times(64)).isEqualTo(Length.inches(1, 1));
+      assertThat(Length.mm(610).toMillimeters()).isEqualTo(610.0);
+      assertThat(Length.mm(609.6).toInches()).isEqualTo(24.0);
+      assertThat(Length.mm((Integer) null)).isEqualTo(Length.ZERO);
+   }
+
+
+
+   /*******************************************************************************
+    ** Test arithmetic does not drift.
+    *******************************************************************************/
+   @Test
+   void testArithmetic()
+   {
+      Length width     = Length.mm(600);
+      Length thickness = Length.inches(3, 4);
+
+      Length interior = width.minus(thickness.times(2));
+      assertThat(interior.plus(thickness).plus(thickness)).isEqualTo(width);
+
+      Length sum = Length.ZERO;
+      for(int i = 0; i < 1000; i++)
+      {
+         sum = sum.plus(Length.mm(0.1));
+      }
+      assertThat(sum).isEqualTo(Length.mm(100));
+
+      assertThat(Length.inches(30, 1).dividedBy(3)).isEqualTo(Length.inches(10, 1));
+      assertThat(Length.mm(1).dividedBy(3).nanometers()).isEqualTo(333_333L);
+      assertThat(Length.mm(2).dividedBy(3).nanometers()).isEqualTo(666_667L);
+      assertThat(Length.mm(1).compareTo(Length.inches(1, 16))).isLessThan(0);
+      assertThat(Length.ZERO.isPositive()).isFalse();
+
+      assertThatThrownBy(() -> new Length(Long.MAX_VALUE).plus(Length.mm(1)))
+         .isInstanceOf(ArithmeticException.class);
+   }
+
+
+
+   /*******************************************************************************
+    ** Test conversion to and from Dimension at the edges.
+    *******************************************************************************/
+   @Test
+   void testDimensionConversion()
+   {
+      assertThat(Length.from(Dimension.mm(25.4))).isEqualTo(Length.inches(1, 1));
+      assertThat(Length.from(Dimension.inches(0.75))).isEqualTo(Length.inches(3, 4));
+      assertThat(Length.from(Dimension.cm(2.54))).isEqualTo(Length.inches(1, 1));
+
+      Dimension millimeters = Length.inches(1, 1).toDimension(Dimension.Unit.MILLIMETERS);
+      assertThat(millimeters.value()).isEqualByComparingTo(new BigDecimal("25.4"));
+      assertThat(millimeters.format()).isEqualTo("25.4 mm");
+
+      Dimension inches = Length.mm(600).toDimension(Dimension.Unit.INCHES);
+      assertThat(inches.value()).isEqualByComparingTo(Dimension.mm(600).toInches());
+      assertThat(Length.mm(600).toDimension(Dimension.Unit.CENTIMETERS).format()).isEqualTo("60 cm");
+   }
+
+
+
+   /*******************************************************************************
+    ** Test fractional formatting (nearest 1/16") matches Dimension.
+    *******************************************************************************/
+   @Test
+   void testFormatFractional()
+   {
+      assertThat(Length.inches(34.5).formatFractional()).isEqualTo("34 1/2\"");
+      assertThat(Length.inches(3, 4).formatFractional()).isEqualTo("3/4\"");
+      assertThat(Length.inches(24, 1).formatFractional()).isEqualTo("24\"");
+      assertThat(Length.inches(-3, 4).formatFractional()).isEqualTo("-3/4\"");
+      assertThat(Length.mm(10).formatFractional()).isEqualTo("3/8\"");
+
+      for(int sixtyFourths = 0; sixtyFourths <= 64 * 40; sixtyFourths++)
+      {
+         double inches = sixtyFourths / 64.0;
+         assertThat(Length.inches(inches).formatFractional())
+            .as("%d/64", sixtyFourths)
+            .isEqualTo(Dimension.inches(inches).formatFractional());
+      }
+   }
+}
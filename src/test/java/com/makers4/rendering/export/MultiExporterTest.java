@@ -0,0 +1,186 @@
+package com.makers4.rendering.export;
+
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import com.makers4.rendering.RenderSettings;
+import com.makers4.rendering.camera.ViewDirection;
+import com.makers4.rendering.scene.RenderStyle;
+import com.makers4.rendering.scene.SceneNode;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.Test;
+
+
+/*******************************************************************************
+ ** Unit tests for MultiExporter class.
+ *******************************************************************************/
+class MultiExporterTest
+{
+
+   /*******************************************************************************
+    ** Test fanned-out output matches what each exporter writes on its own.
+    *******************************************************************************/
+   @Test
+   void testFanOutMatchesIndividualExports() throws Exception
+   {
+      SceneNode      scene    = createTestScene();
+      RenderSettings settings = RenderSettings.preview().withShowPartLabels(true);
+
+      ByteArrayOutputStream pdfOutput   = new ByteArrayOutputStream();
+      ByteArrayOutputStream frontOutput = new ByteArrayOutputStream();
+      ByteArrayOutputStream isoOutput   = new ByteArrayOutputStream();
+
+      new MultiExporter()
+         .withTarget(new PdfExporter(), List.of(ViewDirection.FRONT, ViewDirection.ISOMETRIC), settings, pdfOutput)
+         .withTarget(new SvgExporter(), List.of(ViewDirection.FRONT), settings, frontOutput)
+         .withTarget(new SvgExporter(), List.of(ViewDirection.ISOMETRIC), settings, isoOutput)
+         .export(scene, settings);
+
+      ByteArrayOutputStream expectedFront = new ByteArrayOutputStream();
+      new SvgExporter().exportView(scene, ViewDirection.FRONT, settings, expectedFront);
+      assertThat(frontOutput.toByteArray()).isEqualTo(expectedFront.toByteArray());
+
+      ByteArrayOutputStream expectedIso = new ByteArrayOutputStream();
+      new SvgExporter().exportView(scene, ViewDirection.ISOMETRIC, settings, expectedIso);
+      assertThat(isoOutput.toByteArray()).isEqualTo(expectedIso.toByteArray());
+
+      try(PDDocument document = Loader.loadPDF(pdfOutput.toByteArray()))
+      {
+         assertThat(document.getNumberOfPages()).isEqualTo(2);
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** Test a view needed by several targets is prepared only once.
+    *******************************************************************************/
+   @Test
+   void testViewsArePreparedOnce() throws ExportException
+   {
+      RecordingExporter first  = new RecordingExporter();
+      RecordingExporter second = new RecordingExporter();
+
+      RenderSettings settings = RenderSettings.preview();
+      new MultiExporter()
+         .withTarget(first, List.of(ViewDirection.FRONT, ViewDirection.TOP), settings, new ByteArrayOutputStream())
+         .withTarget(second, List.of(ViewDirection.TOP), settings, new ByteArrayOutputStream())
+         .export(createTestScene(), settings);
+
+      assertThat(first.received).hasSize(2);
+      assertThat(second.received).hasSize(1);
+      assertThat(first.received.get(0).getViewDirection()).isEqualTo(ViewDirection.FRONT);
+      assertThat(second.received.get(0)).isSameAs(first.received.get(1));
+   }
+
+
+
+   /*******************************************************************************
+    ** Test a failing target is reported without stopping the others.
+    *******************************************************************************/
+   @Test
+   void testFailingTargetIsReported()
+   {
+      RecordingExporter healthy = new RecordingExporter();
+      RecordingExporter failing = new RecordingExporter();
+      failing.fail = true;
+
+      RenderSettings settings = RenderSettings.preview();
+      MultiExporter multiExporter = new MultiExporter()
+         .withTarget(failing, List.of(ViewDirection.FRONT), settings, new ByteArrayOutputStream())
+         .withTarget(healthy, List.of(ViewDirection.FRONT), settings, new ByteArrayOutputStream());
+
+      assertThatThrownBy(() -> multiExporter.export(createTestScene(), settings))
+         .isInstanceOf(ExportException.class)
+         .hasMessageContaining("boom");
+      assertThat(healthy.received).hasSize(1);
+   }
+
+
+
+   // ════════════════════════════════════════════════════════════════════════════
+   // Helper methods
+   // ════════════════════════════════════════════════════════════════════════════
+
+
+
+   /*******************************************************************************
+    ** Exporter that records the prepared views it is given.
+    *******************************************************************************/
+   private static class RecordingExporter implements Exporter
+   {
+      private final List<PreparedView> received = new CopyOnWriteArrayList<>();
+      private boolean                  fail;
+
+
+
+      @Override
+      public void exportView(SceneNode sceneRoot, ViewDirection viewDirection,
+                             RenderSettings settings, OutputStream output)
+      {
+         throw new UnsupportedOperationException("prepared views expected");
+      }
+
+
+
+      @Override
+      public void exportPrepared(List<PreparedView> views, RenderSettings settings,
+                                 OutputStream output) throws ExportException
+      {
+         if(fail)
+         {
+            throw new ExportException("boom");
+         }
+         received.addAll(views);
+      }
+
+
+
+      @Override
+      public String getFileExtension()
+      {
+         return "rec";
+      }
+
+
+
+      @Override
+      public String getMimeType()
+      {
+         return "application/octet-stream";
+      }
+   }
+
+
+
+   private SceneNode createTestScene()
+   {
+      SceneNode root = new SceneNode("test-cabinet")
+         .withLabel("Test Cabinet")
+         .withSize(24, 34.5, 24);
+
+      root.addChild(new SceneNode("left-side")
+         .withLabel("Left Side")
+         .withPosition(0, 4.5, 0)
+         .withSize(0.75, 30, 23.75)
+         .withStyle(RenderStyle.woodPanel()));
+
+      root.addChild(new SceneNode("right-side")
+         .withLabel("Right Side")
+         .withPosition(23.25, 4.5, 0)
+         .withSize(0.75, 30, 23.75)
+         .withStyle(RenderStyle.woodPanel()));
+
+      root.addChild(new SceneNode("bottom")
+         .withPosition(0.75, 4.5, 0)
+         .withSize(22.5, 0.75, 23.75)
+         .withStyle(RenderStyle.woodPanel()));
+
+      return root;
+   }
+}
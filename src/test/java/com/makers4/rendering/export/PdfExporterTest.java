@@ -2,15 +2,32 @@ package com.makers4.rendering.export;
 
 
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import com.makers4.rendering.LevelOfDetail;
 import com.makers4.rendering.RenderSettings;
 import com.makers4.rendering.camera.ViewDirection;
 import com.makers4.rendering.scene.RenderStyle;
 import com.makers4.rendering.scene.SceneNode;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.contentstream.operator.Operator;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdfparser.PDFStreamParser;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.graphics.PDXObject;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
+import org.apache.pdfbox.text.PDFTextStripper;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 
 /*******************************************************************************
@@ -65,6 +82,69 @@ class PdfExporterTest
 
 
 
+   /*******************************************************************************
+    ** Test a part too small for the level of detail hides its whole subtree,
+    ** as it does in SVG, while its visible siblings still draw.
+    *******************************************************************************/
+   @Test
+   void testCollapsedNodeHidesItsChildren() throws Exception
+   {
+      SceneNode drawer = new SceneNode("Drawer")
+         .withPosition(1, 1, 0)
+         .withSize(0.2, 0.2, 0.2);
+      drawer.addChild(new SceneNode("Knob")
+         .withLabel("KNOB")
+         .withPosition(0, 0, 0)
+         .withSize(10, 10, 1));
+
+      SceneNode scene = new SceneNode("root")
+         .withSize(24, 24, 24);
+      scene.addChild(drawer);
+      scene.addChild(new SceneNode("Panel")
+         .withLabel("PANEL")
+         .withPosition(12, 12, 0)
+         .withSize(10, 10, 1));
+
+      ByteArrayOutputStream output = new ByteArrayOutputStream();
+      exporter.exportView(scene, ViewDirection.FRONT, settings.withShowPartLabels(true), output);
+
+      try(PDDocument document = Loader.loadPDF(output.toByteArray()))
+      {
+         String text = new PDFTextStripper().getText(document);
+         assertThat(text).contains("PANEL");
+         assertThat(text).doesNotContain("KNOB");
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** Test the isometric view applies the level of detail too: a part too small
+    ** to draw is skipped, and a small part is filled once as a silhouette
+    ** rather than as three shaded faces.
+    *******************************************************************************/
+   @Test
+   void testIsometricViewAppliesLevelOfDetail() throws Exception
+   {
+      SceneNode scene = new SceneNode("root")
+         .withSize(24, 24, 24);
+      scene.addChild(new SceneNode("Screw")
+         .withPosition(1, 1, 0)
+         .withSize(0.2, 0.2, 0.2));
+      scene.addChild(new SceneNode("Knob")
+         .withPosition(12, 12, 0)
+         .withSize(2, 2, 2));
+
+      RenderSettings scaled  = RenderSettings.preview().withScale(10.0);
+      int            full    = countIsometricFills(scene, scaled.withLevelOfDetail(LevelOfDetail.FULL));
+      int            preview = countIsometricFills(scene, scaled.withLevelOfDetail(LevelOfDetail.PREVIEW));
+
+      // The screw's three faces are gone, and the knob's three faces become one silhouette
+      assertThat(full - preview).isEqualTo(5);
+   }
+
+
+
    /*******************************************************************************
     ** Test exporting multiple views.
     *******************************************************************************/
@@ -110,6 +190,252 @@ class PdfExporterTest
 
 
 
+   /*******************************************************************************
+    ** Test blueprint sheets share one page template and only vary in sheet text,
+    ** with the template's background stamped under the scene and its title
+    ** block foreground stamped over it.
+    *******************************************************************************/
+   @Test
+   void testBlueprintSheetsShareTemplate() throws Exception
+   {
+      SceneNode scene = createTestScene();
+      ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+      exporter.exportViews(scene, List.of(ViewDirection.FRONT, ViewDirection.LEFT, ViewDirection.TOP),
+         RenderSettings.architecturalBlueprint().withProjectName("Kitchen"), output);
+
+      try(PDDocument document = Loader.loadPDF(output.toByteArray()))
+      {
+         assertThat(document.getNumberOfPages()).isEqualTo(3);
+
+         // Every page stamps the very same background, then foreground, form XObject
+         List<COSBase> firstForms = null;
+         for(PDPage page : document.getPages())
+         {
+            List<Object> tokens = new PDFStreamParser(page).parse();
+            List<Integer> formDraws = new ArrayList<>();
+            for(int i = 0; i < tokens.size(); i++)
+            {
+               if(tokens.get(i) instanceof Operator operator && operator.getName().equals("Do"))
+               {
+                  formDraws.add(i);
+               }
+            }
+            assertThat(formDraws).hasSize(2);
+
+            List<COSBase> forms = new ArrayList<>();
+            for(int formDraw : formDraws)
+            {
+               PDXObject form = page.getResources().getXObject((COSName) tokens.get(formDraw - 1));
+               assertThat(form).isInstanceOf(PDFormXObject.class);
+               forms.add(form.getCOSObject());
+            }
+            assertThat(forms.get(0)).isNotSameAs(forms.get(1));
+            if(firstForms == null)
+            {
+               firstForms = forms;
+            }
+            assertThat(forms.get(0)).isSameAs(firstForms.get(0));
+            assertThat(forms.get(1)).isSameAs(firstForms.get(1));
+
+            // The scene's rectangles are all drawn between the two stamps
+            assertThat(countOperators(tokens.subList(formDraws.get(0), formDraws.get(1)), "re")).isGreaterThan(0);
+            assertThat(countOperators(tokens.subList(formDraws.get(1), tokens.size()), "re")).isZero();
+         }
+
+         // Per-sheet text is still drawn on each page, and the template text is still visible
+         PDFTextStripper stripper = new PDFTextStripper();
+         stripper.setStartPage(2);
+         stripper.setEndPage(2);
+         String text = stripper.getText(document);
+         assertThat(text).contains("SHEET 2 OF 3");
+         assertThat(text).contains("Left Side");
+         assertThat(text).contains("Kitchen");
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** Test pages rendered in parallel are assembled in sheet order, with each
+    ** font written to the file only once.
+    *******************************************************************************/
+   @Test
+   void testParallelBlueprintPagesAssembleInOrder() throws Exception
+   {
+      SceneNode scene = createTestScene();
+      List<ViewDirection> views = new ArrayList<>();
+      for(int i = 0; i < 5; i++)
+      {
+         views.addAll(List.of(ViewDirection.FRONT, ViewDirection.LEFT, ViewDirection.TOP, ViewDirection.ISOMETRIC));
+      }
+
+      ByteArrayOutputStream sequential = new ByteArrayOutputStream();
+      exporter.exportViews(scene, views, RenderSettings.architecturalBlueprint(), sequential);
+
+      ByteArrayOutputStream parallel = new ByteArrayOutputStream();
+      exporter.exportViews(scene, views, RenderSettings.architecturalBlueprint().withRenderThreads(4), parallel);
+
+      try(PDDocument expected = Loader.loadPDF(sequential.toByteArray());
+          PDDocument actual = Loader.loadPDF(parallel.toByteArray()))
+      {
+         assertThat(actual.getNumberOfPages()).isEqualTo(20);
+
+         PDFTextStripper stripper = new PDFTextStripper();
+         for(int page = 1; page <= 20; page++)
+         {
+            stripper.setStartPage(page);
+            stripper.setEndPage(page);
+            assertThat(stripper.getText(actual)).isEqualTo(stripper.getText(expected));
+         }
+
+         assertThat(actual.getDocument().getObjectsByType(COSName.FONT)).hasSize(2);
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** Test several scenes export as one page each, in order, with the sheet
+    ** text taken from each scene.
+    *******************************************************************************/
+   @Test
+   void testExportScenesOnePagePerScene() throws Exception
+   {
+      List<SceneNode> scenes = new ArrayList<>();
+      for(int i = 1; i <= 3; i++)
+      {
+         scenes.add(createTestScene().withLabel("Sheet " + i));
+      }
+
+      ByteArrayOutputStream output = new ByteArrayOutputStream();
+      exporter.exportScenes(scenes, ViewDirection.TOP, RenderSettings.architecturalBlueprint().withRenderThreads(2), output);
+
+      try(PDDocument document = Loader.loadPDF(output.toByteArray()))
+      {
+         assertThat(document.getNumberOfPages()).isEqualTo(3);
+
+         PDFTextStripper stripper = new PDFTextStripper();
+         stripper.setStartPage(2);
+         stripper.setEndPage(2);
+         String text = stripper.getText(document);
+         assertThat(text).contains("Sheet 2");
+         assertThat(text).contains("SHEET 2 OF 3");
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** Test a hundred-sheet set renders in bounded-memory mode, spooling through
+    ** the scratch directory and cleaning up after itself.
+    *******************************************************************************/
+   @Test
+   void testBoundedMemoryLargeSheetSet(@TempDir Path scratchDir) throws Exception
+   {
+      SceneNode scene = createTestScene();
+      ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+      RenderSettings bounded = RenderSettings.architecturalBlueprint()
+         .withProjectName("Kitchen")
+         .withPdfMaxMainMemoryBytes(0)
+         .withPdfScratchDirectory(scratchDir.toFile());
+      exporter.exportViews(scene, Collections.nCopies(100, ViewDirection.FRONT), bounded, output);
+
+      try(PDDocument document = Loader.loadPDF(output.toByteArray()))
+      {
+         assertThat(document.getNumberOfPages()).isEqualTo(100);
+
+         PDFTextStripper stripper = new PDFTextStripper();
+         stripper.setStartPage(100);
+         stripper.setEndPage(100);
+         assertThat(stripper.getText(document)).contains("SHEET 100 OF 100");
+      }
+
+      assertThat(scratchDir.toFile().list()).isEmpty();
+   }
+
+
+
+   /*******************************************************************************
+    ** Test a bounded document keeps page content in the scratch directory.
+    *******************************************************************************/
+   @Test
+   void testBoundedDocumentSpoolsToScratchDirectory(@TempDir Path scratchDir) throws Exception
+   {
+      RenderSettings bounded = RenderSettings.preview()
+         .withPdfMaxMainMemoryBytes(0)
+         .withPdfScratchDirectory(scratchDir.toFile());
+      assertThat(bounded.isPdfMemoryBounded()).isTrue();
+      assertThat(settings.isPdfMemoryBounded()).isFalse();
+
+      try(PDDocument document = exporter.createDocument(bounded))
+      {
+         PDPage page = new PDPage();
+         document.addPage(page);
+         try(PDPageContentStream contentStream = new PDPageContentStream(document, page))
+         {
+            contentStream.addRect(10, 10, 100, 100);
+            contentStream.stroke();
+         }
+
+         File[] scratchFiles = scratchDir.toFile().listFiles();
+         assertThat(scratchFiles).isNotEmpty();
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** Test a bounded multi-page export renders its parallel sheets into page
+    ** documents backed by scratch files only, even with a main-memory budget
+    ** that would keep a small document on the heap.
+    *******************************************************************************/
+   @Test
+   void testBoundedParallelPagesUseScratchFiles(@TempDir Path scratchDir) throws Exception
+   {
+      RenderSettings bounded = RenderSettings.architecturalBlueprint()
+         .withRenderThreads(4)
+         .withPdfMaxMainMemoryBytes(16 * 1024 * 1024)
+         .withPdfScratchDirectory(scratchDir.toFile());
+
+      // The budget keeps a small main document on the heap, but not a page document
+      try(PDDocument document = exporter.createDocument(bounded))
+      {
+         drawPage(document);
+         assertThat(scratchDir.toFile().list()).isEmpty();
+      }
+      try(PDDocument pageDocument = exporter.createPageDocument(bounded))
+      {
+         drawPage(pageDocument);
+         assertThat(scratchDir.toFile().list()).isNotEmpty();
+      }
+
+      // Every sheet of the export is rendered into a page document
+      List<RenderSettings> pageDocumentSettings = Collections.synchronizedList(new ArrayList<>());
+      PdfExporter countingExporter = new PdfExporter()
+      {
+         @Override
+         PDDocument createPageDocument(RenderSettings settings)
+         {
+            pageDocumentSettings.add(settings);
+            return super.createPageDocument(settings);
+         }
+      };
+
+      ByteArrayOutputStream output = new ByteArrayOutputStream();
+      countingExporter.exportViews(createTestScene(), Collections.nCopies(8, ViewDirection.FRONT), bounded, output);
+
+      assertThat(pageDocumentSettings).hasSize(8).containsOnly(bounded);
+      try(PDDocument document = Loader.loadPDF(output.toByteArray()))
+      {
+         assertThat(document.getNumberOfPages()).isEqualTo(8);
+      }
+      assertThat(scratchDir.toFile().list()).isEmpty();
+   }
+
+
+
    /*******************************************************************************
     ** Test exporting isometric view.
     *******************************************************************************/
@@ -169,6 +495,56 @@ class PdfExporterTest
 
 
 
+   /*******************************************************************************
+    ** Add a page with a stroked rectangle to a document.
+    *******************************************************************************/
+   private void drawPage(PDDocument document) throws Exception
+   {
+      PDPage page = new PDPage();
+      document.addPage(page);
+      try(PDPageContentStream contentStream = new PDPageContentStream(document, page))
+      {
+         contentStream.addRect(10, 10, 100, 100);
+         contentStream.stroke();
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** Export the isometric view of a scene and count the fills on its page.
+    *******************************************************************************/
+   private int countIsometricFills(SceneNode scene, RenderSettings renderSettings) throws Exception
+   {
+      ByteArrayOutputStream output = new ByteArrayOutputStream();
+      exporter.exportView(scene, ViewDirection.ISOMETRIC, renderSettings, output);
+
+      try(PDDocument document = Loader.loadPDF(output.toByteArray()))
+      {
+         return countOperators(new PDFStreamParser(document.getPage(0)).parse(), "f");
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** Count the content stream operators with a name.
+    *******************************************************************************/
+   private int countOperators(List<Object> tokens, String name)
+   {
+      int count = 0;
+      for(Object token : tokens)
+      {
+         if(token instanceof Operator operator && operator.getName().equals(name))
+         {
+            count++;
+         }
+      }
+      return count;
+   }
+
+
+
    private SceneNode createTestScene()
    {
       SceneNode root = new SceneNode("test-cabinet")
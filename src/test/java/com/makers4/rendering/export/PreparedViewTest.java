@@ -0,0 +1,111 @@
+package com.makers4.rendering.export;
+
+
+import java.awt.geom.Point2D;
+import java.util.List;
+import com.makers4.rendering.LevelOfDetail;
+import com.makers4.rendering.RenderSettings;
+import com.makers4.rendering.camera.ViewDirection;
+import com.makers4.rendering.scene.RenderStyle;
+import com.makers4.rendering.scene.SceneNode;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import org.junit.jupiter.api.Test;
+
+
+/*******************************************************************************
+ ** Unit tests for PreparedView class.
+ *******************************************************************************/
+class PreparedViewTest
+{
+
+   /*******************************************************************************
+    ** Test node lists are depth-sorted, with visible nodes a LOD subset.
+    *******************************************************************************/
+   @Test
+   void testNodeListsAreDepthSortedAndCulled()
+   {
+      SceneNode root = new SceneNode("root").withSize(24, 30, 24);
+      SceneNode back = new SceneNode("back").withPosition(0, 0, 23).withSize(24, 30, 1);
+      SceneNode side = new SceneNode("side").withPosition(0, 0, 0).withSize(1, 30, 24);
+      SceneNode tiny = new SceneNode("tiny").withPosition(0, 0, 0.5).withSize(0.01, 0.01, 0.01);
+      root.addChild(back);
+      root.addChild(side);
+      side.addChild(tiny);
+
+      PreparedView view = PreparedView.prepare(root, ViewDirection.FRONT,
+         RenderSettings.preview().withLevelOfDetail(LevelOfDetail.PREVIEW));
+
+      assertThat(view.getDrawableNodes()).containsExactly(root, side, tiny, back);
+      assertThat(view.getVisibleNodes()).containsExactly(root, side, back);
+      assertThat(view.getSceneBounds()).isEqualTo(root.calculateTotalBounds());
+      assertThat(view.getWidth()).isPositive();
+      assertThat(view.getHeight()).isPositive();
+   }
+
+
+
+   /*******************************************************************************
+    ** Test bulk-projected bounds match projecting each node on its own.
+    *******************************************************************************/
+   @Test
+   void testProjectedBoundsMatchCamera()
+   {
+      SceneNode root = createTestScene();
+      PreparedView view = PreparedView.prepare(root, ViewDirection.LEFT, RenderSettings.blueprint());
+
+      List<SceneNode> nodes = view.getVisibleNodes();
+      assertThat(view.getProjectedX()).hasSize(nodes.size());
+      for(int i = 0; i < nodes.size(); i++)
+      {
+         double[] expected = view.getCamera().projectBox(nodes.get(i).getWorldBounds());
+         assertThat(view.getProjectedX()[i]).isCloseTo(expected[0], within(1e-9));
+         assertThat(view.getProjectedY()[i]).isCloseTo(expected[1], within(1e-9));
+         assertThat(view.getProjectedWidth()[i]).isCloseTo(expected[2], within(1e-9));
+         assertThat(view.getProjectedHeight()[i]).isCloseTo(expected[3], within(1e-9));
+      }
+      assertThat(view.getIsometricCorners()).isNull();
+   }
+
+
+
+   /*******************************************************************************
+    ** Test isometric views carry eight projected corners per visible node.
+    *******************************************************************************/
+   @Test
+   void testIsometricCorners()
+   {
+      SceneNode root = createTestScene();
+      PreparedView view = PreparedView.prepare(root, ViewDirection.ISOMETRIC, RenderSettings.blueprint());
+
+      double[] corners = view.getIsometricCorners();
+      assertThat(corners).hasSize(view.getVisibleNodes().size() * 16);
+
+      // The last node's back-right-top corner
+      int       last  = view.getVisibleNodes().size() - 1;
+      SceneNode node  = view.getVisibleNodes().get(last);
+      Point2D   point = view.getCamera().project(node.getWorldBounds().max());
+      assertThat(corners[last * 16 + 12]).isCloseTo(point.getX(), within(1e-9));
+      assertThat(corners[last * 16 + 13]).isCloseTo(point.getY(), within(1e-9));
+   }
+
+
+
+   private SceneNode createTestScene()
+   {
+      SceneNode root = new SceneNode("test-cabinet")
+         .withSize(24, 34.5, 24);
+
+      root.addChild(new SceneNode("left-side")
+         .withPosition(0, 4.5, 0)
+         .withSize(0.75, 30, 23.75)
+         .withStyle(RenderStyle.woodPanel()));
+
+      root.addChild(new SceneNode("bottom")
+         .withPosition(0.75, 4.5, 0)
+         .withSize(22.5, 0.75, 23.75)
+         .withStyle(RenderStyle.woodPanel()));
+
+      return root;
+   }
+}
@@ -0,0 +1,231 @@
+package com.makers4.rendering.export;
+
+
+import java.awt.Color;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+
+
+/*******************************************************************************
+ ** Unit tests for StreamingSvgWriter class.
+ *******************************************************************************/
+class StreamingSvgWriterTest
+{
+
+   /*******************************************************************************
+    ** Test the header is flushed to the stream before the document is finished.
+    *******************************************************************************/
+   @Test
+   void testHeaderStreamedImmediately() throws Exception
+   {
+      ByteArrayOutputStream output = new ByteArrayOutputStream();
+      StreamingSvgWriter    svg    = new StreamingSvgWriter(output);
+
+      svg.startDocument(200, 100);
+
+      String header = output.toString(StandardCharsets.UTF_8);
+      assertThat(header).contains("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"200\" height=\"100\"");
+      assertThat(header).doesNotContain("</svg>");
+
+      svg.endDocument();
+      assertThat(output.toString(StandardCharsets.UTF_8)).endsWith("</svg>\n");
+   }
+
+
+
+   /*******************************************************************************
+    ** Test element output, number formatting and colors.
+    *******************************************************************************/
+   @Test
+   void testElements() throws Exception
+   {
+      ByteArrayOutputStream output = new ByteArrayOutputStream();
+      try(StreamingSvgWriter svg = new StreamingSvgWriter(output))
+      {
+         svg.startDocument(10, 10)
+            .rect(1.5, -2.25, 3.0, 0.12345, new Color(255, 0, 16), null, 1.0f)
+            .polygon(new double[] { 0, 1, 2 }, new double[] { 0, 2, 0 }, 3, null, Color.BLACK, 0.5f)
+            .endDocument();
+      }
+
+      String svg = output.toString(StandardCharsets.UTF_8);
+      assertThat(svg).contains("<rect x=\"1.5\" y=\"-2.25\" width=\"3\" height=\"0.123\" fill=\"#ff0010\"/>");
+      assertThat(svg).contains("<polygon points=\"0,0 1,2 2,0\" fill=\"none\" stroke=\"#000000\" stroke-width=\"0.5\"/>");
+   }
+
+
+
+   /*******************************************************************************
+    ** Test translucent colors keep their alpha as fill and stroke opacity, in
+    ** attributes and in compact style classes.
+    *******************************************************************************/
+   @Test
+   void testTranslucentColors() throws Exception
+   {
+      Color glass  = new Color(255, 0, 0, 128);
+      Color shadow = new Color(0, 0, 0, 64);
+
+      ByteArrayOutputStream output = new ByteArrayOutputStream();
+      try(StreamingSvgWriter svg = new StreamingSvgWriter(output).withPrecision(0))
+      {
+         svg.startDocument(10, 10)
+            .rect(0, 0, 2, 2, glass, shadow, 1.0f)
+            .text(1, 2, "A", shadow, "sans-serif", 8)
+            .endDocument();
+      }
+
+      String inline = output.toString(StandardCharsets.UTF_8);
+      assertThat(inline).contains("fill=\"#ff0000\" fill-opacity=\"0.502\" stroke=\"#000000\" stroke-opacity=\"0.251\" stroke-width=\"1\"");
+      assertThat(inline).contains("fill=\"#000000\" fill-opacity=\"0.251\">A</text>");
+
+      SvgStyleSheet styleSheet = new SvgStyleSheet();
+      styleSheet.shapeClass(glass, shadow, 1.0f);
+
+      output = new ByteArrayOutputStream();
+      try(StreamingSvgWriter svg = new StreamingSvgWriter(output).withStyleSheet(styleSheet))
+      {
+         svg.startDocument(10, 10)
+            .rect(0, 0, 2, 2, glass, shadow, 1.0f)
+            .endDocument();
+      }
+
+      assertThat(output.toString(StandardCharsets.UTF_8))
+         .contains("<style>.s0{fill:#f00;fill-opacity:0.502;stroke:#000;stroke-opacity:0.251}</style>");
+   }
+
+
+
+   /*******************************************************************************
+    ** Test reduced precision rounding.
+    *******************************************************************************/
+   @Test
+   void testPrecision() throws Exception
+   {
+      ByteArrayOutputStream output = new ByteArrayOutputStream();
+      try(StreamingSvgWriter svg = new StreamingSvgWriter(output).withPrecision(1))
+      {
+         svg.startDocument(10, 10)
+            .rect(1.26, 2.04, 3.95, 0.0, Color.WHITE, null, 1.0f)
+            .endDocument();
+      }
+
+      assertThat(output.toString(StandardCharsets.UTF_8))
+         .contains("<rect x=\"1.3\" y=\"2\" width=\"4\" height=\"0\"");
+   }
+
+
+
+   /*******************************************************************************
+    ** Test text content is escaped.
+    *******************************************************************************/
+   @Test
+   void testTextEscaping() throws Exception
+   {
+      ByteArrayOutputStream output = new ByteArrayOutputStream();
+      try(StreamingSvgWriter svg = new StreamingSvgWriter(output))
+      {
+         svg.startDocument(10, 10)
+            .text(1, 2, "Base <B24> & \"Co\"", Color.BLACK, "sans-serif", 8)
+            .endDocument();
+      }
+
+      assertThat(output.toString(StandardCharsets.UTF_8))
+         .contains(">Base &lt;B24&gt; &amp; &quot;Co&quot;</text>");
+   }
+
+
+
+   /*******************************************************************************
+    ** Test compact mode writes a style block, classes and merged paths instead
+    ** of per-element paint attributes.
+    *******************************************************************************/
+   @Test
+   void testCompactMergesPaths() throws Exception
+   {
+      SvgStyleSheet styleSheet = new SvgStyleSheet();
+      String        panel      = styleSheet.shapeClass(new Color(240, 230, 210), Color.BLACK, 1.0f);
+      String        label      = styleSheet.textClass(Color.BLACK, "sans-serif", 8);
+
+      ByteArrayOutputStream output = new ByteArrayOutputStream();
+      try(StreamingSvgWriter svg = new StreamingSvgWriter(output).withStyleSheet(styleSheet))
+      {
+         svg.startDocument(10, 10)
+            .rect(0, 0, 2, 3, new Color(240, 230, 210), Color.BLACK, 1.0f)
+            .rect(2, 0, 2, 3, new Color(240, 230, 210), Color.BLACK, 1.0f)
+            .polygon(new double[] { 5, 6, 7 }, new double[] { 0, -1.5, 0 }, 3, new Color(240, 230, 210), Color.BLACK, 1.0f)
+            .text(1, 2, "A", Color.BLACK, "sans-serif", 8)
+            .endDocument();
+      }
+
+      assertThat(panel).isEqualTo("s0");
+      assertThat(label).isEqualTo("t0");
+      assertThat(output.toString(StandardCharsets.UTF_8)).isEqualTo("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"10\" height=\"10\" viewBox=\"0 0 10 10\">"
+         + "<style>.s0{fill:#f0e6d2;stroke:#000}.t0{font-family:sans-serif;font-size:8px}</style>"
+         + "<path class=\"s0\" d=\"M0 0H2V3H0z\"/>"
+         + "<path class=\"s0\" d=\"M2 0H4V3H2zM5 0 6-1.5 7 0z\"/>"
+         + "<text x=\"1\" y=\"2\" class=\"t0\">A</text></svg>\n");
+   }
+
+
+
+   /*******************************************************************************
+    ** Test overlapping shapes of the same class, and neighbours whose strokes
+    ** meet, are not merged into one path (a path paints every fill before any
+    ** stroke), while their draw order is kept.
+    *******************************************************************************/
+   @Test
+   void testCompactKeepsOverlapsSeparate() throws Exception
+   {
+      SvgStyleSheet styleSheet = new SvgStyleSheet();
+      styleSheet.shapeClass(Color.WHITE, Color.BLACK, 0.5f);
+
+      ByteArrayOutputStream output = new ByteArrayOutputStream();
+      try(StreamingSvgWriter svg = new StreamingSvgWriter(output).withStyleSheet(styleSheet))
+      {
+         svg.startDocument(10, 10)
+            .rect(0, 0, 4, 4, Color.WHITE, Color.BLACK, 0.5f)
+            .rect(2, 2, 4, 4, Color.WHITE, Color.BLACK, 0.5f)
+            .rect(6, 2, 1, 1, Color.RED, null, 1.0f)
+            .rect(0, 6, 2, 2, Color.WHITE, Color.BLACK, 0.5f)
+            .rect(2, 6, 2, 2, Color.WHITE, Color.BLACK, 0.5f)
+            .rect(4.5, 6, 1, 1, Color.WHITE, Color.BLACK, 0.5f)
+            .endDocument();
+      }
+
+      String svg = output.toString(StandardCharsets.UTF_8);
+      assertThat(svg).contains("<style>.s0{fill:#fff;stroke:#000;stroke-width:.5}</style>");
+      assertThat(svg).contains("<path class=\"s0\" d=\"M0 0H4V4H0z\"/><path class=\"s0\" d=\"M2 2H6V6H2z\"/>");
+
+      // Paints that were never registered fall back to inline attributes
+      assertThat(svg).contains("<rect x=\"6\" y=\"2\" width=\"1\" height=\"1\" fill=\"#f00\"/>");
+
+      // A shared edge keeps the second fill over the first stroke; strokes clear of each other merge
+      assertThat(svg).contains("<path class=\"s0\" d=\"M0 6H2V8H0z\"/><path class=\"s0\" d=\"M2 6H4V8H2zM4.5 6H5.5V7H4.5z\"/>");
+   }
+
+
+
+   /*******************************************************************************
+    ** Test compact numbers drop the leading zero of pure fractions.
+    *******************************************************************************/
+   @Test
+   void testCompactNumbers() throws Exception
+   {
+      SvgStyleSheet styleSheet = new SvgStyleSheet();
+      styleSheet.shapeClass(new Color(1, 2, 3), null, 1.0f);
+
+      ByteArrayOutputStream output = new ByteArrayOutputStream();
+      try(StreamingSvgWriter svg = new StreamingSvgWriter(output).withStyleSheet(styleSheet).withPrecision(2))
+      {
+         svg.startDocument(10, 10)
+            .rect(0.25, -0.5, 0.004, 1, new Color(1, 2, 3), null, 1.0f)
+            .endDocument();
+      }
+
+      String svg = output.toString(StandardCharsets.UTF_8);
+      assertThat(svg).contains(".s0{fill:#010203}");
+      assertThat(svg).contains("d=\"M.25-.5H.25V.5H.25z\"");
+   }
+}
@@ -1,15 +1,30 @@
 package com.makers4.rendering.export;
 
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.xml.parsers.DocumentBuilderFactory;
+import com.makers4.rendering.LevelOfDetail;
 import com.makers4.rendering.RenderSettings;
 import com.makers4.rendering.camera.ViewDirection;
+import com.makers4.rendering.core.Box3D;
 import com.makers4.rendering.scene.RenderStyle;
 import com.makers4.rendering.scene.SceneNode;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
 
 
 /*******************************************************************************
@@ -175,6 +190,175 @@ class SvgExporterTest
 
 
 
+   /*******************************************************************************
+    ** Test the streamed document is well-formed and has one element per part.
+    *******************************************************************************/
+   @Test
+   void testStreamedSvgIsWellFormed() throws Exception
+   {
+      SceneNode scene = createTestScene();
+      ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+      exporter.exportView(scene, ViewDirection.FRONT, settings.withLevelOfDetail(LevelOfDetail.FULL), output);
+
+      Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+         .parse(new ByteArrayInputStream(output.toByteArray()));
+
+      // Background plus cabinet and three panels
+      assertThat(document.getDocumentElement().getTagName()).isEqualTo("svg");
+      assertThat(document.getElementsByTagName("rect").getLength()).isEqualTo(5);
+   }
+
+
+
+   /*******************************************************************************
+    ** Test isometric views stream shaded faces as polygons.
+    *******************************************************************************/
+   @Test
+   void testStreamedIsometric() throws ExportException
+   {
+      SceneNode scene = createTestScene();
+      ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+      exporter.exportView(scene, ViewDirection.ISOMETRIC, RenderSettings.blueprint(), output);
+
+      // Four boxes, three faces each
+      String svgContent = output.toString(StandardCharsets.UTF_8);
+      assertThat(countOccurrences(svgContent, "<polygon")).isEqualTo(12);
+   }
+
+
+
+   /*******************************************************************************
+    ** Test a small isometric box streams as one silhouette polygon that spans
+    ** the box's full projected extents.
+    *******************************************************************************/
+   @Test
+   void testStreamedIsometricSilhouette() throws Exception
+   {
+      SceneNode box = new SceneNode("box")
+         .withSize(10, 10, 10)
+         .withStyle(RenderStyle.woodPanel());
+
+      RenderSettings previewSettings = RenderSettings.preview().withScale(2.0).withLevelOfDetail(LevelOfDetail.PREVIEW);
+      List<Shape>    polygons        = new ArrayList<>();
+      for(Shape shape : readVerboseShapes(parse(exportBytes(box, ViewDirection.ISOMETRIC, previewSettings))))
+      {
+         if(shape.coordinates().length > 4)
+         {
+            polygons.add(shape);
+         }
+      }
+      assertThat(polygons).hasSize(1);
+
+      double[] points = polygons.get(0).coordinates();
+      assertThat(points).hasSize(12);
+      double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE, maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+      for(int i = 0; i < points.length; i += 2)
+      {
+         minX = Math.min(minX, points[i]);
+         maxX = Math.max(maxX, points[i]);
+         minY = Math.min(minY, points[i + 1]);
+         maxY = Math.max(maxY, points[i + 1]);
+      }
+
+      PreparedView view = PreparedView.prepare(box, ViewDirection.ISOMETRIC, previewSettings);
+      assertThat(minX).isCloseTo(view.getProjectedX()[0], within(0.01));
+      assertThat(minY).isCloseTo(view.getProjectedY()[0], within(0.01));
+      assertThat(maxX - minX).isCloseTo(view.getProjectedWidth()[0], within(0.01));
+      assertThat(maxY - minY).isCloseTo(view.getProjectedHeight()[0], within(0.01));
+
+      // The outline is the hull: convex, with every projected corner on or inside it
+      double[] corners = view.getIsometricCorners();
+      for(int i = 0; i < points.length; i += 2)
+      {
+         int next = (i + 2) % points.length;
+         for(int j = 0; j < 16; j += 2)
+         {
+            assertThat(cross(points[i], points[i + 1], points[next], points[next + 1], corners[j], corners[j + 1]))
+               .as("corner %d against edge %d", j / 2, i / 2)
+               .isGreaterThanOrEqualTo(-0.01);
+         }
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** Which side of the line from (x1, y1) to (x2, y2) a point is on: the
+    ** sign says the side, zero is on the line.
+    *******************************************************************************/
+   private double cross(double x1, double y1, double x2, double y2, double x, double y)
+   {
+      return (x2 - x1) * (y - y1) - (y2 - y1) * (x - x1);
+   }
+
+
+
+   /*******************************************************************************
+    ** Test rendering a window of a scene as tiles.
+    *******************************************************************************/
+   @Test
+   void testExportWindowTiles() throws ExportException
+   {
+      SceneNode scene = createTestScene();
+
+      // Lower-left corner of the cabinet, 12" x 12" at 20 pt/in = 240pt square
+      List<RenderTile> tiles = exporter.exportWindow(scene, ViewDirection.FRONT,
+         Box3D.of(0, 0, 0, 12, 12, 0), 20.0, 100, settings);
+
+      // 3 x 3 grid, edge tiles trimmed to 40pt
+      assertThat(tiles).hasSize(9);
+      assertThat(tiles.get(0).key()).isEqualTo("0_0");
+      assertThat(tiles.get(0).width()).isEqualTo(100);
+      assertThat(tiles.get(2).width()).isEqualTo(40);
+      assertThat(tiles.get(8).height()).isEqualTo(40);
+      assertThat(tiles.get(4).x()).isEqualTo(100.0);
+      assertThat(tiles).allSatisfy(tile -> assertThat(tile.content()).contains("<svg"));
+   }
+
+
+
+   /*******************************************************************************
+    ** Test only nodes inside the window are drawn.
+    *******************************************************************************/
+   @Test
+   void testExportWindowCulling() throws ExportException
+   {
+      SceneNode scene = createTestScene();
+
+      // Window over the right side panel only - it is the only part drawn besides the case
+      RenderTile inside = exporter.exportWindow(scene, ViewDirection.FRONT,
+         Box3D.of(23, 10, 0, 1, 1, 0), 20.0, 100, settings).get(0);
+
+      // Window well outside the scene draws nothing but the background
+      RenderTile outside = exporter.exportWindow(scene, ViewDirection.FRONT,
+         Box3D.of(100, 100, 0, 5, 5, 0), 20.0, 100, settings).get(0);
+
+      assertThat(countOccurrences(inside.content(), "<rect")).isGreaterThan(countOccurrences(outside.content(), "<rect"));
+   }
+
+
+
+   /*******************************************************************************
+    ** Test isometric windows and invalid arguments.
+    *******************************************************************************/
+   @Test
+   void testExportWindowIsometric() throws ExportException
+   {
+      SceneNode scene = createTestScene();
+
+      List<RenderTile> tiles = exporter.exportWindow(scene, ViewDirection.ISOMETRIC,
+         scene.calculateTotalBounds(), 5.0, 256, settings);
+      assertThat(tiles).isNotEmpty();
+
+      assertThatThrownBy(() -> exporter.exportWindow(scene, ViewDirection.FRONT,
+         scene.calculateTotalBounds(), 5.0, 0, settings))
+         .isInstanceOf(ExportException.class);
+   }
+
+
+
    // ════════════════════════════════════════════════════════════════════════════
    // Helper methods
    // ════════════════════════════════════════════════════════════════════════════
@@ -204,4 +388,350 @@ class SvgExporterTest
 
       return root;
    }
+
+
+   /*******************************************************************************
+    ** Test compact output is much smaller than verbose output of the same view.
+    *******************************************************************************/
+   @Test
+   void testCompactOutputSize() throws ExportException
+   {
+      SceneNode scene = createCabinetBank(12);
+
+      for(ViewDirection view : List.of(ViewDirection.FRONT, ViewDirection.ISOMETRIC))
+      {
+         byte[] verbose = exportBytes(scene, view, RenderSettings.preview().withScale(10.0).withLevelOfDetail(LevelOfDetail.FULL));
+         byte[] compact = exportBytes(scene, view, RenderSettings.preview().withScale(10.0).withLevelOfDetail(LevelOfDetail.FULL)
+            .withCompactSvg(true).withSvgPrecision(2));
+
+         assertThat(compact.length)
+            .withFailMessage("Compact %s view is %d bytes, verbose is %d", view, compact.length, verbose.length)
+            .isLessThan(verbose.length * 7 / 10);
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** Test compact orthographic output draws the same shapes, paints and text,
+    ** in the same order, as verbose output (to within the rounding precision).
+    *******************************************************************************/
+   @Test
+   void testCompactOrthographicFidelity() throws Exception
+   {
+      assertCompactFidelity(ViewDirection.FRONT);
+      assertCompactFidelity(ViewDirection.TOP);
+   }
+
+
+
+   /*******************************************************************************
+    ** Test compact isometric output draws the same shaded faces as verbose output.
+    *******************************************************************************/
+   @Test
+   void testCompactIsometricFidelity() throws Exception
+   {
+      assertCompactFidelity(ViewDirection.ISOMETRIC);
+   }
+
+
+
+   /*******************************************************************************
+    ** Test compact output uses a style block, skips the prolog and never repeats
+    ** paint attributes inline.
+    *******************************************************************************/
+   @Test
+   void testCompactOutputStructure() throws Exception
+   {
+      byte[] compact = exportBytes(createCabinetBank(3), ViewDirection.FRONT,
+         RenderSettings.preview().withScale(10.0).withLevelOfDetail(LevelOfDetail.FULL).withCompactSvg(true));
+
+      String svgContent = new String(compact, StandardCharsets.UTF_8);
+      assertThat(svgContent).startsWith("<svg ");
+      assertThat(svgContent).contains("<style>");
+      assertThat(svgContent).doesNotContain("<rect").doesNotContain("fill=\"").doesNotContain("stroke-width=\"");
+
+      Document document = parse(compact);
+      assertThat(document.getElementsByTagName("path").getLength()).isGreaterThan(0);
+   }
+
+
+
+   /*******************************************************************************
+    ** Test a prepared view is exported at the level of detail it was prepared
+    ** with, even when the export settings name another: a part whose label
+    ** fits at full detail (but not in a preview) keeps its label.
+    *******************************************************************************/
+   @Test
+   void testExportPreparedUsesPreparedLevelOfDetail() throws ExportException
+   {
+      SceneNode root = new SceneNode("root").withSize(6, 4, 1);
+      root.addChild(new SceneNode("door")
+         .withLabel("DOOR")
+         .withSize(3, 2, 1)
+         .withStyle(RenderStyle.woodPanel()));
+
+      RenderSettings fullSettings    = RenderSettings.preview().withScale(10.0).withShowPartLabels(true).withLevelOfDetail(LevelOfDetail.FULL);
+      RenderSettings previewSettings = RenderSettings.preview().withScale(10.0).withShowPartLabels(true).withLevelOfDetail(LevelOfDetail.PREVIEW);
+      PreparedView   view            = PreparedView.prepare(root, ViewDirection.FRONT, fullSettings);
+
+      ByteArrayOutputStream prepared = new ByteArrayOutputStream();
+      exporter.exportPrepared(List.of(view), previewSettings, prepared);
+
+      assertThat(prepared.toString(StandardCharsets.UTF_8))
+         .contains(">DOOR</text>")
+         .isEqualTo(new String(exportBytes(root, ViewDirection.FRONT, fullSettings), StandardCharsets.UTF_8));
+      assertThat(new String(exportBytes(root, ViewDirection.FRONT, previewSettings), StandardCharsets.UTF_8))
+         .doesNotContain(">DOOR</text>");
+   }
+
+
+
+   /*******************************************************************************
+    ** Export a view and compare every shape and text element of the compact
+    ** document with the verbose one.
+    *******************************************************************************/
+   private void assertCompactFidelity(ViewDirection view) throws Exception
+   {
+      SceneNode scene     = createCabinetBank(4);
+      int       precision = 2;
+      double    tolerance = 2 * (0.5 / Math.pow(10, precision) + 0.0005);
+
+      Document verbose = parse(exportBytes(scene, view, RenderSettings.preview().withScale(10.0).withLevelOfDetail(LevelOfDetail.FULL)));
+      Document compact = parse(exportBytes(scene, view, RenderSettings.preview().withScale(10.0).withLevelOfDetail(LevelOfDetail.FULL)
+         .withCompactSvg(true).withSvgPrecision(precision)));
+
+      List<Shape> expectedShapes = readVerboseShapes(verbose);
+      List<Shape> actualShapes   = readCompactShapes(compact);
+      assertThat(expectedShapes).isNotEmpty();
+      assertThat(actualShapes).hasSameSizeAs(expectedShapes);
+      for(int i = 0; i < expectedShapes.size(); i++)
+      {
+         Shape expected = expectedShapes.get(i);
+         Shape actual   = actualShapes.get(i);
+         assertThat(actual.paint()).as("paint of shape %d", i).isEqualTo(expected.paint());
+         assertThat(actual.coordinates()).as("coordinates of shape %d", i).hasSameSizeAs(expected.coordinates());
+         for(int j = 0; j < expected.coordinates().length; j++)
+         {
+            assertThat(actual.coordinates()[j]).as("coordinate %d of shape %d", j, i)
+               .isCloseTo(expected.coordinates()[j], within(tolerance));
+         }
+      }
+
+      NodeList expectedText = verbose.getElementsByTagName("text");
+      NodeList actualText   = compact.getElementsByTagName("text");
+      Map<String, String> textRules = readStyleRules(compact);
+      assertThat(actualText.getLength()).isEqualTo(expectedText.getLength());
+      for(int i = 0; i < expectedText.getLength(); i++)
+      {
+         Element expected = (Element) expectedText.item(i);
+         Element actual   = (Element) actualText.item(i);
+         String  rule     = textRules.get(actual.getAttribute("class"));
+         assertThat(actual.getTextContent()).isEqualTo(expected.getTextContent());
+         assertThat(rule).contains("font-family:" + expected.getAttribute("font-family"));
+         assertThat(rule).contains("font-size:" + expected.getAttribute("font-size") + "px");
+      }
+   }
+
+
+
+   /*******************************************************************************
+    ** One drawn shape: a normalized "fill|stroke|width" paint and its
+    ** coordinates (x, y, width, height for rectangles; the points for polygons).
+    *******************************************************************************/
+   private record Shape(String paint, double[] coordinates)
+   {
+   }
+
+
+
+   /*******************************************************************************
+    ** Read the rect and polygon elements of a verbose document, in order.
+    *******************************************************************************/
+   private List<Shape> readVerboseShapes(Document document)
+   {
+      List<Shape> shapes   = new ArrayList<>();
+      NodeList    elements = document.getDocumentElement().getChildNodes();
+      for(int i = 0; i < elements.getLength(); i++)
+      {
+         if(!(elements.item(i) instanceof Element element))
+         {
+            continue;
+         }
+
+         String stroke = element.hasAttribute("stroke") ? normalizeColor(element.getAttribute("stroke")) : "none";
+         String width  = element.hasAttribute("stroke") ? element.getAttribute("stroke-width") : "0";
+         String paint  = normalizeColor(element.getAttribute("fill")) + "|" + stroke + "|" + Double.parseDouble(width);
+
+         if(element.getTagName().equals("rect"))
+         {
+            shapes.add(new Shape(paint, new double[] {
+               Double.parseDouble(element.getAttribute("x")), Double.parseDouble(element.getAttribute("y")),
+               Double.parseDouble(element.getAttribute("width")), Double.parseDouble(element.getAttribute("height")) }));
+         }
+         else if(element.getTagName().equals("polygon"))
+         {
+            String[] numbers     = element.getAttribute("points").split("[ ,]");
+            double[] coordinates = new double[numbers.length];
+            for(int j = 0; j < numbers.length; j++)
+            {
+               coordinates[j] = Double.parseDouble(numbers[j]);
+            }
+            shapes.add(new Shape(paint, coordinates));
+         }
+      }
+      return shapes;
+   }
+
+
+
+   /*******************************************************************************
+    ** Expand the merged paths of a compact document back into one shape per
+    ** subpath, resolving each path's class against the style block.
+    *******************************************************************************/
+   private List<Shape> readCompactShapes(Document document)
+   {
+      Map<String, String> rules    = readStyleRules(document);
+      List<Shape>         shapes   = new ArrayList<>();
+      NodeList            elements = document.getDocumentElement().getChildNodes();
+      for(int i = 0; i < elements.getLength(); i++)
+      {
+         if(!(elements.item(i) instanceof Element element) || !element.getTagName().equals("path"))
+         {
+            continue;
+         }
+
+         Map<String, String> properties = new HashMap<>();
+         for(String declaration : rules.get(element.getAttribute("class")).split(";"))
+         {
+            String[] pair = declaration.split(":");
+            properties.put(pair[0], pair[1]);
+         }
+
+         // Fill the SVG defaults back in: black fill, no stroke, stroke width 1
+         String stroke = properties.containsKey("stroke") ? normalizeColor(properties.get("stroke")) : "none";
+         String width  = properties.containsKey("stroke") ? properties.getOrDefault("stroke-width", "1") : "0";
+         String paint  = normalizeColor(properties.getOrDefault("fill", "#000")) + "|" + stroke + "|" + Double.parseDouble(width);
+
+         List<String> tokens  = new ArrayList<>();
+         Matcher      matcher = Pattern.compile("[MHVz]|-?(\\d+\\.?\\d*|\\.\\d+)").matcher(element.getAttribute("d"));
+         while(matcher.find())
+         {
+            tokens.add(matcher.group());
+         }
+
+         int t = 0;
+         while(t < tokens.size())
+         {
+            assertThat(tokens.get(t++)).isEqualTo("M");
+            double x = Double.parseDouble(tokens.get(t++));
+            double y = Double.parseDouble(tokens.get(t++));
+            if(tokens.get(t).equals("H"))
+            {
+               double right  = Double.parseDouble(tokens.get(t + 1));
+               double bottom = Double.parseDouble(tokens.get(t + 3));
+               assertThat(tokens.subList(t, t + 7)).containsExactly("H", tokens.get(t + 1), "V", tokens.get(t + 3), "H", tokens.get(t + 5), "z");
+               assertThat(Double.parseDouble(tokens.get(t + 5))).isEqualTo(x);
+               shapes.add(new Shape(paint, new double[] { x, y, right - x, bottom - y }));
+               t += 7;
+            }
+            else
+            {
+               List<Double> points = new ArrayList<>(List.of(x, y));
+               while(!tokens.get(t).equals("z"))
+               {
+                  points.add(Double.parseDouble(tokens.get(t++)));
+               }
+               t++;
+               shapes.add(new Shape(paint, points.stream().mapToDouble(Double::doubleValue).toArray()));
+            }
+         }
+      }
+      return shapes;
+   }
+
+
+
+   /*******************************************************************************
+    ** Read the class rules of a compact document's style block.
+    *******************************************************************************/
+   private Map<String, String> readStyleRules(Document document)
+   {
+      Map<String, String> rules   = new HashMap<>();
+      String              css     = document.getElementsByTagName("style").item(0).getTextContent();
+      Matcher             matcher = Pattern.compile("\\.(\\w+)\\{([^}]*)}").matcher(css);
+      while(matcher.find())
+      {
+         rules.put(matcher.group(1), matcher.group(2));
+      }
+      return rules;
+   }
+
+
+
+   /*******************************************************************************
+    ** Expand #rgb shorthand to #rrggbb.
+    *******************************************************************************/
+   private String normalizeColor(String color)
+   {
+      if(color.length() == 4 && color.startsWith("#"))
+      {
+         return "#" + color.charAt(1) + color.charAt(1) + color.charAt(2) + color.charAt(2) + color.charAt(3) + color.charAt(3);
+      }
+      return color;
+   }
+
+
+
+   private byte[] exportBytes(SceneNode scene, ViewDirection view, RenderSettings renderSettings) throws ExportException
+   {
+      ByteArrayOutputStream output = new ByteArrayOutputStream();
+      exporter.exportView(scene, view, renderSettings, output);
+      return output.toByteArray();
+   }
+
+
+
+   private Document parse(byte[] svg) throws Exception
+   {
+      return DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new ByteArrayInputStream(svg));
+   }
+
+
+
+   /*******************************************************************************
+    ** Create a run of labelled cabinets side by side, each with sides, a bottom,
+    ** a back and a door.
+    *******************************************************************************/
+   private SceneNode createCabinetBank(int cabinetCount)
+   {
+      SceneNode root = new SceneNode("bank").withLabel("Bank");
+      for(int i = 0; i < cabinetCount; i++)
+      {
+         SceneNode cabinet = new SceneNode("cabinet-" + i)
+            .withLabel("B" + (i + 1))
+            .withPosition(i * 18, 0, 0)
+            .withSize(18, 34.5, 24);
+         cabinet.addChild(new SceneNode("left-" + i).withPosition(0, 4.5, 0).withSize(0.75, 30, 23.25).withStyle(RenderStyle.woodPanel()));
+         cabinet.addChild(new SceneNode("right-" + i).withPosition(17.25, 4.5, 0).withSize(0.75, 30, 23.25).withStyle(RenderStyle.woodPanel()));
+         cabinet.addChild(new SceneNode("bottom-" + i).withPosition(0.75, 4.5, 0).withSize(16.5, 0.75, 23.25).withStyle(RenderStyle.woodPanel()));
+         cabinet.addChild(new SceneNode("back-" + i).withPosition(0.75, 5.25, 22.5).withSize(16.5, 29.25, 0.75).withStyle(RenderStyle.woodPanel()));
+         cabinet.addChild(new SceneNode("door-" + i).withLabel("Door").withPosition(0, 4.5, 23.25).withSize(18, 30, 0.75).withStyle(RenderStyle.woodPanel()));
+         root.addChild(cabinet);
+      }
+      return root;
+   }
+
+
+
+
+   private int countOccurrences(String text, String token)
+   {
+      int count = 0;
+      for(int i = text.indexOf(token); i >= 0; i = text.indexOf(token, i + 1))
+      {
+         count++;
+      }
+      return count;
+   }
 }
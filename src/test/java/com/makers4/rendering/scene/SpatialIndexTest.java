@@ -0,0 +1,100 @@
+package com.makers4.rendering.scene;
+
+
+import java.util.List;
+import com.makers4.rendering.core.Box3D;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+
+
+/*******************************************************************************
+ ** Unit tests for SpatialIndex class.
+ *******************************************************************************/
+class SpatialIndexTest
+{
+
+   /*******************************************************************************
+    ** Test index size and scene bounds.
+    *******************************************************************************/
+   @Test
+   void testBuild()
+   {
+      SpatialIndex index = SpatialIndex.build(createRun(10));
+
+      // Grouping root has no geometry - only the 10 cabinets are indexed
+      assertThat(index.size()).isEqualTo(10);
+      assertThat(index.getSceneBounds().width()).isEqualTo(240.0);
+      assertThat(index.getSceneBounds().height()).isEqualTo(34.5);
+   }
+
+
+
+   /*******************************************************************************
+    ** Test a window query returns only the intersecting nodes, in scene order.
+    *******************************************************************************/
+   @Test
+   void testQueryWindow()
+   {
+      SpatialIndex index = SpatialIndex.build(createRun(10));
+
+      List<SceneNode> result = index.query(Box3D.of(30, 0, 0, 30, 10, 24));
+
+      assertThat(result).extracting(SceneNode::getName)
+         .containsExactly("cabinet-1", "cabinet-2");
+   }
+
+
+
+   /*******************************************************************************
+    ** Test nested nodes are indexed with their world bounds.
+    *******************************************************************************/
+   @Test
+   void testQueryNested()
+   {
+      SceneNode root = createRun(3);
+      root.getChildren().get(2).addChild(new SceneNode("shelf")
+         .withPosition(1, 10, 1)
+         .withSize(22, 0.75, 22));
+
+      SpatialIndex index = SpatialIndex.build(root);
+
+      assertThat(index.query(Box3D.of(50, 10, 0, 1, 1, 1)))
+         .extracting(SceneNode::getName)
+         .containsExactly("cabinet-2", "shelf");
+      assertThat(index.query(Box3D.of(2, 10, 0, 1, 1, 1)))
+         .extracting(SceneNode::getName)
+         .containsExactly("cabinet-0");
+   }
+
+
+
+   /*******************************************************************************
+    ** Test windows outside the scene and empty scenes.
+    *******************************************************************************/
+   @Test
+   void testQueryOutside()
+   {
+      assertThat(SpatialIndex.build(createRun(5)).query(Box3D.of(500, 0, 0, 10, 10, 10))).isEmpty();
+      assertThat(SpatialIndex.build(new SceneNode("empty")).query(Box3D.of(0, 0, 0, 10, 10, 10))).isEmpty();
+   }
+
+
+
+   // ════════════════════════════════════════════════════════════════════════════
+   // Helper methods
+   // ════════════════════════════════════════════════════════════════════════════
+
+
+
+   private SceneNode createRun(int cabinetCount)
+   {
+      SceneNode root = new SceneNode("run");
+      for(int i = 0; i < cabinetCount; i++)
+      {
+         root.addChild(new SceneNode("cabinet-" + i)
+            .withPosition(i * 24, 0, 0)
+            .withSize(24, 34.5, 24));
+      }
+      return root;
+   }
+}